@@ -0,0 +1,88 @@
+package com.arjunai.project.benchmarks;
+
+import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.services.ApiLogService;
+import com.arjunai.project.services.LogPayloadEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one log lifecycle (startLog plus completeLog or logError) on the request thread.
+ * <p>
+ * {@code stub} is the hand-wired service over a repository that only assigns ids. {@code h2} boots
+ * the application without a web server against in-memory H2, so it also covers the circuit breaker
+ * and retry proxies, the transaction and the JPA insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiLogServiceBenchmark {
+
+    @Param({"stub", "h2"})
+    private String backend;
+
+    private ConfigurableApplicationContext context;
+    private ApiLogService apiLogService;
+    private IllegalArgumentException error;
+
+    @Setup
+    public void setUp() {
+        error = new IllegalArgumentException("Cannot divide by zero");
+        if ("stub".equals(backend)) {
+            apiLogService = Stubs.apiLogService();
+            return;
+        }
+        context = EmbeddedApplication.start("benchmark", WebApplicationType.NONE);
+        apiLogService = context.getBean(ApiLogService.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        if (context != null) {
+            context.getBean(JdbcTemplate.class).execute("TRUNCATE TABLE api_logs");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public ApiLog logSuccess() {
+        Instant startTime = Instant.now();
+        ApiLog apiLog = apiLogService.startLog("add", "/api/math/add", LogPayloadEncoder.encode("num1", 5.5, "num2", 3));
+        apiLogService.completeLog(apiLog, LogPayloadEncoder.encode("result", 8.5), startTime);
+        return apiLog;
+    }
+
+    @Benchmark
+    public ApiLog logError() {
+        Instant startTime = Instant.now();
+        ApiLog apiLog = apiLogService.startLog("divide", "/api/math/divide", LogPayloadEncoder.encode("num1", 5.5, "num2", 0));
+        apiLogService.logError(apiLog, error, startTime);
+        return apiLog;
+    }
+}
@@ -0,0 +1,150 @@
+package com.arjunai.project.benchmarks;
+
+import com.arjunai.project.config.ApiLogArchiveProperties;
+import com.arjunai.project.services.ApiLogArchiveScanner;
+import com.arjunai.project.services.ApiLogArchiver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-method and per-minute latency aggregates over one day of api logs, scanned from archive
+ * segments by ApiLogArchiveScanner ({@code archive}) and computed by GROUP BY queries over the same
+ * rows in in-memory H2 ({@code h2}). H2 keeps the rows in memory, so against MySQL the gap is wider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArchiveScanBenchmark {
+
+    private static final int ROWS = 500_000;
+    private static final Path ARCHIVE_DIRECTORY = Path.of("target", "archive-benchmark");
+    private static final String[] METHODS = {"add", "subtract", "multiply", "divide", "splitEqually", "splitWithTip"};
+
+    private static final String SUMMARY_SQL = """
+            SELECT method_name, ROUND(SUM(sample_weight)), ROUND(SUM(CASE WHEN successful THEN 0 ELSE sample_weight END)),
+                   SUM(execution_time_ms * sample_weight) / SUM(sample_weight), MIN(execution_time_ms), MAX(execution_time_ms)
+            FROM api_logs WHERE request_time >= ? AND request_time < ?
+            GROUP BY method_name
+            """;
+
+    private static final String PER_MINUTE_SQL = """
+            SELECT FLOOR(EXTRACT(EPOCH FROM request_time) / 60) AS minute_index, ROUND(SUM(sample_weight)),
+                   ROUND(SUM(CASE WHEN successful THEN 0 ELSE sample_weight END)),
+                   ROUND(SUM(execution_time_ms * sample_weight)), MIN(execution_time_ms), MAX(execution_time_ms)
+            FROM api_logs WHERE method_name = ? AND request_time >= ? AND request_time < ?
+            GROUP BY minute_index ORDER BY minute_index
+            """;
+
+    @Param({"archive", "h2"})
+    private String source;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private ApiLogArchiveScanner scanner;
+    private Instant from;
+    private Instant to;
+    private long invocations;
+
+    @Setup
+    public void setUp() throws IOException {
+        FileSystemUtils.deleteRecursively(ARCHIVE_DIRECTORY);
+        context = EmbeddedApplication.start("archive", WebApplicationType.NONE,
+                "--api-log.archive.directory=" + ARCHIVE_DIRECTORY);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        scanner = context.getBean(ApiLogArchiveScanner.class);
+        from = LocalDate.now(ZoneOffset.UTC).minusDays(10).atStartOfDay(ZoneOffset.UTC).toInstant();
+        to = from.plus(1, ChronoUnit.DAYS);
+
+        insertDay();
+        if ("archive".equals(source)) {
+            ApiLogArchiveProperties properties = context.getBean(ApiLogArchiveProperties.class);
+            properties.setEnabled(true);
+            context.getBean(ApiLogArchiver.class).archive();
+            properties.setEnabled(false);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object summarizeByMethod() {
+        Instant end = end();
+        if ("archive".equals(source)) {
+            return scanner.summarizeByMethod(from, end);
+        }
+        return jdbcTemplate.queryForList(SUMMARY_SQL, Timestamp.from(from), Timestamp.from(end));
+    }
+
+    @Benchmark
+    public Object perMinute() {
+        Instant end = end();
+        if ("archive".equals(source)) {
+            return scanner.perMinute("divide", from, end);
+        }
+        return jdbcTemplate.queryForList(PER_MINUTE_SQL, "divide", Timestamp.from(from), Timestamp.from(end));
+    }
+
+    /**
+     * H2 hands back the previous result of a query whose parameters and tables are unchanged, so the
+     * end of the range alternates by a millisecond to make every invocation compute its result.
+     */
+    private Instant end() {
+        return to.minusMillis(invocations++ & 1);
+    }
+
+    private void insertDay() {
+        Random random = new Random(42);
+        long dayMillis = TimeUnit.DAYS.toMillis(1);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < ROWS; i++) {
+            String method = METHODS[random.nextInt(METHODS.length)];
+            Instant requestTime = from.plusMillis(i * dayMillis / ROWS);
+            long executionTimeMs = (long) Math.abs(random.nextGaussian() * 20);
+            batch.add(new Object[]{i + 1L, method, "/api/" + method, Timestamp.from(requestTime),
+                    Timestamp.from(requestTime.plusMillis(executionTimeMs)), executionTimeMs,
+                    random.nextInt(100) != 0, random.nextInt(4) == 0 ? 1.0 : 8.0});
+            if (batch.size() == 10_000) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO api_logs (id, method_name, endpoint, request_time, response_time, "
+                + "execution_time_ms, successful, sample_weight) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+}
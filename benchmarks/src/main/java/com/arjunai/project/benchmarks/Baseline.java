@@ -0,0 +1,106 @@
+package com.arjunai.project.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-benchmark scores in a small JSON file keyed by {@code Class.method} plus parameters, e.g.
+ * <pre>
+ * "com.arjunai.project.benchmarks.SplitBenchmark.custom" : { "score" : 41.2, "unit" : "ns/op", "allocBytesPerOp" : 112.0 }
+ * </pre>
+ * Bytes allocated per operation (from JMH's GC profiler) barely depend on the machine, so they are
+ * compared tightly; times only mean something against a baseline recorded on the same hardware.
+ */
+final class Baseline {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+
+    /** Allocation differences up to this many bytes per op are treated as noise. */
+    private static final double ALLOC_SLACK_BYTES = 16;
+
+    record Entry(double score, String unit, double allocBytesPerOp) {
+    }
+
+    private Baseline() {
+    }
+
+    static Map<String, Entry> from(Collection<RunResult> results) {
+        Map<String, Entry> entries = new TreeMap<>();
+        for (RunResult run : results) {
+            Result<?> primary = run.getPrimaryResult();
+            Result<?> alloc = run.getSecondaryResults().get(ALLOC_NORM);
+            entries.put(key(run.getParams()), new Entry(primary.getScore(), primary.getScoreUnit(),
+                    alloc != null ? alloc.getScore() : Double.NaN));
+        }
+        return entries;
+    }
+
+    static String key(BenchmarkParams params) {
+        StringBuilder key = new StringBuilder(params.getBenchmark());
+        if (!params.getParamsKeys().isEmpty()) {
+            key.append('(');
+            String separator = "";
+            for (String name : params.getParamsKeys()) {
+                key.append(separator).append(name).append('=').append(params.getParam(name));
+                separator = ",";
+            }
+            key.append(')');
+        }
+        return key.toString();
+    }
+
+    static Map<String, Entry> read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), new TypeReference<TreeMap<String, Entry>>() { });
+    }
+
+    /**
+     * Merges {@code entries} into the file, keeping entries for benchmarks that were not run.
+     */
+    static void write(Path file, Map<String, Entry> entries) throws IOException {
+        Map<String, Entry> merged = file.toFile().exists() ? read(file) : new TreeMap<>();
+        merged.putAll(entries);
+        MAPPER.writeValue(file.toFile(), merged);
+    }
+
+    /**
+     * Lists the benchmarks in {@code current} that are slower or allocate more than the baseline
+     * allows. Benchmarks missing from the baseline are not regressions.
+     *
+     * @param timeTolerance Allowed relative slowdown, e.g. 0.25 for 25%; negative to skip time checks
+     * @param allocTolerance Allowed relative allocation growth on top of a fixed 16-byte slack
+     */
+    static List<String> regressions(Map<String, Entry> baseline, Map<String, Entry> current,
+                                    double timeTolerance, double allocTolerance) {
+        List<String> regressions = new ArrayList<>();
+        current.forEach((key, now) -> {
+            Entry before = baseline.get(key);
+            if (before == null) {
+                return;
+            }
+            if (timeTolerance >= 0 && before.unit().equals(now.unit())
+                    && now.score() > before.score() * (1 + timeTolerance)) {
+                regressions.add(String.format("%s: %.3f %s, baseline %.3f %s",
+                        key, now.score(), now.unit(), before.score(), before.unit()));
+            }
+            if (!Double.isNaN(before.allocBytesPerOp()) && !Double.isNaN(now.allocBytesPerOp())
+                    && now.allocBytesPerOp() > before.allocBytesPerOp() * (1 + allocTolerance) + ALLOC_SLACK_BYTES) {
+                regressions.add(String.format("%s: %.0f B/op allocated, baseline %.0f B/op",
+                        key, now.allocBytesPerOp(), before.allocBytesPerOp()));
+            }
+        });
+        return regressions;
+    }
+}
@@ -0,0 +1,76 @@
+package com.arjunai.project.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the benchmarks with the GC profiler, writes the full JMH results to
+ * {@code target/jmh-result.json} and compares them with a baseline file.
+ * <p>
+ * Usage: {@code BenchmarkRunner [include-regex] [--baseline file] [--update-baseline]
+ * [--time-tolerance 0.25] [--alloc-tolerance 0.10]}. Without {@code --update-baseline} it exits
+ * with status 1 when a benchmark regressed; {@code --time-tolerance -1} checks allocations only,
+ * which is the useful mode on hardware other than the baseline's.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String include = ".*Benchmark\\..*";
+        Path baselineFile = null;
+        boolean update = false;
+        double timeTolerance = 0.25;
+        double allocTolerance = 0.10;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--baseline" -> baselineFile = Path.of(args[++i]);
+                case "--update-baseline" -> update = true;
+                case "--time-tolerance" -> timeTolerance = Double.parseDouble(args[++i]);
+                case "--alloc-tolerance" -> allocTolerance = Double.parseDouble(args[++i]);
+                default -> include = args[i];
+            }
+        }
+
+        Path resultFile = Path.of("target", "jmh-result.json");
+        Files.createDirectories(resultFile.getParent());
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .build()).run();
+        Map<String, Baseline.Entry> current = Baseline.from(results);
+
+        if (baselineFile == null) {
+            return;
+        }
+        if (update) {
+            Baseline.write(baselineFile, current);
+            System.out.println("Updated " + current.size() + " entries in " + baselineFile);
+            return;
+        }
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No baseline at " + baselineFile + "; run with --update-baseline to record one");
+            return;
+        }
+        List<String> regressions = Baseline.regressions(Baseline.read(baselineFile), current, timeTolerance, allocTolerance);
+        if (regressions.isEmpty()) {
+            System.out.println("No regressions against " + baselineFile);
+            return;
+        }
+        System.out.println("Regressions against " + baselineFile + ":");
+        regressions.forEach(regression -> System.out.println("  " + regression));
+        System.exit(1);
+    }
+}
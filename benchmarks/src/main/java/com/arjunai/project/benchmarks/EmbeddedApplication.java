@@ -0,0 +1,53 @@
+package com.arjunai.project.benchmarks;
+
+import com.arjunai.project.Application;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against an in-memory H2 database in MySQL mode, standing in for the
+ * MySQL server the default configuration expects. Rollups and partition maintenance are off so
+ * background jobs don't compete with the measured work.
+ */
+final class EmbeddedApplication {
+
+    private EmbeddedApplication() {
+    }
+
+    /**
+     * @param database  H2 in-memory database name, shared by the JDBC and R2DBC URLs
+     * @param extraArgs Further {@code --key=value} properties, e.g. {@code --spring.profiles.active=reactive}
+     */
+    static ConfigurableApplicationContext start(String database, WebApplicationType webApplicationType,
+                                                String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.minimum-idle=1",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.username=sa",
+                "--spring.r2dbc.password=",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--api-log.journal.directory=target/" + database + "-journal",
+                "--api-log.rollup.enabled=false",
+                "--api-log.partitions.enabled=false",
+                "--api-log.archive.enabled=false",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(extraArgs));
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Application.class);
+        if (webApplicationType != null) {
+            builder.web(webApplicationType);
+        }
+        // Command-line arguments, so they override application.properties
+        return builder.run(args.toArray(new String[0]));
+    }
+}
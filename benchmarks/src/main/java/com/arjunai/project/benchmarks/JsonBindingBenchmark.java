@@ -0,0 +1,195 @@
+package com.arjunai.project.benchmarks;
+
+import com.arjunai.project.models.BinaryOperationRequest;
+import com.arjunai.project.models.ExpressionRequest;
+import com.arjunai.project.models.ExpressionResponse;
+import com.arjunai.project.models.ItemizedSplitRequest;
+import com.arjunai.project.models.ItemizedSplitResponse;
+import com.arjunai.project.models.MathBatchRequest;
+import com.arjunai.project.models.MathBatchResponse;
+import com.arjunai.project.models.OperationResult;
+import com.arjunai.project.services.BulkSplitProcessor;
+import com.arjunai.project.services.CompiledExpression;
+import com.arjunai.project.services.ExpressionCompiler;
+import com.arjunai.project.services.ItemizedSplitCalculator;
+import com.arjunai.project.services.MathBatchEvaluator;
+import com.arjunai.project.services.SplitCalculator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON binding of each endpoint's request body and response, with an ObjectMapper configured the
+ * way Spring Boot configures it. Readers and writers are resolved once per type, as the message
+ * converters do. {@code bulk} streams a whole NDJSON body through {@link BulkSplitProcessor}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBindingBenchmark {
+
+    private static final TypeReference<Map<String, Double>> DOUBLE_MAP = new TypeReference<>() { };
+
+    private ObjectReader binaryReader;
+    private ObjectReader mapReader;
+    private ObjectReader batchReader;
+    private ObjectReader expressionReader;
+    private ObjectReader itemizedReader;
+    private ObjectWriter resultWriter;
+    private ObjectWriter batchWriter;
+    private ObjectWriter expressionWriter;
+    private ObjectWriter itemizedWriter;
+    private ObjectWriter sharesWriter;
+
+    private byte[] binaryJson;
+    private byte[] batchJson;
+    private byte[] expressionJson;
+    private byte[] itemizedJson;
+    private byte[] byItemsJson;
+    private byte[] bulkBody;
+
+    private OperationResult result;
+    private MathBatchResponse batchResponse;
+    private ExpressionResponse expressionResponse;
+    private ItemizedSplitResponse itemizedResponse;
+    private double[] shares;
+
+    private ExecutorService executor;
+    private BulkSplitProcessor bulkSplitProcessor;
+    private ByteArrayOutputStream output;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        binaryReader = objectMapper.readerFor(BinaryOperationRequest.class);
+        mapReader = objectMapper.readerFor(DOUBLE_MAP);
+        batchReader = objectMapper.readerFor(MathBatchRequest.class);
+        expressionReader = objectMapper.readerFor(ExpressionRequest.class);
+        itemizedReader = objectMapper.readerFor(ItemizedSplitRequest.class);
+        resultWriter = objectMapper.writerFor(OperationResult.class);
+        batchWriter = objectMapper.writerFor(MathBatchResponse.class);
+        expressionWriter = objectMapper.writerFor(ExpressionResponse.class);
+        itemizedWriter = objectMapper.writerFor(ItemizedSplitResponse.class);
+        sharesWriter = objectMapper.writerFor(double[].class);
+
+        MathBatchRequest batch = Payloads.mathBatch();
+        ExpressionRequest expression = Payloads.expression();
+        ItemizedSplitRequest itemized = Payloads.itemized();
+        binaryJson = Payloads.BINARY_OPERATION.getBytes(StandardCharsets.UTF_8);
+        batchJson = objectMapper.writeValueAsBytes(batch);
+        expressionJson = objectMapper.writeValueAsBytes(expression);
+        itemizedJson = objectMapper.writeValueAsBytes(itemized);
+        byItemsJson = objectMapper.writeValueAsBytes(Payloads.byItems());
+        bulkBody = Payloads.bulkLines();
+
+        CompiledExpression plan = new ExpressionCompiler(new ConcurrentMapCacheManager()).compile(expression.expression());
+        result = new OperationResult(8.5);
+        batchResponse = MathBatchEvaluator.evaluate(batch);
+        expressionResponse = plan.evaluateAll(expression.resolvedBindings());
+        itemizedResponse = ItemizedSplitCalculator.split(itemized);
+        shares = SplitCalculator.splitCustomShares(187.45, Payloads.customRatios());
+
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        bulkSplitProcessor = new BulkSplitProcessor(objectMapper, executor);
+        output = new ByteArrayOutputStream(64 * 1024);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public BinaryOperationRequest readBinaryOperation() throws IOException {
+        return binaryReader.readValue(binaryJson);
+    }
+
+    // The pre-DTO binding of the same body, kept for comparison
+    @Benchmark
+    public Map<String, Double> readBinaryOperationAsMap() throws IOException {
+        return mapReader.readValue(binaryJson);
+    }
+
+    @Benchmark
+    public MathBatchRequest readMathBatch() throws IOException {
+        return batchReader.readValue(batchJson);
+    }
+
+    @Benchmark
+    public ExpressionRequest readExpression() throws IOException {
+        return expressionReader.readValue(expressionJson);
+    }
+
+    @Benchmark
+    public ItemizedSplitRequest readItemized() throws IOException {
+        return itemizedReader.readValue(itemizedJson);
+    }
+
+    @Benchmark
+    public Map<String, Double> readByItems() throws IOException {
+        return mapReader.readValue(byItemsJson);
+    }
+
+    @Benchmark
+    public int writeOperationResult() throws IOException {
+        return write(resultWriter, result);
+    }
+
+    @Benchmark
+    public int writeMathBatch() throws IOException {
+        return write(batchWriter, batchResponse);
+    }
+
+    @Benchmark
+    public int writeExpression() throws IOException {
+        return write(expressionWriter, expressionResponse);
+    }
+
+    @Benchmark
+    public int writeItemized() throws IOException {
+        return write(itemizedWriter, itemizedResponse);
+    }
+
+    @Benchmark
+    public int writeShares() throws IOException {
+        return write(sharesWriter, shares);
+    }
+
+    @Benchmark
+    public BulkSplitProcessor.Summary bulk() throws IOException {
+        output.reset();
+        return bulkSplitProcessor.process(new ByteArrayInputStream(bulkBody), output);
+    }
+
+    private int write(ObjectWriter writer, Object value) throws IOException {
+        output.reset();
+        writer.writeValue(output, value);
+        return output.size();
+    }
+}
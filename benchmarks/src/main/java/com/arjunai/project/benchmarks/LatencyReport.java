@@ -0,0 +1,128 @@
+package com.arjunai.project.benchmarks;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint HDR histograms of a load test run, in microseconds.
+ * <p>
+ * Every response is recorded twice. {@code corrected} is measured from the time the schedule
+ * intended to send the request, so a stall anywhere between the schedule and the server, including
+ * the generator's own GC pauses and connection setup, counts against every request that should have
+ * gone out during it. That is the latency a user arriving at that rate sees. {@code service} is
+ * measured from the moment the request was actually sent, the way a closed-loop tool such as JMeter
+ * times it; the gap between the two shows how much a send-time measurement would hide.
+ */
+final class LatencyReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final String ALL = "ALL";
+
+    static final class EndpointLatency {
+        private final Histogram corrected = new ConcurrentHistogram(3);
+        private final Histogram service = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long correctedNanos, long serviceNanos, boolean successful) {
+            corrected.recordValue(Math.max(1, correctedNanos / 1000));
+            service.recordValue(Math.max(1, serviceNanos / 1000));
+            if (!successful) {
+                errors.increment();
+            }
+        }
+    }
+
+    private final Map<String, EndpointLatency> endpoints = new LinkedHashMap<>();
+
+    LatencyReport(List<String> endpointNames) {
+        for (String name : endpointNames) {
+            endpoints.put(name, new EndpointLatency());
+        }
+    }
+
+    EndpointLatency endpoint(String name) {
+        return endpoints.get(name);
+    }
+
+    /**
+     * Histograms per endpoint plus an {@code ALL} row merging them.
+     */
+    private Map<String, EndpointLatency> withTotal() {
+        EndpointLatency total = new EndpointLatency();
+        for (EndpointLatency latency : endpoints.values()) {
+            total.corrected.add(latency.corrected);
+            total.service.add(latency.service);
+            total.errors.add(latency.errors.sum());
+        }
+        Map<String, EndpointLatency> rows = new LinkedHashMap<>(endpoints);
+        rows.put(ALL, total);
+        return rows;
+    }
+
+    void print(PrintStream out, double targetRate, double achievedRate) {
+        out.printf(Locale.ROOT, "Target rate %.1f req/s, achieved %.1f req/s%n", targetRate, achievedRate);
+        out.printf(Locale.ROOT, "%-36s %8s %7s %9s %9s %9s %9s %9s | %9s%n",
+                "Corrected latency (ms)", "count", "errors", "p50", "p90", "p99", "p99.9", "max", "svc p99");
+        for (Map.Entry<String, EndpointLatency> row : withTotal().entrySet()) {
+            Histogram corrected = row.getValue().corrected;
+            out.printf(Locale.ROOT, "%-36s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f | %9.2f%n",
+                    row.getKey(), corrected.getTotalCount(), row.getValue().errors.sum(),
+                    millis(corrected.getValueAtPercentile(50)),
+                    millis(corrected.getValueAtPercentile(90)),
+                    millis(corrected.getValueAtPercentile(99)),
+                    millis(corrected.getValueAtPercentile(99.9)),
+                    millis(corrected.getMaxValue()),
+                    millis(row.getValue().service.getValueAtPercentile(99)));
+        }
+    }
+
+    /**
+     * Writes one row per endpoint and latency kind, and the full percentile distribution of all
+     * corrected latencies next to it as {@code .hgrm} for HdrHistogram's plotter.
+     */
+    void writeCsv(Path csvFile) throws IOException {
+        Path parent = csvFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Map<String, EndpointLatency> rows = withTotal();
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(csvFile))) {
+            csv.println("endpoint,latency,count,errors,mean_ms,p50_ms,p90_ms,p99_ms,p99_9_ms,p99_99_ms,max_ms");
+            for (Map.Entry<String, EndpointLatency> row : rows.entrySet()) {
+                writeCsvRow(csv, row.getKey(), "corrected", row.getValue().corrected, row.getValue().errors.sum());
+                writeCsvRow(csv, row.getKey(), "service", row.getValue().service, row.getValue().errors.sum());
+            }
+        }
+        String fileName = csvFile.getFileName().toString().replaceFirst("\\.csv$", "");
+        try (PrintStream hgrm = new PrintStream(Files.newOutputStream(parent.resolve(fileName + ".hgrm")))) {
+            rows.get(ALL).corrected.outputPercentileDistribution(hgrm, 1000.0);
+        }
+    }
+
+    private static void writeCsvRow(PrintWriter csv, String endpoint, String kind, Histogram histogram, long errors) {
+        StringBuilder row = new StringBuilder()
+                .append('"').append(endpoint).append('"').append(',')
+                .append(kind).append(',')
+                .append(histogram.getTotalCount()).append(',')
+                .append(errors).append(',')
+                .append(String.format(Locale.ROOT, "%.3f", histogram.getMean() / 1000));
+        for (double percentile : PERCENTILES) {
+            row.append(',').append(String.format(Locale.ROOT, "%.3f", millis(histogram.getValueAtPercentile(percentile))));
+        }
+        row.append(',').append(String.format(Locale.ROOT, "%.3f", millis(histogram.getMaxValue())));
+        csv.println(row);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
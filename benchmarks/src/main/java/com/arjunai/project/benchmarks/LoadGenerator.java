@@ -0,0 +1,184 @@
+package com.arjunai.project.benchmarks;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Open-loop HTTP load generator for the math and split APIs.
+ * <p>
+ * Requests go out on a fixed schedule, round-robin over the endpoints, whether or not earlier
+ * responses have arrived. Each request runs on its own virtual thread on JDK 21, or on a cached
+ * platform-thread pool on older JDKs. Latency is recorded from the scheduled send time as well as
+ * from the actual one; see {@link LatencyReport}. Without {@code --target} the application is
+ * booted in-process on a random port against in-memory H2, so no MySQL server is needed.
+ * <p>
+ * Usage: {@code LoadGenerator [--rate 200] [--duration 30] [--warmup 10] [--target http://host:8080]
+ * [--profile reactive] [--endpoints regex] [--timeout 10] [--csv target/loadtest.csv]}.
+ * Rate is in requests per second for all endpoints together; durations are in seconds.
+ */
+public final class LoadGenerator {
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final List<LoadTestEndpoints.Endpoint> endpoints;
+
+    private LoadGenerator(HttpClient client, ExecutorService executor, List<LoadTestEndpoints.Endpoint> endpoints) {
+        this.client = client;
+        this.executor = executor;
+        this.endpoints = endpoints;
+    }
+
+    public static void main(String[] args) throws Exception {
+        double rate = 200;
+        long durationSeconds = 30;
+        long warmupSeconds = 10;
+        String target = null;
+        String profile = null;
+        Pattern include = Pattern.compile("");
+        Duration timeout = Duration.ofSeconds(10);
+        Path csvFile = Path.of("target", "loadtest.csv");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rate" -> rate = Double.parseDouble(args[++i]);
+                case "--duration" -> durationSeconds = Long.parseLong(args[++i]);
+                case "--warmup" -> warmupSeconds = Long.parseLong(args[++i]);
+                case "--target" -> target = args[++i];
+                case "--profile" -> profile = args[++i];
+                case "--endpoints" -> include = Pattern.compile(args[++i]);
+                case "--timeout" -> timeout = Duration.ofSeconds(Long.parseLong(args[++i]));
+                case "--csv" -> csvFile = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        if (!(rate > 0) || durationSeconds <= 0 || warmupSeconds < 0) {
+            throw new IllegalArgumentException("Rate and duration must be greater than zero");
+        }
+
+        ConfigurableApplicationContext context = null;
+        ExecutorService executor = newRequestExecutor();
+        try {
+            URI baseUri;
+            if (target != null) {
+                baseUri = URI.create(target);
+            } else {
+                List<String> appArgs = new ArrayList<>(List.of("--server.port=0"));
+                if (profile != null) {
+                    appArgs.add("--spring.profiles.active=" + profile);
+                }
+                context = EmbeddedApplication.start("loadtest", null, appArgs.toArray(new String[0]));
+                baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            }
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(timeout)
+                    .executor(executor)
+                    .build();
+            LoadGenerator generator = new LoadGenerator(client, executor,
+                    LoadTestEndpoints.all(baseUri, include, timeout));
+
+            System.out.printf("Driving %d endpoints on %s at %.1f req/s%n", generator.endpoints.size(), baseUri, rate);
+            if (warmupSeconds > 0) {
+                generator.run("Warm-up", rate, warmupSeconds, timeout);
+            }
+            LatencyReport report = generator.run("Measurement", rate, durationSeconds, timeout);
+            report.writeCsv(csvFile);
+            System.out.println("Wrote " + csvFile);
+        } finally {
+            executor.shutdownNow();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Sends {@code rate * seconds} requests at evenly spaced intended start times and waits for the
+     * responses, giving up on stragglers one timeout after the last send.
+     */
+    private LatencyReport run(String phase, double rate, long seconds, Duration timeout) throws InterruptedException {
+        LatencyReport report = new LatencyReport(endpoints.stream().map(LoadTestEndpoints.Endpoint::name).toList());
+        long total = Math.round(rate * seconds);
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("At most " + Integer.MAX_VALUE + " requests per run");
+        }
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        CountDownLatch completed = new CountDownLatch((int) total);
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // Falling behind doesn't move the schedule: a late send still counts from its intended time
+            LoadTestEndpoints.Endpoint endpoint = endpoints.get((int) (i % endpoints.size()));
+            LatencyReport.EndpointLatency latency = report.endpoint(endpoint.name());
+            executor.execute(() -> {
+                try {
+                    send(endpoint, intended, latency);
+                } finally {
+                    completed.countDown();
+                }
+            });
+        }
+        long sendNanos = System.nanoTime() - start;
+        if (!completed.await(timeout.toNanos() + TimeUnit.SECONDS.toNanos(1), TimeUnit.NANOSECONDS)) {
+            System.out.println(completed.getCount() + " requests still outstanding, not recorded");
+        }
+        System.out.println(phase + ", " + seconds + " s");
+        report.print(System.out, rate, total / (sendNanos / 1e9));
+        return report;
+    }
+
+    private void send(LoadTestEndpoints.Endpoint endpoint, long intended, LatencyReport.EndpointLatency latency) {
+        long sent = System.nanoTime();
+        boolean successful;
+        try {
+            HttpResponse<Void> response = client.send(endpoint.request(), HttpResponse.BodyHandlers.discarding());
+            successful = response.statusCode() < 400;
+        } catch (IOException e) {
+            successful = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long done = System.nanoTime();
+        latency.record(done - intended, done - sent, successful);
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()} when the JDK has it (21+), looked up
+     * reflectively because the module compiles for 17.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            System.out.println("Sending requests on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            System.out.println("Virtual threads unavailable on JDK " + Runtime.version().feature()
+                    + "; sending requests on a cached thread pool");
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "load-generator");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
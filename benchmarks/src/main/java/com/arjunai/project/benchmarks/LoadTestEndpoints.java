@@ -0,0 +1,101 @@
+package com.arjunai.project.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * One prebuilt request per {@code /api/math} and {@code /api/split} endpoint, using the same seeded
+ * payloads as the JMH benchmarks. {@link HttpRequest}s are immutable, so each is built once and
+ * sent as many times as the schedule asks for.
+ */
+final class LoadTestEndpoints {
+
+    private static final String JSON = "application/json";
+    private static final String NDJSON = "application/x-ndjson";
+
+    record Endpoint(String name, HttpRequest request) {
+    }
+
+    private LoadTestEndpoints() {
+    }
+
+    /**
+     * @param baseUri Scheme, host and port of the application
+     * @param include Endpoint names to keep, matched with {@link java.util.regex.Matcher#find()}
+     */
+    static List<Endpoint> all(URI baseUri, Pattern include, Duration timeout) throws JsonProcessingException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        String batch = mapper.writeValueAsString(Payloads.mathBatch());
+        String expression = mapper.writeValueAsString(Payloads.expression());
+        String itemized = mapper.writeValueAsString(Payloads.itemized());
+        String byItems = mapper.writeValueAsString(Payloads.byItems());
+        String settlement = mapper.writeValueAsString(Payloads.settlement(Payloads.SETTLEMENT_MEMBERS));
+
+        StringBuilder customQuery = new StringBuilder("amount=245.50");
+        for (double ratio : Payloads.customRatios()) {
+            customQuery.append("&ratios=").append(ratio);
+        }
+        StringBuilder byItemsQuery = new StringBuilder();
+        for (String participant : Payloads.byItemsParticipants()) {
+            byItemsQuery.append(byItemsQuery.length() == 0 ? "" : "&").append("participants=").append(participant);
+        }
+
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (String operation : new String[]{"add", "subtract", "multiply", "divide"}) {
+            endpoints.add(post(baseUri, timeout, "/api/math/" + operation, Payloads.BINARY_OPERATION, JSON));
+        }
+        endpoints.add(post(baseUri, timeout, "/api/math/batch", batch, JSON));
+        endpoints.add(post(baseUri, timeout, "/api/math/evaluate", expression, JSON));
+        endpoints.add(get(baseUri, timeout, "/api/math/evaluate/cache-stats"));
+        endpoints.add(get(baseUri, timeout, "/api/split/equal?amount=245.50&people=6"));
+        endpoints.add(get(baseUri, timeout, "/api/split/with-tip?amount=245.50&people=6&tipPercentage=15"));
+        endpoints.add(get(baseUri, timeout, "/api/split/equal/shares?amount=245.50&people=6"));
+        endpoints.add(get(baseUri, timeout, "/api/split/with-tip/shares?amount=245.50&people=6&tipPercentage=15"));
+        endpoints.add(post(baseUri, timeout, "/api/split/custom?" + customQuery, "", JSON));
+        endpoints.add(post(baseUri, timeout, "/api/split/byItems?" + byItemsQuery, byItems, JSON));
+        endpoints.add(post(baseUri, timeout, "/api/split/itemized", itemized, JSON));
+        endpoints.add(post(baseUri, timeout, "/api/split/settle", settlement, JSON));
+        endpoints.add(post(baseUri, timeout, "/api/split/bulk", new String(Payloads.bulkLines(), StandardCharsets.UTF_8), NDJSON));
+
+        List<Endpoint> selected = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            if (include.matcher(endpoint.name()).find()) {
+                selected.add(endpoint);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No endpoint matches " + include);
+        }
+        return selected;
+    }
+
+    private static Endpoint get(URI baseUri, Duration timeout, String pathAndQuery) {
+        return new Endpoint(name("GET", pathAndQuery), HttpRequest.newBuilder(baseUri.resolve(pathAndQuery))
+                .timeout(timeout)
+                .GET()
+                .build());
+    }
+
+    private static Endpoint post(URI baseUri, Duration timeout, String pathAndQuery, String body, String contentType) {
+        return new Endpoint(name("POST", pathAndQuery), HttpRequest.newBuilder(baseUri.resolve(pathAndQuery))
+                .timeout(timeout)
+                .header("Content-Type", contentType)
+                .header("Accept", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private static String name(String method, String pathAndQuery) {
+        int query = pathAndQuery.indexOf('?');
+        return method + " " + (query < 0 ? pathAndQuery : pathAndQuery.substring(0, query));
+    }
+}
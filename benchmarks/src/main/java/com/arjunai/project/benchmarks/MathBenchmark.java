@@ -0,0 +1,97 @@
+package com.arjunai.project.benchmarks;
+
+import com.arjunai.project.controllers.MathOperationsController;
+import com.arjunai.project.models.BinaryOperationRequest;
+import com.arjunai.project.models.ExpressionRequest;
+import com.arjunai.project.models.ExpressionResponse;
+import com.arjunai.project.models.MathBatchRequest;
+import com.arjunai.project.models.MathBatchResponse;
+import com.arjunai.project.models.OperationResult;
+import com.arjunai.project.services.CompiledExpression;
+import com.arjunai.project.services.ExpressionCompiler;
+import com.arjunai.project.services.MathBatchEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per /api/math computation. The single operations go through the controller with
+ * a stubbed log repository, so they include building the log entry; the expression benchmarks
+ * split compiling a plan (a cache miss) from evaluating an already compiled one (a cache hit).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathBenchmark {
+
+    private MathOperationsController controller;
+    private ExpressionCompiler compiler;
+    private BinaryOperationRequest operands;
+    private MathBatchRequest batch;
+    private String expression;
+    private CompiledExpression plan;
+    private List<Map<String, Double>> bindings;
+
+    @Setup
+    public void setUp() {
+        // Called directly, compile() bypasses the @Cacheable proxy and parses every time
+        compiler = new ExpressionCompiler(new ConcurrentMapCacheManager());
+        controller = new MathOperationsController(Stubs.apiLogService(), compiler);
+        operands = new BinaryOperationRequest(5.5, 3);
+        batch = Payloads.mathBatch();
+        ExpressionRequest request = Payloads.expression();
+        expression = request.expression();
+        plan = compiler.compile(expression);
+        bindings = request.resolvedBindings();
+    }
+
+    @Benchmark
+    public OperationResult add() {
+        return controller.add(operands);
+    }
+
+    @Benchmark
+    public OperationResult subtract() {
+        return controller.subtract(operands);
+    }
+
+    @Benchmark
+    public OperationResult multiply() {
+        return controller.multiply(operands);
+    }
+
+    @Benchmark
+    public OperationResult divide() {
+        return controller.divide(operands);
+    }
+
+    @Benchmark
+    public MathBatchResponse batch() {
+        return MathBatchEvaluator.evaluate(batch);
+    }
+
+    @Benchmark
+    public CompiledExpression compileExpression() {
+        return compiler.compile(expression);
+    }
+
+    @Benchmark
+    public ExpressionResponse evaluateCompiled() {
+        return plan.evaluateAll(bindings);
+    }
+}
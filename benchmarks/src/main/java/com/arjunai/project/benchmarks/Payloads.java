@@ -0,0 +1,142 @@
+package com.arjunai.project.benchmarks;
+
+import com.arjunai.project.models.ExpressionRequest;
+import com.arjunai.project.models.ItemizedSplitRequest;
+import com.arjunai.project.models.MathBatchRequest;
+import com.arjunai.project.models.SettlementRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Representative request for each endpoint, as objects and as the JSON a client would send.
+ * Sizes are fixed and the data is seeded, so runs are comparable with the baseline.
+ */
+final class Payloads {
+
+    static final int BATCH_SIZE = 1000;
+    static final int BINDINGS = 100;
+    static final int PARTICIPANTS = 6;
+    static final int ITEMS = 50;
+    static final int BULK_LINES = 1000;
+    static final int SETTLEMENT_MEMBERS = 50;
+
+    static final String BINARY_OPERATION = "{\"num1\":5.5,\"num2\":3}";
+
+    private Payloads() {
+    }
+
+    static MathBatchRequest mathBatch() {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] ops = new int[BATCH_SIZE];
+        double[] lhs = new double[BATCH_SIZE];
+        double[] rhs = new double[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ops[i] = random.nextInt(4);
+            lhs[i] = random.nextDouble(-1000, 1000);
+            rhs[i] = random.nextInt(10) == 0 ? 0 : random.nextDouble(-1000, 1000);
+        }
+        return new MathBatchRequest(ops, lhs, rhs);
+    }
+
+    static ExpressionRequest expression() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Map<String, Double>> bindings = new ArrayList<>(BINDINGS);
+        for (int i = 0; i < BINDINGS; i++) {
+            Map<String, Double> binding = new LinkedHashMap<>();
+            binding.put("price", random.nextDouble(1, 100));
+            binding.put("qty", (double) random.nextInt(1, 10));
+            binding.put("tax", random.nextDouble(0, 20));
+            bindings.add(binding);
+        }
+        return new ExpressionRequest("price * qty * (1 + tax / 100) - min(price, 5)", null, bindings);
+    }
+
+    static ItemizedSplitRequest itemized() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] participants = new String[PARTICIPANTS];
+        for (int p = 0; p < PARTICIPANTS; p++) {
+            participants[p] = "Guest " + (p + 1);
+        }
+        List<ItemizedSplitRequest.Item> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            double price = Math.round(random.nextDouble(2, 60) * 100) / 100.0;
+            switch (i % 3) {
+                case 0 -> items.add(new ItemizedSplitRequest.Item("Item " + i, price, null, null));
+                case 1 -> items.add(new ItemizedSplitRequest.Item("Item " + i, price,
+                        new int[]{i % PARTICIPANTS, (i + 1) % PARTICIPANTS}, null));
+                default -> items.add(new ItemizedSplitRequest.Item("Item " + i, price,
+                        new int[]{i % PARTICIPANTS, (i + 2) % PARTICIPANTS}, new double[]{2, 1}));
+            }
+        }
+        return new ItemizedSplitRequest(participants, items, 8.5, 15);
+    }
+
+    /**
+     * A group with two expenses per member: every tenth is shared by everyone, the others by two to
+     * six members, every other one of those weighted.
+     */
+    static SettlementRequest settlement(int memberCount) {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] members = new String[memberCount];
+        for (int m = 0; m < memberCount; m++) {
+            members[m] = "Member " + (m + 1);
+        }
+        int expenseCount = memberCount * 2;
+        List<SettlementRequest.Expense> expenses = new ArrayList<>(expenseCount);
+        for (int e = 0; e < expenseCount; e++) {
+            int payer = random.nextInt(memberCount);
+            double amount = Math.round(random.nextDouble(5, 500) * 100) / 100.0;
+            if (e % 10 == 0) {
+                expenses.add(new SettlementRequest.Expense(payer, amount, null, null));
+                continue;
+            }
+            int[] beneficiaries = new int[2 + random.nextInt(5)];
+            for (int k = 0; k < beneficiaries.length; k++) {
+                beneficiaries[k] = random.nextInt(memberCount);
+            }
+            double[] ratios = e % 2 == 0 ? null : random.doubles(beneficiaries.length, 1, 3).toArray();
+            expenses.add(new SettlementRequest.Expense(payer, amount, beneficiaries, ratios));
+        }
+        return new SettlementRequest(members, expenses);
+    }
+
+    static Map<String, Double> byItems() {
+        SplittableRandom random = new SplittableRandom(42);
+        Map<String, Double> items = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            items.put("Item " + i, Math.round(random.nextDouble(2, 60) * 100) / 100.0);
+        }
+        return items;
+    }
+
+    static String[] byItemsParticipants() {
+        return new String[]{"Alice", "Bob", "Carol"};
+    }
+
+    static double[] customRatios() {
+        return new double[]{1, 2, 3, 2.5, 1.5};
+    }
+
+    static byte[] bulkLines() {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder body = new StringBuilder(BULK_LINES * 48);
+        for (int i = 0; i < BULK_LINES; i++) {
+            double amount = Math.round(random.nextDouble(1, 500) * 100) / 100.0;
+            switch (i % 3) {
+                case 0 -> body.append("{\"mode\":\"equal\",\"amount\":").append(amount)
+                        .append(",\"people\":").append(random.nextInt(1, 10)).append("}\n");
+                case 1 -> body.append("{\"mode\":\"with-tip\",\"amount\":").append(amount)
+                        .append(",\"people\":").append(random.nextInt(1, 10))
+                        .append(",\"tipPercentage\":15}\n");
+                default -> body.append("{\"mode\":\"custom\",\"amount\":").append(amount)
+                        .append(",\"ratios\":[1,2,3]}\n");
+            }
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
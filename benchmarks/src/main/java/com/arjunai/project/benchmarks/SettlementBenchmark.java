@@ -0,0 +1,46 @@
+package com.arjunai.project.benchmarks;
+
+import com.arjunai.project.models.SettlementRequest;
+import com.arjunai.project.models.SettlementResponse;
+import com.arjunai.project.services.SettlementCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SettlementCalculator#settle} for a group with two expenses per member, from a dinner club
+ * up to 100k members: net balances plus the greedy transfer matching, as /api/split/settle runs it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementBenchmark {
+
+    @Param({"50", "100000"})
+    private int members;
+
+    private SettlementRequest request;
+
+    @Setup
+    public void setUp() {
+        request = Payloads.settlement(members);
+    }
+
+    @Benchmark
+    public SettlementResponse settle() {
+        return SettlementCalculator.settle(request);
+    }
+}
@@ -0,0 +1,65 @@
+package com.arjunai.project.benchmarks;
+
+import com.arjunai.project.services.MoneyAllocator;
+import com.arjunai.project.services.SplitCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the double-based {@link SplitCalculator#splitCustom} with the exact-cent
+ * {@link MoneyAllocator#allocate} for ratio arrays from a dinner table up to 100k entries.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplitAllocationBenchmark {
+
+    @Param({"8", "1000", "100000"})
+    private int size;
+
+    private double amount;
+    private long amountMinor;
+    private double[] ratios;
+    private double[] doubleShares;
+    private long[] minorShares;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        ratios = new double[size];
+        for (int i = 0; i < size; i++) {
+            ratios[i] = 1 + random.nextInt(100);
+        }
+        amount = 98765.43;
+        amountMinor = MoneyAllocator.toMinorUnits(amount);
+        doubleShares = new double[size];
+        minorShares = new long[size];
+    }
+
+    @Benchmark
+    public double[] splitCustomDouble() {
+        SplitCalculator.splitCustom(amount, ratios, 0, size, doubleShares);
+        return doubleShares;
+    }
+
+    @Benchmark
+    public long[] allocateExactCents() {
+        MoneyAllocator.allocate(amountMinor, ratios, 0, size, minorShares);
+        return minorShares;
+    }
+}
@@ -0,0 +1,85 @@
+package com.arjunai.project.benchmarks;
+
+import com.arjunai.project.models.ItemizedSplitRequest;
+import com.arjunai.project.models.ItemizedSplitResponse;
+import com.arjunai.project.services.ItemizedSplitCalculator;
+import com.arjunai.project.services.SplitCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per /api/split computation, on the same inputs the controllers would pass.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplitBenchmark {
+
+    private double amount;
+    private int people;
+    private double tipPercentage;
+    private double[] ratios;
+    private Map<String, Double> items;
+    private String[] participants;
+    private ItemizedSplitRequest itemized;
+
+    @Setup
+    public void setUp() {
+        amount = 187.45;
+        people = 7;
+        tipPercentage = 18;
+        ratios = Payloads.customRatios();
+        items = Payloads.byItems();
+        participants = Payloads.byItemsParticipants();
+        itemized = Payloads.itemized();
+    }
+
+    @Benchmark
+    public double equal() {
+        return SplitCalculator.splitEqually(amount, people);
+    }
+
+    @Benchmark
+    public double withTip() {
+        return SplitCalculator.splitWithTip(amount, people, tipPercentage);
+    }
+
+    @Benchmark
+    public double[] equalShares() {
+        return SplitCalculator.splitEquallyShares(amount, people);
+    }
+
+    @Benchmark
+    public double[] withTipShares() {
+        return SplitCalculator.splitWithTipShares(amount, people, tipPercentage);
+    }
+
+    @Benchmark
+    public double[] custom() {
+        return SplitCalculator.splitCustomShares(amount, ratios);
+    }
+
+    @Benchmark
+    public Map<String, Double> byItems() {
+        return ItemizedSplitCalculator.splitEvenly(items, participants);
+    }
+
+    @Benchmark
+    public ItemizedSplitResponse itemized() {
+        return ItemizedSplitCalculator.split(itemized);
+    }
+}
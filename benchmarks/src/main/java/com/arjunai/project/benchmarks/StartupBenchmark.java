@@ -0,0 +1,194 @@
+package com.arjunai.project.benchmarks;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup comparison of the default fat jar and the fast-startup build ({@code mvn -Pfast-startup package}).
+ * <p>
+ * Each run launches the application as a child process and polls {@code /actuator/info}, which needs
+ * no database, every 10 ms. Time to first request is measured from the launch to the first successful
+ * response; RSS is the child's resident set at that moment, and peak RSS its high-water mark so far.
+ * Child output goes to {@code target/startup-<build>-<run>.log}. Both builds need the application's
+ * database unless arguments after {@code --} point them elsewhere, and are passed those arguments alike.
+ * <p>
+ * Usage: {@code StartupBenchmark [--runs 5] [--app-dir ../target] [--port 18080] [--timeout 120]
+ * [--builds default,fast-startup] [-- application args]}. The first run of each build is a warm-up for
+ * the OS page cache and is not counted.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private StartupBenchmark() {
+    }
+
+    record Run(long firstRequestMillis, long rssKb, long peakRssKb) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = 5;
+        Path appDir = Path.of("..", "target");
+        int port = 18080;
+        Duration timeout = Duration.ofSeconds(120);
+        List<String> builds = List.of("default", "fast-startup");
+        List<String> appArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                case "--app-dir" -> appDir = Path.of(args[++i]);
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--timeout" -> timeout = Duration.ofSeconds(Long.parseLong(args[++i]));
+                case "--builds" -> builds = List.of(args[++i].split(","));
+                case "--" -> {
+                    appArgs.addAll(Arrays.asList(args).subList(i + 1, args.length));
+                    i = args.length;
+                }
+                default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        if (runs <= 0) {
+            throw new IllegalArgumentException("Runs must be greater than zero");
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        URI uri = URI.create("http://localhost:" + port + "/actuator/info");
+        Files.createDirectories(Path.of("target"));
+
+        List<String> summary = new ArrayList<>();
+        for (String build : builds) {
+            ProcessBuilder launcher = launcher(build, appDir, port, appArgs);
+            System.out.printf("%s: %s%n", build, String.join(" ", launcher.command()));
+            List<Run> measured = new ArrayList<>();
+            for (int run = 0; run <= runs; run++) {
+                launcher.redirectOutput(Path.of("target", "startup-" + build + "-" + run + ".log").toFile());
+                Run result = start(launcher, client, uri, timeout);
+                System.out.printf("  %s %d: first request %d ms, RSS %d MB, peak RSS %d MB%n",
+                        run == 0 ? "warm-up" : "run", run, result.firstRequestMillis(),
+                        result.rssKb() / 1024, result.peakRssKb() / 1024);
+                if (run > 0) {
+                    measured.add(result);
+                }
+            }
+            summary.add(String.format("%-14s %12d %12d %14d", build,
+                    median(measured.stream().mapToLong(Run::firstRequestMillis).toArray()),
+                    median(measured.stream().mapToLong(Run::rssKb).toArray()) / 1024,
+                    median(measured.stream().mapToLong(Run::peakRssKb).toArray()) / 1024));
+        }
+
+        System.out.printf("%nMedian of %d runs%n%-14s %12s %12s %14s%n", runs, "build", "first req ms", "RSS MB", "peak RSS MB");
+        summary.forEach(System.out::println);
+    }
+
+    private static ProcessBuilder launcher(String build, Path appDir, int port, List<String> appArgs) throws IOException {
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        List<String> command = new ArrayList<>(List.of(java.toString()));
+        Path workingDir;
+        switch (build) {
+            case "default" -> {
+                workingDir = appDir;
+                command.addAll(List.of("-jar", jar(appDir, "").getFileName().toString()));
+            }
+            case "fast-startup" -> {
+                workingDir = appDir.resolve("fast-startup");
+                if (!Files.exists(workingDir.resolve("application.jsa"))) {
+                    throw new IllegalStateException("No CDS archive in " + workingDir + "; run mvn -Pfast-startup package");
+                }
+                command.addAll(List.of("-XX:SharedArchiveFile=application.jsa", "-Xlog:cds=off",
+                        "-Dspring.aot.enabled=true",
+                        "-jar", jar(workingDir, "-fast-startup").getFileName().toString(),
+                        "--spring.profiles.active=fast-startup"));
+            }
+            default -> throw new IllegalArgumentException("Unknown build " + build);
+        }
+        command.add("--server.port=" + port);
+        command.addAll(appArgs);
+        return new ProcessBuilder(command)
+                .directory(workingDir.toFile())
+                .redirectErrorStream(true);
+    }
+
+    /**
+     * The application jar in the directory whose name ends with the classifier, or has none.
+     */
+    private static Path jar(Path dir, String classifier) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(file -> file.getFileName().toString().matches("arjun-ai-project-[^-]+" + classifier + "\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + dir + "; build it first"));
+        }
+    }
+
+    private static Run start(ProcessBuilder launcher, HttpClient client, URI uri, Duration timeout) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(1)).GET().build();
+        long start = System.nanoTime();
+        Process process = launcher.start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with status " + process.exitValue()
+                            + " before answering; see " + launcher.redirectOutput().file());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400) {
+                        long firstRequestMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        return new Run(firstRequestMillis, rss(process, "VmRSS"), rss(process, "VmHWM"));
+                    }
+                } catch (ConnectException e) {
+                    // Not listening yet
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("No response within " + timeout.toSeconds() + " s; see "
+                            + launcher.redirectOutput().file());
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * A resident-set field of /proc/[pid]/status in KB, or the current RSS from ps where there's no /proc.
+     */
+    private static long rss(Process process, String field) throws IOException, InterruptedException {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        if (Files.exists(status)) {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith(field + ":")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", String.valueOf(process.pid())).start();
+        String output = new String(ps.getInputStream().readAllBytes()).trim();
+        ps.waitFor();
+        return output.isEmpty() ? 0 : Long.parseLong(output);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
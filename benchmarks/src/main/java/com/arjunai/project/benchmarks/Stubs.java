@@ -0,0 +1,74 @@
+package com.arjunai.project.benchmarks;
+
+import com.arjunai.project.config.ApiLogJournalProperties;
+import com.arjunai.project.config.ConcurrencyLimitProperties;
+import com.arjunai.project.config.ApiLogPayloadProperties;
+import com.arjunai.project.config.ApiLogSamplingProperties;
+import com.arjunai.project.config.ApiLogWriteBehindProperties;
+import com.arjunai.project.config.LatencyStatsProperties;
+import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.repositories.ApiLogRepository;
+import com.arjunai.project.services.AdaptiveConcurrencyLimiter;
+import com.arjunai.project.services.ApiLogJournal;
+import com.arjunai.project.services.ApiLogPayloadStore;
+import com.arjunai.project.services.ApiLogService;
+import com.arjunai.project.services.ApiLogSampler;
+import com.arjunai.project.services.ApiLogWriter;
+import com.arjunai.project.services.ApiPhaseMetrics;
+import com.arjunai.project.services.LatencyStatsService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ApiLogService wired by hand to a repository that only assigns ids, so benchmarks measure the
+ * service's own work (payloads, timestamps, latency histograms, phase timers) without a database.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    static ApiLogService apiLogService() {
+        ApiLogRepository repository = stubRepository();
+        ApiLogJournalProperties journalProperties = new ApiLogJournalProperties();
+        journalProperties.setEnabled(false);
+        ApiLogJournal journal = new ApiLogJournal(journalProperties);
+        // Payload storage needs a database; the stub service keeps the text inline
+        ApiLogPayloadProperties payloadProperties = new ApiLogPayloadProperties();
+        payloadProperties.setEnabled(false);
+        ApiLogPayloadStore payloadStore = new ApiLogPayloadStore(null, payloadProperties);
+        ApiLogWriter writer = new ApiLogWriter(repository, journal, payloadStore, new ApiLogWriteBehindProperties());
+        LatencyStatsService latencyStatsService = new LatencyStatsService(new LatencyStatsProperties());
+        ApiLogSampler sampler = new ApiLogSampler(new ApiLogSamplingProperties(), latencyStatsService, writer);
+        ApiPhaseMetrics phaseMetrics = new ApiPhaseMetrics(new SimpleMeterRegistry());
+        // No requests are admitted through the limiter here, so it would never degrade logging anyway
+        ConcurrencyLimitProperties limitProperties = new ConcurrencyLimitProperties();
+        limitProperties.setEnabled(false);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(limitProperties);
+        return new ApiLogService(repository, writer, journal, latencyStatsService, sampler, payloadStore, phaseMetrics, limiter);
+    }
+
+    static ApiLogRepository stubRepository() {
+        AtomicLong ids = new AtomicLong();
+        return (ApiLogRepository) Proxy.newProxyInstance(ApiLogRepository.class.getClassLoader(),
+                new Class<?>[]{ApiLogRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> {
+                        ApiLog apiLog = (ApiLog) args[0];
+                        apiLog.setId(ids.incrementAndGet());
+                        yield apiLog;
+                    }
+                    case "saveAll" -> {
+                        Iterable<?> logs = (Iterable<?>) args[0];
+                        logs.forEach(apiLog -> ((ApiLog) apiLog).setId(ids.incrementAndGet()));
+                        yield logs;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubApiLogRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
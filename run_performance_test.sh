@@ -1,48 +1,65 @@
 #!/bin/bash
 
+# Optional Spring profile, e.g. PROFILE=virtual-threads ./run_performance_test.sh (needs JDK 21)
+PROFILE=${PROFILE:-}
+SUFFIX=${PROFILE:+_$PROFILE}
+
 # Start Spring Boot application in the background
-echo "Starting Spring Boot application..."
-mvn spring-boot:run &
+echo "Starting Spring Boot application${PROFILE:+ with profile $PROFILE}..."
+mvn spring-boot:run ${PROFILE:+-Dspring-boot.run.profiles=$PROFILE} &
 SPRING_PID=$!
 
 # Wait for application to start
 echo "Waiting for application to start..."
 sleep 30
+APP_PID=$(pgrep -f 'com.arjunai.project.Application' | head -1)
+
+# Sample the application's resident set size once a second while the test runs
+RSS_LOG=performance_test_rss$SUFFIX.log
+( while kill -0 "$APP_PID" 2>/dev/null; do ps -o rss= -p "$APP_PID"; sleep 1; done ) > "$RSS_LOG" &
+RSS_PID=$!
 
 # Run JMeter test
 echo "Running JMeter performance test..."
 jmeter -n -t src/test/resources/performance_test_plan.jmx \
-       -l performance_test_results.jtl \
-       -e -o performance_test_report
+       -l performance_test_results$SUFFIX.jtl \
+       -e -o performance_test_report$SUFFIX
 
 # Stop Spring Boot application
 echo "Stopping Spring Boot application..."
+kill $RSS_PID
 kill $SPRING_PID
 
+# Peak RSS and overall p99 latency, for comparing platform and virtual threads
+echo "Peak RSS: $(sort -n "$RSS_LOG" | tail -1) KB"
+echo "p99 latency: $(tail -n +2 performance_test_results$SUFFIX.jtl | cut -d, -f2 | sort -n \
+    | awk '{ v[NR] = $1 } END { i = int(NR * 0.99); if (i < 1) i = 1; print v[i] }') ms"
+
 # Analyze database performance
 echo "Analyzing database performance..."
 mysql -u root -p my_db << EOF
+-- Reads the per-minute rollups; the current minute is rolled up by ApiLogRollupJob shortly after it ends
 SELECT 
     method_name,
-    COUNT(*) as total_calls,
-    AVG(execution_time_ms) as avg_execution_time,
-    MAX(execution_time_ms) as max_execution_time,
-    MIN(execution_time_ms) as min_execution_time,
-    SUM(CASE WHEN successful = 1 THEN 1 ELSE 0 END) as successful_calls,
-    SUM(CASE WHEN successful = 0 THEN 1 ELSE 0 END) as failed_calls
-FROM api_logs 
-WHERE request_time >= NOW() - INTERVAL 15 MINUTE
+    SUM(call_count) as total_calls,
+    SUM(sum_execution_time_ms) / SUM(call_count) as avg_execution_time,
+    MAX(max_execution_time_ms) as max_execution_time,
+    MIN(min_execution_time_ms) as min_execution_time,
+    SUM(call_count - error_count) as successful_calls,
+    SUM(error_count) as failed_calls
+FROM api_log_rollups 
+WHERE minute_start >= NOW() - INTERVAL 15 MINUTE
 GROUP BY method_name
 ORDER BY avg_execution_time DESC;
 
 SELECT 
-    MINUTE(request_time) as minute,
-    COUNT(*) as requests_per_minute,
-    AVG(execution_time_ms) as avg_execution_time
-FROM api_logs 
-WHERE request_time >= NOW() - INTERVAL 15 MINUTE
-GROUP BY MINUTE(request_time)
-ORDER BY minute;
+    MINUTE(minute_start) as minute,
+    SUM(call_count) as requests_per_minute,
+    SUM(sum_execution_time_ms) / SUM(call_count) as avg_execution_time
+FROM api_log_rollups 
+WHERE minute_start >= NOW() - INTERVAL 15 MINUTE
+GROUP BY minute_start
+ORDER BY minute_start;
 EOF
 
 echo "Performance test completed. Check performance_test_report directory for detailed results." 
\ No newline at end of file
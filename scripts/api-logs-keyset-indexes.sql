@@ -0,0 +1,17 @@
+-- Replaces the single-column api_logs indexes of older installs with the
+-- composite (filter, request_time, id) indexes that keyset pagination and
+-- export in ApiLogQueryService read in order (see schema.sql).
+-- On a large table this takes a while; InnoDB builds the indexes online:
+--   mysql -u root -p my_db < scripts/api-logs-keyset-indexes.sql
+
+USE my_db;
+
+ALTER TABLE api_logs
+    DROP INDEX idx_method_name,
+    DROP INDEX idx_request_time,
+    DROP INDEX idx_successful,
+    ADD INDEX idx_method_time (method_name, request_time, id),
+    ADD INDEX idx_endpoint_time (endpoint, request_time, id),
+    ADD INDEX idx_successful_time (successful, request_time, id),
+    ADD INDEX idx_request_time (request_time, id),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,17 @@
+-- One-off conversion of an existing, unpartitioned api_logs table to the
+-- daily RANGE partitioning used by new installs (see schema.sql).
+-- This rebuilds the table, so run it in a maintenance window:
+--   mysql -u root -p my_db < scripts/partition-api-logs.sql
+-- ApiLogPartitionManager adds the daily partitions on its next run.
+
+USE my_db;
+
+ALTER TABLE api_logs
+    MODIFY id BIGINT NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, request_time);
+
+ALTER TABLE api_logs
+    PARTITION BY RANGE (UNIX_TIMESTAMP(request_time)) (
+        PARTITION p_future VALUES LESS THAN MAXVALUE
+    );
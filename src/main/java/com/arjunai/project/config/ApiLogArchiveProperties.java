@@ -0,0 +1,33 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for moving aged api_logs rows into local columnar segment files and for scanning them.
+ */
+@Data
+@ConfigurationProperties(prefix = "api-log.archive")
+public class ApiLogArchiveProperties {
+
+    private boolean enabled = true;
+
+    private Path directory = Path.of("data", "api-log-archive");
+
+    /** Whole UTC days older than this are archived and removed from api_logs. */
+    private Duration age = Duration.ofDays(3);
+
+    private Duration interval = Duration.ofHours(1);
+
+    /** Rows per segment file, which bounds the heap used while archiving a day. */
+    private int segmentRows = 1_000_000;
+
+    /** Rows per round-trip while reading a day from databases with cursor fetch. */
+    private int fetchSize = 1000;
+
+    /** Segment files of days older than this are deleted. */
+    private Duration retention = Duration.ofDays(365);
+}
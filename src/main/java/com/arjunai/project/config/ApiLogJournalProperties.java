@@ -0,0 +1,27 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the local spill journal that keeps API log records while the
+ * apiLogService circuit breaker is open, and for the replayer that loads them back.
+ */
+@Data
+@ConfigurationProperties(prefix = "api-log.journal")
+public class ApiLogJournalProperties {
+
+    private boolean enabled = true;
+
+    private Path directory = Path.of("data", "api-log-journal");
+
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    private Duration replayInterval = Duration.ofSeconds(5);
+
+    private int replayBatchSize = 500;
+}
@@ -0,0 +1,24 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for daily range partitions on api_logs and partition-based retention.
+ */
+@Data
+@ConfigurationProperties(prefix = "api-log.partitions")
+public class ApiLogPartitionProperties {
+
+    private boolean enabled = true;
+
+    private Duration maintenanceInterval = Duration.ofHours(1);
+
+    /** Raw rows older than this are removed by dropping whole daily partitions. */
+    private Duration retention = Duration.ofDays(30);
+
+    /** Number of future daily partitions kept ready ahead of today. */
+    private int premakeDays = 3;
+}
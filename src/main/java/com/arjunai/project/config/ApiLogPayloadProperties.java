@@ -0,0 +1,35 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for storing api log request and response payloads once per distinct content in
+ * api_log_payloads.
+ */
+@Data
+@ConfigurationProperties(prefix = "api-log.payloads")
+public class ApiLogPayloadProperties {
+
+    private boolean enabled = true;
+
+    /** Payload hashes known to be stored today; a hit skips the upsert entirely. */
+    private int cacheSize = 100_000;
+
+    /** Smaller payloads are stored as plain UTF-8, where deflate gains little or nothing. */
+    private DataSize compressThreshold = DataSize.ofBytes(64);
+
+    /**
+     * Payloads not referenced for this long are purged. Must be longer than the api_logs
+     * retention (api-log.partitions.retention) so no remaining row loses its payload.
+     */
+    private Duration retention = Duration.ofDays(31);
+
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    /** Rows deleted per statement while purging, to keep each transaction short. */
+    private int purgeBatchSize = 10_000;
+}
@@ -0,0 +1,22 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for paging through and exporting raw api_logs rows.
+ */
+@Data
+@ConfigurationProperties(prefix = "api-log.query")
+public class ApiLogQueryProperties {
+
+    private int defaultPageSize = 100;
+
+    private int maxPageSize = 1000;
+
+    /**
+     * Rows per round-trip while exporting from databases with cursor fetch. MySQL streams the result
+     * row by row instead and ignores this.
+     */
+    private int exportFetchSize = 1000;
+}
@@ -0,0 +1,26 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the per-minute api_log_rollups job.
+ */
+@Data
+@ConfigurationProperties(prefix = "api-log.rollup")
+public class ApiLogRollupProperties {
+
+    private boolean enabled = true;
+
+    private Duration interval = Duration.ofSeconds(30);
+
+    /** Trailing minutes recomputed on every run to pick up late write-behind rows. */
+    private Duration lookback = Duration.ofMinutes(5);
+
+    /** Upper bound on the range aggregated by a single run while catching up. */
+    private Duration maxChunk = Duration.ofHours(1);
+
+    private Duration retention = Duration.ofDays(365);
+}
@@ -0,0 +1,41 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for sampling which API log records are persisted.
+ * <p>
+ * Errors and slow calls are always kept. A call is slow when it took at least
+ * {@code slow-threshold}, or, when that is not set, at least the {@code slow-percentile} latency
+ * of its endpoint over the shortest latency window. The remaining fast successful calls are kept
+ * at a rate between {@code min-rate} and {@code max-rate} that drops while database writes are
+ * slower than {@code target-write-latency} or the write-behind queue is fuller than
+ * {@code target-queue-fill}, and recovers when they are not.
+ */
+@Data
+@ConfigurationProperties(prefix = "api-log.sampling")
+public class ApiLogSamplingProperties {
+
+    private boolean enabled = false;
+
+    /** Fixed latency from which a call is always kept; overrides {@link #slowPercentile} when set. */
+    private Duration slowThreshold;
+
+    private double slowPercentile = 0.99;
+
+    /** Calls an endpoint needs in the window before its percentile is trusted; until then every call is kept. */
+    private long minSamples = 100;
+
+    private double minRate = 0.01;
+
+    private double maxRate = 1.0;
+
+    private Duration targetWriteLatency = Duration.ofMillis(50);
+
+    private double targetQueueFill = 0.5;
+
+    private Duration adjustInterval = Duration.ofSeconds(1);
+}
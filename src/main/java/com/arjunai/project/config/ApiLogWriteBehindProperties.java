@@ -0,0 +1,43 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the asynchronous write-behind mode of the API log pipeline.
+ * When disabled, ApiLogService keeps writing every log record synchronously.
+ */
+@Data
+@ConfigurationProperties(prefix = "api-log.write-behind")
+public class ApiLogWriteBehindProperties {
+
+    /**
+     * What to do with a completed log record when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /** Discard the record that could not be queued. */
+        DROP_NEWEST,
+        /** Evict the oldest queued record to make room. */
+        DROP_OLDEST,
+        /** Block the request thread until space is available or the offer timeout elapses. */
+        BLOCK,
+        /** Write the record synchronously on the request thread. */
+        CALLER_RUNS
+    }
+
+    private boolean enabled = false;
+
+    private int batchSize = 500;
+
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    private int queueCapacity = 50_000;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.CALLER_RUNS;
+
+    private Duration offerTimeout = Duration.ofMillis(50);
+
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
@@ -1,38 +1,89 @@
 package com.arjunai.project.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableCaching
+@EnableScheduling
+@EnableConfigurationProperties({ApiLogWriteBehindProperties.class, ApiLogJournalProperties.class,
+        LatencyStatsProperties.class, ApiLogRollupProperties.class, ApiLogPartitionProperties.class,
+        ApiLogSamplingProperties.class, ApiLogPayloadProperties.class, ApiLogQueryProperties.class,
+        ApiLogArchiveProperties.class, ConcurrencyLimitProperties.class, ReadReplicaProperties.class,
+        ExpenseLedgerProperties.class})
 public class AppConfig {
 
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(Caffeine.newBuilder()
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
                 .maximumSize(1000)
                 .expireAfterAccess(Duration.ofMinutes(10))
-                .recordStats());
+                .recordStats();
+        cacheManager.setCaffeine(caffeine);
+        // Registered up front so the cache metrics binder sees it at startup
+        cacheManager.registerCustomCache("expressionPlans", caffeine.build());
         return cacheManager;
     }
 
+    /**
+     * The event consumer is Resilience4j's composite of all registered consumers, among them the
+     * Micrometer publisher that exports breaker state and call outcomes.
+     */
     @Bean
-    public CircuitBreakerRegistry circuitBreakerRegistry() {
+    public CircuitBreakerRegistry circuitBreakerRegistry(RegistryEventConsumer<CircuitBreaker> circuitBreakerEventConsumer) {
         CircuitBreakerConfig config = CircuitBreakerConfig.custom()
                 .failureRateThreshold(50)
                 .waitDurationInOpenState(Duration.ofSeconds(10))
                 .slidingWindowSize(10)
                 .minimumNumberOfCalls(5)
                 .build();
-        return CircuitBreakerRegistry.of(config);
+        return CircuitBreakerRegistry.of(config, circuitBreakerEventConsumer);
     }
-} 
\ No newline at end of file
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService bulkSplitExecutor() {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Wraps the primary connection pool in a {@link ConcurrencyLimitedDataSource} when
+     * {@code db.concurrency.enabled} is set; the read replica's pool is small and bounds itself. Static
+     * and bound straight from the Environment so it doesn't initialize this class early.
+     */
+    @Bean
+    public static BeanPostProcessor dbConcurrencyLimiter(Environment environment) {
+        DbConcurrencyProperties properties = Binder.get(environment)
+                .bind("db.concurrency", DbConcurrencyProperties.class)
+                .orElseGet(DbConcurrencyProperties::new);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (properties.isEnabled() && bean instanceof HikariDataSource pool
+                        && !ReadReplicaConfig.REPLICA_POOL.equals(beanName)) {
+                    return new ConcurrencyLimitedDataSource(pool, properties.getMaxConcurrent(),
+                            properties.getAcquireTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+}
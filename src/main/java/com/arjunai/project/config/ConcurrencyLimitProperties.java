@@ -0,0 +1,64 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for the adaptive limit on concurrent {@code /api/**} requests.
+ * <p>
+ * The limit moves between {@code min-limit} and {@code max-limit}: it shrinks while API log writes
+ * take longer than {@code tolerance} times their long-term average and grows while they don't.
+ * Requests beyond their priority's share of the limit are rejected with 503, and from
+ * {@code degrade-at} of the limit on, API log writes leave the request path.
+ */
+@Data
+@ConfigurationProperties(prefix = "api.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * How much of the limit requests of an endpoint may use; lower priorities are shed first.
+     */
+    public enum Priority {
+        /** Admitted up to the whole limit. */
+        CRITICAL,
+        /** Admitted up to {@code normal-share} of the limit. */
+        NORMAL,
+        /** Admitted up to {@code low-share} of the limit. */
+        LOW
+    }
+
+    private boolean enabled = true;
+
+    private int initialLimit = 100;
+
+    private int minLimit = 10;
+
+    /** Keep at or below the Hikari pool size, so admitted requests don't queue for connections. */
+    private int maxLimit = 200;
+
+    /** How much slower than their long-term average log writes may get before the limit shrinks. */
+    private double tolerance = 1.5;
+
+    /** Weight of each new limit estimate against the current limit. */
+    private double smoothing = 0.2;
+
+    /** How often the limit is recomputed from the writes observed since the last time. */
+    private Duration updateInterval = Duration.ofMillis(200);
+
+    /** Updates the long-term write latency is averaged over. */
+    private int baselineWindow = 300;
+
+    private double normalShare = 0.9;
+
+    private double lowShare = 0.5;
+
+    /** Share of the limit in use from which API log writes are skipped or journaled instead. */
+    private double degradeAt = 0.75;
+
+    /** Priorities by Ant path pattern, first match wins; other endpoints are {@code NORMAL}. */
+    private Map<String, Priority> priorities = new LinkedHashMap<>();
+}
@@ -0,0 +1,23 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Explicit limit on concurrent database access, used instead of large thread and connection pools
+ * when requests run on virtual threads.
+ */
+@Data
+@ConfigurationProperties(prefix = "db.concurrency")
+public class DbConcurrencyProperties {
+
+    private boolean enabled = false;
+
+    /** Connections that may be checked out at once; keep the Hikari pool at least this large. */
+    private int maxConcurrent = 64;
+
+    /** How long a caller waits for a permit before the connection request fails. */
+    private Duration acquireTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,22 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory expense ledger and its snapshots to ledger_groups and ledger_balances.
+ */
+@Data
+@ConfigurationProperties(prefix = "ledger")
+public class ExpenseLedgerProperties {
+
+    /** Without snapshots the ledger neither loads nor saves groups and only lives as long as the process. */
+    private boolean snapshotEnabled = true;
+
+    private Duration snapshotInterval = Duration.ofSeconds(10);
+
+    /** Locks per group that expense writers spread over; a snapshot takes all of them. */
+    private int lockStripes = 16;
+}
@@ -0,0 +1,19 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings for the in-process latency histograms. Each window must be a multiple of the slot duration.
+ */
+@Data
+@ConfigurationProperties(prefix = "api-log.latency")
+public class LatencyStatsProperties {
+
+    private Duration slotDuration = Duration.ofSeconds(15);
+
+    private List<Duration> windows = List.of(Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(15));
+}
@@ -0,0 +1,64 @@
+package com.arjunai.project.config;
+
+import com.arjunai.project.models.BinaryOperationRequest;
+import com.arjunai.project.models.OperationResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * JSON converter for the single-operation math DTOs.
+ * <p>
+ * The generic Jackson converter resolves the target type, looks up the (de)serializer and picks an
+ * encoding on every call. This one holds an {@link ObjectReader} and {@link ObjectWriter} created
+ * once per type, which resolve the root (de)serializer up front, and streams straight to and from
+ * the HTTP body. Every other type still goes through the generic converter.
+ */
+public class MathJsonMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final ObjectReader requestReader;
+    private final ObjectWriter resultWriter;
+
+    public MathJsonMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.requestReader = objectMapper.readerFor(BinaryOperationRequest.class);
+        this.resultWriter = objectMapper.writerFor(OperationResult.class);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == BinaryOperationRequest.class || clazz == OperationResult.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == BinaryOperationRequest.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return clazz == OperationResult.class && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return requestReader.readValue(inputMessage.getBody());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        resultWriter.writeValue(outputMessage.getBody(), value);
+    }
+}
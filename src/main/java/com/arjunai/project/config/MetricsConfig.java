@@ -0,0 +1,151 @@
+package com.arjunai.project.config;
+
+import com.arjunai.project.config.ConcurrencyLimitProperties.Priority;
+import com.arjunai.project.reactive.ReactiveApiLogService;
+import com.arjunai.project.services.AdaptiveConcurrencyLimiter;
+import com.arjunai.project.services.ApiLogPayloadStore;
+import com.arjunai.project.services.ApiLogService;
+import com.arjunai.project.services.ApiLogSampler;
+import com.arjunai.project.services.ApiLogWriter;
+import com.arjunai.project.services.ExpenseLedger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the API log pipeline. They read counters the components keep anyway when scraped, so
+ * they add nothing to the request path.
+ * <p>
+ * HTTP, Hikari, cache, Hibernate and Resilience4j meters come from auto-configuration, and the
+ * per-endpoint phase timers from ApiPhaseMetrics.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder apiLogWriterMetrics(ApiLogWriter writer) {
+        return registry -> {
+            Gauge.builder("api.log.writer.queue.size", writer, ApiLogWriter::getQueueSize)
+                    .description("Records waiting in the write-behind queue")
+                    .register(registry);
+            FunctionCounter.builder("api.log.writer.written", writer, ApiLogWriter::getWrittenCount)
+                    .register(registry);
+            FunctionCounter.builder("api.log.writer.dropped", writer, ApiLogWriter::getDroppedCount)
+                    .register(registry);
+            FunctionTimer.builder("api.log.writer.batches", writer, ApiLogWriter::getWriteCount,
+                            ApiLogWriter::getWriteNanos, TimeUnit.NANOSECONDS)
+                    .description("Batch writes of the write-behind writer, failed ones included")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder apiLogRejectedMetrics(ApiLogService apiLogService) {
+        return registry -> FunctionCounter.builder("api.log.rejected", apiLogService, ApiLogService::getRejectedLogCount)
+                .description("Requests rejected before their handler ran, such as ones with malformed JSON")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder apiLogSamplingMetrics(ApiLogSampler sampler) {
+        return registry -> {
+            Gauge.builder("api.log.sampling.rate", sampler, ApiLogSampler::getRate)
+                    .register(registry);
+            FunctionCounter.builder("api.log.sampling.decisions", sampler, ApiLogSampler::getSampledInCount)
+                    .tag("result", "kept")
+                    .register(registry);
+            FunctionCounter.builder("api.log.sampling.decisions", sampler, ApiLogSampler::getSampledOutCount)
+                    .tag("result", "dropped")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder apiLogPayloadMetrics(ApiLogPayloadStore store) {
+        return registry -> {
+            FunctionCounter.builder("api.log.payloads.cache.hits", store, ApiLogPayloadStore::getCacheHitCount)
+                    .description("Payload references that skipped the database")
+                    .register(registry);
+            FunctionCounter.builder("api.log.payloads.upserts", store, ApiLogPayloadStore::getUpsertCount)
+                    .description("Payload rows inserted or refreshed")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(AdaptiveConcurrencyLimiter limiter) {
+        return registry -> {
+            Gauge.builder("api.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Concurrent API requests currently admitted")
+                    .register(registry);
+            Gauge.builder("api.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                    .register(registry);
+            for (Priority priority : Priority.values()) {
+                FunctionCounter.builder("api.concurrency.rejected", limiter, l -> l.getRejectedCount(priority))
+                        .tag("priority", priority.name().toLowerCase())
+                        .description("API requests answered with 503 by the concurrency limit")
+                        .register(registry);
+            }
+            FunctionCounter.builder("api.concurrency.degraded.logs", limiter, AdaptiveConcurrencyLimiter::getDegradedLogCount)
+                    .description("API log writes journaled or dropped instead of written under overload")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder expenseLedgerMetrics(ExpenseLedger ledger) {
+        return registry -> {
+            Gauge.builder("ledger.groups", ledger, ExpenseLedger::getGroupCount)
+                    .description("Ledger groups held in memory")
+                    .register(registry);
+            FunctionCounter.builder("ledger.expenses", ledger, ExpenseLedger::getExpenseCount)
+                    .description("Expenses booked since startup")
+                    .register(registry);
+            FunctionCounter.builder("ledger.snapshots", ledger, ExpenseLedger::getSnapshotCount)
+                    .tag("result", "written")
+                    .register(registry);
+            FunctionCounter.builder("ledger.snapshots", ledger, ExpenseLedger::getSnapshotFailureCount)
+                    .tag("result", "failed")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Only with {@code db.replica.enabled}; the replica pool's own meters come from the Hikari binder.
+     */
+    @Bean
+    public MeterBinder readReplicaMetrics(ObjectProvider<ReplicaDataSource> replicaDataSource) {
+        return registry -> replicaDataSource.ifAvailable(replica -> {
+            Gauge.builder("db.replica.lag", replica, ReplicaDataSource::getLagSeconds)
+                    .baseUnit("seconds")
+                    .description("Replication lag at the last check, -1 before one succeeded")
+                    .register(registry);
+            Gauge.builder("db.replica.usable", replica, r -> r.isUsable() ? 1 : 0)
+                    .register(registry);
+            FunctionCounter.builder("db.replica.fallbacks", replica, ReplicaDataSource::getFallbackCount)
+                    .description("Read-only connections served by the primary instead of the replica")
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Only the reactive profile has the R2DBC log stream.
+     */
+    @Bean
+    public MeterBinder reactiveApiLogMetrics(ObjectProvider<ReactiveApiLogService> reactiveApiLogService) {
+        return registry -> reactiveApiLogService.ifAvailable(service -> {
+            FunctionCounter.builder("api.log.reactive.written", service, ReactiveApiLogService::getWrittenCount)
+                    .register(registry);
+            FunctionCounter.builder("api.log.reactive.spilled", service, ReactiveApiLogService::getSpilledCount)
+                    .register(registry);
+            FunctionCounter.builder("api.log.reactive.dropped", service, ReactiveApiLogService::getDroppedCount)
+                    .register(registry);
+        });
+    }
+}
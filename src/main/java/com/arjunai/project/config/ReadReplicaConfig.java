@@ -0,0 +1,72 @@
+package com.arjunai.project.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write DataSource routing, active with {@code db.replica.enabled}.
+ * <p>
+ * The DataSource everything uses is a {@link LazyConnectionDataSourceProxy} over the primary pool,
+ * which only fetches a connection at the first statement. By then a
+ * {@code @Transactional(readOnly = true)} transaction has marked the connection read-only, and the
+ * proxy takes it from its read-only DataSource, the {@link ReplicaDataSource}, instead. Writes and
+ * work outside read-only transactions stay on the primary.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "db.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    /** Bean name of the replica pool, which the db.concurrency limit leaves alone. */
+    public static final String REPLICA_POOL = "replicaPool";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPool(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(REPLICA_POOL)
+    public HikariDataSource replicaPool(ReadReplicaProperties properties) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("replica");
+        pool.setJdbcUrl(properties.getUrl());
+        pool.setUsername(properties.getUsername());
+        pool.setPassword(properties.getPassword());
+        if (properties.getDriverClassName() != null) {
+            pool.setDriverClassName(properties.getDriverClassName());
+        }
+        pool.setMaximumPoolSize(properties.getMaximumPoolSize());
+        pool.setMinimumIdle(properties.getMinimumIdle());
+        pool.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        pool.setReadOnly(true);
+        // Start even when the replica is down; reads use the primary until it answers
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+
+    // Parameters are plain DataSources: db.concurrency may have wrapped the primary pool
+    @Bean
+    public ReplicaDataSource replicaDataSource(@Qualifier(REPLICA_POOL) DataSource replicaPool,
+                                               @Qualifier("primaryPool") DataSource primaryPool,
+                                               ReadReplicaProperties properties) {
+        return new ReplicaDataSource(replicaPool, primaryPool, properties);
+    }
+
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy dataSource(@Qualifier("primaryPool") DataSource primaryPool,
+                                                    ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryPool);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,45 @@
+package com.arjunai.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the read replica that {@code @Transactional(readOnly = true)} work is routed to, so
+ * reporting queries don't take connections from the primary pool the API log inserts use.
+ * <p>
+ * Every {@code lag-check-interval} the replica runs {@code lag-query}, and reads go to the primary
+ * while the {@code lag-column} value is NULL, above {@code max-lag}, or the replica is unreachable.
+ * With a blank {@code lag-query} the replica is used whenever it answers.
+ */
+@Data
+@ConfigurationProperties(prefix = "db.replica")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName;
+
+    private int maximumPoolSize = 8;
+
+    private int minimumIdle = 1;
+
+    /** Kept short, so a replica that stops answering sends reads to the primary quickly. */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    /** Column of {@code lag-query} holding the lag in seconds; the first column when absent. */
+    private String lagColumn = "Seconds_Behind_Source";
+}
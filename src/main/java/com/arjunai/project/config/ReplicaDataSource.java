@@ -0,0 +1,138 @@
+package com.arjunai.project.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-only side of the read/write routing: hands out replica connections while the replica is
+ * caught up, and primary connections otherwise.
+ * <p>
+ * Replication lag is checked every {@code db.replica.lag-check-interval} with
+ * {@code db.replica.lag-query}; until the first check passes, reads stay on the primary. A replica
+ * connection that can't be obtained also sends reads to the primary until the next check.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource {
+
+    private final DataSource replica;
+    private final DataSource primary;
+    private final ReadReplicaProperties properties;
+    private final LongAdder fallbacks = new LongAdder();
+
+    private volatile boolean usable;
+    private volatile long lagSeconds = -1;
+
+    public ReplicaDataSource(DataSource replica, DataSource primary, ReadReplicaProperties properties) {
+        this.replica = replica;
+        this.primary = primary;
+        this.properties = properties;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (usable) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                markUnusable("Replica connection failed: " + e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (usable) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                markUnusable("Replica connection failed: " + e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection(username, password);
+    }
+
+    @Scheduled(fixedDelayString = "${db.replica.lag-check-interval:PT5S}")
+    public void checkLag() {
+        try (Connection connection = replica.getConnection()) {
+            if (!StringUtils.hasText(properties.getLagQuery())) {
+                lagSeconds = 0;
+                markUsable();
+                return;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+                if (!rs.next()) {
+                    markUnusable("Replica is not replicating");
+                    return;
+                }
+                long lag = rs.getLong(lagColumn(rs.getMetaData()));
+                if (rs.wasNull()) {
+                    markUnusable("Replication is stopped");
+                    return;
+                }
+                lagSeconds = lag;
+                if (lag > properties.getMaxLag().toSeconds()) {
+                    markUnusable("Replica is " + lag + "s behind");
+                } else {
+                    markUsable();
+                }
+            }
+        } catch (SQLException e) {
+            markUnusable("Replica lag check failed: " + e.getMessage());
+        }
+    }
+
+    private int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (metaData.getColumnLabel(i).equalsIgnoreCase(properties.getLagColumn())) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    private void markUsable() {
+        if (!usable) {
+            log.info("Routing read-only transactions to the replica ({}s behind)", lagSeconds);
+            usable = true;
+        }
+    }
+
+    private void markUnusable(String reason) {
+        if (usable) {
+            log.warn("{}; routing read-only transactions to the primary", reason);
+            usable = false;
+        }
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * Replication lag at the last check, or -1 before a check succeeded.
+     */
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    /**
+     * Read-only connections served by the primary instead of the replica.
+     */
+    public long getFallbackCount() {
+        return fallbacks.sum();
+    }
+}
@@ -0,0 +1,72 @@
+package com.arjunai.project.config;
+
+import com.arjunai.project.config.ConcurrencyLimitProperties.Priority;
+import com.arjunai.project.services.AdaptiveConcurrencyLimiter;
+import com.arjunai.project.services.ApiPhaseMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.util.List;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Ahead of the generic Jackson converter so the math DTOs take the pre-resolved path
+        converters.add(0, new MathJsonMessageConverter(objectMapper));
+    }
+
+    /**
+     * Admits requests through AdaptiveConcurrencyLimiter before their body is read, answering 503 to
+     * those beyond the limit. Marks handler dispatch for the binding phase of ApiPhaseMetrics. Interceptors run right before
+     * the handler adapter resolves arguments, so the time up to startLog is argument binding.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                    throws IOException {
+                Priority priority = concurrencyLimiter.priorityOf(request.getRequestURI());
+                if (concurrencyLimiter.tryAcquire(priority)) {
+                    return true;
+                }
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.getWriter().write("Server is overloaded, retry later");
+                return false;
+            }
+
+            // Only called when preHandle admitted the request
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                concurrencyLimiter.release();
+            }
+        }).addPathPatterns("/api/**");
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                request.setAttribute(ApiPhaseMetrics.HANDLER_START_ATTRIBUTE, System.nanoTime());
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,96 @@
+package com.arjunai.project.controllers;
+
+import com.arjunai.project.models.ApiLogFilter;
+import com.arjunai.project.models.ApiLogPage;
+import com.arjunai.project.services.ApiLogQueryService;
+import com.arjunai.project.services.ApiLogQueryService.ExportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Controller for browsing and exporting raw api_logs rows, with request and response bodies resolved
+ * from api_log_payloads.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/logs")
+@Tag(name = "API Logs", description = "Keyset-paginated queries and streaming export of api_logs")
+@RequiredArgsConstructor
+public class ApiLogQueryController {
+
+    private final ApiLogQueryService apiLogQueryService;
+
+    /**
+     * Returns one page of matching rows; pass nextCursor back as {@code cursor} for the next one.
+     *
+     * @param from Inclusive lower bound on request time (ISO-8601)
+     * @param to Exclusive upper bound on request time (ISO-8601)
+     * @param order desc (newest first) or asc
+     */
+    @Operation(summary = "Page through api logs by request time")
+    @GetMapping
+    public ApiLogPage find(@RequestParam(required = false) String methodName,
+                           @RequestParam(required = false) String endpoint,
+                           @RequestParam(required = false) Boolean successful,
+                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                           @RequestParam(required = false) String cursor,
+                           @RequestParam(defaultValue = "0") int limit,
+                           @RequestParam(defaultValue = "desc") String order) {
+        ApiLogFilter filter = new ApiLogFilter(methodName, endpoint, successful, from, to);
+        return apiLogQueryService.findPage(filter, cursor, limit, ascending(order));
+    }
+
+    /**
+     * Streams every matching row as NDJSON or CSV without buffering the result.
+     *
+     * @param format ndjson or csv
+     * @param order asc (oldest first) or desc
+     * @throws IOException if writing the response fails
+     */
+    @Operation(summary = "Export api logs as NDJSON or CSV")
+    @GetMapping("/export")
+    public void export(@RequestParam(required = false) String methodName,
+                       @RequestParam(required = false) String endpoint,
+                       @RequestParam(required = false) Boolean successful,
+                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                       @RequestParam(defaultValue = "ndjson") String format,
+                       @RequestParam(defaultValue = "asc") String order,
+                       HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = exportFormat(format);
+        boolean ascending = ascending(order);
+        ApiLogFilter filter = new ApiLogFilter(methodName, endpoint, successful, from, to);
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (exportFormat == ExportFormat.CSV) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=\"api-logs.csv\"");
+        } else {
+            response.setContentType("application/x-ndjson");
+        }
+        apiLogQueryService.export(filter, exportFormat, ascending, response.getOutputStream());
+    }
+
+    private static boolean ascending(String order) {
+        return Sort.Direction.fromString(order).isAscending();
+    }
+
+    private static ExportFormat exportFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Format must be ndjson or csv");
+        }
+    }
+}
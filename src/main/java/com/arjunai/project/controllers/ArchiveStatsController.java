@@ -0,0 +1,50 @@
+package com.arjunai.project.controllers;
+
+import com.arjunai.project.models.ApiLogRollup;
+import com.arjunai.project.models.MethodRollupSummary;
+import com.arjunai.project.services.ApiLogArchiveScanner;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Controller for latency aggregates over api_logs rows that ApiLogArchiver has moved into columnar
+ * segment files. Responses have the same shape as the rollup endpoints.
+ */
+@RestController
+@RequestMapping("/api/stats/archive")
+@Tag(name = "Archive Stats", description = "Per-method and per-minute aggregates scanned from archived api_logs")
+@RequiredArgsConstructor
+public class ArchiveStatsController {
+
+    private final ApiLogArchiveScanner apiLogArchiveScanner;
+
+    @GetMapping
+    @Operation(summary = "Per-method call counts and execution times of archived calls between from and to")
+    public List<MethodRollupSummary> summary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        checkRange(from, to);
+        return apiLogArchiveScanner.summarizeByMethod(from, to);
+    }
+
+    @GetMapping("/{methodName}")
+    @Operation(summary = "Per-minute aggregates of one method's archived calls between from and to")
+    public List<ApiLogRollup> perMinute(@PathVariable String methodName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        checkRange(from, to);
+        return apiLogArchiveScanner.perMinute(methodName, from, to);
+    }
+
+    private static void checkRange(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("From must be before to");
+        }
+    }
+}
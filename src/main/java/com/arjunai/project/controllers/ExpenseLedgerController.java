@@ -0,0 +1,146 @@
+package com.arjunai.project.controllers;
+
+import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.models.LedgerBalances;
+import com.arjunai.project.models.LedgerEntry;
+import com.arjunai.project.models.LedgerExpenseRequest;
+import com.arjunai.project.models.SettlementResponse;
+import com.arjunai.project.services.ApiLogService;
+import com.arjunai.project.services.ExpenseLedger;
+import com.arjunai.project.services.MoneyAllocator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controller for the stateful expense ledger: groups keep their members' balances between requests,
+ * so clients send each expense once instead of re-sending the group's history.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/ledger/groups/{groupId}")
+@Tag(name = "Expense Ledger", description = "Group expense ledger with running balances")
+@RequiredArgsConstructor
+public class ExpenseLedgerController {
+
+    private final ApiLogService apiLogService;
+    private final ExpenseLedger expenseLedger;
+
+    /**
+     * Creates a group or adds members to it.
+     *
+     * @param groupId Group id, up to 64 characters
+     * @param members Member names; members already in the group are ignored
+     * @return The group's balances
+     */
+    @Operation(summary = "Create a ledger group or add members")
+    @PutMapping
+    public ResponseEntity<LedgerBalances> join(@PathVariable String groupId, @RequestParam String[] members) {
+        Instant startTime = Instant.now();
+        String endpoint = "/api/ledger/groups/{groupId}";
+        ApiLog apiLog = apiLogService.startLog("ledgerJoin", endpoint, Map.of("groupId", groupId, "members", members));
+
+        try {
+            LedgerBalances balances = expenseLedger.join(groupId, members);
+            apiLogService.completeLog(apiLog, Map.of("members", balances.members().length), startTime);
+            return ResponseEntity.ok(balances);
+        } catch (Exception e) {
+            apiLogService.logError(apiLog, e, startTime);
+            throw e;
+        }
+    }
+
+    /**
+     * Books an expense split with one of the /api/split modes.
+     *
+     * @param groupId Group id
+     * @param expense Payer, split mode and its inputs, and the participating members
+     * @return The shares debited from each participant
+     * @throws IllegalArgumentException if the group or a member is unknown, or the split is invalid
+     */
+    @Operation(summary = "Add an expense to a ledger group")
+    @PostMapping("/expenses")
+    public ResponseEntity<LedgerEntry> addExpense(@PathVariable String groupId, @RequestBody LedgerExpenseRequest expense) {
+        Instant startTime = Instant.now();
+        String endpoint = "/api/ledger/groups/{groupId}/expenses";
+        Map<String, Object> request = new HashMap<>();
+        request.put("groupId", groupId);
+        request.put("mode", expense.mode());
+        request.put("amount", expense.amount());
+        request.put("participants", expense.participants() != null ? expense.participants().length : 0);
+        ApiLog apiLog = apiLogService.startLog("ledgerAddExpense", endpoint, request);
+
+        try {
+            LedgerEntry entry = expenseLedger.addExpense(groupId, expense);
+            apiLogService.completeLog(apiLog, Map.of("total", entry.total()), startTime);
+            return ResponseEntity.ok(entry);
+        } catch (Exception e) {
+            apiLogService.logError(apiLog, e, startTime);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns one member's balance, positive when the member is owed money.
+     */
+    @Operation(summary = "Get a member's balance")
+    @GetMapping("/members/{member}/balance")
+    public ResponseEntity<Double> balance(@PathVariable String groupId, @PathVariable String member) {
+        Instant startTime = Instant.now();
+        String endpoint = "/api/ledger/groups/{groupId}/members/{member}/balance";
+        ApiLog apiLog = apiLogService.startLog("ledgerBalance", endpoint, Map.of("groupId", groupId, "member", member));
+
+        try {
+            Double balance = MoneyAllocator.toMajorUnits(expenseLedger.balance(groupId, member));
+            apiLogService.completeLog(apiLog, balance, startTime);
+            return ResponseEntity.ok(balance);
+        } catch (Exception e) {
+            apiLogService.logError(apiLog, e, startTime);
+            throw e;
+        }
+    }
+
+    @Operation(summary = "Get every member's balance")
+    @GetMapping("/balances")
+    public ResponseEntity<LedgerBalances> balances(@PathVariable String groupId) {
+        Instant startTime = Instant.now();
+        String endpoint = "/api/ledger/groups/{groupId}/balances";
+        ApiLog apiLog = apiLogService.startLog("ledgerBalances", endpoint, Map.of("groupId", groupId));
+
+        try {
+            LedgerBalances balances = expenseLedger.balances(groupId);
+            apiLogService.completeLog(apiLog, Map.of("members", balances.members().length, "expenses", balances.expenses()), startTime);
+            return ResponseEntity.ok(balances);
+        } catch (Exception e) {
+            apiLogService.logError(apiLog, e, startTime);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the transfers that would settle the group's current balances, without booking them.
+     */
+    @Operation(summary = "Settle a ledger group's balances")
+    @GetMapping("/settlement")
+    public ResponseEntity<SettlementResponse> settlement(@PathVariable String groupId) {
+        Instant startTime = Instant.now();
+        String endpoint = "/api/ledger/groups/{groupId}/settlement";
+        ApiLog apiLog = apiLogService.startLog("ledgerSettlement", endpoint, Map.of("groupId", groupId));
+
+        try {
+            SettlementResponse response = expenseLedger.settlement(groupId);
+            apiLogService.completeLog(apiLog, Map.of("transfers", response.amounts().length, "total", response.total()), startTime);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            apiLogService.logError(apiLog, e, startTime);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.arjunai.project.controllers;
+
+import com.arjunai.project.models.LatencyStats;
+import com.arjunai.project.services.LatencyStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Controller exposing in-memory latency statistics per endpoint.
+ * Served from the histograms in LatencyStatsService, never from the database.
+ */
+@RestController
+@RequestMapping("/api/stats/latency")
+@Tag(name = "Latency Stats", description = "Per-endpoint latency percentiles over sliding windows")
+@RequiredArgsConstructor
+public class LatencyStatsController {
+
+    private final LatencyStatsService latencyStatsService;
+
+    @GetMapping
+    @Operation(summary = "Latency percentiles for all endpoints")
+    public Map<String, Map<String, LatencyStats>> all() {
+        return latencyStatsService.snapshotAll();
+    }
+
+    @GetMapping("/{methodName}")
+    @Operation(summary = "Latency percentiles for one endpoint")
+    public ResponseEntity<Map<String, LatencyStats>> byMethod(@PathVariable String methodName) {
+        Map<String, LatencyStats> stats = latencyStatsService.snapshot(methodName);
+        return stats.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(stats);
+    }
+}
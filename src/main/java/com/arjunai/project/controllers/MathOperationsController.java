@@ -1,20 +1,32 @@
 package com.arjunai.project.controllers;
 
-import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.models.BinaryOperationRequest;
+import com.arjunai.project.models.ExpressionRequest;
+import com.arjunai.project.models.ExpressionResponse;
+import com.arjunai.project.models.MathBatchRequest;
+import com.arjunai.project.models.MathBatchResponse;
+import com.arjunai.project.models.OperationResult;
 import com.arjunai.project.services.ApiLogService;
+import com.arjunai.project.services.CompiledExpression;
+import com.arjunai.project.services.ExpressionCompiler;
+import com.arjunai.project.services.LogPayloadEncoder;
+import com.arjunai.project.services.MathBatchEvaluator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpStatus;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.function.DoubleBinaryOperator;
 
 /**
  * Controller for handling mathematical operations.
@@ -25,72 +37,82 @@ import java.util.HashMap;
  */
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/math")
 @Tag(name = "Math Operations", description = "API endpoints for basic mathematical operations")
 @RequiredArgsConstructor
 public class MathOperationsController {
 
     private final ApiLogService apiLogService;
+    private final ExpressionCompiler expressionCompiler;
 
     @PostMapping("/add")
     @Operation(summary = "Add two numbers")
-    public Map<String, Object> add(@RequestBody Map<String, Double> request) {
-        var startTime = Instant.now();
-        var apiLog = apiLogService.startLog("add", "/api/math/add", request);
+    public OperationResult add(@RequestBody BinaryOperationRequest request) {
+        return apply("add", "/api/math/add", request, (a, b) -> a + b);
+    }
 
-        try {
-            double num1 = request.get("num1");
-            double num2 = request.get("num2");
-            double result = num1 + num2;
+    @PostMapping("/subtract")
+    @Operation(summary = "Subtract two numbers")
+    public OperationResult subtract(@RequestBody BinaryOperationRequest request) {
+        return apply("subtract", "/api/math/subtract", request, (a, b) -> a - b);
+    }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("result", result);
+    @PostMapping("/multiply")
+    @Operation(summary = "Multiply two numbers")
+    public OperationResult multiply(@RequestBody BinaryOperationRequest request) {
+        return apply("multiply", "/api/math/multiply", request, (a, b) -> a * b);
+    }
 
-            apiLogService.completeLog(apiLog, response, startTime);
-            return response;
-        } catch (Exception e) {
-            apiLogService.logError(apiLog, e, startTime);
-            throw e;
-        }
+    @PostMapping("/divide")
+    @Operation(summary = "Divide two numbers")
+    public OperationResult divide(@RequestBody BinaryOperationRequest request) {
+        return apply("divide", "/api/math/divide", request, (a, b) -> {
+            if (b == 0) {
+                throw new IllegalArgumentException("Cannot divide by zero");
+            }
+            return a / b;
+        });
     }
 
-    @PostMapping("/subtract")
-    @Operation(summary = "Subtract two numbers")
-    public Map<String, Object> subtract(@RequestBody Map<String, Double> request) {
+    /**
+     * Runs a single operation with its log entry. The operators are non-capturing lambdas and the log
+     * payloads are encoded directly, so a call allocates little beyond the log entry itself.
+     */
+    private OperationResult apply(String methodName, String endpoint, BinaryOperationRequest request,
+                                  DoubleBinaryOperator operator) {
         var startTime = Instant.now();
-        var apiLog = apiLogService.startLog("subtract", "/api/math/subtract", new HashMap<>(request));
+        var apiLog = apiLogService.startLog(methodName, endpoint,
+                LogPayloadEncoder.encode("num1", request.num1(), "num2", request.num2()));
 
         try {
-            double num1 = request.get("num1");
-            double num2 = request.get("num2");
-            double result = num1 - num2;
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("result", result);
-
-            apiLogService.completeLog(apiLog, response, startTime);
-            return response;
+            double result = operator.applyAsDouble(request.num1(), request.num2());
+            apiLogService.completeLog(apiLog, LogPayloadEncoder.encode("result", result), startTime);
+            return new OperationResult(result);
         } catch (Exception e) {
             apiLogService.logError(apiLog, e, startTime);
             throw e;
         }
     }
 
-    @PostMapping("/multiply")
-    @Operation(summary = "Multiply two numbers")
-    public Map<String, Object> multiply(@RequestBody Map<String, Double> request) {
+    /**
+     * Evaluates a columnar batch of operations and records a single log entry for the whole batch.
+     *
+     * @param request Op codes (0 = add, 1 = subtract, 2 = multiply, 3 = divide) with left and right operands
+     * @return Per-element results and error flags
+     * @throws IllegalArgumentException if the arrays are missing or of different lengths
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Evaluate a batch of operations",
+            description = "Columnar arrays: ops[i] applied to lhs[i] and rhs[i]. Op codes: 0 add, 1 subtract, 2 multiply, 3 divide")
+    public MathBatchResponse batch(@RequestBody MathBatchRequest request) {
         var startTime = Instant.now();
-        var apiLog = apiLogService.startLog("multiply", "/api/math/multiply", new HashMap<>(request));
+        int size = request.ops() != null ? request.ops().length : 0;
+        var apiLog = apiLogService.startLog("batch", "/api/math/batch", Map.of("size", size));
 
         try {
-            double num1 = request.get("num1");
-            double num2 = request.get("num2");
-            double result = num1 * num2;
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("result", result);
-
-            apiLogService.completeLog(apiLog, response, startTime);
+            MathBatchResponse response = MathBatchEvaluator.evaluate(request);
+            apiLogService.completeLog(apiLog, Map.of("size", size, "errors", response.errorCount()), startTime);
             return response;
         } catch (Exception e) {
             apiLogService.logError(apiLog, e, startTime);
@@ -98,35 +120,45 @@ public class MathOperationsController {
         }
     }
 
-    @PostMapping("/divide")
-    @Operation(summary = "Divide two numbers")
-    public Map<String, Object> divide(@RequestBody Map<String, Double> request) {
+    /**
+     * Evaluates an expression with named variables. The compiled plan is cached by expression text
+     * and reused for every binding in the request.
+     *
+     * @param request Expression plus a single variables map or a list of bindings
+     * @return One result per binding, with error flags for division by zero
+     * @throws IllegalArgumentException if the expression is invalid or a binding misses a variable
+     */
+    @PostMapping("/evaluate")
+    @Operation(summary = "Evaluate an arithmetic expression",
+            description = "Supports + - * / % ^, parentheses, sqrt, abs, min, max and named variables")
+    public ExpressionResponse evaluate(@RequestBody ExpressionRequest request) {
         var startTime = Instant.now();
-        var apiLog = apiLogService.startLog("divide", "/api/math/divide", new HashMap<>(request));
+        List<Map<String, Double>> bindings = request.resolvedBindings();
+        Map<String, Object> logRequest = new HashMap<>();
+        logRequest.put("expression", request.expression());
+        logRequest.put("bindings", bindings.size());
+        var apiLog = apiLogService.startLog("evaluate", "/api/math/evaluate", logRequest);
 
         try {
-            double num1 = request.get("num1");
-            double num2 = request.get("num2");
-
-            if (num2 == 0) {
-                throw new IllegalArgumentException("Cannot divide by zero");
-            }
-
-            double result = num1 / num2;
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("result", result);
-
-            apiLogService.completeLog(apiLog, response, startTime);
+            CompiledExpression plan = expressionCompiler.compile(request.expression());
+            ExpressionResponse response = plan.evaluateAll(bindings);
+            apiLogService.completeLog(apiLog, Map.of("bindings", bindings.size(), "errors", response.errorCount()), startTime);
             return response;
         } catch (Exception e) {
             apiLogService.logError(apiLog, e, startTime);
             throw e;
         }
     }
+
+    @GetMapping("/evaluate/cache-stats")
+    @Operation(summary = "Expression plan cache statistics")
+    public Map<String, Object> evaluateCacheStats() {
+        return expressionCompiler.cacheStats();
+    }
 }
 
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 class MathOperationsExceptionHandler {
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
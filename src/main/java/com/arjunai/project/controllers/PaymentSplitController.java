@@ -1,29 +1,35 @@
 package com.arjunai.project.controllers;
 
 import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.models.ItemizedSplitRequest;
+import com.arjunai.project.models.ItemizedSplitResponse;
+import com.arjunai.project.models.SettlementRequest;
+import com.arjunai.project.models.SettlementResponse;
 import com.arjunai.project.services.ApiLogService;
+import com.arjunai.project.services.BulkSplitProcessor;
+import com.arjunai.project.services.ItemizedSplitCalculator;
+import com.arjunai.project.services.SettlementCalculator;
+import com.arjunai.project.services.SplitCalculator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.Arrays;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
 /**
@@ -35,12 +41,14 @@ import java.io.IOException;
  */
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/split")
 @Tag(name = "Payment Split", description = "Payment splitting operations API")
 @RequiredArgsConstructor
 public class PaymentSplitController {
 
     private final ApiLogService apiLogService;
+    private final BulkSplitProcessor bulkSplitProcessor;
 
     /**
      * Splits amount equally among people with performance monitoring.
@@ -59,10 +67,7 @@ public class PaymentSplitController {
         ApiLog apiLog = apiLogService.startLog("splitEqually", endpoint, request);
         
         try {
-            if (people <= 0) {
-                throw new IllegalArgumentException("Number of people must be greater than zero");
-            }
-            Double result = amount / people;
+            Double result = SplitCalculator.splitEqually(amount, people);
             apiLogService.completeLog(apiLog, result, startTime);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
@@ -89,11 +94,7 @@ public class PaymentSplitController {
         ApiLog apiLog = apiLogService.startLog("splitWithTip", endpoint, request);
         
         try {
-            if (people <= 0) {
-                throw new IllegalArgumentException("Number of people must be greater than zero");
-            }
-            double totalAmount = amount * (1 + tipPercentage / 100);
-            Double result = totalAmount / people;
+            Double result = SplitCalculator.splitWithTip(amount, people, tipPercentage);
             apiLogService.completeLog(apiLog, result, startTime);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
@@ -102,8 +103,63 @@ public class PaymentSplitController {
         }
     }
 
+    /**
+     * Splits amount equally into exact cents; the first people in line carry the leftover cents.
+     *
+     * @param amount Total amount to split
+     * @param people Number of people
+     * @return One share per person, adding up to the amount
+     * @throws IllegalArgumentException if people count or amount is invalid
+     */
+    @Operation(summary = "Split amount equally into exact-cent shares")
+    @GetMapping("/equal/shares")
+    public ResponseEntity<double[]> splitEquallyShares(@RequestParam double amount, @RequestParam int people) {
+        Instant startTime = Instant.now();
+        String endpoint = "/api/split/equal/shares";
+        Map<String, Object> request = Map.of("amount", amount, "people", people);
+        ApiLog apiLog = apiLogService.startLog("splitEquallyShares", endpoint, request);
+
+        try {
+            double[] shares = SplitCalculator.splitEquallyShares(amount, people);
+            apiLogService.completeLog(apiLog, Arrays.toString(shares), startTime);
+            return ResponseEntity.ok(shares);
+        } catch (Exception e) {
+            apiLogService.logError(apiLog, e, startTime);
+            throw e;
+        }
+    }
+
+    /**
+     * Splits amount plus tip into exact cents. The tip is rounded to the nearest cent before splitting.
+     *
+     * @param amount Total amount to split
+     * @param people Number of people
+     * @param tipPercentage Tip percentage
+     * @return One share per person, adding up to the amount plus tip
+     * @throws IllegalArgumentException if input parameters are invalid
+     */
+    @Operation(summary = "Split amount with tip into exact-cent shares")
+    @GetMapping("/with-tip/shares")
+    public ResponseEntity<double[]> splitWithTipShares(@RequestParam double amount, @RequestParam int people,
+                                                       @RequestParam double tipPercentage) {
+        Instant startTime = Instant.now();
+        String endpoint = "/api/split/with-tip/shares";
+        Map<String, Object> request = Map.of("amount", amount, "people", people, "tipPercentage", tipPercentage);
+        ApiLog apiLog = apiLogService.startLog("splitWithTipShares", endpoint, request);
+
+        try {
+            double[] shares = SplitCalculator.splitWithTipShares(amount, people, tipPercentage);
+            apiLogService.completeLog(apiLog, Arrays.toString(shares), startTime);
+            return ResponseEntity.ok(shares);
+        } catch (Exception e) {
+            apiLogService.logError(apiLog, e, startTime);
+            throw e;
+        }
+    }
+
     /**
      * Splits amount according to custom ratios with performance monitoring.
+     * Shares are exact cents allocated by largest remainder, so they add up to the amount.
      *
      * @param amount Total amount to split
      * @param ratios Array of ratios for splitting
@@ -112,21 +168,15 @@ public class PaymentSplitController {
      */
     @Operation(summary = "Split amount with custom ratios")
     @PostMapping("/custom")
-    public ResponseEntity<List<Double>> splitCustom(@RequestParam double amount, @RequestParam double[] ratios) {
+    public ResponseEntity<double[]> splitCustom(@RequestParam double amount, @RequestParam double[] ratios) {
         Instant startTime = Instant.now();
         String endpoint = "/api/split/custom";
         Map<String, Object> request = Map.of("amount", amount, "ratios", ratios);
         ApiLog apiLog = apiLogService.startLog("splitCustom", endpoint, request);
         
         try {
-            if (ratios == null || ratios.length == 0) {
-                throw new IllegalArgumentException("At least one ratio is required");
-            }
-            double totalRatio = Arrays.stream(ratios).sum();
-            List<Double> shares = Arrays.stream(ratios)
-                    .mapToObj(ratio -> (ratio / totalRatio) * amount)
-                    .collect(Collectors.toList());
-            apiLogService.completeLog(apiLog, shares, startTime);
+            double[] shares = SplitCalculator.splitCustomShares(amount, ratios);
+            apiLogService.completeLog(apiLog, Arrays.toString(shares), startTime);
             return ResponseEntity.ok(shares);
         } catch (Exception e) {
             apiLogService.logError(apiLog, e, startTime);
@@ -135,7 +185,8 @@ public class PaymentSplitController {
     }
 
     /**
-     * Splits bill by items with performance monitoring.
+     * Splits bill by items with performance monitoring. This is the simple itemized case: every
+     * item is shared equally by all participants, in exact cents.
      *
      * @param itemsRequest Map of items and their prices
      * @param participants List of participants
@@ -155,27 +206,7 @@ public class PaymentSplitController {
         ApiLog apiLog = apiLogService.startLog("splitByItems", endpoint, request);
         
         try {
-            if (participants == null || participants.length == 0) {
-                throw new IllegalArgumentException("At least one participant is required");
-            }
-            if (itemsRequest == null || itemsRequest.isEmpty()) {
-                throw new IllegalArgumentException("At least one item is required");
-            }
-            
-            double total = itemsRequest.values().stream()
-                    .mapToDouble(Double::doubleValue)
-                    .sum();
-            
-            if (total <= 0) {
-                throw new IllegalArgumentException("Total amount must be greater than zero");
-            }
-            
-            double perPerson = total / participants.length;
-            
-            Map<String, Double> result = new HashMap<>();
-            for (String participant : participants) {
-                result.put(participant, perPerson);
-            }
+            Map<String, Double> result = ItemizedSplitCalculator.splitEvenly(itemsRequest, participants);
             
             apiLogService.completeLog(apiLog, result, startTime);
             return ResponseEntity.ok(result);
@@ -184,9 +215,95 @@ public class PaymentSplitController {
             throw e;
         }
     }
+
+    /**
+     * Splits an itemized bill where each item is shared by a subset of participants, optionally
+     * weighted, with tax and tip applied in proportion to each participant's subtotal.
+     *
+     * @param itemized Participants, items with the participant indexes sharing them, tax and tip
+     * @return Per-participant subtotal, tax, tip and total in exact cents
+     * @throws IllegalArgumentException if input parameters are invalid
+     */
+    @Operation(summary = "Split an itemized bill")
+    @PostMapping("/itemized")
+    public ResponseEntity<ItemizedSplitResponse> splitItemized(@RequestBody ItemizedSplitRequest itemized) {
+        Instant startTime = Instant.now();
+        String endpoint = "/api/split/itemized";
+        String[] participants = itemized.participants();
+        Map<String, Object> request = new HashMap<>();
+        request.put("participants", participants != null ? participants.length : 0);
+        request.put("items", itemized.items() != null ? itemized.items().size() : 0);
+        request.put("taxPercentage", itemized.taxPercentage());
+        request.put("tipPercentage", itemized.tipPercentage());
+        ApiLog apiLog = apiLogService.startLog("splitItemized", endpoint, request);
+
+        try {
+            ItemizedSplitResponse response = ItemizedSplitCalculator.split(itemized);
+            apiLogService.completeLog(apiLog, Map.of("total", response.total()), startTime);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            apiLogService.logError(apiLog, e, startTime);
+            throw e;
+        }
+    }
+
+    /**
+     * Settles a group's expenses: nets what each member paid against their share of every expense and
+     * returns the transfers that even the balances out, at most one fewer than the members left owing
+     * or owed.
+     *
+     * @param settlement Members, and expenses with their payer and the member indexes sharing them
+     * @return Net balance per member and the transfers between members, in exact cents
+     * @throws IllegalArgumentException if input parameters are invalid
+     */
+    @Operation(summary = "Settle group expenses with a minimal set of transfers")
+    @PostMapping("/settle")
+    public ResponseEntity<SettlementResponse> settle(@RequestBody SettlementRequest settlement) {
+        Instant startTime = Instant.now();
+        String endpoint = "/api/split/settle";
+        Map<String, Object> request = new HashMap<>();
+        request.put("members", settlement.members() != null ? settlement.members().length : 0);
+        request.put("expenses", settlement.expenses() != null ? settlement.expenses().size() : 0);
+        ApiLog apiLog = apiLogService.startLog("settle", endpoint, request);
+
+        try {
+            SettlementResponse response = SettlementCalculator.settle(settlement);
+            apiLogService.completeLog(apiLog, Map.of("transfers", response.amounts().length, "total", response.total()), startTime);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            apiLogService.logError(apiLog, e, startTime);
+            throw e;
+        }
+    }
+
+    /**
+     * Streams newline-delimited split jobs and writes one NDJSON result line per job as chunks complete.
+     *
+     * @param request Request whose body holds one job per line, e.g. {"mode":"equal","amount":100,"people":4}
+     * @param response Response that receives {"line":n,"result":...}, {"line":n,"shares":[...]} or {"line":n,"error":"..."}
+     * @throws IOException if reading the request or writing the response fails
+     */
+    @Operation(summary = "Bulk split jobs streamed as NDJSON")
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson", produces = "application/x-ndjson")
+    public void splitBulk(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Instant startTime = Instant.now();
+        String endpoint = "/api/split/bulk";
+        ApiLog apiLog = apiLogService.startLog("splitBulk", endpoint, Map.of("contentLength", request.getContentLengthLong()));
+
+        try {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType("application/x-ndjson");
+            BulkSplitProcessor.Summary summary = bulkSplitProcessor.process(request.getInputStream(), response.getOutputStream());
+            apiLogService.completeLog(apiLog, Map.of("jobs", summary.jobs(), "errors", summary.errors()), startTime);
+        } catch (Exception e) {
+            apiLogService.logError(apiLog, e, startTime);
+            throw e;
+        }
+    }
 }
 
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 class PaymentSplitExceptionHandler {
     private final ApiLogService apiLogService;
 
@@ -207,9 +324,8 @@ class PaymentSplitExceptionHandler {
         Map<String, Object> requestData = new HashMap<>();
         requestData.put("body", e.getMessage());
         
-        ApiLog apiLog = apiLogService.startLog("splitByItems", endpoint, requestData);
-        apiLogService.logError(apiLog, e, Instant.now());
-        
+        apiLogService.logRejected("splitByItems", endpoint, requestData, e);
+
         return ResponseEntity.badRequest().body("Invalid JSON format");
     }
 } 
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.arjunai.project.controllers;
+
+import com.arjunai.project.models.ApiLogRollup;
+import com.arjunai.project.models.MethodRollupSummary;
+import com.arjunai.project.repositories.ApiLogRollupRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Controller for dashboard queries over the per-minute api_log_rollups table.
+ * Replaces the GROUP BY queries over raw api_logs rows.
+ */
+@RestController
+@RequestMapping("/api/stats/rollups")
+@Tag(name = "Rollup Stats", description = "Per-method and per-minute aggregates from api_log_rollups")
+@RequiredArgsConstructor
+public class RollupStatsController {
+
+    private final ApiLogRollupRepository apiLogRollupRepository;
+
+    @GetMapping
+    @Operation(summary = "Per-method call counts and execution times over the last N minutes")
+    public List<MethodRollupSummary> summary(@RequestParam(defaultValue = "15") int minutes) {
+        return apiLogRollupRepository.summarizeByMethodSince(since(minutes));
+    }
+
+    @GetMapping("/{methodName}")
+    @Operation(summary = "Per-minute rollups for one method over the last N minutes")
+    public List<ApiLogRollup> perMinute(@PathVariable String methodName, @RequestParam(defaultValue = "15") int minutes) {
+        return apiLogRollupRepository.findByMethodNameAndMinuteStartGreaterThanEqualOrderByMinuteStart(methodName, since(minutes));
+    }
+
+    private static Instant since(int minutes) {
+        if (minutes <= 0) {
+            throw new IllegalArgumentException("Minutes must be greater than zero");
+        }
+        return Instant.now().minus(Duration.ofMinutes(minutes));
+    }
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.time.Instant;
 
 @Entity
@@ -14,17 +16,47 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ApiLog {
+    /**
+     * Pooled table allocation: one round-trip to id_allocations reserves a block of
+     * ALLOCATION_SIZE ids, so inserts no longer need a generated key back from the
+     * driver and Hibernate can send them as JDBC batches.
+     */
+    public static final int ALLOCATION_SIZE = 100;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "api_log_id")
+    @TableGenerator(
+            name = "api_log_id",
+            table = "id_allocations",
+            pkColumnName = "sequence_name",
+            valueColumnName = "next_val",
+            pkColumnValue = "api_logs",
+            initialValue = 1,
+            allocationSize = ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "method_name")
     private String methodName;
 
     private String endpoint;
+
+    // LONGTEXT as in schema.sql, so Hibernate-generated schemas (H2 in tests and load tests) accept large payloads
+    @Column(columnDefinition = "LONGTEXT")
     private String request;
+
+    @Column(columnDefinition = "LONGTEXT")
     private String response;
 
+    /**
+     * Id of the request body in api_log_payloads. Once ApiLogPayloadStore has externalized a record,
+     * this is set and {@link #request} is null; rows written with payload storage off keep the text.
+     */
+    @Column(name = "request_payload", columnDefinition = "BINARY(16)")
+    private byte[] requestPayload;
+
+    @Column(name = "response_payload", columnDefinition = "BINARY(16)")
+    private byte[] responsePayload;
+
     @Column(name = "request_time")
     private Instant requestTime;
 
@@ -34,8 +66,26 @@ public class ApiLog {
     @Column(name = "execution_time_ms")
     private Long executionTimeMs;
 
-    @Column(name = "error_message")
+    @Column(name = "error_message", columnDefinition = "LONGTEXT")
     private String errorMessage;
 
     private boolean successful;
+
+    /**
+     * Number of calls this row stands for: 1 for errors and slow calls, and the inverse of the
+     * sampling rate for a fast successful call kept by ApiLogSampler, so SUM(sample_weight) estimates
+     * the call count.
+     */
+    @Builder.Default
+    @Column(name = "sample_weight", columnDefinition = "DOUBLE NOT NULL DEFAULT 1")
+    private double sampleWeight = 1;
+
+    /**
+     * {@code nanoTime} at which the current phase of the call began, for ApiPhaseMetrics; 0 once the
+     * last phase has been recorded. Not persisted.
+     */
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long phaseStartNanos;
 } 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.arjunai.project.models;
+
+import java.time.Instant;
+
+/**
+ * An api_logs row as returned by the log query API, with request and response resolved from
+ * api_log_payloads.
+ */
+public record ApiLogEntry(
+        long id,
+        String methodName,
+        String endpoint,
+        String request,
+        String response,
+        Instant requestTime,
+        Instant responseTime,
+        Long executionTimeMs,
+        String errorMessage,
+        boolean successful,
+        double sampleWeight) {
+}
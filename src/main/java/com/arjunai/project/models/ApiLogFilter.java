@@ -0,0 +1,15 @@
+package com.arjunai.project.models;
+
+import java.time.Instant;
+
+/**
+ * Conditions on api_logs rows; null fields don't filter. The time range applies to request_time,
+ * with {@code from} inclusive and {@code to} exclusive.
+ */
+public record ApiLogFilter(
+        String methodName,
+        String endpoint,
+        Boolean successful,
+        Instant from,
+        Instant to) {
+}
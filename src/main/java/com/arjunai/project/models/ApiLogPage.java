@@ -0,0 +1,12 @@
+package com.arjunai.project.models;
+
+import java.util.List;
+
+/**
+ * One page of api_logs rows. {@code nextCursor} continues after the last entry and is null on the
+ * last page.
+ */
+public record ApiLogPage(
+        List<ApiLogEntry> entries,
+        String nextCursor) {
+}
@@ -0,0 +1,41 @@
+package com.arjunai.project.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A distinct api log request or response body, keyed by its 128-bit MurmurHash3 and referenced by
+ * api_logs.request_payload and response_payload. Written and read by ApiLogPayloadStore.
+ */
+@Entity
+@Table(name = "api_log_payloads", indexes = @Index(name = "idx_payload_last_referenced", columnList = "last_referenced"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiLogPayload {
+
+    public static final int CODEC_UTF8 = 0;
+    public static final int CODEC_DEFLATE = 1;
+
+    @Id
+    @Column(columnDefinition = "BINARY(16)")
+    private byte[] id;
+
+    /** {@link #CODEC_UTF8} or {@link #CODEC_DEFLATE} (raw deflate of the UTF-8 bytes). */
+    @Column(nullable = false)
+    private int codec;
+
+    @Column(name = "original_length", nullable = false)
+    private int originalLength;
+
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] body;
+
+    /** Last day (UTC) a stored api log referenced this payload; drives retention. */
+    @Column(name = "last_referenced", nullable = false)
+    private LocalDate lastReferenced;
+}
@@ -0,0 +1,79 @@
+package com.arjunai.project.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Per-method, per-minute aggregate of api_logs, maintained by ApiLogRollupJob.
+ */
+@Entity
+@Table(name = "api_log_rollups")
+@IdClass(ApiLogRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiLogRollup {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String methodName;
+        private Instant minuteStart;
+    }
+
+    @Id
+    @Column(name = "method_name")
+    private String methodName;
+
+    @Id
+    @Column(name = "minute_start")
+    private Instant minuteStart;
+
+    @Column(name = "call_count")
+    private long callCount;
+
+    @Column(name = "error_count")
+    private long errorCount;
+
+    @Column(name = "sum_execution_time_ms")
+    private long sumExecutionTimeMs;
+
+    @Column(name = "success_sum_execution_time_ms")
+    private long successSumExecutionTimeMs;
+
+    @Column(name = "min_execution_time_ms")
+    private long minExecutionTimeMs;
+
+    @Column(name = "max_execution_time_ms")
+    private long maxExecutionTimeMs;
+
+    @Column(name = "le_1ms")
+    private long le1ms;
+
+    @Column(name = "le_5ms")
+    private long le5ms;
+
+    @Column(name = "le_10ms")
+    private long le10ms;
+
+    @Column(name = "le_50ms")
+    private long le50ms;
+
+    @Column(name = "le_100ms")
+    private long le100ms;
+
+    @Column(name = "le_500ms")
+    private long le500ms;
+
+    @Column(name = "le_1000ms")
+    private long le1000ms;
+
+    @Column(name = "gt_1000ms")
+    private long gt1000ms;
+}
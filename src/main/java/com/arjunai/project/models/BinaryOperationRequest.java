@@ -0,0 +1,10 @@
+package com.arjunai.project.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Operands of a two-argument math operation, e.g. {@code {"num1": 5, "num2": 3}}.
+ */
+public record BinaryOperationRequest(@JsonProperty(required = true) double num1,
+                                     @JsonProperty(required = true) double num2) {
+}
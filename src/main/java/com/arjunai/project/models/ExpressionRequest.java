@@ -0,0 +1,21 @@
+package com.arjunai.project.models;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expression to evaluate, with either one set of {@code variables} or many {@code bindings}
+ * that all reuse the same compiled plan.
+ */
+public record ExpressionRequest(String expression, Map<String, Double> variables, List<Map<String, Double>> bindings) {
+
+    /**
+     * The bindings to evaluate: {@code bindings} when given, otherwise the single {@code variables} map.
+     */
+    public List<Map<String, Double>> resolvedBindings() {
+        if (bindings != null) {
+            return bindings;
+        }
+        return List.of(variables != null ? variables : Map.of());
+    }
+}
@@ -0,0 +1,7 @@
+package com.arjunai.project.models;
+
+/**
+ * One result per binding. Bindings that divide by zero have a NaN result and {@code errors[i] == true}.
+ */
+public record ExpressionResponse(double[] results, boolean[] errors, int errorCount) {
+}
@@ -0,0 +1,14 @@
+package com.arjunai.project.models;
+
+import java.util.List;
+
+/**
+ * Itemized bill. Each item is shared by the participants listed by index in {@code sharedBy}
+ * (everyone when omitted), optionally with one weight per entry. Tax and tip percentages apply
+ * to the bill subtotal and are split in proportion to what each participant consumed.
+ */
+public record ItemizedSplitRequest(String[] participants, List<Item> items, double taxPercentage, double tipPercentage) {
+
+    public record Item(String name, double price, int[] sharedBy, double[] weights) {
+    }
+}
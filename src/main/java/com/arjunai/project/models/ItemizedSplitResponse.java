@@ -0,0 +1,10 @@
+package com.arjunai.project.models;
+
+/**
+ * Per-participant amounts of an itemized split, in request order. Every column adds up exactly:
+ * {@code subtotals} to the item prices, {@code tax} and {@code tip} to their bill-level amounts,
+ * and {@code totals} to {@code total}.
+ */
+public record ItemizedSplitResponse(String[] participants, double[] subtotals, double[] tax, double[] tip,
+                                    double[] totals, double total) {
+}
@@ -0,0 +1,16 @@
+package com.arjunai.project.models;
+
+/**
+ * Latency summary for one endpoint over one sliding window. Latencies are in milliseconds.
+ */
+public record LatencyStats(
+        long count,
+        long errors,
+        double errorRate,
+        double meanMs,
+        double p50Ms,
+        double p90Ms,
+        double p99Ms,
+        double p999Ms,
+        double maxMs) {
+}
@@ -0,0 +1,8 @@
+package com.arjunai.project.models;
+
+/**
+ * Net balance per member of a ledger group, positive when the member is owed money, after
+ * {@code expenses} expenses. The balances add up to zero.
+ */
+public record LedgerBalances(String groupId, String[] members, double[] balances, long expenses) {
+}
@@ -0,0 +1,8 @@
+package com.arjunai.project.models;
+
+/**
+ * An expense as booked: {@code payer} is credited {@code total}, and each participant is debited
+ * the share at the same position. The shares add up to the total exactly.
+ */
+public record LedgerEntry(String payer, double total, String[] participants, double[] shares) {
+}
@@ -0,0 +1,13 @@
+package com.arjunai.project.models;
+
+import java.util.Map;
+
+/**
+ * Expense added to a ledger group, split with one of the /api/split modes: {@code equal},
+ * {@code with-tip} (uses {@code tipPercentage}), {@code custom} (one ratio per participant) or
+ * {@code by-items} (each item in {@code items} shared equally; {@code amount} is ignored).
+ * {@code participants} are member names and default to every member of the group.
+ */
+public record LedgerExpenseRequest(String payer, String mode, double amount, String[] participants,
+                                   double tipPercentage, double[] ratios, Map<String, Double> items) {
+}
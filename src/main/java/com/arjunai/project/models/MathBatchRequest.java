@@ -0,0 +1,8 @@
+package com.arjunai.project.models;
+
+/**
+ * Columnar batch of arithmetic operations: element {@code i} computes {@code lhs[i] ops[i] rhs[i]}.
+ * Op codes are 0 = add, 1 = subtract, 2 = multiply, 3 = divide.
+ */
+public record MathBatchRequest(int[] ops, double[] lhs, double[] rhs) {
+}
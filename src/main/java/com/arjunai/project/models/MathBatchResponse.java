@@ -0,0 +1,8 @@
+package com.arjunai.project.models;
+
+/**
+ * Per-element results of a {@link MathBatchRequest}. Elements with {@code errors[i] == true}
+ * (division by zero or an unknown op code) have a NaN result.
+ */
+public record MathBatchResponse(double[] results, boolean[] errors, int errorCount) {
+}
@@ -0,0 +1,14 @@
+package com.arjunai.project.models;
+
+/**
+ * Aggregate of api_log_rollups for one method over a time range.
+ */
+public record MethodRollupSummary(
+        String methodName,
+        long totalCalls,
+        long successfulCalls,
+        long failedCalls,
+        Double avgExecutionTimeMs,
+        long minExecutionTimeMs,
+        long maxExecutionTimeMs) {
+}
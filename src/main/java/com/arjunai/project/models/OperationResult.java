@@ -0,0 +1,7 @@
+package com.arjunai.project.models;
+
+/**
+ * Result of a single math operation, serialized as {@code {"result": 8.0}}.
+ */
+public record OperationResult(double result) {
+}
@@ -0,0 +1,14 @@
+package com.arjunai.project.models;
+
+import java.util.List;
+
+/**
+ * Group expenses to settle. Each expense was paid by the member at index {@code payer} and is owed
+ * by the members listed by index in {@code beneficiaries} (everyone when omitted), in proportion to
+ * {@code ratios} when given and equally otherwise.
+ */
+public record SettlementRequest(String[] members, List<Expense> expenses) {
+
+    public record Expense(int payer, double amount, int[] beneficiaries, double[] ratios) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.arjunai.project.models;
+
+/**
+ * Net balance per member in request order, positive when the member is owed money, and the
+ * transfers that settle them: member {@code from[i]} pays {@code amounts[i]} to member {@code to[i]}.
+ * {@code total} is the sum of the transfers.
+ */
+public record SettlementResponse(String[] members, double[] balances, int[] from, int[] to, double[] amounts,
+                                 double total) {
+}
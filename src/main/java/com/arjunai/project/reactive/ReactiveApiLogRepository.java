@@ -0,0 +1,152 @@
+package com.arjunai.project.reactive;
+
+import com.arjunai.project.models.ApiLog;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Statement;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Non-blocking batch inserts into api_logs over R2DBC.
+ * <p>
+ * Ids come from the same id_allocations row as the JPA table generator and follow its pooled
+ * semantics: reading {@code next_val = v} and bumping it by {@code k * ALLOCATION_SIZE} reserves
+ * {@code v - 99 .. v + (k - 1) * 100}, so servlet and reactive instances can share one table.
+ * The allocation runs in its own short transaction; each batch is then inserted in one transaction.
+ */
+public class ReactiveApiLogRepository {
+
+    private static final String SELECT_NEXT_VAL =
+            "SELECT next_val FROM id_allocations WHERE sequence_name = 'api_logs' FOR UPDATE";
+    private static final String UPDATE_NEXT_VAL =
+            "UPDATE id_allocations SET next_val = next_val + %s WHERE sequence_name = 'api_logs'";
+    private static final String INSERT = "INSERT INTO api_logs (id, method_name, endpoint, request, response, "
+            + "request_payload, response_payload, request_time, response_time, execution_time_ms, error_message, "
+            + "successful, sample_weight) VALUES (%s, %s, %s, %s, %s, %s, %s, %s, %s, %s, %s, %s, %s)";
+
+    private final ConnectionFactory connectionFactory;
+    private final boolean dollarMarkers;
+
+    public ReactiveApiLogRepository(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+        // MySQL takes ? bind markers; H2 and PostgreSQL take $1, $2, ...
+        this.dollarMarkers = !connectionFactory.getMetadata().getName().toLowerCase().contains("mysql");
+    }
+
+    /**
+     * Disposes the connection factory when it is a pool.
+     */
+    public void close() {
+        if (connectionFactory instanceof Disposable disposable) {
+            disposable.dispose();
+        }
+    }
+
+    /**
+     * Inserts the batch, assigning ids to the records as they are written.
+     */
+    public Mono<Void> insertAll(List<ApiLog> batch) {
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        return allocateIds(batch.size())
+                .flatMap(firstId -> inTransaction(connection -> insert(connection, batch, firstId)));
+    }
+
+    /**
+     * Reserves at least {@code count} consecutive ids.
+     *
+     * @return The first reserved id
+     */
+    Mono<Long> allocateIds(int count) {
+        return inTransaction(connection -> Flux.from(connection.createStatement(SELECT_NEXT_VAL).execute())
+                .flatMap(result -> result.map((row, metadata) -> row.get(0, Long.class)))
+                .single()
+                .flatMap(nextVal -> {
+                    long firstId = Math.max(1, nextVal - ApiLog.ALLOCATION_SIZE + 1);
+                    long shortfall = Math.max(0, firstId + count - 1 - nextVal);
+                    long blocks = 1 + (shortfall + ApiLog.ALLOCATION_SIZE - 1) / ApiLog.ALLOCATION_SIZE;
+                    return Flux.from(connection.createStatement(UPDATE_NEXT_VAL.formatted(marker(1)))
+                                    .bind(0, blocks * ApiLog.ALLOCATION_SIZE)
+                                    .execute())
+                            .flatMap(result -> result.getRowsUpdated())
+                            .then(Mono.just(firstId));
+                }));
+    }
+
+    private Mono<Void> insert(Connection connection, List<ApiLog> batch, long firstId) {
+        Statement statement = connection.createStatement(INSERT.formatted(
+                marker(1), marker(2), marker(3), marker(4), marker(5),
+                marker(6), marker(7), marker(8), marker(9), marker(10), marker(11), marker(12), marker(13)));
+        long id = firstId;
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            ApiLog apiLog = batch.get(i);
+            apiLog.setId(id++);
+            statement.bind(0, apiLog.getId());
+            statement.bind(1, apiLog.getMethodName());
+            statement.bind(2, apiLog.getEndpoint());
+            bindNullable(statement, 3, apiLog.getRequest());
+            bindNullable(statement, 4, apiLog.getResponse());
+            bindNullable(statement, 5, apiLog.getRequestPayload());
+            bindNullable(statement, 6, apiLog.getResponsePayload());
+            statement.bind(7, toLocal(apiLog.getRequestTime()));
+            statement.bind(8, toLocal(apiLog.getResponseTime()));
+            statement.bind(9, apiLog.getExecutionTimeMs());
+            bindNullable(statement, 10, apiLog.getErrorMessage());
+            statement.bind(11, apiLog.isSuccessful());
+            statement.bind(12, apiLog.getSampleWeight());
+        }
+        return Flux.from(statement.execute())
+                .flatMap(result -> result.getRowsUpdated())
+                .then();
+    }
+
+    private <T> Mono<T> inTransaction(Function<Connection, Mono<T>> work) {
+        return Mono.usingWhen(Mono.from(connectionFactory.create()),
+                connection -> Mono.from(connection.beginTransaction())
+                        .then(work.apply(connection))
+                        .flatMap(value -> Mono.from(connection.commitTransaction()).thenReturn(value))
+                        .switchIfEmpty(Mono.defer(() -> Mono.from(connection.commitTransaction()).then(Mono.empty()))),
+                Connection::close,
+                (connection, error) -> Mono.from(connection.rollbackTransaction()).then(Mono.from(connection.close())),
+                Connection::close);
+    }
+
+    private String marker(int position) {
+        return dollarMarkers ? "$" + position : "?";
+    }
+
+    private static void bindNullable(Statement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index, String.class);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+    // BINARY maps to ByteBuffer in R2DBC
+    private static void bindNullable(Statement statement, int index, byte[] value) {
+        if (value == null) {
+            statement.bindNull(index, ByteBuffer.class);
+        } else {
+            statement.bind(index, ByteBuffer.wrap(value));
+        }
+    }
+
+    // Same wall-clock convention as Hibernate, which writes Instants as TIMESTAMP in the JVM time zone
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,234 @@
+package com.arjunai.project.reactive;
+
+import com.arjunai.project.config.ApiLogWriteBehindProperties;
+import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.services.ApiLogJournal;
+import com.arjunai.project.services.ApiLogPayloadStore;
+import com.arjunai.project.services.ApiLogSampler;
+import com.arjunai.project.services.ApiPhaseMetrics;
+import com.arjunai.project.services.ApiPhaseMetrics.Phase;
+import com.arjunai.project.services.LatencyStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking counterpart of ApiLogService for the reactive controllers.
+ * <p>
+ * A log record is built in memory and, if {@link ApiLogSampler} keeps it, handed to a bounded sink
+ * when the request completes, which never waits on the database. A single side-stream groups the records by batch size or flush
+ * interval (the write-behind settings) and inserts each batch through {@link ReactiveApiLogRepository},
+ * after storing its payloads through the blocking {@link ApiLogPayloadStore} on a bounded-elastic thread.
+ * Records that don't fit in the buffer, and batches the database rejects, are spilled to the
+ * journal on a bounded-elastic thread and replayed later like any other spill.
+ */
+@Slf4j
+public class ReactiveApiLogService implements SmartLifecycle {
+
+    private final ReactiveApiLogRepository repository;
+    private final ApiLogJournal apiLogJournal;
+    private final LatencyStatsService latencyStatsService;
+    private final ApiLogSampler apiLogSampler;
+    private final ApiLogPayloadStore apiLogPayloadStore;
+    private final ApiPhaseMetrics apiPhaseMetrics;
+    private final ApiLogWriteBehindProperties properties;
+    private final Sinks.Many<ApiLog> sink;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final CountDownLatch drained = new CountDownLatch(1);
+
+    private volatile boolean running;
+    private Disposable subscription;
+
+    public ReactiveApiLogService(ReactiveApiLogRepository repository, ApiLogJournal apiLogJournal,
+                                 LatencyStatsService latencyStatsService, ApiLogSampler apiLogSampler,
+                                 ApiLogPayloadStore apiLogPayloadStore, ApiPhaseMetrics apiPhaseMetrics,
+                                 ApiLogWriteBehindProperties properties) {
+        this.repository = repository;
+        this.apiLogJournal = apiLogJournal;
+        this.latencyStatsService = latencyStatsService;
+        this.apiLogSampler = apiLogSampler;
+        this.apiLogPayloadStore = apiLogPayloadStore;
+        this.apiPhaseMetrics = apiPhaseMetrics;
+        this.properties = properties;
+        this.sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<ApiLog>get(properties.getQueueCapacity()).get());
+    }
+
+    /**
+     * Starts a log entry. Phase timings match ApiLogService, except that there is no binding phase:
+     * WebFlux resolves arguments before the handler's Mono is even subscribed.
+     */
+    public ApiLog startLog(String methodName, String endpoint, Object request) {
+        long entered = System.nanoTime();
+        ApiLog apiLog = new ApiLog();
+        apiLog.setMethodName(methodName);
+        apiLog.setEndpoint(endpoint);
+        apiLog.setRequest(request.toString());
+        apiLog.setRequestTime(Instant.now());
+        long done = System.nanoTime();
+        apiPhaseMetrics.record(methodName, Phase.START_LOG, done - entered);
+        apiLog.setPhaseStartNanos(done);
+        return apiLog;
+    }
+
+    public void completeLog(ApiLog apiLog, Object response, Instant startTime) {
+        finish(apiLog, startTime, true);
+        apiLog.setResponse(response.toString());
+        submit(apiLog);
+        endCompleteLogPhase(apiLog);
+    }
+
+    public void logError(ApiLog apiLog, Exception e, Instant startTime) {
+        finish(apiLog, startTime, false);
+        apiLog.setErrorMessage(e.getMessage());
+        submit(apiLog);
+        endCompleteLogPhase(apiLog);
+    }
+
+    private void endCompleteLogPhase(ApiLog apiLog) {
+        apiPhaseMetrics.record(apiLog.getMethodName(), Phase.COMPLETE_LOG, System.nanoTime() - apiLog.getPhaseStartNanos());
+    }
+
+    private void finish(ApiLog apiLog, Instant startTime, boolean successful) {
+        long entered = System.nanoTime();
+        apiPhaseMetrics.record(apiLog.getMethodName(), Phase.COMPUTE, entered - apiLog.getPhaseStartNanos());
+        apiLog.setPhaseStartNanos(entered);
+        Instant now = Instant.now();
+        long micros = Duration.between(startTime, now).toNanos() / 1000;
+        latencyStatsService.record(apiLog.getMethodName(), micros, successful);
+        apiLog.setSampleWeight(apiLogSampler.weigh(apiLog.getMethodName(), micros, successful));
+        apiLog.setResponseTime(now);
+        apiLog.setExecutionTimeMs(now.toEpochMilli() - startTime.toEpochMilli());
+        apiLog.setSuccessful(successful);
+    }
+
+    private void submit(ApiLog apiLog) {
+        if (apiLog.getSampleWeight() == 0) {
+            return;
+        }
+        Sinks.EmitResult result;
+        // Concurrent emitters only contend for the instant it takes to enqueue, so spin rather than park
+        while ((result = sink.tryEmitNext(apiLog)) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            Thread.onSpinWait();
+        }
+        if (result.isFailure()) {
+            spillLater(List.of(apiLog), null);
+        }
+    }
+
+    private Mono<Void> write(List<ApiLog> batch) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Mono<Void> payloads = apiLogPayloadStore.isEnabled()
+                    ? Mono.<Void>fromRunnable(() -> apiLogPayloadStore.externalize(batch)).subscribeOn(Schedulers.boundedElastic())
+                    : Mono.empty();
+            return payloads.then(repository.insertAll(batch))
+                    .doOnSuccess(ignored -> {
+                        apiLogSampler.recordWrite(System.nanoTime() - start);
+                        written.addAndGet(batch.size());
+                    });
+        }).onErrorResume(e -> spillLater(batch, e));
+    }
+
+    private Mono<Void> spillLater(List<ApiLog> batch, Throwable cause) {
+        Mono<Void> spill = Mono.<Void>fromRunnable(() -> spill(batch, cause))
+                .subscribeOn(Schedulers.boundedElastic());
+        if (cause == null) {
+            // Overflow from a request thread: fire and forget so the response isn't held up
+            spill.subscribe();
+            return Mono.empty();
+        }
+        return spill;
+    }
+
+    private void spill(List<ApiLog> batch, Throwable cause) {
+        if (!apiLogJournal.isEnabled()) {
+            dropped.addAndGet(batch.size());
+            log.error("Dropped {} api logs", batch.size(), cause);
+            return;
+        }
+        if (cause != null) {
+            log.warn("Failed to write batch of {} api logs, spilling to journal", batch.size(), cause);
+        }
+        try {
+            batch.forEach(apiLogJournal::append);
+            spilled.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            dropped.addAndGet(batch.size());
+            log.error("Could not spill {} api logs to journal", batch.size(), e);
+        }
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        subscription = sink.asFlux()
+                .bufferTimeout(properties.getBatchSize(), properties.getFlushInterval(), true)
+                .concatMap(this::write)
+                .doFinally(signal -> drained.countDown())
+                .subscribe(null, e -> log.error("Reactive API log stream terminated", e));
+        log.info("Reactive API log stream started (batchSize={}, flushInterval={}, bufferCapacity={})",
+                properties.getBatchSize(), properties.getFlushInterval(), properties.getQueueCapacity());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        sink.tryEmitComplete();
+        try {
+            if (!drained.await(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Reactive API log stream did not drain within {}", properties.getShutdownTimeout());
+                subscription.dispose();
+            } else {
+                log.info("Reactive API log stream drained ({} written, {} spilled, {} dropped)",
+                        written.get(), spilled.get(), dropped.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server so in-flight requests can still submit, and before the
+     * connection pool is disposed.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
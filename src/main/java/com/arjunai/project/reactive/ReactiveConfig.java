@@ -0,0 +1,68 @@
+package com.arjunai.project.reactive;
+
+import com.arjunai.project.config.ApiLogWriteBehindProperties;
+import com.arjunai.project.services.ApiLogJournal;
+import com.arjunai.project.services.ApiLogPayloadStore;
+import com.arjunai.project.services.ApiLogSampler;
+import com.arjunai.project.services.ApiPhaseMetrics;
+import com.arjunai.project.services.LatencyStatsService;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans for the reactive stack, active when the application runs as a reactive web application
+ * (the {@code reactive} profile). The R2DBC pool is built here rather than by Boot's
+ * auto-configuration, which stays excluded so the servlet stack keeps a single JPA transaction manager.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveConfig {
+
+    /**
+     * Tomcat is on the classpath for the servlet stack and would otherwise be picked as the reactive
+     * server too; Netty serves keep-alive connections from a few event-loop threads.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * The pool is owned by the repository rather than exposed as a ConnectionFactory bean: Boot's
+     * DataSource auto-configuration backs off when one exists, and JPA still needs its DataSource.
+     */
+    @Bean(destroyMethod = "close")
+    public ReactiveApiLogRepository reactiveApiLogRepository(R2dbcProperties properties) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        R2dbcProperties.Pool pool = properties.getPool();
+        return new ReactiveApiLogRepository(new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build()));
+    }
+
+    @Bean
+    public ReactiveApiLogService reactiveApiLogService(ReactiveApiLogRepository reactiveApiLogRepository,
+                                                      ApiLogJournal apiLogJournal,
+                                                      LatencyStatsService latencyStatsService,
+                                                      ApiLogSampler apiLogSampler,
+                                                      ApiLogPayloadStore apiLogPayloadStore,
+                                                      ApiPhaseMetrics apiPhaseMetrics,
+                                                      ApiLogWriteBehindProperties properties) {
+        return new ReactiveApiLogService(reactiveApiLogRepository, apiLogJournal, latencyStatsService,
+                apiLogSampler, apiLogPayloadStore, apiPhaseMetrics, properties);
+    }
+}
@@ -0,0 +1,127 @@
+package com.arjunai.project.reactive;
+
+import com.arjunai.project.models.BinaryOperationRequest;
+import com.arjunai.project.models.ExpressionRequest;
+import com.arjunai.project.models.ExpressionResponse;
+import com.arjunai.project.models.MathBatchRequest;
+import com.arjunai.project.models.MathBatchResponse;
+import com.arjunai.project.models.OperationResult;
+import com.arjunai.project.services.ExpressionCompiler;
+import com.arjunai.project.services.LogPayloadEncoder;
+import com.arjunai.project.services.MathBatchEvaluator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * WebFlux variant of MathOperationsController with the same paths and payloads. Computation is
+ * CPU-only and runs on the event loop; the log record goes to {@link ReactiveApiLogService}'s
+ * side-stream, so responses never wait on the database.
+ */
+@RestController
+@RequestMapping("/api/math")
+@Tag(name = "Math Operations", description = "API endpoints for basic mathematical operations")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMathOperationsController {
+
+    private final ReactiveApiLogService apiLogService;
+    private final ExpressionCompiler expressionCompiler;
+
+    @PostMapping("/add")
+    @Operation(summary = "Add two numbers")
+    public Mono<OperationResult> add(@RequestBody Mono<BinaryOperationRequest> request) {
+        return request.map(body -> binary("add", "/api/math/add", body, (a, b) -> a + b));
+    }
+
+    @PostMapping("/subtract")
+    @Operation(summary = "Subtract two numbers")
+    public Mono<OperationResult> subtract(@RequestBody Mono<BinaryOperationRequest> request) {
+        return request.map(body -> binary("subtract", "/api/math/subtract", body, (a, b) -> a - b));
+    }
+
+    @PostMapping("/multiply")
+    @Operation(summary = "Multiply two numbers")
+    public Mono<OperationResult> multiply(@RequestBody Mono<BinaryOperationRequest> request) {
+        return request.map(body -> binary("multiply", "/api/math/multiply", body, (a, b) -> a * b));
+    }
+
+    @PostMapping("/divide")
+    @Operation(summary = "Divide two numbers")
+    public Mono<OperationResult> divide(@RequestBody Mono<BinaryOperationRequest> request) {
+        return request.map(body -> binary("divide", "/api/math/divide", body, (a, b) -> {
+            if (b == 0) {
+                throw new IllegalArgumentException("Cannot divide by zero");
+            }
+            return a / b;
+        }));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Evaluate a batch of operations",
+            description = "Columnar arrays: ops[i] applied to lhs[i] and rhs[i]. Op codes: 0 add, 1 subtract, 2 multiply, 3 divide")
+    public Mono<MathBatchResponse> batch(@RequestBody Mono<MathBatchRequest> request) {
+        return request.map(body -> {
+            int size = body.ops() != null ? body.ops().length : 0;
+            return logged("batch", "/api/math/batch", Map.of("size", size),
+                    () -> MathBatchEvaluator.evaluate(body),
+                    response -> Map.of("size", size, "errors", response.errorCount()));
+        });
+    }
+
+    @PostMapping("/evaluate")
+    @Operation(summary = "Evaluate an arithmetic expression",
+            description = "Supports + - * / % ^, parentheses, sqrt, abs, min, max and named variables")
+    public Mono<ExpressionResponse> evaluate(@RequestBody Mono<ExpressionRequest> request) {
+        return request.map(body -> {
+            var bindings = body.resolvedBindings();
+            Map<String, Object> logRequest = new HashMap<>();
+            logRequest.put("expression", body.expression());
+            logRequest.put("bindings", bindings.size());
+            return logged("evaluate", "/api/math/evaluate", logRequest,
+                    () -> expressionCompiler.compile(body.expression()).evaluateAll(bindings),
+                    response -> Map.of("bindings", bindings.size(), "errors", response.errorCount()));
+        });
+    }
+
+    @GetMapping("/evaluate/cache-stats")
+    @Operation(summary = "Expression plan cache statistics")
+    public Map<String, Object> evaluateCacheStats() {
+        return expressionCompiler.cacheStats();
+    }
+
+    private OperationResult binary(String methodName, String endpoint, BinaryOperationRequest body,
+                                   DoubleBinaryOperator operator) {
+        return logged(methodName, endpoint, LogPayloadEncoder.encode("num1", body.num1(), "num2", body.num2()),
+                () -> new OperationResult(operator.applyAsDouble(body.num1(), body.num2())),
+                response -> LogPayloadEncoder.encode("result", response.result()));
+    }
+
+    private <T> T logged(String methodName, String endpoint, Object logRequest, Supplier<T> work,
+                         Function<? super T, ?> logResponse) {
+        var startTime = Instant.now();
+        var apiLog = apiLogService.startLog(methodName, endpoint, logRequest);
+        try {
+            T response = work.get();
+            apiLogService.completeLog(apiLog, logResponse.apply(response), startTime);
+            return response;
+        } catch (Exception e) {
+            apiLogService.logError(apiLog, e, startTime);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.arjunai.project.reactive;
+
+import com.arjunai.project.models.ItemizedSplitRequest;
+import com.arjunai.project.models.ItemizedSplitResponse;
+import com.arjunai.project.models.SettlementRequest;
+import com.arjunai.project.models.SettlementResponse;
+import com.arjunai.project.services.ItemizedSplitCalculator;
+import com.arjunai.project.services.SettlementCalculator;
+import com.arjunai.project.services.SplitCalculator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * WebFlux variant of PaymentSplitController with the same paths and payloads, sharing
+ * SplitCalculator, ItemizedSplitCalculator and SettlementCalculator. The NDJSON /bulk endpoint is servlet-only,
+ * since BulkSplitProcessor works on blocking streams.
+ */
+@RestController
+@RequestMapping("/api/split")
+@Tag(name = "Payment Split", description = "Payment splitting operations API")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePaymentSplitController {
+
+    private final ReactiveApiLogService apiLogService;
+
+    @Operation(summary = "Split amount equally")
+    @GetMapping("/equal")
+    public Mono<Double> splitEqually(@RequestParam double amount, @RequestParam int people) {
+        return Mono.fromSupplier(() -> logged("splitEqually", "/api/split/equal",
+                Map.of("amount", amount, "people", people),
+                () -> SplitCalculator.splitEqually(amount, people)));
+    }
+
+    @Operation(summary = "Split amount with tip")
+    @GetMapping("/with-tip")
+    public Mono<Double> splitWithTip(@RequestParam double amount, @RequestParam int people,
+                                     @RequestParam double tipPercentage) {
+        return Mono.fromSupplier(() -> logged("splitWithTip", "/api/split/with-tip",
+                Map.of("amount", amount, "people", people, "tipPercentage", tipPercentage),
+                () -> SplitCalculator.splitWithTip(amount, people, tipPercentage)));
+    }
+
+    @Operation(summary = "Split amount equally into exact-cent shares")
+    @GetMapping("/equal/shares")
+    public Mono<double[]> splitEquallyShares(@RequestParam double amount, @RequestParam int people) {
+        return Mono.fromSupplier(() -> logged("splitEquallyShares", "/api/split/equal/shares",
+                Map.of("amount", amount, "people", people),
+                () -> SplitCalculator.splitEquallyShares(amount, people), Arrays::toString));
+    }
+
+    @Operation(summary = "Split amount with tip into exact-cent shares")
+    @GetMapping("/with-tip/shares")
+    public Mono<double[]> splitWithTipShares(@RequestParam double amount, @RequestParam int people,
+                                             @RequestParam double tipPercentage) {
+        return Mono.fromSupplier(() -> logged("splitWithTipShares", "/api/split/with-tip/shares",
+                Map.of("amount", amount, "people", people, "tipPercentage", tipPercentage),
+                () -> SplitCalculator.splitWithTipShares(amount, people, tipPercentage), Arrays::toString));
+    }
+
+    @Operation(summary = "Split amount with custom ratios")
+    @PostMapping("/custom")
+    public Mono<double[]> splitCustom(@RequestParam double amount, @RequestParam double[] ratios) {
+        return Mono.fromSupplier(() -> logged("splitCustom", "/api/split/custom",
+                Map.of("amount", amount, "ratios", ratios),
+                () -> SplitCalculator.splitCustomShares(amount, ratios), Arrays::toString));
+    }
+
+    @Operation(summary = "Split bill by items")
+    @PostMapping("/byItems")
+    public Mono<Map<String, Double>> splitByItems(@RequestBody Mono<Map<String, Double>> itemsRequest,
+                                                  @RequestParam String[] participants) {
+        return itemsRequest.map(items -> {
+            Map<String, Object> request = new HashMap<>();
+            request.put("items", items);
+            request.put("participants", participants);
+            return logged("splitByItems", "/api/split/byItems", request,
+                    () -> ItemizedSplitCalculator.splitEvenly(items, participants));
+        });
+    }
+
+    @Operation(summary = "Split an itemized bill")
+    @PostMapping("/itemized")
+    public Mono<ItemizedSplitResponse> splitItemized(@RequestBody Mono<ItemizedSplitRequest> itemizedRequest) {
+        return itemizedRequest.map(itemized -> {
+            Map<String, Object> request = new HashMap<>();
+            request.put("participants", itemized.participants() != null ? itemized.participants().length : 0);
+            request.put("items", itemized.items() != null ? itemized.items().size() : 0);
+            request.put("taxPercentage", itemized.taxPercentage());
+            request.put("tipPercentage", itemized.tipPercentage());
+            var startTime = Instant.now();
+            var apiLog = apiLogService.startLog("splitItemized", "/api/split/itemized", request);
+            try {
+                ItemizedSplitResponse response = ItemizedSplitCalculator.split(itemized);
+                apiLogService.completeLog(apiLog, Map.of("total", response.total()), startTime);
+                return response;
+            } catch (Exception e) {
+                apiLogService.logError(apiLog, e, startTime);
+                throw e;
+            }
+        });
+    }
+
+    @Operation(summary = "Settle group expenses with a minimal set of transfers")
+    @PostMapping("/settle")
+    public Mono<SettlementResponse> settle(@RequestBody Mono<SettlementRequest> settlementRequest) {
+        return settlementRequest.map(settlement -> {
+            Map<String, Object> request = new HashMap<>();
+            request.put("members", settlement.members() != null ? settlement.members().length : 0);
+            request.put("expenses", settlement.expenses() != null ? settlement.expenses().size() : 0);
+            var startTime = Instant.now();
+            var apiLog = apiLogService.startLog("settle", "/api/split/settle", request);
+            try {
+                SettlementResponse response = SettlementCalculator.settle(settlement);
+                apiLogService.completeLog(apiLog, Map.of("transfers", response.amounts().length, "total", response.total()), startTime);
+                return response;
+            } catch (Exception e) {
+                apiLogService.logError(apiLog, e, startTime);
+                throw e;
+            }
+        });
+    }
+
+    private <T> T logged(String methodName, String endpoint, Map<String, Object> request, Supplier<T> work) {
+        return logged(methodName, endpoint, request, work, result -> result);
+    }
+
+    // Arrays have no useful toString(), so the share endpoints pass Arrays::toString to log the amounts
+    private <T> T logged(String methodName, String endpoint, Map<String, Object> request, Supplier<T> work,
+                         Function<T, Object> logResponse) {
+        var startTime = Instant.now();
+        var apiLog = apiLogService.startLog(methodName, endpoint, request);
+        try {
+            T result = work.get();
+            apiLogService.completeLog(apiLog, logResponse.apply(result), startTime);
+            return result;
+        } catch (Exception e) {
+            apiLogService.logError(apiLog, e, startTime);
+            throw e;
+        }
+    }
+}
+
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+class ReactiveExceptionHandler {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<String> handleServerWebInputException(ServerWebInputException e) {
+        return ResponseEntity.badRequest().body("Invalid JSON format");
+    }
+}
@@ -0,0 +1,28 @@
+package com.arjunai.project.repositories;
+
+import com.arjunai.project.models.ApiLogRollup;
+import com.arjunai.project.models.MethodRollupSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ApiLogRollupRepository extends JpaRepository<ApiLogRollup, ApiLogRollup.Key> {
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.arjunai.project.models.MethodRollupSummary(r.methodName, SUM(r.callCount), "
+            + "SUM(r.callCount) - SUM(r.errorCount), SUM(r.errorCount), "
+            + "1.0 * SUM(r.sumExecutionTimeMs) / SUM(r.callCount), "
+            + "MIN(r.minExecutionTimeMs), MAX(r.maxExecutionTimeMs)) "
+            + "FROM ApiLogRollup r WHERE r.minuteStart >= :since "
+            + "GROUP BY r.methodName ORDER BY 1.0 * SUM(r.sumExecutionTimeMs) / SUM(r.callCount) DESC")
+    List<MethodRollupSummary> summarizeByMethodSince(@Param("since") Instant since);
+
+    @Transactional(readOnly = true)
+    List<ApiLogRollup> findByMethodNameAndMinuteStartGreaterThanEqualOrderByMinuteStart(String methodName, Instant since);
+}
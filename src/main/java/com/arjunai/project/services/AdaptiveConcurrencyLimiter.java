@@ -0,0 +1,208 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ConcurrencyLimitProperties;
+import com.arjunai.project.config.ConcurrencyLimitProperties.Priority;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive limit on concurrent API requests, so a slow database sheds load at the door instead of
+ * piling request threads up behind the connection pool.
+ * <p>
+ * The limit follows the gradient of API log write latency, the database work every request does.
+ * Every {@code update-interval} the mean write time of the interval is compared with its long-term
+ * average: the limit is scaled by {@code tolerance * longTerm / recent}, between 0.5 and 1, plus a
+ * headroom of its square root, and smoothed. Writes slowing down therefore shrink the limit in
+ * proportion, and steady writes let it grow. The limit only grows while at least half of it was in
+ * use, and an interval in which logging was degraded and nothing was written lets it grow so writes
+ * resume.
+ * <p>
+ * {@link #tryAcquire} admits a request while fewer requests than its priority's share of the limit
+ * are in flight. {@link #isDegraded} tells ApiLogService to keep log writes off the request path once
+ * {@code degrade-at} of the limit is in use, which sheds database work before requests are rejected.
+ */
+@Slf4j
+@Service
+public class AdaptiveConcurrencyLimiter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final LongSupplier nanoClock;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicInteger peakInflight = new AtomicInteger();
+    private final LongAdder windowWrites = new LongAdder();
+    private final LongAdder windowWriteNanos = new LongAdder();
+    private final LongAdder[] rejected = new LongAdder[Priority.values().length];
+    private final LongAdder degradedLogs = new LongAdder();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final long updateIntervalNanos;
+
+    private volatile double limit;
+    private volatile long windowStart;
+    // Guarded by updateLock
+    private double baselineNanos = Double.NaN;
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, LongSupplier nanoClock) {
+        if (properties.getMinLimit() <= 0 || properties.getMinLimit() > properties.getMaxLimit()) {
+            throw new IllegalArgumentException("api.concurrency-limit limits must satisfy 0 < min-limit <= max-limit");
+        }
+        if (!(properties.getTolerance() >= 1)) {
+            throw new IllegalArgumentException("api.concurrency-limit.tolerance must be at least 1");
+        }
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.updateIntervalNanos = properties.getUpdateInterval().toNanos();
+        this.limit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), properties.getInitialLimit()));
+        this.windowStart = nanoClock.getAsLong();
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    public Priority priorityOf(String path) {
+        for (Map.Entry<String, Priority> entry : properties.getPriorities().entrySet()) {
+            if (pathMatcher.match(entry.getKey(), path)) {
+                return entry.getValue();
+            }
+        }
+        return Priority.NORMAL;
+    }
+
+    /**
+     * Admits a request, which must then {@link #release()}, or returns false if it should be rejected.
+     */
+    public boolean tryAcquire(Priority priority) {
+        maybeUpdate();
+        if (!properties.isEnabled()) {
+            peakInflight.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+            return true;
+        }
+        int allowed = Math.max(1, (int) (limit * share(priority)));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                rejected[priority.ordinal()].increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                peakInflight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    public boolean isDegraded() {
+        return properties.isEnabled() && inflight.get() >= limit * properties.getDegradeAt();
+    }
+
+    /**
+     * Reports the duration of one API log write on the request path.
+     */
+    public void recordWrite(long nanos) {
+        windowWrites.increment();
+        windowWriteNanos.add(nanos);
+        maybeUpdate();
+    }
+
+    /**
+     * Counts an API log write that was kept off the request path because the limiter is degraded.
+     */
+    public void recordDegradedLog() {
+        degradedLogs.increment();
+    }
+
+    private double share(Priority priority) {
+        return switch (priority) {
+            case CRITICAL -> 1;
+            case NORMAL -> properties.getNormalShare();
+            case LOW -> properties.getLowShare();
+        };
+    }
+
+    private void maybeUpdate() {
+        long now = nanoClock.getAsLong();
+        if (now - windowStart < updateIntervalNanos || !updateLock.tryLock()) {
+            return;
+        }
+        try {
+            if (now - windowStart >= updateIntervalNanos) {
+                update(now);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void update(long now) {
+        long writes = windowWrites.sumThenReset();
+        long writeNanos = windowWriteNanos.sumThenReset();
+        int peak = peakInflight.getAndSet(inflight.get());
+        windowStart = now;
+
+        double current = limit;
+        double estimate;
+        if (writes == 0) {
+            if (peak < current * properties.getDegradeAt()) {
+                return;
+            }
+            estimate = current + Math.sqrt(current);
+        } else {
+            double recentNanos = (double) writeNanos / writes;
+            if (Double.isNaN(baselineNanos)) {
+                baselineNanos = recentNanos;
+            } else {
+                baselineNanos += (recentNanos - baselineNanos) * 2 / (properties.getBaselineWindow() + 1);
+            }
+            // After a slow spell the average lags behind recovered writes; pull it down so it
+            // doesn't leave the limit unable to shrink the next time
+            if (baselineNanos > recentNanos * properties.getTolerance()) {
+                baselineNanos = Math.max(recentNanos, baselineNanos * 0.95);
+            }
+            double gradient = Math.max(0.5, Math.min(1, properties.getTolerance() * baselineNanos / recentNanos));
+            if (gradient == 1 && peak < current / 2) {
+                return;
+            }
+            estimate = current * gradient + Math.sqrt(current);
+        }
+        double next = current * (1 - properties.getSmoothing()) + estimate * properties.getSmoothing();
+        limit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), next));
+        if ((int) limit != (int) current) {
+            log.debug("API concurrency limit {} -> {} ({} writes, {} ms average)", (int) current, (int) limit,
+                    writes, writes == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(writeNanos / writes));
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getRejectedCount(Priority priority) {
+        return rejected[priority.ordinal()].sum();
+    }
+
+    public long getDegradedLogCount() {
+        return degradedLogs.sum();
+    }
+}
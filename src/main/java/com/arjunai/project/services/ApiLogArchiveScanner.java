@@ -0,0 +1,171 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogArchiveProperties;
+import com.arjunai.project.models.ApiLogRollup;
+import com.arjunai.project.models.MethodRollupSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers the rollup queries over archived api_logs by scanning memory-mapped
+ * {@link ApiLogArchiveSegment} files. Segments outside the time range are skipped by their file name
+ * and header, a method filter by its dictionary, and only the packed columns are read, so a scan
+ * touches a few bytes per row instead of whole InnoDB rows.
+ * <p>
+ * Counts and sums are weighted by sample weight and bucketed like ApiLogRollupJob, so results compare
+ * directly with api_log_rollups.
+ */
+@Service
+@RequiredArgsConstructor
+public class ApiLogArchiveScanner {
+
+    private static final long MINUTE_MILLIS = 60_000;
+
+    private final ApiLogArchiveProperties properties;
+
+    /**
+     * Per-method totals of archived calls with {@code from <= request_time < to}, slowest method first.
+     */
+    public List<MethodRollupSummary> summarizeByMethod(Instant from, Instant to) {
+        Map<String, Totals> totals = new HashMap<>();
+        for (ApiLogArchiveSegment segment : segments(from, to)) {
+            String[] methods = segment.methods();
+            Totals[] byMethodId = new Totals[methods.length];
+            for (int i = 0; i < methods.length; i++) {
+                byMethodId[i] = totals.computeIfAbsent(methods[i], name -> new Totals());
+            }
+            segment.scan(from.toEpochMilli(), to.toEpochMilli(), -1,
+                    (timeMillis, methodId, executionTimeMs, successful, sampleWeight) ->
+                            byMethodId[methodId].add(executionTimeMs, successful, sampleWeight));
+        }
+        List<MethodRollupSummary> summaries = new ArrayList<>();
+        totals.forEach((methodName, methodTotals) -> {
+            if (methodTotals.rows > 0) {
+                summaries.add(methodTotals.toSummary(methodName));
+            }
+        });
+        summaries.sort(Comparator.comparing(MethodRollupSummary::avgExecutionTimeMs).reversed());
+        return summaries;
+    }
+
+    /**
+     * Per-minute aggregates of one method's archived calls with {@code from <= request_time < to}.
+     */
+    public List<ApiLogRollup> perMinute(String methodName, Instant from, Instant to) {
+        MinuteCollector collector = new MinuteCollector();
+        for (ApiLogArchiveSegment segment : segments(from, to)) {
+            int methodId = segment.methodId(methodName);
+            if (methodId >= 0) {
+                segment.scan(from.toEpochMilli(), to.toEpochMilli(), methodId, collector);
+            }
+        }
+        List<ApiLogRollup> rollups = new ArrayList<>(collector.minutes.size());
+        collector.minutes.forEach((minute, minuteTotals) ->
+                rollups.add(minuteTotals.toRollup(methodName, Instant.ofEpochMilli(minute * MINUTE_MILLIS))));
+        return rollups;
+    }
+
+    private List<ApiLogArchiveSegment> segments(Instant from, Instant to) {
+        LocalDate firstDay = LocalDate.ofInstant(from, ZoneOffset.UTC);
+        LocalDate lastDay = LocalDate.ofInstant(to.minusMillis(1), ZoneOffset.UTC);
+        List<ApiLogArchiveSegment> segments = new ArrayList<>();
+        try {
+            for (Path file : ApiLogArchiver.segmentFiles(properties.getDirectory())) {
+                LocalDate day = ApiLogArchiver.dayOf(file);
+                if (!day.isBefore(firstDay) && !day.isAfter(lastDay)) {
+                    segments.add(ApiLogArchiveSegment.open(file));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read api log archive " + properties.getDirectory(), e);
+        }
+        return segments;
+    }
+
+    /**
+     * Rows of a scan arrive in time order within a segment, so the current minute is kept at hand and
+     * the map is only consulted when the minute changes.
+     */
+    private static final class MinuteCollector implements ApiLogArchiveSegment.RowVisitor {
+        private final TreeMap<Long, Totals> minutes = new TreeMap<>();
+        private long currentMinute = Long.MIN_VALUE;
+        private Totals current;
+
+        @Override
+        public void row(long timeMillis, int methodId, long executionTimeMs, boolean successful, double sampleWeight) {
+            long minute = Math.floorDiv(timeMillis, MINUTE_MILLIS);
+            if (minute != currentMinute) {
+                currentMinute = minute;
+                current = minutes.computeIfAbsent(minute, key -> new Totals());
+            }
+            current.add(executionTimeMs, successful, sampleWeight);
+            current.buckets[Totals.bucket(executionTimeMs)] += sampleWeight;
+        }
+    }
+
+    /**
+     * Weighted totals of a method or minute; the latency buckets are only filled for minutes.
+     */
+    private static final class Totals {
+        /** Upper bounds of the latency buckets of api_log_rollups; the last bucket is open. */
+        private static final long[] BUCKET_BOUNDS = {1, 5, 10, 50, 100, 500, 1000};
+
+        private long rows;
+        private double calls;
+        private double errors;
+        private double sumExecutionTimeMs;
+        private double successSumExecutionTimeMs;
+        private long minExecutionTimeMs = Long.MAX_VALUE;
+        private long maxExecutionTimeMs = Long.MIN_VALUE;
+        private final double[] buckets = new double[BUCKET_BOUNDS.length + 1];
+
+        void add(long executionTimeMs, boolean successful, double sampleWeight) {
+            rows++;
+            calls += sampleWeight;
+            sumExecutionTimeMs += executionTimeMs * sampleWeight;
+            if (successful) {
+                successSumExecutionTimeMs += executionTimeMs * sampleWeight;
+            } else {
+                errors += sampleWeight;
+            }
+            minExecutionTimeMs = Math.min(minExecutionTimeMs, executionTimeMs);
+            maxExecutionTimeMs = Math.max(maxExecutionTimeMs, executionTimeMs);
+        }
+
+        static int bucket(long executionTimeMs) {
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS.length && executionTimeMs > BUCKET_BOUNDS[bucket]) {
+                bucket++;
+            }
+            return bucket;
+        }
+
+        MethodRollupSummary toSummary(String methodName) {
+            long totalCalls = Math.round(calls);
+            long failedCalls = Math.round(errors);
+            return new MethodRollupSummary(methodName, totalCalls, totalCalls - failedCalls, failedCalls,
+                    sumExecutionTimeMs / calls, minExecutionTimeMs, maxExecutionTimeMs);
+        }
+
+        ApiLogRollup toRollup(String methodName, Instant minuteStart) {
+            return new ApiLogRollup(methodName, minuteStart, Math.round(calls), Math.round(errors),
+                    Math.round(sumExecutionTimeMs), Math.round(successSumExecutionTimeMs),
+                    minExecutionTimeMs, maxExecutionTimeMs,
+                    Math.round(buckets[0]), Math.round(buckets[1]), Math.round(buckets[2]), Math.round(buckets[3]),
+                    Math.round(buckets[4]), Math.round(buckets[5]), Math.round(buckets[6]), Math.round(buckets[7]));
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.arjunai.project.services;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only columnar file of archived api_logs rows, sorted by request time.
+ * <p>
+ * Only the columns analytics need are kept: request time, method name, endpoint, execution time,
+ * success flag and sample weight. Method names, endpoints and sample weights are dictionary-encoded,
+ * request times are stored as the delta to the previous row, and execution times as the offset from
+ * the segment's minimum. Each column is bit-packed at the width its largest value needs, so a day of
+ * calls to a handful of endpoints takes a few bytes per row, and a column whose values are all equal,
+ * such as the weights of unsampled logs, takes none.
+ * <p>
+ * Rows are read in blocks of {@link #BLOCK_ROWS}: the words of each column of a block are copied out
+ * of the mapping in bulk and unpacked into an array by a branch-free loop before the rows are visited. The absolute request time
+ * of every block's first row is kept in a block index, so a scan for a time range starts at the right
+ * block instead of summing deltas from the first row.
+ * <p>
+ * Layout, little-endian: header ({@code magic, version, rowCount, minTime, maxTime, latencyBase},
+ * five bit widths), block index, method, endpoint and weight dictionaries, then the columns, each a
+ * run of 64-bit words starting on an 8-byte boundary.
+ */
+final class ApiLogArchiveSegment {
+
+    static final int MAGIC = 0x414C4153;
+    static final int VERSION = 1;
+    static final int BLOCK_ROWS = 4096;
+
+    private static final int HEADER_BYTES = Integer.BYTES * 3 + Long.BYTES * 3 + 5;
+
+    /**
+     * Receives the rows of a scan. Method ids index {@link #methods()}.
+     */
+    @FunctionalInterface
+    interface RowVisitor {
+        void row(long timeMillis, int methodId, long executionTimeMs, boolean successful, double sampleWeight);
+    }
+
+    private final MappedByteBuffer buffer;
+    private final LongBuffer words;
+    private final int rowCount;
+    private final long minTimeMillis;
+    private final long maxTimeMillis;
+    private final long latencyBase;
+    private final int timeBits;
+    private final int methodBits;
+    private final int latencyBits;
+    private final int weightBits;
+    private final long[] blockTimes;
+    private final String[] methods;
+    private final String[] endpoints;
+    private final double[] weights;
+    private final int timeOffset;
+    private final int methodOffset;
+    private final int latencyOffset;
+    private final int successOffset;
+    private final int weightOffset;
+
+    private ApiLogArchiveSegment(Path file, MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException(file + " is not an api log archive segment");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported api log archive segment version " + version + " in " + file);
+        }
+        rowCount = buffer.getInt();
+        minTimeMillis = buffer.getLong();
+        maxTimeMillis = buffer.getLong();
+        latencyBase = buffer.getLong();
+        timeBits = buffer.get();
+        methodBits = buffer.get();
+        int endpointBits = buffer.get();
+        latencyBits = buffer.get();
+        weightBits = buffer.get();
+
+        blockTimes = new long[blockCount(rowCount)];
+        for (int i = 0; i < blockTimes.length; i++) {
+            blockTimes[i] = buffer.getLong();
+        }
+        methods = readDictionary(buffer);
+        endpoints = readDictionary(buffer);
+        weights = new double[buffer.getInt()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = buffer.getDouble();
+        }
+
+        timeOffset = align(buffer.position());
+        methodOffset = timeOffset + columnBytes(rowCount, timeBits);
+        int endpointOffset = methodOffset + columnBytes(rowCount, methodBits);
+        latencyOffset = endpointOffset + columnBytes(rowCount, endpointBits);
+        successOffset = latencyOffset + columnBytes(rowCount, latencyBits);
+        weightOffset = successOffset + columnBytes(rowCount, 1);
+        if (weightOffset + columnBytes(rowCount, weightBits) > buffer.capacity()) {
+            throw new IOException("Truncated api log archive segment " + file);
+        }
+        words = buffer.duplicate().position(0).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    }
+
+    /**
+     * Maps a segment file. The mapping outlives the channel and is released with the returned object.
+     */
+    static ApiLogArchiveSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ApiLogArchiveSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    long minTimeMillis() {
+        return minTimeMillis;
+    }
+
+    long maxTimeMillis() {
+        return maxTimeMillis;
+    }
+
+    String[] methods() {
+        return methods;
+    }
+
+    String[] endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Returns the id of a method name in this segment, or -1 if no row has it.
+     */
+    int methodId(String methodName) {
+        for (int i = 0; i < methods.length; i++) {
+            if (methods[i].equals(methodName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Visits rows with {@code fromMillis <= time < toMillis} in time order, only those of
+     * {@code methodId} unless it is negative.
+     */
+    void scan(long fromMillis, long toMillis, int methodId, RowVisitor visitor) {
+        if (rowCount == 0 || fromMillis > maxTimeMillis || toMillis <= minTimeMillis) {
+            return;
+        }
+        int block = 0;
+        if (fromMillis > minTimeMillis) {
+            int index = Arrays.binarySearch(blockTimes, fromMillis);
+            // Rows equal to fromMillis may start in an earlier block, so back up over equal block times
+            block = index >= 0 ? index : -index - 2;
+            while (block > 0 && blockTimes[block] >= fromMillis) {
+                block--;
+            }
+        }
+        // One spare word, so a value is always read from a pair of words
+        long[] packed = new long[BLOCK_ROWS + 2];
+        long[] times = new long[BLOCK_ROWS];
+        long[] methodIds = new long[BLOCK_ROWS];
+        long[] latencies = new long[BLOCK_ROWS];
+        long[] successes = new long[BLOCK_ROWS];
+        long[] weightIds = new long[BLOCK_ROWS];
+        for (; block < blockTimes.length && blockTimes[block] < toMillis; block++) {
+            int first = block * BLOCK_ROWS;
+            int count = Math.min(BLOCK_ROWS, rowCount - first);
+            unpack(timeOffset, first, count, timeBits, packed, times);
+            times[0] = blockTimes[block];
+            for (int i = 1; i < count; i++) {
+                times[i] += times[i - 1];
+            }
+            unpack(methodOffset, first, count, methodBits, packed, methodIds);
+            unpack(latencyOffset, first, count, latencyBits, packed, latencies);
+            unpack(successOffset, first, count, 1, packed, successes);
+            unpack(weightOffset, first, count, weightBits, packed, weightIds);
+            for (int i = 0; i < count; i++) {
+                long time = times[i];
+                if (time >= toMillis) {
+                    return;
+                }
+                int rowMethod = (int) methodIds[i];
+                if (time < fromMillis || methodId >= 0 && rowMethod != methodId) {
+                    continue;
+                }
+                visitor.row(time, rowMethod, latencyBase + latencies[i], successes[i] != 0, weights[(int) weightIds[i]]);
+            }
+        }
+    }
+
+    /**
+     * Unpacks {@code count} values of a bit-packed column, starting at {@code row}, into {@code out},
+     * using {@code packed} as scratch space for the column's words.
+     */
+    private void unpack(int offset, int row, int count, int bits, long[] packed, long[] out) {
+        if (bits == 0) {
+            Arrays.fill(out, 0, count, 0);
+            return;
+        }
+        long firstBit = (long) row * bits;
+        int firstWord = offset / Long.BYTES + (int) (firstBit >>> 6);
+        int wordCount = (int) (((firstBit & 63) + (long) count * bits + 63) >>> 6);
+        int available = Math.min(wordCount + 1, words.capacity() - firstWord);
+        words.get(firstWord, packed, 0, available);
+        packed[available] = 0;
+        long mask = bits == 64 ? -1L : (1L << bits) - 1;
+        long bit = firstBit & 63;
+        for (int i = 0; i < count; i++, bit += bits) {
+            int word = (int) (bit >>> 6);
+            int shift = (int) (bit & 63);
+            // Shifting the next word in two steps yields 0 instead of the word itself when shift is 0
+            out[i] = (packed[word] >>> shift | (packed[word + 1] << 1) << (63 - shift)) & mask;
+        }
+    }
+
+    private static String[] readDictionary(MappedByteBuffer buffer) {
+        String[] entries = new String[buffer.getInt()];
+        for (int i = 0; i < entries.length; i++) {
+            byte[] utf8 = new byte[buffer.getInt()];
+            buffer.get(utf8);
+            entries[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return entries;
+    }
+
+    static int blockCount(int rows) {
+        return (rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+    }
+
+    static int columnBytes(int rows, int bits) {
+        return (int) (((long) rows * bits + 63) >>> 6) * Long.BYTES;
+    }
+
+    static int align(int position) {
+        return (position + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    static int bitsFor(long maxValue) {
+        return 64 - Long.numberOfLeadingZeros(maxValue);
+    }
+
+    /**
+     * Collects rows in request-time order and writes them as a segment. Column arrays are sized for
+     * {@code capacity} rows once and reused after {@link #clear()}.
+     */
+    static final class Builder {
+        private final int capacity;
+        private final long[] times;
+        private final int[] methodIds;
+        private final int[] endpointIds;
+        private final long[] latencies;
+        private final boolean[] successes;
+        private final int[] weightIds;
+        private final Map<String, Integer> methods = new LinkedHashMap<>();
+        private final Map<String, Integer> endpoints = new LinkedHashMap<>();
+        private final Map<Double, Integer> weights = new HashMap<>();
+        private double lastWeight = Double.NaN;
+        private int lastWeightId;
+        private int size;
+
+        Builder(int capacity) {
+            this.capacity = capacity;
+            times = new long[capacity];
+            methodIds = new int[capacity];
+            endpointIds = new int[capacity];
+            latencies = new long[capacity];
+            successes = new boolean[capacity];
+            weightIds = new int[capacity];
+        }
+
+        void add(long timeMillis, String methodName, String endpoint, long executionTimeMs, boolean successful,
+                 double sampleWeight) {
+            if (size == capacity) {
+                throw new IllegalStateException("Segment is full");
+            }
+            if (size > 0 && timeMillis < times[size - 1]) {
+                throw new IllegalArgumentException("Rows must be added in request time order");
+            }
+            times[size] = timeMillis;
+            methodIds[size] = methods.computeIfAbsent(methodName, name -> methods.size());
+            endpointIds[size] = endpoints.computeIfAbsent(endpoint, name -> endpoints.size());
+            latencies[size] = executionTimeMs;
+            successes[size] = successful;
+            // Consecutive rows mostly share the sampling rate in force, so skip the boxing lookup then
+            if (sampleWeight != lastWeight) {
+                lastWeight = sampleWeight;
+                lastWeightId = weights.computeIfAbsent(sampleWeight, weight -> weights.size());
+            }
+            weightIds[size] = lastWeightId;
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isFull() {
+            return size == capacity;
+        }
+
+        void clear() {
+            methods.clear();
+            endpoints.clear();
+            weights.clear();
+            lastWeight = Double.NaN;
+            size = 0;
+        }
+
+        /**
+         * Writes the collected rows to a new file and forces them to disk.
+         */
+        void writeTo(Path file) throws IOException {
+            long maxDelta = 0;
+            long latencyMin = size == 0 ? 0 : Long.MAX_VALUE;
+            long latencyMax = 0;
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    maxDelta = Math.max(maxDelta, times[i] - times[i - 1]);
+                }
+                latencyMin = Math.min(latencyMin, latencies[i]);
+                latencyMax = Math.max(latencyMax, latencies[i]);
+            }
+            int timeBits = bitsFor(maxDelta);
+            int methodBits = bitsFor(Math.max(methods.size() - 1, 0));
+            int endpointBits = bitsFor(Math.max(endpoints.size() - 1, 0));
+            int latencyBits = bitsFor(latencyMax - latencyMin);
+            int weightBits = bitsFor(Math.max(weights.size() - 1, 0));
+            byte[][] methodNames = utf8(methods);
+            byte[][] endpointNames = utf8(endpoints);
+            double[] weightValues = new double[weights.size()];
+            weights.forEach((weight, id) -> weightValues[id] = weight);
+
+            int position = HEADER_BYTES + blockCount(size) * Long.BYTES + dictionaryBytes(methodNames)
+                    + dictionaryBytes(endpointNames) + Integer.BYTES + weightValues.length * Double.BYTES;
+            int timeOffset = align(position);
+            int methodOffset = timeOffset + columnBytes(size, timeBits);
+            int endpointOffset = methodOffset + columnBytes(size, methodBits);
+            int latencyOffset = endpointOffset + columnBytes(size, endpointBits);
+            int successOffset = latencyOffset + columnBytes(size, latencyBits);
+            int weightOffset = successOffset + columnBytes(size, 1);
+            int fileBytes = weightOffset + columnBytes(size, weightBits);
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes);
+                out.order(ByteOrder.LITTLE_ENDIAN);
+                out.putInt(MAGIC);
+                out.putInt(VERSION);
+                out.putInt(size);
+                out.putLong(size == 0 ? 0 : times[0]);
+                out.putLong(size == 0 ? 0 : times[size - 1]);
+                out.putLong(latencyMin);
+                out.put((byte) timeBits);
+                out.put((byte) methodBits);
+                out.put((byte) endpointBits);
+                out.put((byte) latencyBits);
+                out.put((byte) weightBits);
+                for (int row = 0; row < size; row += BLOCK_ROWS) {
+                    out.putLong(times[row]);
+                }
+                writeDictionary(out, methodNames);
+                writeDictionary(out, endpointNames);
+                out.putInt(weightValues.length);
+                for (double weight : weightValues) {
+                    out.putDouble(weight);
+                }
+
+                for (int i = 0; i < size; i++) {
+                    put(out, timeOffset, i, timeBits, i == 0 ? 0 : times[i] - times[i - 1]);
+                    put(out, methodOffset, i, methodBits, methodIds[i]);
+                    put(out, endpointOffset, i, endpointBits, endpointIds[i]);
+                    put(out, latencyOffset, i, latencyBits, latencies[i] - latencyMin);
+                    put(out, successOffset, i, 1, successes[i] ? 1 : 0);
+                    put(out, weightOffset, i, weightBits, weightIds[i]);
+                }
+                out.force();
+            }
+        }
+
+        private static void put(MappedByteBuffer out, int offset, int row, int bits, long value) {
+            if (bits == 0) {
+                return;
+            }
+            long bit = (long) row * bits;
+            int word = offset + (int) (bit >>> 6) * Long.BYTES;
+            int shift = (int) (bit & 63);
+            // A fresh mapping is zero-filled, so bits only ever need to be or-ed in
+            out.putLong(word, out.getLong(word) | value << shift);
+            if (shift + bits > 64) {
+                out.putLong(word + Long.BYTES, out.getLong(word + Long.BYTES) | value >>> (64 - shift));
+            }
+        }
+
+        private static byte[][] utf8(Map<String, Integer> dictionary) {
+            byte[][] entries = new byte[dictionary.size()][];
+            dictionary.forEach((text, id) -> entries[id] = text.getBytes(StandardCharsets.UTF_8));
+            return entries;
+        }
+
+        private static int dictionaryBytes(byte[][] entries) {
+            int bytes = Integer.BYTES;
+            for (byte[] entry : entries) {
+                bytes += Integer.BYTES + entry.length;
+            }
+            return bytes;
+        }
+
+        private static void writeDictionary(MappedByteBuffer out, byte[][] entries) {
+            out.putInt(entries.length);
+            for (byte[] entry : entries) {
+                out.putInt(entry.length);
+                out.put(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogArchiveProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Moves whole UTC days of api_logs rows older than {@code api-log.archive.age} into
+ * {@link ApiLogArchiveSegment} files, which ApiLogArchiveScanner aggregates.
+ * <p>
+ * A day is read oldest first with one streaming query and cut into segments of at most
+ * {@code api-log.archive.segment-rows} rows. Segments are written under temporary names and renamed
+ * only once the whole day has been read. After that exactly the rows that were read are removed
+ * from api_logs, by id in batches; when the day still holds no other rows and has its own daily
+ * partition, the partition is truncated instead. A failure before the rename leaves the rows in place
+ * and only temporary files behind, which the next run deletes. Dying between the rename and the
+ * removal archives the day's rows twice, so archiving is at-least-once like the journal.
+ * <p>
+ * Rows that arrive for a day while it is archived, e.g. from a journal replay, are not among the rows
+ * read and so stay in api_logs; they go into further segments of that day on the next run.
+ * {@link ApiLogJournalReplayer} holds {@link #pastDayWrites()} while it inserts, which keeps the row
+ * count from changing between the check and the truncation.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ApiLogArchiver {
+
+    static final String SEGMENT_PREFIX = "api-logs-";
+    static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final String SELECT_DAY = """
+            SELECT request_time, method_name, endpoint, execution_time_ms, successful, sample_weight, id
+            FROM api_logs
+            WHERE request_time >= ? AND request_time < ?
+            ORDER BY request_time
+            """;
+
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApiLogPartitionManager partitionManager;
+    private final ApiLogArchiveProperties properties;
+    private final ReentrantReadWriteLock dayLock = new ReentrantReadWriteLock();
+
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "${api-log.archive.interval:PT1H}")
+    public void archive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            Files.createDirectories(properties.getDirectory());
+            deleteTemporaryFiles();
+            LocalDate cutoff = LocalDate.ofInstant(Instant.now().minus(properties.getAge()), ZoneOffset.UTC);
+            LocalDate previous = null;
+            for (LocalDate day = oldestDayBefore(cutoff); day != null; day = oldestDayBefore(cutoff)) {
+                if (day.equals(previous)) {
+                    log.warn("api_logs still holds rows of archived day {}, retrying on the next run", day);
+                    break;
+                }
+                archiveDay(day);
+                previous = day;
+            }
+            purgeExpired();
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to archive api logs", e);
+        }
+    }
+
+    /**
+     * The lock that writers of rows for past days hold while they insert, shared between them.
+     * The archiver takes the other side only to count a day's rows and truncate its partition.
+     */
+    public Lock pastDayWrites() {
+        return dayLock.readLock();
+    }
+
+    /**
+     * Returns the segment files in a directory ordered by day and then by sequence.
+     */
+    static List<Path> segmentFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> dayOf(path) != null).sorted().toList();
+        }
+    }
+
+    /**
+     * Returns the UTC day a segment file holds, or null if the path is not a segment.
+     */
+    static LocalDate dayOf(Path file) {
+        String name = file.getFileName().toString();
+        int dayEnd = SEGMENT_PREFIX.length() + 8;
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX) || name.length() <= dayEnd) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(name.substring(SEGMENT_PREFIX.length(), dayEnd), DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private LocalDate oldestDayBefore(LocalDate cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(request_time) FROM api_logs WHERE request_time < ?",
+                Timestamp.class, Timestamp.from(cutoff.atStartOfDay(ZoneOffset.UTC).toInstant()));
+        return oldest == null ? null : LocalDate.ofInstant(oldest.toInstant(), ZoneOffset.UTC);
+    }
+
+    private void archiveDay(LocalDate day) throws IOException {
+        Instant start = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant end = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        ApiLogArchiveSegment.Builder builder = new ApiLogArchiveSegment.Builder(properties.getSegmentRows());
+        List<Path> segments = new ArrayList<>();
+        int firstSequence = nextSequence(day);
+        long[][] ids = {new long[1024]};
+        int[] rows = {0};
+
+        RowCallbackHandler handler = rs -> {
+            builder.add(rs.getTimestamp(1).toInstant().toEpochMilli(), rs.getString(2), rs.getString(3),
+                    rs.getLong(4), rs.getBoolean(5), rs.getDouble(6));
+            if (rows[0] == ids[0].length) {
+                ids[0] = Arrays.copyOf(ids[0], rows[0] * 2);
+            }
+            ids[0][rows[0]++] = rs.getLong(7);
+            if (builder.isFull()) {
+                segments.add(writeTemporary(builder, day, firstSequence + segments.size()));
+            }
+        };
+        jdbcTemplate.query(ApiLogQueryService.streamingStatement(SELECT_DAY,
+                List.of(Timestamp.from(start), Timestamp.from(end)), properties.getFetchSize()), handler);
+        if (builder.size() > 0) {
+            segments.add(writeTemporary(builder, day, firstSequence + segments.size()));
+        }
+
+        for (Path segment : segments) {
+            String name = segment.getFileName().toString();
+            Files.move(segment, segment.resolveSibling(name.substring(0, name.length() - TEMP_SUFFIX.length())),
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        removeRows(start, end, day, ids[0], rows[0]);
+        log.info("Archived {} api_logs rows of {} into {} segments", rows[0], day, segments.size());
+    }
+
+    /**
+     * Removes the first {@code count} of {@code ids} from the day, truncating its partition instead
+     * when nothing else has been written to the day since it was read.
+     */
+    private void removeRows(Instant start, Instant end, LocalDate day, long[] ids, int count) {
+        Timestamp from = Timestamp.from(start);
+        Timestamp to = Timestamp.from(end);
+        dayLock.writeLock().lock();
+        try {
+            Long remaining = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM api_logs WHERE request_time >= ? AND request_time < ?", Long.class, from, to);
+            if (remaining != null && remaining == count && partitionManager.truncateDay(day)) {
+                return;
+            }
+        } finally {
+            dayLock.writeLock().unlock();
+        }
+        // The day range keeps each delete to the day's partition
+        for (int offset = 0; offset < count; offset += DELETE_BATCH_SIZE) {
+            int size = Math.min(DELETE_BATCH_SIZE, count - offset);
+            Object[] args = new Object[size + 2];
+            args[0] = from;
+            args[1] = to;
+            for (int k = 0; k < size; k++) {
+                args[k + 2] = ids[offset + k];
+            }
+            jdbcTemplate.update("DELETE FROM api_logs WHERE request_time >= ? AND request_time < ? AND id IN ("
+                    + String.join(",", Collections.nCopies(size, "?")) + ")", args);
+        }
+    }
+
+    private Path writeTemporary(ApiLogArchiveSegment.Builder builder, LocalDate day, int sequence) {
+        Path file = properties.getDirectory().resolve(String.format("%s%s-%06d%s%s", SEGMENT_PREFIX,
+                DateTimeFormatter.BASIC_ISO_DATE.format(day), sequence, SEGMENT_SUFFIX, TEMP_SUFFIX));
+        try {
+            builder.writeTo(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write api log archive segment " + file, e);
+        }
+        builder.clear();
+        return file;
+    }
+
+    private int nextSequence(LocalDate day) throws IOException {
+        String dayPrefix = SEGMENT_PREFIX + DateTimeFormatter.BASIC_ISO_DATE.format(day) + "-";
+        int next = 0;
+        for (Path segment : segmentFiles(properties.getDirectory())) {
+            String name = segment.getFileName().toString();
+            if (name.startsWith(dayPrefix)) {
+                String sequence = name.substring(dayPrefix.length(), name.length() - SEGMENT_SUFFIX.length());
+                next = Math.max(next, Integer.parseInt(sequence) + 1);
+            }
+        }
+        return next;
+    }
+
+    private void deleteTemporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(properties.getDirectory())) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(TEMP_SUFFIX)).toList()) {
+                Files.delete(file);
+                log.warn("Deleted incomplete api log archive segment {}", file);
+            }
+        }
+    }
+
+    private void purgeExpired() throws IOException {
+        LocalDate cutoff = LocalDate.ofInstant(Instant.now().minus(properties.getRetention()), ZoneOffset.UTC);
+        for (Path segment : segmentFiles(properties.getDirectory())) {
+            if (dayOf(segment).isBefore(cutoff)) {
+                Files.delete(segment);
+                log.info("Deleted expired api log archive segment {}", segment);
+            }
+        }
+    }
+}
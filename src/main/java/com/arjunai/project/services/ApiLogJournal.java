@@ -0,0 +1,291 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogJournalProperties;
+import com.arjunai.project.models.ApiLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only spill journal for API log records that could not be written to the database.
+ * <p>
+ * Records are appended to a memory-mapped segment file, so an append is a memory copy
+ * rather than a disk write. Each record is framed as {@code [int length][int crc32c][payload]};
+ * a zero length marks the end of the written part of a segment. When a record does not fit
+ * the active segment is sealed and a new one is started. Sealed segments are handed to
+ * {@link ApiLogJournalReplayer} and deleted only after their records have been committed,
+ * which gives at-least-once delivery.
+ */
+@Slf4j
+@Component
+public class ApiLogJournal {
+
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    private final ApiLogJournalProperties properties;
+    private final Path directory;
+
+    private long nextSegmentId;
+    private Path activePath;
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+
+    public ApiLogJournal(ApiLogJournalProperties properties) {
+        this.properties = properties;
+        this.directory = properties.getDirectory();
+        this.nextSegmentId = properties.isEnabled() ? lastSegmentId() + 1 : 0;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Appends one completed log record to the active segment.
+     */
+    public synchronized void append(ApiLog apiLog) {
+        byte[] payload = encode(apiLog);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        int recordBytes = HEADER_BYTES + payload.length;
+        try {
+            // Leave room for the zero terminator after the record
+            if (activeBuffer == null || activeBuffer.remaining() < recordBytes + Integer.BYTES) {
+                rotate(recordBytes + Integer.BYTES);
+            }
+            activeBuffer.putInt(payload.length);
+            activeBuffer.putInt((int) crc.getValue());
+            activeBuffer.put(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to api log journal " + activePath, e);
+        }
+    }
+
+    /**
+     * Seals the active segment if it holds any records, making it visible to {@link #sealedSegments()}.
+     */
+    public synchronized void sealActive() throws IOException {
+        if (activeBuffer != null && activeBuffer.position() > 0) {
+            closeActive();
+        }
+    }
+
+    /**
+     * Returns sealed segment files in append order.
+     */
+    public synchronized List<Path> sealedSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(ApiLogJournal::isSegment)
+                    .filter(path -> !path.equals(activePath))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Reads every intact record of a sealed segment. Reading stops at the end marker or at the
+     * first record whose checksum does not match, which is how a torn write after a crash shows up.
+     */
+    public List<ApiLog> readSegment(Path segment) throws IOException {
+        List<ApiLog> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                if (length == 0) {
+                    break;
+                }
+                int expectedCrc = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    log.warn("Truncated record in journal segment {} at offset {}", segment, buffer.position() - HEADER_BYTES);
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+                if ((int) crc.getValue() != expectedCrc) {
+                    log.warn("Checksum mismatch in journal segment {} at offset {}", segment, buffer.position() - length - HEADER_BYTES);
+                    break;
+                }
+                records.add(decode(ByteBuffer.wrap(payload)));
+            }
+        }
+        return records;
+    }
+
+    public void delete(Path segment) throws IOException {
+        Files.deleteIfExists(segment);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (activeBuffer != null) {
+            closeActive();
+        }
+    }
+
+    private void rotate(int minimumBytes) throws IOException {
+        if (activeBuffer != null) {
+            closeActive();
+        }
+        Files.createDirectories(directory);
+        long size = Math.max(properties.getSegmentSize().toBytes(), minimumBytes);
+        activePath = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(activePath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        log.info("Opened api log journal segment {}", activePath);
+    }
+
+    private void closeActive() throws IOException {
+        activeBuffer.force();
+        activeChannel.close();
+        activeBuffer = null;
+        activeChannel = null;
+        activePath = null;
+    }
+
+    private long lastSegmentId() {
+        if (!Files.isDirectory(directory)) {
+            return -1;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(ApiLogJournal::isSegment)
+                    .mapToLong(ApiLogJournal::segmentId)
+                    .max()
+                    .orElse(-1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list api log journal " + directory, e);
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static byte[] encode(ApiLog apiLog) {
+        byte[] methodName = bytes(apiLog.getMethodName());
+        byte[] endpoint = bytes(apiLog.getEndpoint());
+        byte[] request = bytes(apiLog.getRequest());
+        byte[] response = bytes(apiLog.getResponse());
+        byte[] errorMessage = bytes(apiLog.getErrorMessage());
+        int size = Long.BYTES * 6 + 1 + Double.BYTES + Integer.BYTES * 7
+                + length(methodName) + length(endpoint) + length(request) + length(response) + length(errorMessage)
+                + length(apiLog.getRequestPayload()) + length(apiLog.getResponsePayload());
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(apiLog.getId() != null ? apiLog.getId() : Long.MIN_VALUE);
+        putBytes(buffer, methodName);
+        putBytes(buffer, endpoint);
+        putBytes(buffer, request);
+        putBytes(buffer, response);
+        putBytes(buffer, errorMessage);
+        putInstant(buffer, apiLog.getRequestTime());
+        putInstant(buffer, apiLog.getResponseTime());
+        buffer.putLong(apiLog.getExecutionTimeMs() != null ? apiLog.getExecutionTimeMs() : Long.MIN_VALUE);
+        buffer.put((byte) (apiLog.isSuccessful() ? 1 : 0));
+        buffer.putDouble(apiLog.getSampleWeight());
+        putBytes(buffer, apiLog.getRequestPayload());
+        putBytes(buffer, apiLog.getResponsePayload());
+        return buffer.array();
+    }
+
+    static ApiLog decode(ByteBuffer buffer) {
+        ApiLog apiLog = new ApiLog();
+        long id = buffer.getLong();
+        apiLog.setId(id != Long.MIN_VALUE ? id : null);
+        apiLog.setMethodName(getString(buffer));
+        apiLog.setEndpoint(getString(buffer));
+        apiLog.setRequest(getString(buffer));
+        apiLog.setResponse(getString(buffer));
+        apiLog.setErrorMessage(getString(buffer));
+        apiLog.setRequestTime(getInstant(buffer));
+        apiLog.setResponseTime(getInstant(buffer));
+        long executionTimeMs = buffer.getLong();
+        apiLog.setExecutionTimeMs(executionTimeMs != Long.MIN_VALUE ? executionTimeMs : null);
+        apiLog.setSuccessful(buffer.get() == 1);
+        // Records journaled before sampling existed end here and stand for one call
+        apiLog.setSampleWeight(buffer.hasRemaining() ? buffer.getDouble() : 1);
+        // Records journaled before payload storage carry their text inline and end here
+        if (buffer.hasRemaining()) {
+            apiLog.setRequestPayload(getBytes(buffer));
+            apiLog.setResponsePayload(getBytes(buffer));
+        }
+        return apiLog;
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? value.length : 0;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return value;
+    }
+
+    private static void putInstant(ByteBuffer buffer, Instant instant) {
+        buffer.putLong(instant != null ? instant.getEpochSecond() : Long.MIN_VALUE);
+        buffer.putLong(instant != null ? instant.getNano() : 0);
+    }
+
+    private static Instant getInstant(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        long nanos = buffer.getLong();
+        return seconds != Long.MIN_VALUE ? Instant.ofEpochSecond(seconds, nanos) : null;
+    }
+}
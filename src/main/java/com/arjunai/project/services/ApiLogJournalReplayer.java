@@ -0,0 +1,90 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogJournalProperties;
+import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.repositories.ApiLogRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Bulk-loads spilled journal segments back into api_logs once the apiLogService
+ * circuit breaker has closed again. A segment is deleted only after all of its
+ * records are committed; a failure part way through replays the whole segment on
+ * the next run, so records are delivered at least once. Replayed records keep their
+ * original request times, so inserts hold {@link ApiLogArchiver#pastDayWrites()}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApiLogJournalReplayer {
+
+    private final ApiLogJournal apiLogJournal;
+    private final ApiLogRepository apiLogRepository;
+    private final ApiLogPayloadStore apiLogPayloadStore;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final ApiLogJournalProperties properties;
+    private final ApiLogRollupJob apiLogRollupJob;
+    private final ApiLogArchiver apiLogArchiver;
+
+    @Scheduled(fixedDelayString = "${api-log.journal.replay-interval:PT5S}")
+    public void replay() {
+        if (!apiLogJournal.isEnabled() || !isBreakerClosed()) {
+            return;
+        }
+        try {
+            apiLogJournal.sealActive();
+            for (Path segment : apiLogJournal.sealedSegments()) {
+                if (!isBreakerClosed() || !replaySegment(segment)) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to replay api log journal", e);
+        }
+    }
+
+    private boolean replaySegment(Path segment) throws IOException {
+        List<ApiLog> records = apiLogJournal.readSegment(segment);
+        int batchSize = properties.getReplayBatchSize();
+        try {
+            for (int from = 0; from < records.size(); from += batchSize) {
+                List<ApiLog> batch = records.subList(from, Math.min(from + batchSize, records.size()));
+                apiLogPayloadStore.externalize(batch);
+                Lock pastDayWrites = apiLogArchiver.pastDayWrites();
+                pastDayWrites.lock();
+                try {
+                    apiLogRepository.saveAll(batch);
+                } finally {
+                    pastDayWrites.unlock();
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Replay of journal segment {} failed, will retry", segment, e);
+            return false;
+        }
+        records.stream()
+                .map(ApiLog::getRequestTime)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .ifPresent(apiLogRollupJob::rewind);
+        apiLogJournal.delete(segment);
+        log.info("Replayed {} api logs from journal segment {}", records.size(), segment);
+        return true;
+    }
+
+    private boolean isBreakerClosed() {
+        return circuitBreakerRegistry.circuitBreaker("apiLogService").getState() == CircuitBreaker.State.CLOSED;
+    }
+}
@@ -0,0 +1,123 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogPartitionProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps daily RANGE partitions on api_logs ahead of the current date and enforces retention by
+ * dropping whole partitions, which is a metadata operation instead of a long-running DELETE.
+ * Partition {@code pYYYYMMDD} holds rows whose request_time (UTC) falls on that day.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ApiLogPartitionManager {
+
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApiLogPartitionProperties properties;
+
+    private record Partition(String name, Long upperBound) {
+    }
+
+    @Scheduled(initialDelayString = "PT10S", fixedDelayString = "${api-log.partitions.maintenance-interval:PT1H}")
+    public void maintain() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<Partition> partitions = listPartitions();
+        if (partitions.isEmpty()) {
+            log.warn("api_logs is not partitioned, skipping partition maintenance (see scripts/partition-api-logs.sql)");
+            return;
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        createAhead(partitions, today);
+        dropExpired(partitions);
+    }
+
+    /**
+     * Empties the partition holding exactly {@code day}, which unlike a DELETE frees its rows without
+     * row-by-row undo logging. Returns false, leaving the table as it is, when partitioning is off or
+     * there is no such partition, e.g. for days older than the first daily partition, whose rows share
+     * the first one.
+     */
+    public boolean truncateDay(LocalDate day) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        List<Partition> partitions = listPartitions();
+        String name = PARTITION_NAME.format(day);
+        long lowerBound = day.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        for (int i = 1; i < partitions.size(); i++) {
+            Partition partition = partitions.get(i);
+            Long previousBound = partitions.get(i - 1).upperBound();
+            if (partition.name().equals(name) && previousBound != null && previousBound == lowerBound) {
+                jdbcTemplate.execute("ALTER TABLE api_logs TRUNCATE PARTITION " + name);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Partition> listPartitions() {
+        return jdbcTemplate.query("""
+                SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'api_logs' AND PARTITION_NAME IS NOT NULL
+                ORDER BY PARTITION_ORDINAL_POSITION
+                """, (rs, rowNum) -> {
+            String description = rs.getString("PARTITION_DESCRIPTION");
+            Long upperBound = "MAXVALUE".equalsIgnoreCase(description) ? null : Long.parseLong(description);
+            return new Partition(rs.getString("PARTITION_NAME"), upperBound);
+        });
+    }
+
+    private void createAhead(List<Partition> partitions, LocalDate today) {
+        long highestBound = partitions.stream()
+                .filter(partition -> partition.upperBound() != null)
+                .mapToLong(Partition::upperBound)
+                .max()
+                .orElse(Long.MIN_VALUE);
+        List<String> definitions = new ArrayList<>();
+        for (int offset = 0; offset <= properties.getPremakeDays(); offset++) {
+            LocalDate day = today.plusDays(offset);
+            long upperBound = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+            if (upperBound > highestBound) {
+                definitions.add("PARTITION " + PARTITION_NAME.format(day) + " VALUES LESS THAN (" + upperBound + ")");
+            }
+        }
+        if (definitions.isEmpty()) {
+            return;
+        }
+        definitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE");
+        jdbcTemplate.execute("ALTER TABLE api_logs REORGANIZE PARTITION " + FUTURE_PARTITION
+                + " INTO (" + String.join(", ", definitions) + ")");
+        log.info("Added {} daily api_logs partitions", definitions.size() - 1);
+    }
+
+    private void dropExpired(List<Partition> partitions) {
+        long cutoff = Instant.now().minus(properties.getRetention()).getEpochSecond();
+        List<String> expired = partitions.stream()
+                .filter(partition -> partition.upperBound() != null && partition.upperBound() <= cutoff)
+                .map(Partition::name)
+                .collect(Collectors.toList());
+        if (expired.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE api_logs DROP PARTITION " + String.join(", ", expired));
+        log.info("Dropped expired api_logs partitions {}", expired);
+    }
+}
@@ -0,0 +1,261 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogPayloadProperties;
+import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.models.ApiLogPayload;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Content-addressed storage for api log request and response bodies.
+ * <p>
+ * {@link #externalize(List)} hashes each body with 128-bit MurmurHash3, upserts the bodies it has not
+ * seen today into api_log_payloads in one batch, and then replaces the text on the records by the
+ * payload ids. Bodies of at least {@code compress-threshold} are stored deflated when that is smaller.
+ * Most bodies repeat (the same tip split, the same ratios), so a bounded cache of ids stored today
+ * turns the common case into a hash and a lookup without a round-trip.
+ * <p>
+ * Every stored reference bumps {@code last_referenced} to today at most once a day per payload, and
+ * {@link #purge()} deletes payloads that no surviving api_logs row can still reference.
+ * <p>
+ * Call sites run outside a transaction, so payload rows commit on their own before the records that
+ * reference them. An api_logs insert that fails afterwards can then be retried or spilled to the
+ * journal with the payload ids it already carries.
+ */
+@Slf4j
+@Service
+public class ApiLogPayloadStore {
+
+    private static final String UPSERT = """
+            INSERT INTO api_log_payloads (id, codec, original_length, body, last_referenced) VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE last_referenced = GREATEST(last_referenced, VALUES(last_referenced))
+            """;
+    private static final String SELECT = "SELECT codec, original_length, body FROM api_log_payloads WHERE id = ?";
+    private static final String PURGE = "DELETE FROM api_log_payloads WHERE last_referenced < ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApiLogPayloadProperties properties;
+    // Payload id -> epoch day it was last upserted
+    private final Cache<PayloadKey, Long> storedDays;
+    // Deflaters hold native memory; pooled rather than thread-local so virtual threads don't each create one
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder upserted = new LongAdder();
+
+    private record PayloadKey(long high, long low) {
+        static PayloadKey of(byte[] id) {
+            ByteBuffer buffer = ByteBuffer.wrap(id).order(ByteOrder.LITTLE_ENDIAN);
+            return new PayloadKey(buffer.getLong(), buffer.getLong());
+        }
+    }
+
+    private record Encoded(byte[] id, int codec, int originalLength, byte[] body) {
+    }
+
+    public ApiLogPayloadStore(JdbcTemplate jdbcTemplate, ApiLogPayloadProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.storedDays = Caffeine.newBuilder().maximumSize(properties.getCacheSize()).build();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public void externalize(ApiLog apiLog) {
+        externalize(List.of(apiLog));
+    }
+
+    /**
+     * Moves the request and response text of the records into api_log_payloads. Records without
+     * text, or already externalized, are left as they are. If storing fails the records are not
+     * modified.
+     */
+    public void externalize(List<ApiLog> apiLogs) {
+        if (!properties.isEnabled() || apiLogs.isEmpty()) {
+            return;
+        }
+        long today = LocalDate.now(ZoneOffset.UTC).toEpochDay();
+        Map<PayloadKey, Encoded> pending = new LinkedHashMap<>();
+        byte[][] requestIds = new byte[apiLogs.size()][];
+        byte[][] responseIds = new byte[apiLogs.size()][];
+        for (int i = 0; i < apiLogs.size(); i++) {
+            requestIds[i] = prepare(apiLogs.get(i).getRequest(), today, pending);
+            responseIds[i] = prepare(apiLogs.get(i).getResponse(), today, pending);
+        }
+
+        if (!pending.isEmpty()) {
+            List<Encoded> payloads = new ArrayList<>(pending.values());
+            LocalDate lastReferenced = LocalDate.ofEpochDay(today);
+            jdbcTemplate.batchUpdate(UPSERT, payloads, payloads.size(), (statement, payload) -> {
+                statement.setBytes(1, payload.id());
+                statement.setInt(2, payload.codec());
+                statement.setInt(3, payload.originalLength());
+                statement.setBytes(4, payload.body());
+                statement.setObject(5, lastReferenced);
+            });
+            upserted.add(payloads.size());
+            remember(pending.keySet(), today);
+        }
+
+        for (int i = 0; i < apiLogs.size(); i++) {
+            ApiLog apiLog = apiLogs.get(i);
+            if (requestIds[i] != null) {
+                apiLog.setRequestPayload(requestIds[i]);
+                apiLog.setRequest(null);
+            }
+            if (responseIds[i] != null) {
+                apiLog.setResponsePayload(responseIds[i]);
+                apiLog.setResponse(null);
+            }
+        }
+    }
+
+    private byte[] prepare(String text, long today, Map<PayloadKey, Encoded> pending) {
+        if (text == null) {
+            return null;
+        }
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] id = PayloadHash.murmur3x64_128(utf8);
+        PayloadKey key = PayloadKey.of(id);
+        Long storedDay = storedDays.getIfPresent(key);
+        if (storedDay != null && storedDay == today) {
+            cacheHits.increment();
+        } else if (!pending.containsKey(key)) {
+            pending.put(key, encode(id, utf8));
+        }
+        return id;
+    }
+
+    // Inside a transaction the rows only exist once it commits
+    private void remember(Iterable<PayloadKey> keys, long today) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            keys.forEach(key -> storedDays.put(key, today));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                keys.forEach(key -> storedDays.put(key, today));
+            }
+        });
+    }
+
+    private Encoded encode(byte[] id, byte[] utf8) {
+        if (utf8.length < properties.getCompressThreshold().toBytes()) {
+            return new Encoded(id, ApiLogPayload.CODEC_UTF8, utf8.length, utf8);
+        }
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED, true);
+        }
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            // Output that doesn't fit in the input's size wouldn't be worth storing
+            byte[] compressed = new byte[utf8.length];
+            int length = deflater.deflate(compressed);
+            if (!deflater.finished() || length >= utf8.length) {
+                return new Encoded(id, ApiLogPayload.CODEC_UTF8, utf8.length, utf8);
+            }
+            return new Encoded(id, ApiLogPayload.CODEC_DEFLATE, utf8.length, Arrays.copyOf(compressed, length));
+        } finally {
+            deflater.reset();
+            deflaters.offer(deflater);
+        }
+    }
+
+    /**
+     * Returns the text of a stored payload, or null if there is none with that id.
+     */
+    public String load(byte[] id) {
+        List<String> texts = jdbcTemplate.query(SELECT, (rs, rowNum) ->
+                decode(rs.getInt("codec"), rs.getInt("original_length"), rs.getBytes("body")), (Object) id);
+        return texts.isEmpty() ? null : texts.get(0);
+    }
+
+    static String decode(int codec, int originalLength, byte[] body) {
+        if (codec == ApiLogPayload.CODEC_UTF8) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        if (codec != ApiLogPayload.CODEC_DEFLATE) {
+            throw new IllegalStateException("Unknown api log payload codec " + codec);
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(body);
+            byte[] utf8 = new byte[originalLength];
+            int length = 0;
+            while (length < originalLength && !inflater.finished()) {
+                int inflated = inflater.inflate(utf8, length, originalLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != originalLength) {
+                throw new IllegalStateException("Truncated api log payload: " + length + " of " + originalLength + " bytes");
+            }
+            return new String(utf8, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt api log payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Scheduled(initialDelayString = "PT1M", fixedDelayString = "${api-log.payloads.purge-interval:PT1H}")
+    public void purge() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(properties.getRetention().toDays());
+        int batchSize = properties.getPurgeBatchSize();
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE, cutoff, batchSize);
+            purged += deleted;
+        } while (deleted == batchSize);
+        if (purged > 0) {
+            log.info("Purged {} api log payloads last referenced before {}", purged, cutoff);
+        }
+    }
+
+    /**
+     * Number of payload references resolved from the cache without touching the database.
+     */
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Number of payload rows sent to the database, new or refreshed.
+     */
+    public long getUpsertCount() {
+        return upserted.sum();
+    }
+}
@@ -0,0 +1,399 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogQueryProperties;
+import com.arjunai.project.models.ApiLogEntry;
+import com.arjunai.project.models.ApiLogFilter;
+import com.arjunai.project.models.ApiLogPage;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads raw api_logs rows for the log query API, bypassing JPA so that neither paging nor export
+ * fills a persistence context.
+ * <p>
+ * Pages are keyset-paginated on (request_time, id): the cursor holds the last row returned, and the
+ * next page starts strictly after it, so a page costs an index range scan of its own rows however
+ * deep it is. The composite indexes in schema.sql end in (request_time, id) for that reason. A cursor
+ * also records the order and a hash of the filter of its page, and is rejected with other ones,
+ * where it would silently skip or repeat rows.
+ * <p>
+ * Exports run one forward-only, read-only query and write each row as it arrives, so heap use does
+ * not grow with the number of rows. MySQL Connector/J only streams when the fetch size is
+ * {@code Integer.MIN_VALUE}; other drivers fetch {@code api-log.query.export-fetch-size} rows per
+ * round-trip.
+ * <p>
+ * Both run in read-only transactions, so with {@code db.replica.enabled} they are served by the replica.
+ */
+@Service
+@Slf4j
+public class ApiLogQueryService {
+
+    public enum ExportFormat {
+        NDJSON,
+        CSV
+    }
+
+    private static final String SELECT = "SELECT l.id, l.method_name, l.endpoint, l.request, l.response, "
+            + "l.request_time, l.response_time, l.execution_time_ms, l.error_message, l.successful, l.sample_weight, "
+            + "rq.codec, rq.original_length, rq.body, rs.codec, rs.original_length, rs.body "
+            + "FROM api_logs l "
+            + "LEFT JOIN api_log_payloads rq ON rq.id = l.request_payload "
+            + "LEFT JOIN api_log_payloads rs ON rs.id = l.response_payload";
+
+    private static final String[] CSV_HEADER = {"id", "method_name", "endpoint", "request", "response",
+            "request_time", "response_time", "execution_time_ms", "error_message", "successful", "sample_weight"};
+
+    private static final int CURSOR_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES + 1 + Integer.BYTES;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApiLogQueryProperties properties;
+    private final JsonFactory jsonFactory;
+
+    public ApiLogQueryService(JdbcTemplate jdbcTemplate, ApiLogQueryProperties properties, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Returns up to {@code limit} rows matching the filter, newest first unless {@code ascending}.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit page size, or 0 for api-log.query.default-page-size
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another order or
+     *                                  filter, or the limit is out of range
+     */
+    @Transactional(readOnly = true)
+    public ApiLogPage findPage(ApiLogFilter filter, String cursor, int limit, boolean ascending) {
+        int pageSize = limit == 0 ? properties.getDefaultPageSize() : limit;
+        if (pageSize < 0 || pageSize > properties.getMaxPageSize()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + properties.getMaxPageSize());
+        }
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT);
+        appendWhere(sql, params, filter);
+        if (cursor != null && !cursor.isEmpty()) {
+            Cursor after = Cursor.decode(cursor);
+            if (after.ascending() != ascending) {
+                throw new IllegalArgumentException("Cursor was issued for order=" + (after.ascending() ? "asc" : "desc"));
+            }
+            if (after.filterHash() != filterHash(filter)) {
+                throw new IllegalArgumentException("Cursor was issued for different filters");
+            }
+            String comparison = ascending ? ">" : "<";
+            sql.append(params.isEmpty() ? " WHERE " : " AND ")
+                    .append("(l.request_time ").append(comparison).append(" ? OR (l.request_time = ? AND l.id ")
+                    .append(comparison).append(" ?))");
+            Timestamp requestTime = Timestamp.from(after.requestTime());
+            params.add(requestTime);
+            params.add(requestTime);
+            params.add(after.id());
+        }
+        appendOrder(sql, ascending);
+        // One row more than the page tells whether another page follows
+        sql.append(" LIMIT ?");
+        params.add(pageSize + 1);
+
+        List<ApiLogEntry> entries = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> toEntry(rs), params.toArray());
+        if (entries.size() <= pageSize) {
+            return new ApiLogPage(entries, null);
+        }
+        entries = entries.subList(0, pageSize);
+        ApiLogEntry last = entries.get(pageSize - 1);
+        return new ApiLogPage(List.copyOf(entries),
+                new Cursor(last.requestTime(), last.id(), ascending, filterHash(filter)).encode());
+    }
+
+    /**
+     * Writes every row matching the filter to {@code out}, ordered by (request_time, id). NDJSON has
+     * one ApiLogEntry object per line; CSV has a header row and RFC 4180 quoting.
+     *
+     * @return the number of rows written
+     * @throws UncheckedIOException if writing to {@code out} fails
+     */
+    @Transactional(readOnly = true)
+    public long export(ApiLogFilter filter, ExportFormat format, boolean ascending, OutputStream out) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT);
+        appendWhere(sql, params, filter);
+        appendOrder(sql, ascending);
+
+        try {
+            RowWriter writer = format == ExportFormat.NDJSON ? new NdjsonRowWriter(out) : new CsvRowWriter(out);
+            jdbcTemplate.query(streamingStatement(sql.toString(), params, properties.getExportFetchSize()), writer);
+            writer.finish();
+            log.debug("Exported {} api log rows as {}", writer.count, format);
+            return writer.count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Forward-only, read-only statement whose rows are fetched as the result is read rather than all
+     * at once: streamed one by one on MySQL, {@code fetchSize} at a time elsewhere.
+     */
+    static PreparedStatementCreator streamingStatement(String sql, List<Object> params, int fetchSize) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            boolean mysql = connection.getMetaData().getDatabaseProductName().contains("MySQL");
+            statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        };
+    }
+
+    private static void appendWhere(StringBuilder sql, List<Object> params, ApiLogFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.methodName() != null) {
+            conditions.add("l.method_name = ?");
+            params.add(filter.methodName());
+        }
+        if (filter.endpoint() != null) {
+            conditions.add("l.endpoint = ?");
+            params.add(filter.endpoint());
+        }
+        if (filter.successful() != null) {
+            conditions.add("l.successful = ?");
+            params.add(filter.successful());
+        }
+        if (filter.from() != null) {
+            conditions.add("l.request_time >= ?");
+            params.add(Timestamp.from(filter.from()));
+        }
+        if (filter.to() != null) {
+            conditions.add("l.request_time < ?");
+            params.add(Timestamp.from(filter.to()));
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    private static void appendOrder(StringBuilder sql, boolean ascending) {
+        String direction = ascending ? "ASC" : "DESC";
+        sql.append(" ORDER BY l.request_time ").append(direction).append(", l.id ").append(direction);
+    }
+
+    private static ApiLogEntry toEntry(ResultSet rs) throws SQLException {
+        long executionTimeMs = rs.getLong(8);
+        Long executionTime = rs.wasNull() ? null : executionTimeMs;
+        return new ApiLogEntry(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                payloadText(rs, 4, 12),
+                payloadText(rs, 5, 15),
+                toInstant(rs.getTimestamp(6)),
+                toInstant(rs.getTimestamp(7)),
+                executionTime,
+                rs.getString(9),
+                rs.getBoolean(10),
+                rs.getDouble(11));
+    }
+
+    /**
+     * Inline text for rows written with payload storage off, otherwise the joined api_log_payloads row;
+     * null if the row has neither, e.g. once the payload was purged.
+     */
+    private static String payloadText(ResultSet rs, int inlineColumn, int codecColumn) throws SQLException {
+        String inline = rs.getString(inlineColumn);
+        if (inline != null) {
+            return inline;
+        }
+        byte[] body = rs.getBytes(codecColumn + 2);
+        return body == null ? null : ApiLogPayloadStore.decode(rs.getInt(codecColumn), rs.getInt(codecColumn + 1), body);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    /**
+     * Hash of the filter that is the same on every instance, as String, Boolean and Instant hash
+     * their values.
+     */
+    static int filterHash(ApiLogFilter filter) {
+        return Objects.hash(filter.methodName(), filter.endpoint(), filter.successful(), filter.from(), filter.to());
+    }
+
+    /**
+     * Position of the last row of a page, encoded as URL-safe Base64 of its request_time and id,
+     * followed by the page's order and {@link #filterHash(ApiLogFilter)}.
+     */
+    record Cursor(Instant requestTime, long id, boolean ascending, int filterHash) {
+
+        String encode() {
+            ByteBuffer buffer = ByteBuffer.allocate(CURSOR_BYTES)
+                    .putLong(requestTime.getEpochSecond())
+                    .putInt(requestTime.getNano())
+                    .putLong(id)
+                    .put((byte) (ascending ? 1 : 0))
+                    .putInt(filterHash);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+        }
+
+        static Cursor decode(String cursor) {
+            byte[] bytes;
+            try {
+                bytes = Base64.getUrlDecoder().decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (bytes.length != CURSOR_BYTES) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long epochSecond = buffer.getLong();
+            int nano = buffer.getInt();
+            if (nano < 0 || nano > 999_999_999) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            long id = buffer.getLong();
+            byte order = buffer.get();
+            if (order != 0 && order != 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Cursor(Instant.ofEpochSecond(epochSecond, nano), id, order == 1, buffer.getInt());
+        }
+    }
+
+    private abstract static class RowWriter implements RowCallbackHandler {
+        long count;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                write(toEntry(rs));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count++;
+        }
+
+        abstract void write(ApiLogEntry entry) throws IOException;
+
+        abstract void finish() throws IOException;
+    }
+
+    private final class NdjsonRowWriter extends RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            generator = jsonFactory.createGenerator(out);
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        void write(ApiLogEntry entry) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", entry.id());
+            generator.writeStringField("methodName", entry.methodName());
+            generator.writeStringField("endpoint", entry.endpoint());
+            generator.writeStringField("request", entry.request());
+            generator.writeStringField("response", entry.response());
+            generator.writeStringField("requestTime", toString(entry.requestTime()));
+            generator.writeStringField("responseTime", toString(entry.responseTime()));
+            if (entry.executionTimeMs() == null) {
+                generator.writeNullField("executionTimeMs");
+            } else {
+                generator.writeNumberField("executionTimeMs", entry.executionTimeMs());
+            }
+            generator.writeStringField("errorMessage", entry.errorMessage());
+            generator.writeBooleanField("successful", entry.successful());
+            generator.writeNumberField("sampleWeight", entry.sampleWeight());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            generator.close();
+        }
+
+        private static String toString(Instant instant) {
+            return instant == null ? null : instant.toString();
+        }
+    }
+
+    private static final class CsvRowWriter extends RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            for (int i = 0; i < CSV_HEADER.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(CSV_HEADER[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        void write(ApiLogEntry entry) throws IOException {
+            writer.write(Long.toString(entry.id()));
+            field(entry.methodName());
+            field(entry.endpoint());
+            field(entry.request());
+            field(entry.response());
+            field(entry.requestTime());
+            field(entry.responseTime());
+            field(entry.executionTimeMs());
+            field(entry.errorMessage());
+            field(entry.successful());
+            field(entry.sampleWeight());
+            writer.write("\r\n");
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void field(Object value) throws IOException {
+            writer.write(',');
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogRollupProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Maintains api_log_rollups incrementally.
+ * <p>
+ * Each run aggregates whole minutes between the stored watermark and the start of the current
+ * minute. Minutes are recomputed rather than added to, so a run can safely overlap earlier ones;
+ * every run re-aggregates the trailing lookback to pick up rows the write-behind queue delivered
+ * late, and {@link #rewind(Instant)} lets the journal replayer force older minutes to be redone.
+ * Counts and sums are weighted by {@code sample_weight}, so they stay estimates of every call when
+ * {@link ApiLogSampler} persists only a sample of the fast successful ones.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ApiLogRollupJob {
+
+    static final String ROLLUP_NAME = "api_log_rollups";
+
+    private static final String ROLLUP_SQL = """
+            INSERT INTO api_log_rollups (method_name, minute_start, call_count, error_count,
+                sum_execution_time_ms, success_sum_execution_time_ms, min_execution_time_ms, max_execution_time_ms,
+                le_1ms, le_5ms, le_10ms, le_50ms, le_100ms, le_500ms, le_1000ms, gt_1000ms)
+            SELECT method_name,
+                   FROM_UNIXTIME(FLOOR(UNIX_TIMESTAMP(request_time) / 60) * 60) AS minute_start,
+                   ROUND(SUM(sample_weight)),
+                   ROUND(SUM(CASE WHEN successful THEN 0 ELSE sample_weight END)),
+                   ROUND(SUM(execution_time_ms * sample_weight)),
+                   ROUND(SUM(CASE WHEN successful THEN execution_time_ms * sample_weight ELSE 0 END)),
+                   MIN(execution_time_ms),
+                   MAX(execution_time_ms),
+                   ROUND(SUM((execution_time_ms <= 1) * sample_weight)),
+                   ROUND(SUM((execution_time_ms > 1 AND execution_time_ms <= 5) * sample_weight)),
+                   ROUND(SUM((execution_time_ms > 5 AND execution_time_ms <= 10) * sample_weight)),
+                   ROUND(SUM((execution_time_ms > 10 AND execution_time_ms <= 50) * sample_weight)),
+                   ROUND(SUM((execution_time_ms > 50 AND execution_time_ms <= 100) * sample_weight)),
+                   ROUND(SUM((execution_time_ms > 100 AND execution_time_ms <= 500) * sample_weight)),
+                   ROUND(SUM((execution_time_ms > 500 AND execution_time_ms <= 1000) * sample_weight)),
+                   ROUND(SUM((execution_time_ms > 1000) * sample_weight))
+            FROM api_logs
+            WHERE request_time >= ? AND request_time < ?
+            GROUP BY method_name, minute_start
+            ON DUPLICATE KEY UPDATE
+                call_count = VALUES(call_count),
+                error_count = VALUES(error_count),
+                sum_execution_time_ms = VALUES(sum_execution_time_ms),
+                success_sum_execution_time_ms = VALUES(success_sum_execution_time_ms),
+                min_execution_time_ms = VALUES(min_execution_time_ms),
+                max_execution_time_ms = VALUES(max_execution_time_ms),
+                le_1ms = VALUES(le_1ms),
+                le_5ms = VALUES(le_5ms),
+                le_10ms = VALUES(le_10ms),
+                le_50ms = VALUES(le_50ms),
+                le_100ms = VALUES(le_100ms),
+                le_500ms = VALUES(le_500ms),
+                le_1000ms = VALUES(le_1000ms),
+                gt_1000ms = VALUES(gt_1000ms)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApiLogRollupProperties properties;
+
+    @Scheduled(fixedDelayString = "${api-log.rollup.interval:PT30S}")
+    public void rollUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant end = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        Instant start = nextStart(end);
+        if (start == null || !start.isBefore(end)) {
+            return;
+        }
+        Instant chunkEnd = start.plus(properties.getMaxChunk()).truncatedTo(ChronoUnit.MINUTES);
+        if (chunkEnd.isAfter(end) || !chunkEnd.isAfter(start)) {
+            chunkEnd = end;
+        }
+        int rows = jdbcTemplate.update(ROLLUP_SQL, Timestamp.from(start), Timestamp.from(chunkEnd));
+        jdbcTemplate.update("UPDATE api_log_rollup_state SET watermark = ? WHERE name = ?",
+                Timestamp.from(chunkEnd), ROLLUP_NAME);
+        log.debug("Rolled up api_logs from {} to {} ({} rows affected)", start, chunkEnd, rows);
+    }
+
+    /**
+     * Moves the watermark back so that minutes from {@code from} onwards are aggregated again.
+     */
+    public void rewind(Instant from) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // A NULL watermark already means "start from the earliest row", and LEAST keeps it NULL
+        jdbcTemplate.update("UPDATE api_log_rollup_state SET watermark = LEAST(watermark, ?) WHERE name = ?",
+                Timestamp.from(from.truncatedTo(ChronoUnit.MINUTES)), ROLLUP_NAME);
+    }
+
+    @Scheduled(fixedDelayString = "PT1H")
+    public void purgeExpiredRollups() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(properties.getRetention());
+        int deleted = jdbcTemplate.update("DELETE FROM api_log_rollups WHERE minute_start < ?", Timestamp.from(cutoff));
+        if (deleted > 0) {
+            log.info("Purged {} api_log_rollups rows older than {}", deleted, cutoff);
+        }
+    }
+
+    private Instant nextStart(Instant end) {
+        Timestamp watermark = jdbcTemplate.queryForObject(
+                "SELECT watermark FROM api_log_rollup_state WHERE name = ?", Timestamp.class, ROLLUP_NAME);
+        if (watermark == null) {
+            Timestamp earliest = jdbcTemplate.queryForObject("SELECT MIN(request_time) FROM api_logs", Timestamp.class);
+            return earliest != null ? earliest.toInstant().truncatedTo(ChronoUnit.MINUTES) : null;
+        }
+        Instant lookbackStart = end.minus(properties.getLookback());
+        return watermark.toInstant().isBefore(lookbackStart) ? watermark.toInstant() : lookbackStart;
+    }
+}
@@ -0,0 +1,145 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogSamplingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides which completed API log records are persisted, and with what weight.
+ * <p>
+ * Errors and slow calls are always kept with weight 1. Fast successful calls are kept with
+ * probability {@code rate} and weight {@code 1 / rate}, so summing {@code sample_weight} gives an
+ * unbiased estimate of the call count even while the rate changes. The slow threshold per endpoint
+ * comes from {@link LatencyStatsService}, which sees every call whether it was kept or not.
+ * <p>
+ * {@link #adjust()} runs every {@code adjust-interval}. It lowers the rate while writes are slow or the
+ * write-behind queue is filling up, by the factor of the overshoot but never more than half per
+ * step. When neither is the case it raises the rate by a tenth of {@code max-rate} per step.
+ */
+@Slf4j
+@Service
+public class ApiLogSampler {
+
+    private final ApiLogSamplingProperties properties;
+    private final LatencyStatsService latencyStatsService;
+    private final ApiLogWriter apiLogWriter;
+    private final Map<String, Long> slowThresholds = new ConcurrentHashMap<>();
+    private final LongAdder syncWriteCount = new LongAdder();
+    private final LongAdder syncWriteNanos = new LongAdder();
+    private final LongAdder sampledIn = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+
+    private volatile double rate;
+    private long lastWriteCount;
+    private long lastWriteNanos;
+
+    public ApiLogSampler(ApiLogSamplingProperties properties, LatencyStatsService latencyStatsService,
+                         ApiLogWriter apiLogWriter) {
+        if (!(properties.getMinRate() > 0) || properties.getMinRate() > properties.getMaxRate()
+                || properties.getMaxRate() > 1) {
+            throw new IllegalArgumentException("api-log.sampling rates must satisfy 0 < min-rate <= max-rate <= 1");
+        }
+        this.properties = properties;
+        this.latencyStatsService = latencyStatsService;
+        this.apiLogWriter = apiLogWriter;
+        this.rate = properties.getMaxRate();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Returns the weight to persist a completed call with, or 0 if it should not be persisted.
+     *
+     * @param micros Latency of the call
+     */
+    public double weigh(String methodName, long micros, boolean successful) {
+        if (!properties.isEnabled() || !successful || micros >= slowThresholdMicros(methodName)) {
+            return 1;
+        }
+        double current = rate;
+        if (current >= 1 || ThreadLocalRandom.current().nextDouble() < current) {
+            sampledIn.increment();
+            return 1 / current;
+        }
+        sampledOut.increment();
+        return 0;
+    }
+
+    /**
+     * Reports the duration of one synchronous write of an API log record.
+     */
+    public void recordWrite(long nanos) {
+        syncWriteCount.increment();
+        syncWriteNanos.add(nanos);
+    }
+
+    @Scheduled(fixedRateString = "${api-log.sampling.adjust-interval:PT1S}")
+    public void adjust() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        refreshSlowThresholds();
+
+        long writeCount = syncWriteCount.sum() + apiLogWriter.getWriteCount();
+        long writeNanos = syncWriteNanos.sum() + apiLogWriter.getWriteNanos();
+        long writes = writeCount - lastWriteCount;
+        double meanWriteNanos = writes > 0 ? (double) (writeNanos - lastWriteNanos) / writes : 0;
+        lastWriteCount = writeCount;
+        lastWriteNanos = writeNanos;
+
+        double latencyPressure = meanWriteNanos / properties.getTargetWriteLatency().toNanos();
+        double queuePressure = apiLogWriter.isEnabled() ? apiLogWriter.getQueueFill() / properties.getTargetQueueFill() : 0;
+        double pressure = Math.max(latencyPressure, queuePressure);
+        double previous = rate;
+        double next = pressure > 1
+                ? previous / Math.min(pressure, 2)
+                : previous + properties.getMaxRate() / 10;
+        rate = Math.max(properties.getMinRate(), Math.min(properties.getMaxRate(), next));
+        if (rate != previous) {
+            log.debug("API log sampling rate {} -> {} (write latency {} ms, queue fill {})",
+                    previous, rate, meanWriteNanos / 1e6, apiLogWriter.getQueueFill());
+        }
+    }
+
+    private void refreshSlowThresholds() {
+        if (properties.getSlowThreshold() != null) {
+            return;
+        }
+        for (String methodName : latencyStatsService.getMethodNames()) {
+            long micros = latencyStatsService.quantileMicros(methodName, properties.getSlowPercentile(),
+                    properties.getMinSamples());
+            slowThresholds.put(methodName, Math.max(micros, 0));
+        }
+    }
+
+    // 0 until the endpoint has enough calls for a percentile, which keeps every call
+    private long slowThresholdMicros(String methodName) {
+        if (properties.getSlowThreshold() != null) {
+            return properties.getSlowThreshold().toNanos() / 1000;
+        }
+        return slowThresholds.getOrDefault(methodName, 0L);
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Number of fast successful calls kept by sampling; errors and slow calls are not counted.
+     */
+    public long getSampledInCount() {
+        return sampledIn.sum();
+    }
+
+    public long getSampledOutCount() {
+        return sampledOut.sum();
+    }
+}
@@ -2,66 +2,193 @@ package com.arjunai.project.services;
 
 import com.arjunai.project.models.ApiLog;
 import com.arjunai.project.repositories.ApiLogRepository;
+import com.arjunai.project.services.ApiPhaseMetrics.Phase;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@CacheConfig(cacheNames = "apiLogs")
 public class ApiLogService {
     private final ApiLogRepository apiLogRepository;
+    private final ApiLogWriter apiLogWriter;
+    private final ApiLogJournal apiLogJournal;
+    private final LatencyStatsService latencyStatsService;
+    private final ApiLogSampler apiLogSampler;
+    private final ApiLogPayloadStore apiLogPayloadStore;
+    private final ApiPhaseMetrics apiPhaseMetrics;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final LongAdder rejectedLogs = new LongAdder();
 
+    /**
+     * Starts a log entry. The request is stored as its {@code toString()}, so hot paths can pass a
+     * payload already encoded with {@link LogPayloadEncoder} instead of a map.
+     */
     @CircuitBreaker(name = "apiLogService", fallbackMethod = "fallbackStartLog")
     @Retry(name = "apiLogService")
-    public ApiLog startLog(String methodName, String endpoint, Map<?, ?> request) {
+    public ApiLog startLog(String methodName, String endpoint, Object request) {
+        long entered = System.nanoTime();
+        long handlerStart = ApiPhaseMetrics.takeHandlerStartNanos();
+        if (handlerStart != 0) {
+            apiPhaseMetrics.record(methodName, Phase.BINDING, entered - handlerStart);
+        }
         ApiLog apiLog = new ApiLog();
         apiLog.setMethodName(methodName);
         apiLog.setEndpoint(endpoint);
         apiLog.setRequest(request.toString());
         apiLog.setRequestTime(Instant.now());
-        return apiLogRepository.save(apiLog);
+        // Write-behind mode persists the whole lifecycle as a single INSERT on completion, and
+        // sampling can only decide once the outcome and latency are known. Under overload the
+        // completion is all that is kept, too
+        if (!apiLogWriter.isEnabled() && !apiLogSampler.isEnabled() && !concurrencyLimiter.isDegraded()) {
+            long start = System.nanoTime();
+            apiLogPayloadStore.externalize(apiLog);
+            apiLog = apiLogRepository.save(apiLog);
+            concurrencyLimiter.recordWrite(System.nanoTime() - start);
+        }
+        long done = System.nanoTime();
+        apiPhaseMetrics.record(methodName, Phase.START_LOG, done - entered);
+        apiLog.setPhaseStartNanos(done);
+        return apiLog;
     }
 
+    // Not transactional: payloads are stored outside a transaction (see ApiLogPayloadStore), so a
+    // retry after a failed save still finds the payloads its ids refer to
     @CircuitBreaker(name = "apiLogService", fallbackMethod = "fallbackCompleteLog")
     @Retry(name = "apiLogService")
-    @Transactional
     public void completeLog(ApiLog apiLog, Object response, Instant startTime) {
+        markCompleted(apiLog, response, startTime);
+        persist(apiLog);
+    }
+
+    @CircuitBreaker(name = "apiLogService", fallbackMethod = "fallbackLogError")
+    @Retry(name = "apiLogService")
+    public void logError(ApiLog apiLog, Exception e, Instant startTime) {
+        markFailed(apiLog, e, startTime);
+        persist(apiLog);
+    }
+
+    /**
+     * Logs a request that failed before its handler ran, such as one with an unreadable body. The
+     * record is appended to the journal, whose replayer inserts it with a batch later, and is only
+     * counted when there is no journal, so malformed input never takes a pooled connection.
+     */
+    public void logRejected(String methodName, String endpoint, Object request, Exception e) {
+        ApiLog apiLog = rejectedLog(methodName, endpoint, request, e);
+        rejectedLogs.increment();
+        if (apiLog.getSampleWeight() == 0 || !apiLogJournal.isEnabled()) {
+            return;
+        }
+        try {
+            apiLogJournal.append(apiLog);
+        } catch (RuntimeException journalFailure) {
+            log.debug("Dropped API log of rejected request, journal failed: {}", journalFailure.toString());
+        }
+    }
+
+    /**
+     * Number of requests logged through {@link #logRejected}, whether or not a record was kept.
+     */
+    public long getRejectedLogCount() {
+        return rejectedLogs.sum();
+    }
+
+    private ApiLog rejectedLog(String methodName, String endpoint, Object request, Exception e) {
+        ApiLog apiLog = new ApiLog();
+        apiLog.setMethodName(methodName);
+        apiLog.setEndpoint(endpoint);
+        apiLog.setRequest(request.toString());
+        apiLog.setRequestTime(Instant.now());
+        markFailed(apiLog, e, apiLog.getRequestTime());
+        return apiLog;
+    }
+
+    private void markCompleted(ApiLog apiLog, Object response, Instant startTime) {
+        recordOutcome(apiLog, startTime, true);
         apiLog.setResponse(response.toString());
         apiLog.setResponseTime(Instant.now());
         apiLog.setExecutionTimeMs(apiLog.getResponseTime().toEpochMilli() - startTime.toEpochMilli());
         apiLog.setSuccessful(true);
-        apiLogRepository.save(apiLog);
     }
 
-    @CircuitBreaker(name = "apiLogService", fallbackMethod = "fallbackLogError")
-    @Retry(name = "apiLogService")
-    @Transactional
-    public void logError(ApiLog apiLog, Exception e, Instant startTime) {
+    private void markFailed(ApiLog apiLog, Exception e, Instant startTime) {
+        recordOutcome(apiLog, startTime, false);
         apiLog.setErrorMessage(e.getMessage());
         apiLog.setResponseTime(Instant.now());
         apiLog.setExecutionTimeMs(apiLog.getResponseTime().toEpochMilli() - startTime.toEpochMilli());
         apiLog.setSuccessful(false);
-        apiLogRepository.save(apiLog);
     }
 
-    @Cacheable(key = "#methodName")
+    // Retries and fallbacks mark the same log again; only the first mark has no response time yet,
+    // so the sampling decision is made once and kept
+    private void recordOutcome(ApiLog apiLog, Instant startTime, boolean successful) {
+        if (apiLog.getResponseTime() == null) {
+            long now = System.nanoTime();
+            if (apiLog.getPhaseStartNanos() != 0) {
+                apiPhaseMetrics.record(apiLog.getMethodName(), Phase.COMPUTE, now - apiLog.getPhaseStartNanos());
+            }
+            apiLog.setPhaseStartNanos(now);
+            long micros = Duration.between(startTime, Instant.now()).toNanos() / 1000;
+            latencyStatsService.record(apiLog.getMethodName(), micros, successful);
+            apiLog.setSampleWeight(apiLogSampler.weigh(apiLog.getMethodName(), micros, successful));
+        }
+    }
+
+    private void persist(ApiLog apiLog) {
+        if (apiLog.getSampleWeight() == 0) {
+            endCompleteLogPhase(apiLog);
+            return;
+        }
+        if (apiLogWriter.isEnabled()) {
+            apiLogWriter.submit(apiLog);
+        } else if (concurrencyLimiter.isDegraded()) {
+            defer(apiLog);
+        } else {
+            long start = System.nanoTime();
+            apiLogPayloadStore.externalize(apiLog);
+            apiLogRepository.save(apiLog);
+            long nanos = System.nanoTime() - start;
+            apiLogSampler.recordWrite(nanos);
+            concurrencyLimiter.recordWrite(nanos);
+        }
+        endCompleteLogPhase(apiLog);
+    }
+
+    // Under overload the record goes to the journal, whose replayer writes it in batches later, and
+    // is dropped without one
+    private void defer(ApiLog apiLog) {
+        concurrencyLimiter.recordDegradedLog();
+        if (!apiLogJournal.isEnabled()) {
+            return;
+        }
+        try {
+            apiLogJournal.append(apiLog);
+        } catch (RuntimeException journalFailure) {
+            log.debug("Dropped API log under overload, journal failed: {}", journalFailure.toString());
+        }
+    }
+
+    // Only the attempt that persists, or the fallback that spills, ends the phase
+    private void endCompleteLogPhase(ApiLog apiLog) {
+        if (apiLog.getPhaseStartNanos() != 0) {
+            apiPhaseMetrics.record(apiLog.getMethodName(), Phase.COMPLETE_LOG, System.nanoTime() - apiLog.getPhaseStartNanos());
+            apiLog.setPhaseStartNanos(0);
+        }
+    }
+
     public double getAverageExecutionTime(String methodName) {
-        return apiLogRepository.findAverageExecutionTimeByMethodName(methodName);
+        return latencyStatsService.getAverageExecutionTime(methodName);
     }
 
     // Fallback methods
-    private ApiLog fallbackStartLog(String methodName, String endpoint, Map<?, ?> request, Exception e) {
+    private ApiLog fallbackStartLog(String methodName, String endpoint, Object request, Exception e) {
         log.error("Circuit breaker fallback: Failed to start log", e);
         ApiLog fallbackLog = new ApiLog();
         fallbackLog.setMethodName(methodName);
@@ -71,11 +198,32 @@ public class ApiLogService {
         return fallbackLog;
     }
 
+    // The breaker may reject the call before the log was filled in, so the fallbacks mark it themselves
     private void fallbackCompleteLog(ApiLog apiLog, Object response, Instant startTime, Exception e) {
-        log.error("Circuit breaker fallback: Failed to complete log", e);
+        markCompleted(apiLog, response, startTime);
+        spill(apiLog, "Circuit breaker fallback: Failed to complete log", e);
+        endCompleteLogPhase(apiLog);
     }
 
     private void fallbackLogError(ApiLog apiLog, Exception error, Instant startTime, Exception e) {
-        log.error("Circuit breaker fallback: Failed to log error", e);
+        markFailed(apiLog, error, startTime);
+        spill(apiLog, "Circuit breaker fallback: Failed to log error", e);
+        endCompleteLogPhase(apiLog);
+    }
+
+    private void spill(ApiLog apiLog, String message, Exception e) {
+        if (apiLog.getSampleWeight() == 0) {
+            return;
+        }
+        if (!apiLogJournal.isEnabled()) {
+            log.error(message, e);
+            return;
+        }
+        try {
+            apiLogJournal.append(apiLog);
+            log.debug("{}, spilled to journal: {}", message, e.toString());
+        } catch (RuntimeException journalFailure) {
+            log.error(message + " and could not spill to journal", journalFailure);
+        }
     }
 } 
\ No newline at end of file
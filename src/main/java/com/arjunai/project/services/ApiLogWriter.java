@@ -0,0 +1,243 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogWriteBehindProperties;
+import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.repositories.ApiLogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind sink for completed API log records.
+ * Request threads only enqueue; a single background thread drains the queue and
+ * persists each batch in one transaction, after storing its payloads through
+ * ApiLogPayloadStore in a single upsert. Ids come from the pooled table allocator,
+ * so Hibernate sends the inserts as JDBC batches of hibernate.jdbc.batch_size,
+ * which the MySQL driver rewrites into multi-row statements because of
+ * rewriteBatchedStatements=true.
+ */
+@Slf4j
+@Component
+public class ApiLogWriter implements SmartLifecycle {
+
+    private final ApiLogRepository apiLogRepository;
+    private final ApiLogJournal apiLogJournal;
+    private final ApiLogPayloadStore apiLogPayloadStore;
+    private final ApiLogWriteBehindProperties properties;
+    private final BlockingQueue<ApiLog> queue;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong writeCalls = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ApiLogWriter(ApiLogRepository apiLogRepository, ApiLogJournal apiLogJournal,
+                        ApiLogPayloadStore apiLogPayloadStore, ApiLogWriteBehindProperties properties) {
+        this.apiLogRepository = apiLogRepository;
+        this.apiLogJournal = apiLogJournal;
+        this.apiLogPayloadStore = apiLogPayloadStore;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues a completed log record, applying the configured overflow policy when the queue is full.
+     */
+    public void submit(ApiLog apiLog) {
+        if (!running) {
+            writeBatch(List.of(apiLog));
+            return;
+        }
+        if (queue.offer(apiLog)) {
+            return;
+        }
+        switch (properties.getOverflowPolicy()) {
+            case DROP_NEWEST -> dropped.incrementAndGet();
+            case DROP_OLDEST -> {
+                while (!queue.offer(apiLog)) {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+            }
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(apiLog, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                        dropped.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                }
+            }
+            case CALLER_RUNS -> writeBatch(List.of(apiLog));
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Fraction of the queue capacity in use.
+     */
+    public double getQueueFill() {
+        return (double) queue.size() / properties.getQueueCapacity();
+    }
+
+    /**
+     * Number of batch writes attempted so far, failed ones included.
+     */
+    public long getWriteCount() {
+        return writeCalls.get();
+    }
+
+    /**
+     * Total time spent in batch writes so far.
+     */
+    public long getWriteNanos() {
+        return writeNanos.get();
+    }
+
+    private void drainLoop() {
+        int batchSize = properties.getBatchSize();
+        long lingerNanos = properties.getFlushInterval().toNanos();
+        List<ApiLog> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                ApiLog first = queue.poll(lingerNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    ApiLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                // writeBatch accounts for its own failures; anything else must not end the worker,
+                // or the queue would stop draining while submit still accepts records
+                log.error("API log writer failed to drain a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void writeBatch(List<ApiLog> batch) {
+        long start = System.nanoTime();
+        try {
+            apiLogPayloadStore.externalize(batch);
+            apiLogRepository.saveAll(batch);
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            // Not only DataAccessException: an outage surfaces as CannotCreateTransactionException
+            // when the transaction begins, and the payload store may fail on its own
+            if (apiLogJournal.isEnabled()) {
+                log.warn("Failed to write batch of {} api logs, spilling to journal", batch.size(), e);
+                spill(batch);
+            } else {
+                dropped.addAndGet(batch.size());
+                log.error("Failed to write batch of {} api logs", batch.size(), e);
+            }
+        } finally {
+            writeCalls.incrementAndGet();
+            writeNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void spill(List<ApiLog> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                apiLogJournal.append(batch.get(i));
+            } catch (RuntimeException e) {
+                dropped.addAndGet(batch.size() - i);
+                log.error("Failed to spill {} api logs to journal", batch.size() - i, e);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drainLoop, "api-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("API log write-behind enabled (batchSize={}, flushInterval={}, queueCapacity={}, overflowPolicy={})",
+                properties.getBatchSize(), properties.getFlushInterval(),
+                properties.getQueueCapacity(), properties.getOverflowPolicy());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            worker.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            worker.interrupt();
+            log.warn("API log writer did not drain within {}, {} records left unwritten",
+                    properties.getShutdownTimeout(), queue.size());
+        } else {
+            log.info("API log writer drained ({} written, {} dropped)", written.get(), dropped.get());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the embedded web server so in-flight requests can still enqueue,
+     * and before the DataSource is closed.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
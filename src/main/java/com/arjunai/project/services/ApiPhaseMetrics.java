@@ -0,0 +1,86 @@
+package com.arjunai.project.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint timers for the phases of a logged API call, published as {@code api.phase} with tags
+ * {@code method} (the log method name) and {@code phase}:
+ * <ul>
+ *     <li>{@code binding}: from handler dispatch to startLog, i.e. argument resolution and request body
+ *     conversion. Servlet stack only, where WebMvcConfig's interceptor marks the dispatch.</li>
+ *     <li>{@code startLog}: inside ApiLogService.startLog.</li>
+ *     <li>{@code compute}: from the end of startLog to completeLog or logError.</li>
+ *     <li>{@code completeLog}: from completeLog or logError until the record is persisted, queued or
+ *     spilled, retries included.</li>
+ * </ul>
+ * The timers of a method are looked up once and cached, so recording a phase costs two
+ * {@code nanoTime} reads and a timer update.
+ */
+@Component
+public class ApiPhaseMetrics {
+
+    /** Request attribute holding the {@code nanoTime} at which the handler was dispatched. */
+    public static final String HANDLER_START_ATTRIBUTE = ApiPhaseMetrics.class.getName() + ".handlerStart";
+
+    public enum Phase {
+        BINDING("binding"),
+        START_LOG("startLog"),
+        COMPUTE("compute"),
+        COMPLETE_LOG("completeLog");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public ApiPhaseMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String methodName, Phase phase, long nanos) {
+        timers.computeIfAbsent(methodName, this::register)[phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] register(String methodName) {
+        Phase[] phases = Phase.values();
+        Timer[] methodTimers = new Timer[phases.length];
+        for (Phase phase : phases) {
+            methodTimers[phase.ordinal()] = Timer.builder("api.phase")
+                    .description("Time spent in each phase of a logged API call")
+                    .tag("method", methodName)
+                    .tag("phase", phase.tag)
+                    .register(meterRegistry);
+        }
+        return methodTimers;
+    }
+
+    /**
+     * Returns and clears the dispatch time of the current servlet request, or 0 outside of one or
+     * if it was already taken, so retries and second log entries don't count binding twice.
+     */
+    public static long takeHandlerStartNanos() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return 0;
+        }
+        Object start = attributes.getAttribute(HANDLER_START_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (start == null) {
+            return 0;
+        }
+        attributes.removeAttribute(HANDLER_START_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return (Long) start;
+    }
+}
@@ -0,0 +1,328 @@
+package com.arjunai.project.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Streams newline-delimited split jobs from an input stream to NDJSON results on an output stream.
+ * <p>
+ * Each input line is one JSON object, for example
+ * {@code {"mode":"equal","amount":100,"people":4}},
+ * {@code {"mode":"with-tip","amount":100,"people":4,"tipPercentage":15}} or
+ * {@code {"mode":"custom","amount":100,"ratios":[1,2,3]}}. Each output line carries the 1-based
+ * input line number and either {@code result}, {@code shares} or {@code error}, in input order.
+ * Custom shares are exact-cent allocations from {@link MoneyAllocator} that add up to the amount.
+ * <p>
+ * Jobs are parsed into fixed-capacity, column-oriented chunks that are recycled, so memory stays
+ * flat however long the body is. Up to {@code maxInFlight} chunks are computed in parallel; the
+ * reader waits for the oldest chunk to be written before reading past that, which pushes back on
+ * the client through TCP flow control. Lines are parsed independently, so a malformed line only
+ * fails itself.
+ */
+@Slf4j
+@Service
+public class BulkSplitProcessor {
+
+    static final int CHUNK_SIZE = 1024;
+
+    private static final byte MODE_INVALID = 0;
+    private static final byte MODE_EQUAL = 1;
+    private static final byte MODE_WITH_TIP = 2;
+    private static final byte MODE_CUSTOM = 3;
+
+    private final JsonFactory jsonFactory;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+
+    public BulkSplitProcessor(ObjectMapper objectMapper, @Qualifier("bulkSplitExecutor") ExecutorService executor) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.executor = executor;
+        this.maxInFlight = Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Outcome of one bulk request, used for the aggregated log entry.
+     */
+    public record Summary(long jobs, long errors) {
+    }
+
+    public Summary process(InputStream in, OutputStream out) throws IOException {
+        LineReader reader = new LineReader(in);
+        Deque<Chunk> free = new ArrayDeque<>();
+        Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        long jobs = 0;
+        long errors = 0;
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            boolean more = true;
+            while (more) {
+                Chunk chunk = free.isEmpty() ? new Chunk() : free.pop();
+                more = fill(chunk, reader);
+                if (chunk.size > 0) {
+                    inFlight.add(executor.submit(() -> compute(chunk)));
+                } else {
+                    free.push(chunk);
+                }
+                while (inFlight.size() >= maxInFlight || (!more && !inFlight.isEmpty())) {
+                    Chunk done = await(inFlight.removeFirst());
+                    jobs += done.size;
+                    errors += write(done, generator);
+                    generator.flush();
+                    free.push(done);
+                }
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        return new Summary(jobs, errors);
+    }
+
+    private boolean fill(Chunk chunk, LineReader reader) throws IOException {
+        chunk.reset();
+        while (chunk.size < CHUNK_SIZE) {
+            int length = reader.readLine();
+            if (length < 0) {
+                return false;
+            }
+            if (isBlank(reader.line, length)) {
+                continue;
+            }
+            parse(reader.line, length, reader.lineNumber, chunk);
+        }
+        return true;
+    }
+
+    private void parse(byte[] line, int length, long lineNumber, Chunk chunk) {
+        int index = chunk.size++;
+        chunk.lineNumbers[index] = lineNumber;
+        chunk.modes[index] = MODE_INVALID;
+        chunk.ratioStart[index] = chunk.ratioCount;
+        chunk.ratioEnd[index] = chunk.ratioCount;
+
+        byte mode = MODE_INVALID;
+        double amount = Double.NaN;
+        int people = 0;
+        double tipPercentage = 0;
+        try (JsonParser parser = jsonFactory.createParser(line, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                chunk.errors[index] = "Each line must be a JSON object";
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "mode" -> mode = parseMode(parser.getText());
+                    case "amount" -> amount = parser.getDoubleValue();
+                    case "people" -> people = parser.getIntValue();
+                    case "tipPercentage" -> tipPercentage = parser.getDoubleValue();
+                    case "ratios" -> {
+                        if (value != JsonToken.START_ARRAY) {
+                            chunk.errors[index] = "ratios must be an array";
+                            return;
+                        }
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            chunk.addRatio(parser.getDoubleValue());
+                        }
+                        chunk.ratioEnd[index] = chunk.ratioCount;
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            chunk.errors[index] = "Invalid JSON: " + e.getOriginalMessage();
+            return;
+        } catch (IOException e) {
+            chunk.errors[index] = "Invalid JSON";
+            return;
+        }
+
+        if (mode == MODE_INVALID) {
+            chunk.errors[index] = "mode must be one of equal, with-tip, custom";
+        } else if (Double.isNaN(amount)) {
+            chunk.errors[index] = "amount is required";
+        } else {
+            chunk.modes[index] = mode;
+            chunk.amounts[index] = amount;
+            chunk.people[index] = people;
+            chunk.tipPercentages[index] = tipPercentage;
+        }
+    }
+
+    private static byte parseMode(String mode) {
+        return switch (mode) {
+            case "equal" -> MODE_EQUAL;
+            case "with-tip" -> MODE_WITH_TIP;
+            case "custom" -> MODE_CUSTOM;
+            default -> MODE_INVALID;
+        };
+    }
+
+    private static Chunk compute(Chunk chunk) {
+        for (int i = 0; i < chunk.size; i++) {
+            if (chunk.errors[i] != null) {
+                continue;
+            }
+            try {
+                switch (chunk.modes[i]) {
+                    case MODE_EQUAL -> chunk.results[i] = SplitCalculator.splitEqually(chunk.amounts[i], chunk.people[i]);
+                    case MODE_WITH_TIP -> chunk.results[i] = SplitCalculator.splitWithTip(
+                            chunk.amounts[i], chunk.people[i], chunk.tipPercentages[i]);
+                    case MODE_CUSTOM -> MoneyAllocator.allocate(MoneyAllocator.toMinorUnits(chunk.amounts[i]),
+                            chunk.ratios, chunk.ratioStart[i], chunk.ratioEnd[i], chunk.shares);
+                    default -> chunk.errors[i] = "mode must be one of equal, with-tip, custom";
+                }
+            } catch (IllegalArgumentException e) {
+                chunk.errors[i] = e.getMessage();
+            }
+        }
+        return chunk;
+    }
+
+    private static int write(Chunk chunk, JsonGenerator generator) throws IOException {
+        int errors = 0;
+        for (int i = 0; i < chunk.size; i++) {
+            generator.writeStartObject();
+            generator.writeNumberField("line", chunk.lineNumbers[i]);
+            if (chunk.errors[i] != null) {
+                generator.writeStringField("error", chunk.errors[i]);
+                errors++;
+            } else if (chunk.modes[i] == MODE_CUSTOM) {
+                generator.writeArrayFieldStart("shares");
+                for (int r = chunk.ratioStart[i]; r < chunk.ratioEnd[i]; r++) {
+                    generator.writeNumber(MoneyAllocator.toMajorUnits(chunk.shares[r]));
+                }
+                generator.writeEndArray();
+            } else {
+                generator.writeNumberField("result", chunk.results[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        return errors;
+    }
+
+    private static Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while computing bulk split", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Bulk split computation failed", e.getCause());
+        }
+    }
+
+    private static boolean isBlank(byte[] line, int length) {
+        for (int i = 0; i < length; i++) {
+            byte b = line[i];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Column-oriented buffer for up to {@link #CHUNK_SIZE} jobs. Ratios of all custom jobs share one
+     * growable array, and their shares in cents are written to the same positions of a parallel array.
+     */
+    private static final class Chunk {
+        int size;
+        final long[] lineNumbers = new long[CHUNK_SIZE];
+        final byte[] modes = new byte[CHUNK_SIZE];
+        final double[] amounts = new double[CHUNK_SIZE];
+        final int[] people = new int[CHUNK_SIZE];
+        final double[] tipPercentages = new double[CHUNK_SIZE];
+        final int[] ratioStart = new int[CHUNK_SIZE];
+        final int[] ratioEnd = new int[CHUNK_SIZE];
+        final double[] results = new double[CHUNK_SIZE];
+        final String[] errors = new String[CHUNK_SIZE];
+        double[] ratios = new double[CHUNK_SIZE * 4];
+        long[] shares = new long[CHUNK_SIZE * 4];
+        int ratioCount;
+
+        void reset() {
+            Arrays.fill(errors, 0, size, null);
+            size = 0;
+            ratioCount = 0;
+        }
+
+        void addRatio(double ratio) {
+            if (ratioCount == ratios.length) {
+                ratios = Arrays.copyOf(ratios, ratios.length * 2);
+                shares = new long[ratios.length];
+            }
+            ratios[ratioCount++] = ratio;
+        }
+    }
+
+    /**
+     * Splits an input stream into lines without decoding characters, reusing one line buffer.
+     */
+    private static final class LineReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int position;
+        private int limit;
+        byte[] line = new byte[1024];
+        long lineNumber;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        int readLine() throws IOException {
+            int length = 0;
+            boolean sawAny = false;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer, 0, buffer.length);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        if (!sawAny) {
+                            return -1;
+                        }
+                        lineNumber++;
+                        return length;
+                    }
+                }
+                sawAny = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                int count = position - start;
+                if (length + count > line.length) {
+                    line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+                }
+                System.arraycopy(buffer, start, line, length, count);
+                length += count;
+                if (position < limit) {
+                    position++;
+                    lineNumber++;
+                    return length;
+                }
+            }
+        }
+    }
+}
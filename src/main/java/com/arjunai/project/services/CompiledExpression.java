@@ -0,0 +1,142 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.models.ExpressionResponse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arithmetic expression compiled into a flat postfix program.
+ * <p>
+ * The program is an {@code int[]} of opcodes with inline operands (constant index or variable slot)
+ * evaluated against a {@code double[]} operand stack whose depth is known at compile time, so
+ * evaluating a binding is a single tight loop with no allocation. Instances are immutable and
+ * shared between threads through the plan cache.
+ */
+public final class CompiledExpression {
+
+    static final int PUSH_CONST = 0;
+    static final int PUSH_VAR = 1;
+    static final int ADD = 2;
+    static final int SUB = 3;
+    static final int MUL = 4;
+    static final int DIV = 5;
+    static final int MOD = 6;
+    static final int POW = 7;
+    static final int NEG = 8;
+    static final int SQRT = 9;
+    static final int ABS = 10;
+    static final int MIN = 11;
+    static final int MAX = 12;
+
+    private final String expression;
+    private final int[] code;
+    private final double[] constants;
+    private final String[] variables;
+    private final int maxStack;
+
+    CompiledExpression(String expression, int[] code, double[] constants, String[] variables, int maxStack) {
+        this.expression = expression;
+        this.code = code;
+        this.constants = constants;
+        this.variables = variables;
+        this.maxStack = maxStack;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Variable names in slot order; {@link #evaluate(double[], double[])} expects values in this order.
+     */
+    public List<String> getVariables() {
+        return Arrays.asList(variables.clone());
+    }
+
+    public int getProgramLength() {
+        return code.length;
+    }
+
+    public double[] newStack() {
+        return new double[Math.max(1, maxStack)];
+    }
+
+    /**
+     * Evaluates the program once per binding, reusing one value array and stack for all of them.
+     * Division by zero flags the binding as an error with a NaN result.
+     *
+     * @throws IllegalArgumentException if a binding has no value for one of the variables
+     */
+    public ExpressionResponse evaluateAll(List<Map<String, Double>> bindings) {
+        double[] values = new double[variables.length];
+        double[] stack = newStack();
+        double[] results = new double[bindings.size()];
+        boolean[] errors = new boolean[bindings.size()];
+        int errorCount = 0;
+
+        for (int i = 0; i < bindings.size(); i++) {
+            Map<String, Double> binding = bindings.get(i);
+            for (int slot = 0; slot < values.length; slot++) {
+                Double value = binding != null ? binding.get(variables[slot]) : null;
+                if (value == null) {
+                    throw new IllegalArgumentException("Binding " + i + " has no value for variable '" + variables[slot] + "'");
+                }
+                values[slot] = value;
+            }
+            try {
+                results[i] = evaluate(values, stack);
+            } catch (ArithmeticException e) {
+                results[i] = Double.NaN;
+                errors[i] = true;
+                errorCount++;
+            }
+        }
+        return new ExpressionResponse(results, errors, errorCount);
+    }
+
+    /**
+     * Evaluates the program for one set of variable values.
+     *
+     * @param values Variable values in slot order
+     * @param stack Scratch stack from {@link #newStack()}, reusable across calls on the same thread
+     * @throws ArithmeticException on division or modulo by zero
+     */
+    public double evaluate(double[] values, double[] stack) {
+        int sp = 0;
+        int pc = 0;
+        int[] program = code;
+        while (pc < program.length) {
+            switch (program[pc++]) {
+                case PUSH_CONST -> stack[sp++] = constants[program[pc++]];
+                case PUSH_VAR -> stack[sp++] = values[program[pc++]];
+                case ADD -> { sp--; stack[sp - 1] += stack[sp]; }
+                case SUB -> { sp--; stack[sp - 1] -= stack[sp]; }
+                case MUL -> { sp--; stack[sp - 1] *= stack[sp]; }
+                case DIV -> {
+                    sp--;
+                    if (stack[sp] == 0) {
+                        throw new ArithmeticException("Cannot divide by zero");
+                    }
+                    stack[sp - 1] /= stack[sp];
+                }
+                case MOD -> {
+                    sp--;
+                    if (stack[sp] == 0) {
+                        throw new ArithmeticException("Cannot divide by zero");
+                    }
+                    stack[sp - 1] %= stack[sp];
+                }
+                case POW -> { sp--; stack[sp - 1] = Math.pow(stack[sp - 1], stack[sp]); }
+                case NEG -> stack[sp - 1] = -stack[sp - 1];
+                case SQRT -> stack[sp - 1] = Math.sqrt(stack[sp - 1]);
+                case ABS -> stack[sp - 1] = Math.abs(stack[sp - 1]);
+                case MIN -> { sp--; stack[sp - 1] = Math.min(stack[sp - 1], stack[sp]); }
+                case MAX -> { sp--; stack[sp - 1] = Math.max(stack[sp - 1], stack[sp]); }
+                default -> throw new IllegalStateException("Unknown opcode at " + (pc - 1));
+            }
+        }
+        return stack[0];
+    }
+}
@@ -0,0 +1,412 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ExpenseLedgerProperties;
+import com.arjunai.project.models.LedgerBalances;
+import com.arjunai.project.models.LedgerEntry;
+import com.arjunai.project.models.LedgerExpenseRequest;
+import com.arjunai.project.models.SettlementResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stateful expense ledger: groups accumulate expenses split with the /api/split modes, and each
+ * member's net balance is kept up to date in minor units as expenses arrive.
+ * <p>
+ * Every member's balance is a {@link LongAdder}, so writers to one group add to striped cells
+ * instead of contending on one counter, and reading a member's balance is a map lookup and a sum
+ * over the cells. An expense is booked under one of {@code lock-stripes} locks, picked at random;
+ * writers only exclude the few others that picked the same stripe. Whole-group reads (balances,
+ * settlement, snapshots) take every stripe for a moment, so they always see whole expenses and
+ * balances that add up to zero. Members are only ever appended: a new member list is copied from the
+ * old one and shares its counters.
+ * <p>
+ * Groups are snapshotted to ledger_groups and ledger_balances every {@code snapshot-interval}, and
+ * once more when the application stops; only groups with new expenses or members are written, and of
+ * those only balances that changed. A group that isn't in memory is loaded from its snapshot the
+ * first time it is used. The ledger lives in one process, so a group must always be served by the
+ * same instance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpenseLedger implements SmartLifecycle {
+
+    static final int MAX_GROUP_ID_LENGTH = 64;
+    static final int MAX_MEMBER_LENGTH = 255;
+
+    private static final String SELECT_GROUP = "SELECT expense_count FROM ledger_groups WHERE group_id = ?";
+    private static final String SELECT_BALANCES =
+            "SELECT member, balance_minor FROM ledger_balances WHERE group_id = ? ORDER BY position";
+    private static final String UPSERT_GROUP = """
+            INSERT INTO ledger_groups (group_id, member_count, expense_count, snapshot_at) VALUES (?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE member_count = VALUES(member_count), expense_count = VALUES(expense_count),
+                snapshot_at = VALUES(snapshot_at)
+            """;
+    private static final String UPSERT_BALANCE = """
+            INSERT INTO ledger_balances (group_id, position, member, balance_minor) VALUES (?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE balance_minor = VALUES(balance_minor)
+            """;
+
+    private final ExpenseLedgerProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<String, Group> groups = new ConcurrentHashMap<>();
+    private final LongAdder expenses = new LongAdder();
+    private final LongAdder snapshots = new LongAdder();
+    private final LongAdder snapshotFailures = new LongAdder();
+
+    private volatile boolean running;
+
+    /**
+     * Adds members to a group, creating the group if it doesn't exist. Members already in the group
+     * are left as they are.
+     */
+    public LedgerBalances join(String groupId, String[] names) {
+        checkGroupId(groupId);
+        if (names == null || names.length == 0) {
+            throw new IllegalArgumentException("At least one member is required");
+        }
+        for (String name : names) {
+            if (name == null || name.isBlank() || name.length() > MAX_MEMBER_LENGTH) {
+                throw new IllegalArgumentException("Member names must be 1 to " + MAX_MEMBER_LENGTH + " characters");
+            }
+        }
+        // Loading holds the map's lock for this key, so concurrent first uses load the group once
+        Group group = groups.computeIfAbsent(groupId, id -> {
+            Group loaded = load(id);
+            return loaded != null ? loaded : new Group(id, properties.getLockStripes());
+        });
+        group.addMembers(names);
+        return balances(group);
+    }
+
+    /**
+     * Books an expense: the payer is credited the total, and the participants are debited their shares.
+     *
+     * @throws IllegalArgumentException if the group, payer or a participant is unknown, or the split is invalid
+     */
+    public LedgerEntry addExpense(String groupId, LedgerExpenseRequest expense) {
+        Group group = existing(groupId);
+        Members members = group.members;
+        int payer = members.indexOf(expense.payer());
+        int[] participants;
+        if (expense.participants() == null || expense.participants().length == 0) {
+            participants = new int[members.names().length];
+            Arrays.setAll(participants, p -> p);
+        } else {
+            participants = new int[expense.participants().length];
+            for (int i = 0; i < participants.length; i++) {
+                participants[i] = members.indexOf(expense.participants()[i]);
+            }
+        }
+        long[] shares = shares(expense, participants.length);
+        long total = 0;
+        for (long share : shares) {
+            total += share;
+        }
+
+        // Counters are shared by every member list, so the list read above is as good as the current one
+        LongAdder[] balances = members.balances();
+        ReentrantLock stripe = group.stripe();
+        stripe.lock();
+        try {
+            balances[payer].add(total);
+            for (int i = 0; i < participants.length; i++) {
+                balances[participants[i]].add(-shares[i]);
+            }
+            group.expenses.increment();
+        } finally {
+            stripe.unlock();
+        }
+        expenses.increment();
+
+        String[] names = new String[participants.length];
+        for (int i = 0; i < participants.length; i++) {
+            names[i] = members.names()[participants[i]];
+        }
+        return new LedgerEntry(members.names()[payer], MoneyAllocator.toMajorUnits(total), names,
+                MoneyAllocator.toMajorUnits(shares));
+    }
+
+    /**
+     * One member's current balance in minor units, positive when the member is owed money.
+     */
+    public long balance(String groupId, String member) {
+        Members members = existing(groupId).members;
+        return members.balances()[members.indexOf(member)].sum();
+    }
+
+    public LedgerBalances balances(String groupId) {
+        return balances(existing(groupId));
+    }
+
+    /**
+     * Transfers that would settle the group's current balances; see {@link SettlementCalculator}.
+     */
+    public SettlementResponse settlement(String groupId) {
+        Cut cut = existing(groupId).cut();
+        return SettlementCalculator.response(cut.names(), cut.balances());
+    }
+
+    /**
+     * Writes every group with new expenses or members to the database, one transaction per group.
+     * A group whose write fails stays pending for the next run.
+     */
+    @Scheduled(fixedDelayString = "${ledger.snapshot-interval:PT10S}")
+    public synchronized void snapshot() {
+        if (!properties.isSnapshotEnabled()) {
+            return;
+        }
+        for (Group group : groups.values()) {
+            if (group.expenses.sum() == group.savedExpenses && group.members.names().length == group.savedBalances.length) {
+                continue;
+            }
+            Cut cut = group.cut();
+            try {
+                transactionTemplate.executeWithoutResult(status -> save(group, cut));
+                group.savedExpenses = cut.expenses();
+                group.savedBalances = cut.balances();
+                snapshots.increment();
+            } catch (DataAccessException e) {
+                snapshotFailures.increment();
+                log.warn("Ledger snapshot of group {} failed, retrying next run: {}", group.id, e.getMessage());
+            }
+        }
+    }
+
+    private void save(Group group, Cut cut) {
+        jdbcTemplate.update(UPSERT_GROUP, group.id, cut.names().length, cut.expenses(), Timestamp.from(Instant.now()));
+        List<Object[]> changed = new ArrayList<>();
+        long[] saved = group.savedBalances;
+        for (int p = 0; p < cut.names().length; p++) {
+            if (p >= saved.length || saved[p] != cut.balances()[p]) {
+                changed.add(new Object[]{group.id, p, cut.names()[p], cut.balances()[p]});
+            }
+        }
+        jdbcTemplate.batchUpdate(UPSERT_BALANCE, changed);
+    }
+
+    private Group load(String groupId) {
+        if (!properties.isSnapshotEnabled()) {
+            return null;
+        }
+        List<Long> expenseCounts = jdbcTemplate.queryForList(SELECT_GROUP, Long.class, groupId);
+        if (expenseCounts.isEmpty()) {
+            return null;
+        }
+        List<String> names = new ArrayList<>();
+        List<Long> balances = new ArrayList<>();
+        jdbcTemplate.query(SELECT_BALANCES, rs -> {
+            names.add(rs.getString(1));
+            balances.add(rs.getLong(2));
+        }, groupId);
+
+        Group group = new Group(groupId, properties.getLockStripes());
+        group.addMembers(names.toArray(new String[0]));
+        LongAdder[] counters = group.members.balances();
+        for (int p = 0; p < counters.length; p++) {
+            counters[p].add(balances.get(p));
+        }
+        group.expenses.add(expenseCounts.get(0));
+        group.savedExpenses = expenseCounts.get(0);
+        group.savedBalances = balances.stream().mapToLong(Long::longValue).toArray();
+        log.info("Loaded ledger group {} ({} members, {} expenses)", groupId, names.size(), expenseCounts.get(0));
+        return group;
+    }
+
+    private Group existing(String groupId) {
+        checkGroupId(groupId);
+        Group group = groups.computeIfAbsent(groupId, this::load);
+        if (group == null) {
+            throw new IllegalArgumentException("Unknown ledger group " + groupId);
+        }
+        return group;
+    }
+
+    private static void checkGroupId(String groupId) {
+        if (groupId == null || groupId.isBlank() || groupId.length() > MAX_GROUP_ID_LENGTH) {
+            throw new IllegalArgumentException("Group ids must be 1 to " + MAX_GROUP_ID_LENGTH + " characters");
+        }
+    }
+
+    private static LedgerBalances balances(Group group) {
+        Cut cut = group.cut();
+        return new LedgerBalances(group.id, cut.names(), MoneyAllocator.toMajorUnits(cut.balances()), cut.expenses());
+    }
+
+    /**
+     * Shares of an expense in minor units, one per participant, computed like the matching /api/split endpoint.
+     */
+    static long[] shares(LedgerExpenseRequest expense, int participantCount) {
+        String mode = expense.mode() != null ? expense.mode() : "";
+        return switch (mode) {
+            case "equal" -> MoneyAllocator.allocateEqually(MoneyAllocator.toMinorUnits(expense.amount()), participantCount);
+            case "with-tip" -> MoneyAllocator.allocateEqually(
+                    MoneyAllocator.addTip(MoneyAllocator.toMinorUnits(expense.amount()), expense.tipPercentage()),
+                    participantCount);
+            case "custom" -> {
+                double[] ratios = expense.ratios();
+                if (ratios == null || ratios.length != participantCount) {
+                    throw new IllegalArgumentException("Custom splits need one ratio per participant");
+                }
+                long[] shares = new long[participantCount];
+                MoneyAllocator.allocate(MoneyAllocator.toMinorUnits(expense.amount()), ratios, 0, participantCount, shares);
+                yield shares;
+            }
+            case "by-items" -> {
+                Map<String, Double> items = expense.items();
+                if (items == null || items.isEmpty()) {
+                    throw new IllegalArgumentException("At least one item is required");
+                }
+                ItemAssignments assignments = new ItemAssignments(participantCount, items.size());
+                for (Double price : items.values()) {
+                    if (price == null) {
+                        throw new IllegalArgumentException("Item prices are required");
+                    }
+                    assignments.addSharedByAll(MoneyAllocator.toMinorUnits(price));
+                }
+                yield ItemizedSplitCalculator.split(assignments, 0, 0).totals();
+            }
+            default -> throw new IllegalArgumentException(
+                    "Unknown split mode '" + mode + "'; expected equal, with-tip, custom or by-items");
+        };
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        snapshot();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Takes the last snapshot after the embedded web server stopped taking expenses, and before the
+     * DataSource is closed.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    public long getExpenseCount() {
+        return expenses.sum();
+    }
+
+    public long getSnapshotCount() {
+        return snapshots.sum();
+    }
+
+    public long getSnapshotFailureCount() {
+        return snapshotFailures.sum();
+    }
+
+    private static final class Group {
+
+        final String id;
+        final ReentrantLock[] stripes;
+        final LongAdder expenses = new LongAdder();
+        volatile Members members = new Members(new String[0], Map.of(), new LongAdder[0]);
+        // Last written to the database; only touched by snapshot() and load()
+        long savedExpenses = -1;
+        long[] savedBalances = new long[0];
+
+        Group(String id, int lockStripes) {
+            this.id = id;
+            this.stripes = new ReentrantLock[Math.max(1, lockStripes)];
+            Arrays.setAll(stripes, i -> new ReentrantLock());
+        }
+
+        ReentrantLock stripe() {
+            return stripes[ThreadLocalRandom.current().nextInt(stripes.length)];
+        }
+
+        synchronized void addMembers(String[] names) {
+            Members current = members;
+            List<String> added = new ArrayList<>();
+            for (String name : names) {
+                if (!current.index().containsKey(name) && !added.contains(name)) {
+                    added.add(name);
+                }
+            }
+            if (added.isEmpty()) {
+                return;
+            }
+            int size = current.names().length + added.size();
+            String[] newNames = Arrays.copyOf(current.names(), size);
+            LongAdder[] newBalances = Arrays.copyOf(current.balances(), size);
+            Map<String, Integer> newIndex = new HashMap<>(current.index());
+            for (int p = current.names().length; p < size; p++) {
+                newNames[p] = added.get(p - current.names().length);
+                newBalances[p] = new LongAdder();
+                newIndex.put(newNames[p], p);
+            }
+            members = new Members(newNames, newIndex, newBalances);
+        }
+
+        /**
+         * Balances and expense count between expenses, with every stripe held.
+         */
+        Cut cut() {
+            for (ReentrantLock stripe : stripes) {
+                stripe.lock();
+            }
+            try {
+                Members current = members;
+                long[] balances = new long[current.balances().length];
+                for (int p = 0; p < balances.length; p++) {
+                    balances[p] = current.balances()[p].sum();
+                }
+                return new Cut(current.names(), balances, expenses.sum());
+            } finally {
+                for (int i = stripes.length - 1; i >= 0; i--) {
+                    stripes[i].unlock();
+                }
+            }
+        }
+    }
+
+    private record Members(String[] names, Map<String, Integer> index, LongAdder[] balances) {
+
+        int indexOf(String name) {
+            Integer position = name != null ? index.get(name) : null;
+            if (position == null) {
+                throw new IllegalArgumentException("Unknown member " + name);
+            }
+            return position;
+        }
+    }
+
+    private record Cut(String[] names, long[] balances, long expenses) {
+    }
+}
@@ -0,0 +1,317 @@
+package com.arjunai.project.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses arithmetic expressions with named variables and compiles them into {@link CompiledExpression}s.
+ * <p>
+ * Supported syntax: numbers, variables ({@code [A-Za-z_][A-Za-z0-9_]*}), {@code + - * / %},
+ * right-associative {@code ^}, unary minus, parentheses and the functions {@code sqrt}, {@code abs},
+ * {@code min} and {@code max}. Sub-expressions made only of constants are folded at compile time.
+ * Compiled plans are cached by expression text in the {@code expressionPlans} Caffeine cache.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpressionCompiler {
+
+    public static final int MAX_EXPRESSION_LENGTH = 4096;
+    static final String CACHE_NAME = "expressionPlans";
+
+    private final CacheManager cacheManager;
+
+    @Cacheable(cacheNames = CACHE_NAME)
+    public CompiledExpression compile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Expression is required");
+        }
+        if (expression.length() > MAX_EXPRESSION_LENGTH) {
+            throw new IllegalArgumentException("Expression must be at most " + MAX_EXPRESSION_LENGTH + " characters");
+        }
+        return new Parser(expression).compile();
+    }
+
+    /**
+     * Hit/miss statistics of the plan cache, from the Caffeine recordStats() counters.
+     */
+    public Map<String, Object> cacheStats() {
+        Cache<Object, Object> cache = ((CaffeineCache) cacheManager.getCache(CACHE_NAME)).getNativeCache();
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    private static final class Parser {
+        private final String source;
+        private int pos;
+        private int[] code = new int[32];
+        private int length;
+        private final List<Double> constants = new ArrayList<>();
+        private final Map<String, Integer> variables = new LinkedHashMap<>();
+
+        Parser(String source) {
+            this.source = source;
+        }
+
+        CompiledExpression compile() {
+            parseExpression();
+            skipWhitespace();
+            if (pos < source.length()) {
+                throw error("Unexpected '" + source.charAt(pos) + "'");
+            }
+            int[] program = Arrays.copyOf(code, length);
+            double[] constantPool = constants.stream().mapToDouble(Double::doubleValue).toArray();
+            return new CompiledExpression(source, program, constantPool,
+                    variables.keySet().toArray(new String[0]), maxStack(program));
+        }
+
+        private void parseExpression() {
+            int start = length;
+            parseTerm();
+            while (true) {
+                if (consume('+')) {
+                    int right = length;
+                    parseTerm();
+                    emitBinary(CompiledExpression.ADD, start, right);
+                } else if (consume('-')) {
+                    int right = length;
+                    parseTerm();
+                    emitBinary(CompiledExpression.SUB, start, right);
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private void parseTerm() {
+            int start = length;
+            parseUnary();
+            while (true) {
+                int op;
+                if (consume('*')) {
+                    op = CompiledExpression.MUL;
+                } else if (consume('/')) {
+                    op = CompiledExpression.DIV;
+                } else if (consume('%')) {
+                    op = CompiledExpression.MOD;
+                } else {
+                    return;
+                }
+                int right = length;
+                parseUnary();
+                emitBinary(op, start, right);
+            }
+        }
+
+        private void parseUnary() {
+            if (consume('-')) {
+                int start = length;
+                parseUnary();
+                if (isConstant(start, length)) {
+                    replaceWithConstant(start, -constantAt(start));
+                } else {
+                    emit(CompiledExpression.NEG);
+                }
+            } else if (consume('+')) {
+                parseUnary();
+            } else {
+                parsePower();
+            }
+        }
+
+        private void parsePower() {
+            int start = length;
+            parsePrimary();
+            if (consume('^')) {
+                int right = length;
+                parseUnary();
+                emitBinary(CompiledExpression.POW, start, right);
+            }
+        }
+
+        private void parsePrimary() {
+            skipWhitespace();
+            if (pos >= source.length()) {
+                throw error("Unexpected end of expression");
+            }
+            char c = source.charAt(pos);
+            if (consume('(')) {
+                parseExpression();
+                expect(')');
+            } else if (Character.isDigit(c) || c == '.') {
+                emitConstant(parseNumber());
+            } else if (Character.isLetter(c) || c == '_') {
+                String name = parseIdentifier();
+                skipWhitespace();
+                if (pos < source.length() && source.charAt(pos) == '(') {
+                    parseCall(name);
+                } else {
+                    int slot = variables.computeIfAbsent(name, key -> variables.size());
+                    emit(CompiledExpression.PUSH_VAR, slot);
+                }
+            } else {
+                throw error("Unexpected '" + c + "'");
+            }
+        }
+
+        private void parseCall(String name) {
+            int arity;
+            int op;
+            switch (name) {
+                case "sqrt" -> { op = CompiledExpression.SQRT; arity = 1; }
+                case "abs" -> { op = CompiledExpression.ABS; arity = 1; }
+                case "min" -> { op = CompiledExpression.MIN; arity = 2; }
+                case "max" -> { op = CompiledExpression.MAX; arity = 2; }
+                default -> throw error("Unknown function '" + name + "'");
+            }
+            expect('(');
+            parseExpression();
+            for (int i = 1; i < arity; i++) {
+                expect(',');
+                parseExpression();
+            }
+            expect(')');
+            emit(op);
+        }
+
+        private double parseNumber() {
+            int start = pos;
+            while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+                pos++;
+            }
+            if (pos < source.length() && (source.charAt(pos) == 'e' || source.charAt(pos) == 'E')) {
+                pos++;
+                if (pos < source.length() && (source.charAt(pos) == '+' || source.charAt(pos) == '-')) {
+                    pos++;
+                }
+                while (pos < source.length() && Character.isDigit(source.charAt(pos))) {
+                    pos++;
+                }
+            }
+            try {
+                return Double.parseDouble(source.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("Invalid number '" + source.substring(start, pos) + "'");
+            }
+        }
+
+        private String parseIdentifier() {
+            int start = pos;
+            while (pos < source.length() && (Character.isLetterOrDigit(source.charAt(pos)) || source.charAt(pos) == '_')) {
+                pos++;
+            }
+            return source.substring(start, pos);
+        }
+
+        /**
+         * Emits a binary operator whose operands start at {@code left} and {@code right}, folding it
+         * into a single constant when both operands are constants.
+         */
+        private void emitBinary(int op, int left, int right) {
+            if (isConstant(left, right) && isConstant(right, length)) {
+                double a = constantAt(left);
+                double b = constantAt(right);
+                if ((op == CompiledExpression.DIV || op == CompiledExpression.MOD) && b == 0) {
+                    throw error("Cannot divide by zero");
+                }
+                double folded = switch (op) {
+                    case CompiledExpression.ADD -> a + b;
+                    case CompiledExpression.SUB -> a - b;
+                    case CompiledExpression.MUL -> a * b;
+                    case CompiledExpression.DIV -> a / b;
+                    case CompiledExpression.MOD -> a % b;
+                    case CompiledExpression.POW -> Math.pow(a, b);
+                    default -> throw new IllegalStateException("Not a binary opcode: " + op);
+                };
+                replaceWithConstant(left, folded);
+            } else {
+                emit(op);
+            }
+        }
+
+        private boolean isConstant(int from, int to) {
+            return to - from == 2 && code[from] == CompiledExpression.PUSH_CONST;
+        }
+
+        private double constantAt(int at) {
+            return constants.get(code[at + 1]);
+        }
+
+        private void replaceWithConstant(int from, double value) {
+            length = from;
+            emitConstant(value);
+        }
+
+        private void emitConstant(double value) {
+            constants.add(value);
+            emit(CompiledExpression.PUSH_CONST, constants.size() - 1);
+        }
+
+        private void emit(int... words) {
+            if (length + words.length > code.length) {
+                code = Arrays.copyOf(code, Math.max(code.length * 2, length + words.length));
+            }
+            for (int word : words) {
+                code[length++] = word;
+            }
+        }
+
+        private static int maxStack(int[] program) {
+            int depth = 0;
+            int max = 0;
+            for (int pc = 0; pc < program.length; pc++) {
+                switch (program[pc]) {
+                    case CompiledExpression.PUSH_CONST, CompiledExpression.PUSH_VAR -> {
+                        depth++;
+                        pc++;
+                    }
+                    case CompiledExpression.NEG, CompiledExpression.SQRT, CompiledExpression.ABS -> { }
+                    default -> depth--;
+                }
+                max = Math.max(max, depth);
+            }
+            return max;
+        }
+
+        private boolean consume(char expected) {
+            skipWhitespace();
+            if (pos < source.length() && source.charAt(pos) == expected) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char expected) {
+            if (!consume(expected)) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos + " in expression");
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.arjunai.project.services;
+
+import java.util.Arrays;
+
+/**
+ * Sparse item-to-participant matrix in compressed sparse row (CSR) form.
+ * <p>
+ * Row {@code i} is an item; its participants are {@code participants[rowStart[i]..rowStart[i + 1])}
+ * with the matching {@code weights}. Items shared equally are flagged so the split can skip the
+ * weighted path. All storage is primitive arrays that grow geometrically while items are added,
+ * so a bill with 100k items costs a handful of arrays rather than 100k nested collections.
+ */
+public final class ItemAssignments {
+
+    private final int participantCount;
+    private int itemCount;
+    private long[] prices;
+    private boolean[] weighted;
+    private int[] rowStart;
+    private int[] participants;
+    private double[] weights;
+
+    public ItemAssignments(int participantCount, int expectedItems) {
+        if (participantCount <= 0) {
+            throw new IllegalArgumentException("At least one participant is required");
+        }
+        int capacity = Math.max(16, expectedItems);
+        this.participantCount = participantCount;
+        this.prices = new long[capacity];
+        this.weighted = new boolean[capacity];
+        this.rowStart = new int[capacity + 1];
+        this.participants = new int[capacity * 2];
+        this.weights = new double[capacity * 2];
+    }
+
+    /**
+     * Adds an item shared by every participant equally. The price may be negative, for a discount
+     * on the whole bill.
+     */
+    public void addSharedByAll(long priceMinor) {
+        ensureEntries(participantCount);
+        int start = rowStart[itemCount];
+        for (int p = 0; p < participantCount; p++) {
+            participants[start + p] = p;
+            weights[start + p] = 1;
+        }
+        endRow(priceMinor, start + participantCount, false);
+    }
+
+    /**
+     * Adds an item shared by the given participants.
+     *
+     * @param priceMinor Item price in minor units
+     * @param sharedBy Participant indexes; {@code null} or empty means everyone
+     * @param itemWeights Optional weights, one per entry of {@code sharedBy}; {@code null} means equal shares
+     * @throws IllegalArgumentException if an index is out of range or the weights don't match
+     */
+    public void addItem(long priceMinor, int[] sharedBy, double[] itemWeights) {
+        if (priceMinor < 0) {
+            throw new IllegalArgumentException("Item prices must be non-negative");
+        }
+        if (sharedBy == null || sharedBy.length == 0) {
+            if (itemWeights != null && itemWeights.length > 0) {
+                throw new IllegalArgumentException("Weights require sharedBy on item " + itemCount);
+            }
+            addSharedByAll(priceMinor);
+            return;
+        }
+        if (itemWeights != null && itemWeights.length != sharedBy.length) {
+            throw new IllegalArgumentException("Item " + itemCount + " must have one weight per participant");
+        }
+        ensureEntries(sharedBy.length);
+        int start = rowStart[itemCount];
+        for (int k = 0; k < sharedBy.length; k++) {
+            int participant = sharedBy[k];
+            if (participant < 0 || participant >= participantCount) {
+                throw new IllegalArgumentException("Item " + itemCount + " refers to unknown participant " + participant);
+            }
+            participants[start + k] = participant;
+            weights[start + k] = itemWeights != null ? itemWeights[k] : 1;
+        }
+        endRow(priceMinor, start + sharedBy.length, itemWeights != null);
+    }
+
+    private void endRow(long priceMinor, int end, boolean isWeighted) {
+        if (itemCount + 1 == prices.length) {
+            int capacity = prices.length * 2;
+            prices = Arrays.copyOf(prices, capacity);
+            weighted = Arrays.copyOf(weighted, capacity);
+            rowStart = Arrays.copyOf(rowStart, capacity + 1);
+        }
+        prices[itemCount] = priceMinor;
+        weighted[itemCount] = isWeighted;
+        rowStart[++itemCount] = end;
+    }
+
+    private void ensureEntries(int extra) {
+        int needed = rowStart[itemCount] + extra;
+        if (needed > participants.length) {
+            int capacity = Math.max(participants.length * 2, needed);
+            participants = Arrays.copyOf(participants, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+    }
+
+    public int getParticipantCount() {
+        return participantCount;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public int getEntryCount() {
+        return rowStart[itemCount];
+    }
+
+    long price(int item) {
+        return prices[item];
+    }
+
+    boolean isWeighted(int item) {
+        return weighted[item];
+    }
+
+    int rowStart(int item) {
+        return rowStart[item];
+    }
+
+    int rowEnd(int item) {
+        return rowStart[item + 1];
+    }
+
+    int participant(int entry) {
+        return participants[entry];
+    }
+
+    double[] weights() {
+        return weights;
+    }
+}
@@ -0,0 +1,159 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.models.ItemizedSplitRequest;
+import com.arjunai.project.models.ItemizedSplitResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves an itemized bill held in an {@link ItemAssignments} matrix into per-participant amounts.
+ * <p>
+ * Each item's price is split in exact cents among the participants sharing it: equal shares hand
+ * their leftover cents out starting at a position that rotates with the item, so no participant
+ * collects every odd cent, and weighted shares go through {@link MoneyAllocator}'s largest-remainder
+ * split. Tax and tip are computed on the bill subtotal and split in proportion to each participant's
+ * subtotal, so every column of the result adds up exactly. One pass over the matrix, with scratch
+ * arrays sized by the widest item.
+ */
+public final class ItemizedSplitCalculator {
+
+    private ItemizedSplitCalculator() {
+    }
+
+    /**
+     * Per-participant amounts in minor units, indexed like the participants of the matrix.
+     */
+    public record Result(long[] subtotals, long[] tax, long[] tip, long[] totals) {
+    }
+
+    /**
+     * Splits an itemized bill request, validating it and converting amounts to and from cents.
+     */
+    public static ItemizedSplitResponse split(ItemizedSplitRequest request) {
+        String[] participants = request.participants();
+        if (participants == null || participants.length == 0) {
+            throw new IllegalArgumentException("At least one participant is required");
+        }
+        if (request.items() == null || request.items().isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+
+        ItemAssignments assignments = new ItemAssignments(participants.length, request.items().size());
+        for (ItemizedSplitRequest.Item item : request.items()) {
+            assignments.addItem(MoneyAllocator.toMinorUnits(item.price()), item.sharedBy(), item.weights());
+        }
+        Result split = split(assignments, request.taxPercentage(), request.tipPercentage());
+
+        long total = 0;
+        for (long amount : split.totals()) {
+            total += amount;
+        }
+        return new ItemizedSplitResponse(participants, MoneyAllocator.toMajorUnits(split.subtotals()),
+                MoneyAllocator.toMajorUnits(split.tax()), MoneyAllocator.toMajorUnits(split.tip()),
+                MoneyAllocator.toMajorUnits(split.totals()), MoneyAllocator.toMajorUnits(total));
+    }
+
+    /**
+     * The simple itemized case: every item is shared equally by all participants.
+     *
+     * @return Each participant's total, by name
+     */
+    public static Map<String, Double> splitEvenly(Map<String, Double> items, String[] participants) {
+        if (participants == null || participants.length == 0) {
+            throw new IllegalArgumentException("At least one participant is required");
+        }
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+        double total = items.values().stream()
+                .mapToDouble(Double::doubleValue)
+                .sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Total amount must be greater than zero");
+        }
+
+        ItemAssignments assignments = new ItemAssignments(participants.length, items.size());
+        for (Double price : items.values()) {
+            assignments.addSharedByAll(MoneyAllocator.toMinorUnits(price));
+        }
+        long[] totals = split(assignments, 0, 0).totals();
+
+        Map<String, Double> result = new HashMap<>();
+        for (int i = 0; i < participants.length; i++) {
+            result.put(participants[i], MoneyAllocator.toMajorUnits(totals[i]));
+        }
+        return result;
+    }
+
+    public static Result split(ItemAssignments assignments, double taxPercentage, double tipPercentage) {
+        int participantCount = assignments.getParticipantCount();
+        int itemCount = assignments.getItemCount();
+        if (itemCount == 0) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+
+        int widest = 0;
+        for (int item = 0; item < itemCount; item++) {
+            widest = Math.max(widest, assignments.rowEnd(item) - assignments.rowStart(item));
+        }
+        double[] rowWeights = new double[widest];
+        long[] rowShares = new long[widest];
+        long[] scratch = new long[Math.max(widest, participantCount)];
+        double[] allWeights = assignments.weights();
+
+        long[] subtotals = new long[participantCount];
+        long billSubtotal = 0;
+        for (int item = 0; item < itemCount; item++) {
+            long price = assignments.price(item);
+            if (price == 0) {
+                continue;
+            }
+            billSubtotal += price;
+            int start = assignments.rowStart(item);
+            int width = assignments.rowEnd(item) - start;
+            if (assignments.isWeighted(item)) {
+                System.arraycopy(allWeights, start, rowWeights, 0, width);
+                MoneyAllocator.allocate(price, rowWeights, 0, width, rowShares, scratch);
+                for (int k = 0; k < width; k++) {
+                    subtotals[assignments.participant(start + k)] += rowShares[k];
+                }
+            } else {
+                // Discounts are negative items; their leftover cents are taken off, not added
+                long base = price / width;
+                long remainder = price % width;
+                long step = remainder < 0 ? -1 : 1;
+                long extra = Math.abs(remainder);
+                int offset = item % width;
+                for (int k = 0; k < width; k++) {
+                    int position = k + offset;
+                    if (position >= width) {
+                        position -= width;
+                    }
+                    subtotals[assignments.participant(start + position)] += k < extra ? base + step : base;
+                }
+            }
+        }
+
+        long[] tax = spreadBySubtotal(MoneyAllocator.percentageOf(billSubtotal, taxPercentage), subtotals, scratch);
+        long[] tip = spreadBySubtotal(MoneyAllocator.percentageOf(billSubtotal, tipPercentage), subtotals, scratch);
+        long[] totals = new long[participantCount];
+        for (int p = 0; p < participantCount; p++) {
+            totals[p] = subtotals[p] + tax[p] + tip[p];
+        }
+        return new Result(subtotals, tax, tip, totals);
+    }
+
+    private static long[] spreadBySubtotal(long amount, long[] subtotals, long[] scratch) {
+        long[] shares = new long[subtotals.length];
+        if (amount == 0) {
+            return shares;
+        }
+        double[] ratios = new double[subtotals.length];
+        for (int p = 0; p < subtotals.length; p++) {
+            ratios[p] = subtotals[p];
+        }
+        MoneyAllocator.allocate(amount, ratios, 0, ratios.length, shares, scratch);
+        return shares;
+    }
+}
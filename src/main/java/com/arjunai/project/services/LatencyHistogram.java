@@ -0,0 +1,106 @@
+package com.arjunai.project.services;
+
+/**
+ * Fixed-size, log-linear latency histogram in microseconds.
+ * <p>
+ * Values below {@link #SUB_BUCKETS} get one bucket each; above that every power of two is split
+ * into {@link #SUB_BUCKETS} equal buckets, so the relative error stays under 1/{@link #SUB_BUCKETS}
+ * across the whole range (the same layout HdrHistogram uses). Values above {@link #MAX_VALUE}
+ * are clamped into the last bucket.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Highest tracked exponent: 2^36 us is roughly 19 hours. */
+    static final int MAX_EXPONENT = 35;
+    static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    final long[] counts;
+    long errors;
+    long successSumMicros;
+    long maxMicros;
+
+    public LatencyHistogram() {
+        this.counts = new long[BUCKETS];
+    }
+
+    static int bucketIndex(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowerBound(int index) {
+        int block = index / SUB_BUCKETS;
+        int subBucket = index % SUB_BUCKETS;
+        if (block == 0) {
+            return subBucket;
+        }
+        int shift = block - 1;
+        return (long) (SUB_BUCKETS + subBucket) << shift;
+    }
+
+    static long width(int index) {
+        int block = index / SUB_BUCKETS;
+        return block == 0 ? 1 : 1L << (block - 1);
+    }
+
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        errors += other.errors;
+        successSumMicros += other.successSumMicros;
+        maxMicros = Math.max(maxMicros, other.maxMicros);
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    /**
+     * Mean latency of successful calls, or 0 when there were none.
+     */
+    public double getSuccessMeanMicros() {
+        long successes = getCount() - errors;
+        return successes > 0 ? (double) successSumMicros / successes : 0;
+    }
+
+    /**
+     * Returns the value at the given quantile (0..1), reported as the midpoint of its bucket
+     * and never above the recorded maximum.
+     */
+    public long valueAt(double quantile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(lowerBound(i) + width(i) / 2, maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+}
@@ -0,0 +1,98 @@
+package com.arjunai.project.services;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency recorder for one endpoint over a ring of fixed time slots.
+ * <p>
+ * Request threads record into the current slot, which is striped across several
+ * {@link AtomicLongArray}s so that concurrent threads rarely update the same cache line.
+ * {@link #rotate()} moves the current slot into the ring and starts a new one; only the
+ * rotator and readers synchronize, never the recording path. Memory use is fixed at
+ * (stripes + slots) histograms regardless of traffic.
+ */
+public class LatencyRecorder {
+
+    private static final int ERRORS = LatencyHistogram.BUCKETS;
+    private static final int SUCCESS_SUM = ERRORS + 1;
+    private static final int MAX = SUCCESS_SUM + 1;
+    private static final int STRIPE_LENGTH = MAX + 1;
+
+    private final AtomicLongArray[] stripes;
+    private final LatencyHistogram[] ring;
+    private int head;
+
+    public LatencyRecorder(int slots) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8)));
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(STRIPE_LENGTH);
+        }
+        this.ring = new LatencyHistogram[slots];
+        for (int i = 0; i < slots; i++) {
+            ring[i] = new LatencyHistogram();
+        }
+    }
+
+    public void record(long micros, boolean successful) {
+        AtomicLongArray stripe = stripes[stripeIndex()];
+        stripe.incrementAndGet(LatencyHistogram.bucketIndex(micros));
+        if (successful) {
+            stripe.addAndGet(SUCCESS_SUM, micros);
+        } else {
+            stripe.incrementAndGet(ERRORS);
+        }
+        if (micros > stripe.get(MAX)) {
+            stripe.accumulateAndGet(MAX, micros, Math::max);
+        }
+    }
+
+    /**
+     * Closes the current slot. Each counter is swapped to zero individually, so a value recorded
+     * concurrently lands in either the closed slot or the next one, never in neither.
+     */
+    public synchronized void rotate() {
+        LatencyHistogram closed = ring[head];
+        Arrays.fill(closed.counts, 0);
+        closed.errors = 0;
+        closed.successSumMicros = 0;
+        closed.maxMicros = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                closed.counts[i] += stripe.getAndSet(i, 0);
+            }
+            closed.errors += stripe.getAndSet(ERRORS, 0);
+            closed.successSumMicros += stripe.getAndSet(SUCCESS_SUM, 0);
+            closed.maxMicros = Math.max(closed.maxMicros, stripe.getAndSet(MAX, 0));
+        }
+        head = (head + 1) % ring.length;
+    }
+
+    /**
+     * Merges the in-progress slot with the most recent {@code slots - 1} closed slots.
+     */
+    public synchronized LatencyHistogram snapshot(int slots) {
+        LatencyHistogram merged = new LatencyHistogram();
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                merged.counts[i] += stripe.get(i);
+            }
+            merged.errors += stripe.get(ERRORS);
+            merged.successSumMicros += stripe.get(SUCCESS_SUM);
+            merged.maxMicros = Math.max(merged.maxMicros, stripe.get(MAX));
+        }
+        int closedSlots = Math.min(slots - 1, ring.length);
+        for (int i = 1; i <= closedSlots; i++) {
+            merged.add(ring[Math.floorMod(head - i, ring.length)]);
+        }
+        return merged;
+    }
+
+    // A random stripe per record spreads threads evenly however their ids are assigned, and
+    // ThreadLocalRandom needs no shared state to draw it
+    private int stripeIndex() {
+        return ThreadLocalRandom.current().nextInt() & (stripes.length - 1);
+    }
+}
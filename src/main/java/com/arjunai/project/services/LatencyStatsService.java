@@ -0,0 +1,120 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.LatencyStatsProperties;
+import com.arjunai.project.models.LatencyStats;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-endpoint latency histograms fed from ApiLogService, answered entirely from memory.
+ */
+@Service
+public class LatencyStatsService {
+
+    private final LatencyStatsProperties properties;
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+    private final int ringSlots;
+    private final int shortestWindowSlots;
+
+    public LatencyStatsService(LatencyStatsProperties properties) {
+        this.properties = properties;
+        this.ringSlots = properties.getWindows().stream()
+                .mapToInt(this::slotsFor)
+                .max()
+                .orElse(1);
+        this.shortestWindowSlots = properties.getWindows().stream()
+                .mapToInt(this::slotsFor)
+                .min()
+                .orElse(1);
+    }
+
+    public void record(String methodName, long micros, boolean successful) {
+        recorders.computeIfAbsent(methodName, name -> new LatencyRecorder(ringSlots)).record(micros, successful);
+    }
+
+    @Scheduled(fixedRateString = "${api-log.latency.slot-duration:PT15S}")
+    public void rotate() {
+        recorders.values().forEach(LatencyRecorder::rotate);
+    }
+
+    /**
+     * Returns stats for every endpoint seen so far, keyed by method name and then by window.
+     */
+    public Map<String, Map<String, LatencyStats>> snapshotAll() {
+        Map<String, Map<String, LatencyStats>> result = new TreeMap<>();
+        recorders.forEach((methodName, recorder) -> result.put(methodName, snapshot(recorder)));
+        return result;
+    }
+
+    public Map<String, LatencyStats> snapshot(String methodName) {
+        LatencyRecorder recorder = recorders.get(methodName);
+        return recorder != null ? snapshot(recorder) : Collections.emptyMap();
+    }
+
+    /**
+     * Mean latency in milliseconds of successful calls over the longest configured window.
+     */
+    public double getAverageExecutionTime(String methodName) {
+        LatencyRecorder recorder = recorders.get(methodName);
+        return recorder != null ? recorder.snapshot(ringSlots).getSuccessMeanMicros() / 1000.0 : 0;
+    }
+
+    public Set<String> getMethodNames() {
+        return Collections.unmodifiableSet(recorders.keySet());
+    }
+
+    /**
+     * Latency in microseconds at {@code quantile} over the shortest window, or -1 if the endpoint had
+     * fewer than {@code minCount} calls in it.
+     */
+    public long quantileMicros(String methodName, double quantile, long minCount) {
+        LatencyRecorder recorder = recorders.get(methodName);
+        if (recorder == null) {
+            return -1;
+        }
+        LatencyHistogram histogram = recorder.snapshot(shortestWindowSlots);
+        return histogram.getCount() >= Math.max(1, minCount) ? histogram.valueAt(quantile) : -1;
+    }
+
+    private Map<String, LatencyStats> snapshot(LatencyRecorder recorder) {
+        Map<String, LatencyStats> windows = new LinkedHashMap<>();
+        for (Duration window : properties.getWindows()) {
+            windows.put(label(window), toStats(recorder.snapshot(slotsFor(window))));
+        }
+        return windows;
+    }
+
+    private static LatencyStats toStats(LatencyHistogram histogram) {
+        long count = histogram.getCount();
+        return new LatencyStats(
+                count,
+                histogram.getErrors(),
+                count > 0 ? (double) histogram.getErrors() / count : 0,
+                histogram.getSuccessMeanMicros() / 1000.0,
+                histogram.valueAt(0.50) / 1000.0,
+                histogram.valueAt(0.90) / 1000.0,
+                histogram.valueAt(0.99) / 1000.0,
+                histogram.valueAt(0.999) / 1000.0,
+                histogram.getMaxMicros() / 1000.0);
+    }
+
+    private int slotsFor(Duration window) {
+        return (int) Math.max(1, window.toMillis() / properties.getSlotDuration().toMillis());
+    }
+
+    private static String label(Duration window) {
+        long seconds = window.toSeconds();
+        if (seconds % 3600 == 0) {
+            return seconds / 3600 + "h";
+        }
+        return seconds % 60 == 0 ? seconds / 60 + "m" : seconds + "s";
+    }
+}
@@ -0,0 +1,35 @@
+package com.arjunai.project.services;
+
+/**
+ * Encodes small fixed-shape log payloads in the same {@code {key=value, ...}} text that
+ * {@code Map.toString()} produces, without building a map first.
+ * <p>
+ * Each thread appends into its own reusable {@link StringBuilder}, and doubles are appended in place,
+ * so the only allocation per payload is the resulting String.
+ */
+public final class LogPayloadEncoder {
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(64));
+
+    private LogPayloadEncoder() {
+    }
+
+    public static String encode(String key, double value) {
+        StringBuilder buffer = buffer();
+        buffer.append('{').append(key).append('=').append(value).append('}');
+        return buffer.toString();
+    }
+
+    public static String encode(String key1, double value1, String key2, double value2) {
+        StringBuilder buffer = buffer();
+        buffer.append('{').append(key1).append('=').append(value1)
+                .append(", ").append(key2).append('=').append(value2).append('}');
+        return buffer.toString();
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return buffer;
+    }
+}
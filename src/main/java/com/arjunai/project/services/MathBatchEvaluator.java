@@ -0,0 +1,103 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.models.MathBatchRequest;
+import com.arjunai.project.models.MathBatchResponse;
+
+/**
+ * Evaluates columnar arithmetic batches with primitive-array loops.
+ * <p>
+ * The batch is split into runs of identical op codes and each run is computed by a plain counted
+ * loop over {@code double[]} with no per-element branch, which is the shape C2 auto-vectorizes
+ * into SIMD instructions. Batches from a single kind of operation are therefore one vector loop.
+ */
+public final class MathBatchEvaluator {
+
+    public static final int ADD = 0;
+    public static final int SUBTRACT = 1;
+    public static final int MULTIPLY = 2;
+    public static final int DIVIDE = 3;
+
+    private MathBatchEvaluator() {
+    }
+
+    public static MathBatchResponse evaluate(MathBatchRequest request) {
+        int[] ops = request.ops();
+        double[] lhs = request.lhs();
+        double[] rhs = request.rhs();
+        if (ops == null || lhs == null || rhs == null) {
+            throw new IllegalArgumentException("ops, lhs and rhs are required");
+        }
+        if (ops.length != lhs.length || ops.length != rhs.length) {
+            throw new IllegalArgumentException("ops, lhs and rhs must have the same length");
+        }
+
+        int size = ops.length;
+        double[] results = new double[size];
+        boolean[] errors = new boolean[size];
+        int errorCount = 0;
+
+        int start = 0;
+        while (start < size) {
+            int op = ops[start];
+            int end = start + 1;
+            while (end < size && ops[end] == op) {
+                end++;
+            }
+            switch (op) {
+                case ADD -> add(lhs, rhs, results, start, end);
+                case SUBTRACT -> subtract(lhs, rhs, results, start, end);
+                case MULTIPLY -> multiply(lhs, rhs, results, start, end);
+                case DIVIDE -> {
+                    divide(lhs, rhs, results, start, end);
+                    errorCount += flagZeroDivisors(rhs, results, errors, start, end);
+                }
+                default -> {
+                    for (int i = start; i < end; i++) {
+                        results[i] = Double.NaN;
+                        errors[i] = true;
+                    }
+                    errorCount += end - start;
+                }
+            }
+            start = end;
+        }
+        return new MathBatchResponse(results, errors, errorCount);
+    }
+
+    private static void add(double[] lhs, double[] rhs, double[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = lhs[i] + rhs[i];
+        }
+    }
+
+    private static void subtract(double[] lhs, double[] rhs, double[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = lhs[i] - rhs[i];
+        }
+    }
+
+    private static void multiply(double[] lhs, double[] rhs, double[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = lhs[i] * rhs[i];
+        }
+    }
+
+    private static void divide(double[] lhs, double[] rhs, double[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = lhs[i] / rhs[i];
+        }
+    }
+
+    // Kept out of the divide loop so that loop stays branch-free; zero divisors are rare
+    private static int flagZeroDivisors(double[] rhs, double[] results, boolean[] errors, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (rhs[i] == 0) {
+                results[i] = Double.NaN;
+                errors[i] = true;
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,233 @@
+package com.arjunai.project.services;
+
+/**
+ * Splits money amounts in {@code long} minor units (cents) so that the shares always add up to the total.
+ * <p>
+ * Proportional splits use the largest-remainder method: every share first gets the floor of its exact
+ * quota, and the cents left over go one each to the shares with the largest fractional remainders,
+ * earlier positions winning ties. Remainders are packed with their position into one {@code long} key
+ * and the winners are found with an in-place quickselect, so a split is linear in the number of
+ * ratios and works on primitive arrays only. Callers splitting many rows can pass their own scratch
+ * array to avoid allocating one per call.
+ */
+public final class MoneyAllocator {
+
+    /** Largest amount in minor units; beyond 2^53 a {@code double} can no longer hold every cent. */
+    public static final long MAX_MINOR_UNITS = 1L << 53;
+
+    private static final int MINOR_PER_MAJOR = 100;
+    private static final double FRACTION_SCALE = 4294967296.0;
+    private static final long MAX_FRACTION = 0xFFFFFFFFL;
+    private static final int POSITION_BITS = 31;
+
+    private MoneyAllocator() {
+    }
+
+    /**
+     * Converts an amount in major units to minor units, rounding to the nearest cent.
+     *
+     * @throws IllegalArgumentException if the amount is not finite or too large
+     */
+    public static long toMinorUnits(double amount) {
+        if (!Double.isFinite(amount)) {
+            throw new IllegalArgumentException("Amount must be a finite number");
+        }
+        double scaled = amount * MINOR_PER_MAJOR;
+        if (Math.abs(scaled) > MAX_MINOR_UNITS) {
+            throw new IllegalArgumentException("Amount is too large");
+        }
+        return Math.round(scaled);
+    }
+
+    public static double toMajorUnits(long minorUnits) {
+        return (double) minorUnits / MINOR_PER_MAJOR;
+    }
+
+    public static double[] toMajorUnits(long[] minorUnits) {
+        double[] major = new double[minorUnits.length];
+        toMajorUnits(minorUnits, 0, minorUnits.length, major);
+        return major;
+    }
+
+    /**
+     * Converts {@code minor[from..to)} to major units at the same positions of {@code major}.
+     */
+    public static void toMajorUnits(long[] minor, int from, int to, double[] major) {
+        for (int i = from; i < to; i++) {
+            major[i] = (double) minor[i] / MINOR_PER_MAJOR;
+        }
+    }
+
+    /**
+     * Adds a tip of {@code tipPercentage} percent to a total, rounding the tip to the nearest cent.
+     */
+    public static long addTip(long totalMinor, double tipPercentage) {
+        long withTip = totalMinor + percentageOf(totalMinor, tipPercentage);
+        if (Math.abs(withTip) > MAX_MINOR_UNITS) {
+            throw new IllegalArgumentException("Amount is too large");
+        }
+        return withTip;
+    }
+
+    /**
+     * Returns {@code percentage} percent of a total, rounded to the nearest cent.
+     */
+    public static long percentageOf(long totalMinor, double percentage) {
+        if (!Double.isFinite(percentage)) {
+            throw new IllegalArgumentException("Percentage must be a finite number");
+        }
+        return Math.round(totalMinor * percentage / 100);
+    }
+
+    /**
+     * Splits a total equally; the first {@code total % people} shares carry one extra cent.
+     *
+     * @return Shares in minor units, one per person
+     */
+    public static long[] allocateEqually(long totalMinor, int people) {
+        if (people <= 0) {
+            throw new IllegalArgumentException("Number of people must be greater than zero");
+        }
+        long[] shares = new long[people];
+        long base = totalMinor / people;
+        long remainder = totalMinor % people;
+        long step = remainder < 0 ? -1 : 1;
+        int extra = (int) Math.abs(remainder);
+        for (int i = 0; i < people; i++) {
+            shares[i] = i < extra ? base + step : base;
+        }
+        return shares;
+    }
+
+    /**
+     * Splits a total in proportion to {@code ratios[from..to)} and writes the share for each ratio
+     * into {@code shares} at the same positions. The shares sum to exactly {@code totalMinor}.
+     *
+     * @throws IllegalArgumentException if there are no ratios, a ratio is negative or not finite,
+     *                                  or the ratios sum to zero
+     */
+    public static void allocate(long totalMinor, double[] ratios, int from, int to, long[] shares) {
+        allocate(totalMinor, ratios, from, to, shares, new long[Math.max(0, to - from)]);
+    }
+
+    /**
+     * Same as {@link #allocate(long, double[], int, int, long[])} with a caller-supplied scratch
+     * array of at least {@code to - from} elements.
+     */
+    public static void allocate(long totalMinor, double[] ratios, int from, int to, long[] shares, long[] scratch) {
+        int count = to - from;
+        if (count <= 0) {
+            throw new IllegalArgumentException("At least one ratio is required");
+        }
+        double totalRatio = 0;
+        for (int i = from; i < to; i++) {
+            double ratio = ratios[i];
+            if (!(ratio >= 0) || ratio == Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException("Ratios must be finite and non-negative");
+            }
+            totalRatio += ratio;
+        }
+        if (!(totalRatio > 0) || totalRatio == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("Sum of ratios must be greater than zero");
+        }
+
+        // Negative totals (refunds) mirror the positive split so remainders stay non-negative
+        long magnitude = Math.abs(totalMinor);
+        double scale = magnitude / totalRatio;
+        long[] keys = scratch;
+        long assigned = 0;
+        for (int i = from; i < to; i++) {
+            double quota = ratios[i] * scale;
+            long base = (long) quota;
+            shares[i] = base;
+            assigned += base;
+            long fraction = Math.min((long) ((quota - base) * FRACTION_SCALE), MAX_FRACTION);
+            keys[i - from] = (fraction << POSITION_BITS) | (Integer.MAX_VALUE - (i - from));
+        }
+
+        // Floating-point rounding can leave the floors off by a few cents either way; the leftover
+        // is normally in [0, count) and every step below keeps the sum exact
+        long leftover = magnitude - assigned;
+        while (leftover >= count) {
+            for (int i = from; i < to; i++) {
+                shares[i]++;
+            }
+            leftover -= count;
+        }
+        if (leftover > 0) {
+            int cut = count - (int) leftover;
+            select(keys, count, cut);
+            for (int k = cut; k < count; k++) {
+                shares[from + positionOf(keys[k])]++;
+            }
+        } else if (leftover < 0) {
+            // Overshoot only happens when a quota rounds up to a whole cent; take the cents back in order
+            long owed = -leftover;
+            for (int i = from; i < to && owed > 0; i++) {
+                long take = Math.min(owed, shares[i]);
+                shares[i] -= take;
+                owed -= take;
+            }
+        }
+
+        if (totalMinor < 0) {
+            for (int i = from; i < to; i++) {
+                shares[i] = -shares[i];
+            }
+        }
+    }
+
+    private static int positionOf(long key) {
+        return Integer.MAX_VALUE - (int) (key & Integer.MAX_VALUE);
+    }
+
+    /**
+     * Partially orders the distinct {@code keys[0..count)} so that the key at {@code k} is the one a
+     * full sort would put there, with every smaller key before it and every larger key after it.
+     */
+    static void select(long[] keys, int count, int k) {
+        int left = 0;
+        int right = count - 1;
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (keys[mid] < keys[left]) {
+                swap(keys, mid, left);
+            }
+            if (keys[right] < keys[left]) {
+                swap(keys, right, left);
+            }
+            if (keys[right] < keys[mid]) {
+                swap(keys, right, mid);
+            }
+            long pivot = keys[mid];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(long[] keys, int a, int b) {
+        long tmp = keys[a];
+        keys[a] = keys[b];
+        keys[b] = tmp;
+    }
+}
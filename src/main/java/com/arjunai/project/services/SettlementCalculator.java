@@ -0,0 +1,201 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.models.SettlementRequest;
+import com.arjunai.project.models.SettlementResponse;
+
+import java.util.Arrays;
+
+/**
+ * Settles a group's expenses with a short list of transfers.
+ * <p>
+ * Net balances are computed in minor units: what each expense's beneficiaries owe comes from
+ * {@link ItemizedSplitCalculator}, with every expense an item of an {@link ItemAssignments} matrix,
+ * and the payer is credited the full amount, so the balances add up to exactly zero. Expenses shared
+ * equally by everyone are pooled into one item, which keeps the matrix small for group-wide costs.
+ * <p>
+ * Transfers come from a greedy matcher over two binary max-heaps of member indexes, creditors and
+ * debtors, keyed by the amount still open: the largest debtor pays the largest creditor as much as
+ * they can, which closes at least one of them. That gives at most one transfer fewer than the members
+ * with a non-zero balance, in O(n log n) on primitive arrays. Finding the true minimum is NP-hard,
+ * and greedy is close to it for typical groups.
+ */
+public final class SettlementCalculator {
+
+    private SettlementCalculator() {
+    }
+
+    /**
+     * Transfers in minor units: member {@code from[i]} pays {@code amounts[i]} to member {@code to[i]}.
+     */
+    public record Transfers(int[] from, int[] to, long[] amounts) {
+
+        public int count() {
+            return amounts.length;
+        }
+    }
+
+    /**
+     * Settles a request, validating it and converting amounts to and from cents.
+     */
+    public static SettlementResponse settle(SettlementRequest request) {
+        String[] members = request.members();
+        if (members == null || members.length == 0) {
+            throw new IllegalArgumentException("At least one member is required");
+        }
+        if (request.expenses() == null || request.expenses().isEmpty()) {
+            throw new IllegalArgumentException("At least one expense is required");
+        }
+
+        int memberCount = members.length;
+        long[] paid = new long[memberCount];
+        long sharedByAll = 0;
+        ItemAssignments consumption = new ItemAssignments(memberCount, request.expenses().size());
+        for (int e = 0; e < request.expenses().size(); e++) {
+            SettlementRequest.Expense expense = request.expenses().get(e);
+            int payer = expense.payer();
+            if (payer < 0 || payer >= memberCount) {
+                throw new IllegalArgumentException("Expense " + e + " refers to unknown payer " + payer);
+            }
+            long amount = MoneyAllocator.toMinorUnits(expense.amount());
+            if (amount < 0) {
+                throw new IllegalArgumentException("Expense amounts must be non-negative");
+            }
+            paid[payer] += amount;
+            if ((expense.beneficiaries() == null || expense.beneficiaries().length == 0)
+                    && (expense.ratios() == null || expense.ratios().length == 0)) {
+                sharedByAll += amount;
+            } else {
+                consumption.addItem(amount, expense.beneficiaries(), expense.ratios());
+            }
+            if (sharedByAll > MoneyAllocator.MAX_MINOR_UNITS || paid[payer] > MoneyAllocator.MAX_MINOR_UNITS) {
+                throw new IllegalArgumentException("Amount is too large");
+            }
+        }
+        if (sharedByAll > 0 || consumption.getItemCount() == 0) {
+            consumption.addSharedByAll(sharedByAll);
+        }
+
+        return response(members, netBalances(paid, consumption));
+    }
+
+    /**
+     * Settles balances in minor units, indexed like {@code members}, converting the result to major units.
+     */
+    public static SettlementResponse response(String[] members, long[] balances) {
+        Transfers transfers = transfers(balances);
+        long total = 0;
+        for (long amount : transfers.amounts()) {
+            total += amount;
+        }
+        return new SettlementResponse(members, MoneyAllocator.toMajorUnits(balances), transfers.from(),
+                transfers.to(), MoneyAllocator.toMajorUnits(transfers.amounts()), MoneyAllocator.toMajorUnits(total));
+    }
+
+    /**
+     * Net balance per member: what they paid less their share of the expenses in {@code consumption}.
+     */
+    public static long[] netBalances(long[] paid, ItemAssignments consumption) {
+        if (paid.length != consumption.getParticipantCount()) {
+            throw new IllegalArgumentException("One paid amount per member is required");
+        }
+        long[] owed = ItemizedSplitCalculator.split(consumption, 0, 0).subtotals();
+        long[] balances = new long[paid.length];
+        for (int p = 0; p < paid.length; p++) {
+            balances[p] = paid[p] - owed[p];
+        }
+        return balances;
+    }
+
+    /**
+     * Greedy transfers that bring every balance to zero.
+     *
+     * @throws IllegalArgumentException if the balances don't add up to zero
+     */
+    public static Transfers transfers(long[] balances) {
+        int n = balances.length;
+        long[] open = balances.clone();
+        int[] creditors = new int[n];
+        int[] debtors = new int[n];
+        int creditorCount = 0;
+        int debtorCount = 0;
+        long sum = 0;
+        for (int p = 0; p < n; p++) {
+            if (open[p] > 0) {
+                creditors[creditorCount++] = p;
+            } else if (open[p] < 0) {
+                debtors[debtorCount++] = p;
+            }
+            sum += open[p];
+        }
+        if (sum != 0) {
+            throw new IllegalArgumentException("Balances must add up to zero");
+        }
+        // Debtors are keyed by what they owe, so both heaps order on positive amounts
+        for (int k = 0; k < debtorCount; k++) {
+            open[debtors[k]] = -open[debtors[k]];
+        }
+        for (int k = creditorCount / 2 - 1; k >= 0; k--) {
+            siftDown(creditors, creditorCount, k, open);
+        }
+        for (int k = debtorCount / 2 - 1; k >= 0; k--) {
+            siftDown(debtors, debtorCount, k, open);
+        }
+
+        int capacity = Math.max(0, creditorCount + debtorCount - 1);
+        int[] from = new int[capacity];
+        int[] to = new int[capacity];
+        long[] amounts = new long[capacity];
+        int count = 0;
+        while (creditorCount > 0) {
+            int creditor = creditors[0];
+            int debtor = debtors[0];
+            long amount = Math.min(open[creditor], open[debtor]);
+            from[count] = debtor;
+            to[count] = creditor;
+            amounts[count++] = amount;
+            open[creditor] -= amount;
+            open[debtor] -= amount;
+            if (open[creditor] == 0) {
+                creditors[0] = creditors[--creditorCount];
+            }
+            siftDown(creditors, creditorCount, 0, open);
+            if (open[debtor] == 0) {
+                debtors[0] = debtors[--debtorCount];
+            }
+            siftDown(debtors, debtorCount, 0, open);
+        }
+        if (count < capacity) {
+            from = Arrays.copyOf(from, count);
+            to = Arrays.copyOf(to, count);
+            amounts = Arrays.copyOf(amounts, count);
+        }
+        return new Transfers(from, to, amounts);
+    }
+
+    /**
+     * Restores the max-heap order of {@code heap[0..size)} below {@code k}; larger open amounts
+     * come first, and lower member indexes on ties, so the transfers are deterministic.
+     */
+    private static void siftDown(int[] heap, int size, int k, long[] open) {
+        int member = heap[k];
+        int half = size >>> 1;
+        while (k < half) {
+            int child = 2 * k + 1;
+            if (child + 1 < size && before(heap[child + 1], heap[child], open)) {
+                child++;
+            }
+            if (!before(heap[child], member, open)) {
+                break;
+            }
+            heap[k] = heap[child];
+            k = child;
+        }
+        if (k < size) {
+            heap[k] = member;
+        }
+    }
+
+    private static boolean before(int a, int b, long[] open) {
+        return open[a] > open[b] || (open[a] == open[b] && a < b);
+    }
+}
@@ -0,0 +1,61 @@
+package com.arjunai.project.services;
+
+/**
+ * Bill splitting arithmetic shared by the single-request, bulk and reactive split endpoints.
+ * Works on primitives only so it can run per element inside bulk loops. The {@code *Shares}
+ * variants return exact-cent shares from {@link MoneyAllocator} that add up to the bill.
+ */
+public final class SplitCalculator {
+
+    private SplitCalculator() {
+    }
+
+    public static double splitEqually(double amount, int people) {
+        if (people <= 0) {
+            throw new IllegalArgumentException("Number of people must be greater than zero");
+        }
+        return amount / people;
+    }
+
+    public static double splitWithTip(double amount, int people, double tipPercentage) {
+        if (people <= 0) {
+            throw new IllegalArgumentException("Number of people must be greater than zero");
+        }
+        double totalAmount = amount * (1 + tipPercentage / 100);
+        return totalAmount / people;
+    }
+
+    /**
+     * Writes the share for each ratio in {@code ratios[from..to)} into {@code shares} at the same positions.
+     */
+    public static void splitCustom(double amount, double[] ratios, int from, int to, double[] shares) {
+        if (to <= from) {
+            throw new IllegalArgumentException("At least one ratio is required");
+        }
+        double totalRatio = 0;
+        for (int i = from; i < to; i++) {
+            totalRatio += ratios[i];
+        }
+        for (int i = from; i < to; i++) {
+            shares[i] = (ratios[i] / totalRatio) * amount;
+        }
+    }
+
+    public static double[] splitEquallyShares(double amount, int people) {
+        return MoneyAllocator.toMajorUnits(MoneyAllocator.allocateEqually(MoneyAllocator.toMinorUnits(amount), people));
+    }
+
+    public static double[] splitWithTipShares(double amount, int people, double tipPercentage) {
+        long total = MoneyAllocator.addTip(MoneyAllocator.toMinorUnits(amount), tipPercentage);
+        return MoneyAllocator.toMajorUnits(MoneyAllocator.allocateEqually(total, people));
+    }
+
+    public static double[] splitCustomShares(double amount, double[] ratios) {
+        if (ratios == null || ratios.length == 0) {
+            throw new IllegalArgumentException("At least one ratio is required");
+        }
+        long[] allocated = new long[ratios.length];
+        MoneyAllocator.allocate(MoneyAllocator.toMinorUnits(amount), ratios, 0, ratios.length, allocated);
+        return MoneyAllocator.toMajorUnits(allocated);
+    }
+}
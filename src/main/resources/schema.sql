@@ -2,17 +2,109 @@ CREATE DATABASE IF NOT EXISTS my_db;
 USE my_db;
 
 CREATE TABLE IF NOT EXISTS api_logs (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT NOT NULL,
     method_name VARCHAR(255) NOT NULL,
     endpoint VARCHAR(255) NOT NULL,
+    -- Inline text of rows written with api-log.payloads.enabled=false
     request LONGTEXT,
     response LONGTEXT,
+    -- Ids in api_log_payloads of the request and response bodies
+    request_payload BINARY(16),
+    response_payload BINARY(16),
     request_time TIMESTAMP NOT NULL,
     response_time TIMESTAMP NOT NULL,
     execution_time_ms BIGINT NOT NULL,
     error_message LONGTEXT,
     successful BOOLEAN NOT NULL,
-    INDEX idx_method_name (method_name),
-    INDEX idx_request_time (request_time),
-    INDEX idx_successful (successful)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci; 
\ No newline at end of file
+    -- Calls this row stands for when fast successful calls are sampled (api-log.sampling.*)
+    sample_weight DOUBLE NOT NULL DEFAULT 1,
+    -- The partitioning column has to be part of every unique key
+    PRIMARY KEY (id, request_time),
+    -- Each filter column leads an index ending in (request_time, id), the keyset of
+    -- ApiLogQueryService, so a filtered page is one range scan in index order.
+    -- Existing installs can switch with scripts/api-logs-keyset-indexes.sql.
+    INDEX idx_method_time (method_name, request_time, id),
+    INDEX idx_endpoint_time (endpoint, request_time, id),
+    INDEX idx_successful_time (successful, request_time, id),
+    INDEX idx_request_time (request_time, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+-- Daily partitions are split off p_future by ApiLogPartitionManager, which also
+-- enforces retention by dropping whole partitions. Existing unpartitioned tables
+-- can be converted with scripts/partition-api-logs.sql.
+PARTITION BY RANGE (UNIX_TIMESTAMP(request_time)) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+-- Distinct api log request and response bodies, keyed by their 128-bit MurmurHash3
+-- (see ApiLogPayloadStore). codec 0 is UTF-8, 1 is raw deflate of the UTF-8 bytes.
+-- Rows not referenced for api-log.payloads.retention are purged.
+CREATE TABLE IF NOT EXISTS api_log_payloads (
+    id BINARY(16) NOT NULL PRIMARY KEY,
+    codec INT NOT NULL,
+    original_length INT NOT NULL,
+    body LONGBLOB NOT NULL,
+    last_referenced DATE NOT NULL,
+    INDEX idx_payload_last_referenced (last_referenced)
+) ENGINE=InnoDB;
+
+-- Pooled id allocator for api_logs (see ApiLog.ALLOCATION_SIZE).
+-- Existing installs keep their AUTO_INCREMENT column; it is simply no longer used.
+-- The seed starts one allocation block above the current maximum so the first
+-- pooled range (next_val - 99 .. next_val) never overlaps existing rows.
+CREATE TABLE IF NOT EXISTS id_allocations (
+    sequence_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+) ENGINE=InnoDB;
+
+INSERT IGNORE INTO id_allocations (sequence_name, next_val)
+SELECT 'api_logs', CASE WHEN MAX(id) IS NULL THEN 1 ELSE MAX(id) + 100 END FROM api_logs;
+
+-- Per-minute aggregates maintained by ApiLogRollupJob. Latency bucket columns
+-- count calls by execution time in milliseconds. Counts and sums are weighted by
+-- api_logs.sample_weight, so they estimate all calls when logging is sampled.
+CREATE TABLE IF NOT EXISTS api_log_rollups (
+    method_name VARCHAR(255) NOT NULL,
+    minute_start TIMESTAMP NOT NULL,
+    call_count BIGINT NOT NULL,
+    error_count BIGINT NOT NULL,
+    sum_execution_time_ms BIGINT NOT NULL,
+    success_sum_execution_time_ms BIGINT NOT NULL,
+    min_execution_time_ms BIGINT NOT NULL,
+    max_execution_time_ms BIGINT NOT NULL,
+    le_1ms BIGINT NOT NULL,
+    le_5ms BIGINT NOT NULL,
+    le_10ms BIGINT NOT NULL,
+    le_50ms BIGINT NOT NULL,
+    le_100ms BIGINT NOT NULL,
+    le_500ms BIGINT NOT NULL,
+    le_1000ms BIGINT NOT NULL,
+    gt_1000ms BIGINT NOT NULL,
+    PRIMARY KEY (method_name, minute_start),
+    INDEX idx_rollup_minute (minute_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Everything before watermark has been rolled up
+CREATE TABLE IF NOT EXISTS api_log_rollup_state (
+    name VARCHAR(64) NOT NULL PRIMARY KEY,
+    watermark TIMESTAMP NULL
+) ENGINE=InnoDB;
+
+INSERT IGNORE INTO api_log_rollup_state (name, watermark) VALUES ('api_log_rollups', NULL);
+
+-- Snapshots of the in-memory expense ledger (ExpenseLedger), written every
+-- ledger.snapshot-interval and loaded when a group is first used. Balances are
+-- in minor units; position is the member's order of joining and never changes.
+CREATE TABLE IF NOT EXISTS ledger_groups (
+    group_id VARCHAR(64) NOT NULL PRIMARY KEY,
+    member_count INT NOT NULL,
+    expense_count BIGINT NOT NULL,
+    snapshot_at TIMESTAMP NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS ledger_balances (
+    group_id VARCHAR(64) NOT NULL,
+    position INT NOT NULL,
+    member VARCHAR(255) NOT NULL,
+    balance_minor BIGINT NOT NULL,
+    PRIMARY KEY (group_id, position)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,125 @@
+package com.arjunai.project;
+
+import com.arjunai.project.models.ApiLogFilter;
+import com.arjunai.project.services.ApiLogJournal;
+import com.arjunai.project.services.ApiLogQueryService;
+import com.arjunai.project.services.ApiLogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Boots the full servlet application against an in-memory H2 database, so the wiring of every
+ * component is checked without the MySQL instance {@code ApiIntegrationTest} needs.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:boot;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "api-log.journal.directory=target/boot-test-journal",
+        // Keeps journaled records out of api_logs while the tests run
+        "api-log.journal.replay-interval=PT1H",
+        // The rollup, partition and archive jobs need the MySQL-only tables of schema.sql
+        "api-log.rollup.enabled=false",
+        "api-log.partitions.enabled=false",
+        "api-log.archive.enabled=false"
+})
+@AutoConfigureMockMvc
+public class ApplicationBootTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApiLogService apiLogService;
+
+    @Autowired
+    private ApiLogQueryService apiLogQueryService;
+
+    @Autowired
+    private ApiLogJournal apiLogJournal;
+
+    @Test
+    public void servesMathAndSplitEndpointsAndLogsThem() throws Exception {
+        mockMvc.perform(post("/api/math/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"num1\":1,\"num2\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result").value(3.0));
+
+        mockMvc.perform(post("/api/math/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ops\":[0,3],\"lhs\":[1,1],\"rhs\":[2,0]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0]").value(3.0))
+                .andExpect(jsonPath("$.errors[1]").value(true))
+                .andExpect(jsonPath("$.errorCount").value(1));
+
+        mockMvc.perform(get("/api/split/equal").param("amount", "100").param("people", "4"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("25.0"));
+
+        mockMvc.perform(get("/api/split/equal").param("amount", "100").param("people", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/split/equal/shares").param("amount", "100").param("people", "3"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[33.34,33.33,33.33]"));
+
+        List<Map<String, Object>> logs = jdbcTemplate.queryForList(
+                "SELECT method_name, successful FROM api_logs ORDER BY id");
+        assertEquals(List.of("add", "batch", "splitEqually", "splitEqually", "splitEquallyShares"),
+                logs.stream().map(log -> log.get("method_name")).toList());
+        assertEquals(Boolean.FALSE, logs.get(3).get("successful"));
+        ApiLogFilter shares = new ApiLogFilter("splitEquallyShares", null, null, null, null);
+        assertEquals("[33.34, 33.33, 33.33]",
+                apiLogQueryService.findPage(shares, null, 1, false).entries().get(0).response());
+    }
+
+    @Test
+    public void journalsMalformedJsonInsteadOfWritingIt() throws Exception {
+        long rejected = apiLogService.getRejectedLogCount();
+
+        mockMvc.perform(post("/api/split/byItems")
+                        .param("participants", "Alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid JSON format"));
+
+        assertEquals(rejected + 1, apiLogService.getRejectedLogCount());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM api_logs WHERE method_name = 'splitByItems'", Integer.class));
+        apiLogJournal.sealActive();
+        List<String> journaled = new ArrayList<>();
+        for (Path segment : apiLogJournal.sealedSegments()) {
+            apiLogJournal.readSegment(segment).forEach(apiLog -> journaled.add(apiLog.getMethodName()));
+            apiLogJournal.delete(segment);
+        }
+        assertEquals(List.of("splitByItems"), journaled);
+    }
+}
@@ -0,0 +1,38 @@
+package com.arjunai.project.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitedDataSourceTest {
+
+    private final ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(h2(), 2, Duration.ofMillis(50));
+
+    private static JdbcDataSource h2() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:limit;DB_CLOSE_DELAY=-1");
+        return h2;
+    }
+
+    @Test
+    public void limitsOpenConnectionsAndReleasesOnClose() throws Exception {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertEquals(2, dataSource.getActiveCount());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+        assertEquals(1, dataSource.getActiveCount());
+        try (Connection third = dataSource.getConnection()) {
+            assertTrue(third.isValid(1));
+        }
+        second.close();
+        assertEquals(0, dataSource.getActiveCount());
+    }
+}
@@ -0,0 +1,164 @@
+package com.arjunai.project.config;
+
+import com.arjunai.project.models.BinaryOperationRequest;
+import com.arjunai.project.models.OperationResult;
+import com.arjunai.project.services.LogPayloadEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MathJsonMessageConverterTest {
+
+    private static final byte[] BODY = "{\"num1\":5.5,\"num2\":3}".getBytes(StandardCharsets.UTF_8);
+    private static final Type MAP_TYPE = new ParameterizedTypeReference<Map<String, Double>>() { }.getType();
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 20_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MathJsonMessageConverter converter = new MathJsonMessageConverter(objectMapper);
+    private final MappingJackson2HttpMessageConverter generic = new MappingJackson2HttpMessageConverter(objectMapper);
+
+    @Test
+    public void readsRequestAndWritesResult() throws Exception {
+        BinaryOperationRequest request = (BinaryOperationRequest) converter.read(BinaryOperationRequest.class, json(BODY));
+        assertEquals(new BinaryOperationRequest(5.5, 3), request);
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(new OperationResult(8.5), MediaType.APPLICATION_JSON, output);
+        assertEquals("{\"result\":8.5}", output.getBodyAsString());
+
+        assertFalse(converter.canRead(Map.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(BinaryOperationRequest.class, MediaType.APPLICATION_JSON));
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> converter.read(BinaryOperationRequest.class, json("{\"num1\":1}".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void logPayloadsMatchMapToString() {
+        assertEquals("{num1=5.5, num2=3.0}", LogPayloadEncoder.encode("num1", 5.5, "num2", 3.0));
+        assertEquals(Map.of("result", 8.5).toString(), LogPayloadEncoder.encode("result", 8.5));
+    }
+
+    @Test
+    public void typedPathAllocatesLessThanMapPath() throws Exception {
+        ReusableInput input = new ReusableInput(BODY);
+        ReusableOutput output = new ReusableOutput();
+        long typed = bytesPerRequest(() -> typedRequest(input, output));
+        long untyped = bytesPerRequest(() -> mapRequest(input, output));
+        long encoded = bytesPerRequest(() -> LogPayloadEncoder.encode("num1", 5.5, "num2", 3.0));
+        assertTrue(typed * 3 < untyped * 2, "typed path allocated " + typed + " B/request, map path " + untyped);
+        // Just the String and its byte array; no map, entries, boxed doubles or intermediate builders
+        assertTrue(encoded <= 128, "log payload encoding allocated " + encoded + " B");
+    }
+
+    private void typedRequest(ReusableInput input, ReusableOutput output) throws Exception {
+        BinaryOperationRequest request = (BinaryOperationRequest) converter.read(BinaryOperationRequest.class, input.rewind());
+        String logRequest = LogPayloadEncoder.encode("num1", request.num1(), "num2", request.num2());
+        double result = request.num1() + request.num2();
+        String logResponse = LogPayloadEncoder.encode("result", result);
+        converter.write(new OperationResult(result), MediaType.APPLICATION_JSON, output.rewind());
+        assertNotNull(logRequest);
+        assertNotNull(logResponse);
+    }
+
+    // The request path before the typed DTOs: boxed map binding, copied for the log, Map.toString payloads
+    @SuppressWarnings("unchecked")
+    private void mapRequest(ReusableInput input, ReusableOutput output) throws Exception {
+        Map<String, Double> request = (Map<String, Double>) generic.read(MAP_TYPE, null, input.rewind());
+        String logRequest = new HashMap<>(request).toString();
+        Map<String, Object> response = new HashMap<>();
+        response.put("result", request.get("num1") + request.get("num2"));
+        String logResponse = response.toString();
+        generic.write(response, MediaType.APPLICATION_JSON, output.rewind());
+        assertNotNull(logRequest);
+        assertNotNull(logResponse);
+    }
+
+    private static MockHttpInputMessage json(byte[] body) {
+        MockHttpInputMessage input = new MockHttpInputMessage(body);
+        input.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return input;
+    }
+
+    private static long bytesPerRequest(ThrowingRunnable request) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            request.run();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            request.run();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / ITERATIONS;
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    // Messages are reused across iterations so only the converters' own allocations are counted
+    private static final class ReusableInput implements HttpInputMessage {
+        private final ByteArrayInputStream body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        ReusableInput(byte[] body) {
+            this.body = new ByteArrayInputStream(body);
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+
+        ReusableInput rewind() {
+            body.reset();
+            return this;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    private static final class ReusableOutput implements HttpOutputMessage {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        private final HttpHeaders headers = new HttpHeaders();
+
+        ReusableOutput rewind() {
+            body.reset();
+            return this;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
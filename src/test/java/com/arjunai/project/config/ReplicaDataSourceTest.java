@@ -0,0 +1,100 @@
+package com.arjunai.project.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaDataSourceTest {
+
+    private final JdbcDataSource primary = h2("primary");
+    private final JdbcDataSource replica = h2("replica");
+    private final JdbcDataSource replicaPool = h2("replica");
+    private final ReadReplicaProperties properties = new ReadReplicaProperties();
+    private ReplicaDataSource replicaDataSource;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return h2;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        new JdbcTemplate(primary).execute("CREATE TABLE node AS SELECT 'primary' AS name");
+        new JdbcTemplate(replica).execute("CREATE TABLE node AS SELECT 'replica' AS name");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_status (Seconds_Behind_Source BIGINT)");
+        new JdbcTemplate(replica).execute("INSERT INTO replica_status VALUES (0)");
+        properties.setLagQuery("SELECT * FROM replica_status");
+        properties.setMaxLag(Duration.ofSeconds(5));
+
+        replicaDataSource = new ReplicaDataSource(replicaPool, primary, properties);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void routesReadOnlyTransactionsToTheReplica() {
+        replicaDataSource.checkLag();
+
+        assertTrue(replicaDataSource.isUsable());
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals("primary", node());
+        TransactionTemplate readWrite = new TransactionTemplate(readOnly.getTransactionManager());
+        assertEquals("primary", readWrite.execute(status -> node()));
+    }
+
+    @Test
+    public void fallsBackToThePrimaryWhileTheReplicaLags() {
+        assertEquals("primary", readOnly.execute(status -> node()), "no lag check has passed yet");
+
+        new JdbcTemplate(replica).update("UPDATE replica_status SET Seconds_Behind_Source = 30");
+        replicaDataSource.checkLag();
+        assertFalse(replicaDataSource.isUsable());
+        assertEquals(30, replicaDataSource.getLagSeconds());
+        assertEquals("primary", readOnly.execute(status -> node()));
+
+        new JdbcTemplate(replica).update("UPDATE replica_status SET Seconds_Behind_Source = NULL");
+        replicaDataSource.checkLag();
+        assertFalse(replicaDataSource.isUsable());
+
+        new JdbcTemplate(replica).update("UPDATE replica_status SET Seconds_Behind_Source = 2");
+        replicaDataSource.checkLag();
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals(2, replicaDataSource.getFallbackCount());
+    }
+
+    @Test
+    public void fallsBackToThePrimaryWhenTheReplicaIsUnreachable() {
+        replicaDataSource.checkLag();
+        replicaPool.setURL("jdbc:h2:tcp://localhost:1/replica");
+
+        assertEquals("primary", readOnly.execute(status -> node()));
+        assertFalse(replicaDataSource.isUsable());
+        replicaDataSource.checkLag();
+        assertFalse(replicaDataSource.isUsable());
+    }
+
+    private String node() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+}
@@ -260,15 +260,15 @@ public class ApiIntegrationTest {
         Long maxId = getLastInsertedId();
         assertTrue(maxId >= totalCount, "Max ID should be at least equal to total count");
 
-        // Verify ID sequence
+        // Verify ID sequence (pooled allocation may leave gaps between application runs)
         List<Map<String, Object>> allLogs = jdbcTemplate.queryForList(
-            "SELECT id FROM api_logs ORDER BY id"
+            "SELECT id FROM api_logs ORDER BY request_time, id"
         );
         Long lastId = null;
         for (Map<String, Object> log : allLogs) {
             Long currentId = ((Number) log.get("id")).longValue();
             if (lastId != null) {
-                assertEquals(lastId + 1, currentId, "IDs should be sequential");
+                assertTrue(currentId > lastId, "IDs should be increasing");
             }
             lastId = currentId;
         }
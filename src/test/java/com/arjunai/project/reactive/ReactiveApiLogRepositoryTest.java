@@ -0,0 +1,97 @@
+package com.arjunai.project.reactive;
+
+import com.arjunai.project.models.ApiLog;
+import io.r2dbc.spi.ConnectionFactories;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReactiveApiLogRepositoryTest {
+
+    private JdbcTemplate jdbc;
+    private ReactiveApiLogRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:reactivelogs;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(h2);
+        jdbc.execute("CREATE TABLE id_allocations (sequence_name VARCHAR(255) PRIMARY KEY, next_val BIGINT)");
+        jdbc.execute("CREATE TABLE api_logs (id BIGINT PRIMARY KEY, method_name VARCHAR(255), endpoint VARCHAR(255), "
+                + "request CLOB, response CLOB, request_payload BINARY(16), response_payload BINARY(16), "
+                + "request_time TIMESTAMP, response_time TIMESTAMP, "
+                + "execution_time_ms BIGINT, error_message CLOB, successful BOOLEAN, sample_weight DOUBLE NOT NULL DEFAULT 1)");
+        repository = new ReactiveApiLogRepository(
+                ConnectionFactories.get("r2dbc:h2:mem:///reactivelogs;DB_CLOSE_DELAY=-1"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void insertsBatchWithIdsFromThePooledBlock() {
+        jdbc.update("INSERT INTO id_allocations VALUES ('api_logs', 301)");
+
+        List<ApiLog> batch = logs(150);
+        byte[] payloadId = new byte[16];
+        payloadId[15] = 42;
+        batch.get(1).setResponsePayload(payloadId);
+        repository.insertAll(batch).block();
+
+        // next_val 301 hands out 202..301; 150 rows need a second block of 100
+        assertEquals(202, batch.get(0).getId());
+        assertEquals(351, batch.get(149).getId());
+        assertEquals(501L, jdbc.queryForObject("SELECT next_val FROM id_allocations", Long.class));
+        assertEquals(150, jdbc.queryForObject("SELECT COUNT(*) FROM api_logs", Integer.class));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM api_logs WHERE successful = FALSE", Integer.class));
+        assertEquals("boom", jdbc.queryForObject("SELECT error_message FROM api_logs WHERE id = 202", String.class));
+        assertArrayEquals(payloadId, jdbc.queryForObject("SELECT response_payload FROM api_logs WHERE id = 203", byte[].class));
+        assertEquals(149, jdbc.queryForObject("SELECT COUNT(*) FROM api_logs WHERE response_payload IS NULL", Integer.class));
+    }
+
+    @Test
+    public void firstAllocationStartsAtOne() {
+        jdbc.update("INSERT INTO id_allocations VALUES ('api_logs', 1)");
+
+        List<ApiLog> batch = logs(3);
+        repository.insertAll(batch).block();
+        List<ApiLog> next = logs(1);
+        repository.insertAll(next).block();
+
+        // next_val 1 reserves only id 1, so three rows take a second block; the next batch starts past it
+        assertEquals(1, batch.get(0).getId());
+        assertEquals(3, batch.get(2).getId());
+        assertEquals(102, next.get(0).getId());
+        assertEquals(301L, jdbc.queryForObject("SELECT next_val FROM id_allocations", Long.class));
+        assertEquals(4, jdbc.queryForObject("SELECT COUNT(*) FROM api_logs", Integer.class));
+    }
+
+    private static List<ApiLog> logs(int count) {
+        List<ApiLog> logs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ApiLog apiLog = new ApiLog();
+            apiLog.setMethodName("add");
+            apiLog.setEndpoint("/api/math/add");
+            apiLog.setRequest("{\"num1\":1,\"num2\":2}");
+            apiLog.setRequestTime(Instant.now());
+            apiLog.setResponseTime(Instant.now());
+            apiLog.setExecutionTimeMs(1L);
+            apiLog.setSuccessful(i != 0);
+            if (i == 0) {
+                apiLog.setErrorMessage("boom");
+            }
+            logs.add(apiLog);
+        }
+        return logs;
+    }
+}
@@ -0,0 +1,179 @@
+package com.arjunai.project.reactive;
+
+import com.arjunai.project.config.ApiLogJournalProperties;
+import com.arjunai.project.config.ApiLogPayloadProperties;
+import com.arjunai.project.config.ApiLogSamplingProperties;
+import com.arjunai.project.config.ApiLogWriteBehindProperties;
+import com.arjunai.project.config.LatencyStatsProperties;
+import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.services.ApiLogJournal;
+import com.arjunai.project.services.ApiLogPayloadStore;
+import com.arjunai.project.services.ApiLogSampler;
+import com.arjunai.project.services.ApiLogWriter;
+import com.arjunai.project.services.ApiPhaseMetrics;
+import com.arjunai.project.services.LatencyStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReactiveApiLogServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private volatile boolean failInserts;
+
+    private ApiLogWriteBehindProperties properties;
+    private ApiLogJournal journal;
+    private ReactiveApiLogService service;
+
+    /**
+     * Records the method names of each batch instead of inserting it; while {@link #failInserts}
+     * is set, every insert fails the way a lost connection would.
+     */
+    private class RecordingRepository extends ReactiveApiLogRepository {
+
+        RecordingRepository() {
+            super(ConnectionFactories.get("r2dbc:h2:mem:///reactive-service"));
+        }
+
+        @Override
+        public Mono<Void> insertAll(List<ApiLog> batch) {
+            return Mono.defer(() -> {
+                if (failInserts) {
+                    return Mono.error(new DataAccessResourceFailureException("Connection refused"));
+                }
+                batches.add(batch.stream().map(ApiLog::getMethodName).toList());
+                return Mono.empty();
+            });
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        properties = new ApiLogWriteBehindProperties();
+        properties.setBatchSize(3);
+        properties.setFlushInterval(Duration.ofMillis(100));
+        properties.setQueueCapacity(8);
+        properties.setShutdownTimeout(Duration.ofSeconds(5));
+        ApiLogJournalProperties journalProperties = new ApiLogJournalProperties();
+        journalProperties.setDirectory(directory);
+        journal = new ApiLogJournal(journalProperties);
+
+        ApiLogPayloadProperties payloadProperties = new ApiLogPayloadProperties();
+        payloadProperties.setEnabled(false);
+        LatencyStatsService latencyStatsService = new LatencyStatsService(new LatencyStatsProperties());
+        ApiLogSampler sampler = new ApiLogSampler(new ApiLogSamplingProperties(), latencyStatsService,
+                new ApiLogWriter(null, journal, null, new ApiLogWriteBehindProperties()));
+        service = new ReactiveApiLogService(new RecordingRepository(), journal, latencyStatsService, sampler,
+                new ApiLogPayloadStore(null, payloadProperties), new ApiPhaseMetrics(new SimpleMeterRegistry()),
+                properties);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        service.stop();
+        journal.close();
+    }
+
+    private void log(String methodName) {
+        Instant startTime = Instant.now();
+        ApiLog apiLog = service.startLog(methodName, "/api/math/" + methodName, "{num1=1.0, num2=2.0}");
+        service.completeLog(apiLog, "{result=3.0}", startTime);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 s");
+            Thread.sleep(10);
+        }
+    }
+
+    private List<String> journaled() throws Exception {
+        journal.sealActive();
+        List<String> methodNames = new ArrayList<>();
+        for (Path segment : journal.sealedSegments()) {
+            journal.readSegment(segment).forEach(apiLog -> methodNames.add(apiLog.getMethodName()));
+        }
+        return methodNames;
+    }
+
+    @Test
+    public void batchesBySizeAndFlushesThePartialBatchAfterTheInterval() throws Exception {
+        service.start();
+        for (int i = 0; i < 7; i++) {
+            log("call" + i);
+        }
+
+        await(() -> batches.size() == 3);
+        assertEquals(List.of(List.of("call0", "call1", "call2"), List.of("call3", "call4", "call5"), List.of("call6")),
+                batches);
+        assertEquals(7, service.getWrittenCount());
+    }
+
+    @Test
+    public void spillsRecordsThatDoNotFitInTheBufferToTheJournal() throws Exception {
+        // Nothing drains the sink before start(), so the ninth and tenth record overflow it
+        for (int i = 0; i < 10; i++) {
+            log("call" + i);
+        }
+        await(() -> service.getSpilledCount() == 2);
+        assertEquals(List.of("call8", "call9"), journaled());
+
+        service.start();
+        service.stop();
+        assertEquals(8, service.getWrittenCount());
+        assertEquals(0, service.getDroppedCount());
+    }
+
+    @Test
+    public void spillsBatchesTheDatabaseRejects() throws Exception {
+        failInserts = true;
+        service.start();
+        for (int i = 0; i < 3; i++) {
+            log("call" + i);
+        }
+        await(() -> service.getSpilledCount() == 3);
+
+        failInserts = false;
+        log("call3");
+        service.stop();
+
+        assertEquals(List.of("call0", "call1", "call2"), journaled());
+        assertEquals(List.of(List.of("call3")), batches);
+    }
+
+    @Test
+    public void stopWritesBufferedRecordsBeforeReturning() {
+        properties.setFlushInterval(Duration.ofMinutes(1));
+        properties.setBatchSize(100);
+        service.start();
+        for (int i = 0; i < 5; i++) {
+            log("call" + i);
+        }
+        assertTrue(batches.isEmpty());
+
+        service.stop();
+
+        assertFalse(service.isRunning());
+        assertEquals(List.of(List.of("call0", "call1", "call2", "call3", "call4")), batches);
+        assertEquals(5, service.getWrittenCount());
+    }
+}
@@ -0,0 +1,107 @@
+package com.arjunai.project.reactive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the reactive profile on Netty against in-memory H2, over JDBC for the background jobs and
+ * R2DBC for the log stream, and checks that the endpoints answer like their servlet counterparts.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "api-log.journal.directory=target/reactive-test-journal",
+        // The rollup, partition and archive jobs need the MySQL-only tables of schema.sql
+        "api-log.rollup.enabled=false",
+        "api-log.partitions.enabled=false",
+        "api-log.archive.enabled=false",
+        // r2dbc-h2 reads ByteBuffer binds as blocking Blob streams, which Reactor rejects on its
+        // non-blocking threads; MySQL binds the payload ids as plain BINARY(16) values
+        "api-log.payloads.enabled=false"
+})
+@ActiveProfiles("reactive")
+public class ReactiveApiTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReactiveApiLogService reactiveApiLogService;
+
+    @BeforeEach
+    public void seedIdAllocator() {
+        // schema.sql seeds this row in production; Hibernate only creates the table
+        jdbcTemplate.update("INSERT INTO id_allocations (sequence_name, next_val) SELECT 'api_logs', 1 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM id_allocations WHERE sequence_name = 'api_logs')");
+    }
+
+    @Test
+    public void servesTheServletPathsAndPayloadsAndLogsEveryCall() throws Exception {
+        webTestClient.post().uri("/api/math/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"num1\":1,\"num2\":2}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"result\":3.0}");
+
+        webTestClient.post().uri("/api/math/divide")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"num1\":1,\"num2\":0}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Cannot divide by zero");
+
+        webTestClient.post().uri(uri -> uri.path("/api/split/custom")
+                        .queryParam("amount", "100")
+                        .queryParam("ratios", "1,1,1")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[33.34,33.33,33.33]");
+
+        webTestClient.post().uri(uri -> uri.path("/api/split/byItems").queryParam("participants", "Alice").build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{bad")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Invalid JSON format");
+
+        // Records reach api_logs on the batched side-stream, after the responses
+        List<String> methodNames = List.of();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (methodNames.size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            methodNames = jdbcTemplate.queryForList("SELECT method_name FROM api_logs ORDER BY id", String.class);
+        }
+        assertEquals(List.of("add", "divide", "splitCustom"), methodNames);
+        assertEquals(List.of(true, false, true),
+                jdbcTemplate.queryForList("SELECT successful FROM api_logs ORDER BY id", Boolean.class));
+        assertEquals("[33.34, 33.33, 33.33]", jdbcTemplate.queryForObject(
+                "SELECT response FROM api_logs WHERE method_name = 'splitCustom'", String.class));
+        assertEquals(3, reactiveApiLogService.getWrittenCount());
+        assertEquals(0, reactiveApiLogService.getSpilledCount());
+    }
+}
@@ -0,0 +1,169 @@
+package com.arjunai.project.repositories;
+
+import com.arjunai.project.models.ApiLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that ApiLog inserts reach the JDBC driver as real statement batches,
+ * which is what rewriteBatchedStatements needs to collapse them into multi-row INSERTs.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ApiLogRepositoryBatchTest {
+
+    private static final AtomicInteger addBatchCalls = new AtomicInteger();
+    private static final AtomicInteger executeBatchCalls = new AtomicInteger();
+    private static final AtomicInteger singleInsertCalls = new AtomicInteger();
+
+    @Autowired
+    private ApiLogRepository apiLogRepository;
+
+    @BeforeEach
+    void resetCounters() {
+        apiLogRepository.deleteAllInBatch();
+        addBatchCalls.set(0);
+        executeBatchCalls.set(0);
+        singleInsertCalls.set(0);
+    }
+
+    @Test
+    public void insertsAreSentAsJdbcBatches() {
+        List<ApiLog> logs = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            logs.add(newLog(i));
+        }
+
+        apiLogRepository.saveAll(logs);
+
+        assertEquals(250, apiLogRepository.count());
+        assertEquals(250, addBatchCalls.get(), "Every insert should be added to a batch");
+        assertEquals(3, executeBatchCalls.get(), "250 rows at batch_size=100 should flush as 3 batches");
+        assertEquals(0, singleInsertCalls.get(), "No insert should be executed on its own");
+    }
+
+    @Test
+    public void idsAreAllocatedInPooledBlocks() {
+        List<ApiLog> logs = new ArrayList<>();
+        for (int i = 0; i < ApiLog.ALLOCATION_SIZE * 2; i++) {
+            logs.add(newLog(i));
+        }
+
+        List<ApiLog> saved = apiLogRepository.saveAll(logs);
+
+        for (int i = 1; i < saved.size(); i++) {
+            assertEquals(saved.get(i - 1).getId() + 1, saved.get(i).getId(), "IDs within a run should be contiguous");
+        }
+    }
+
+    @Test
+    public void datasourceUrlEnablesBatchRewriting() throws Exception {
+        var properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        assertTrue(properties.getProperty("spring.datasource.url").contains("rewriteBatchedStatements=true"));
+        assertEquals("100", properties.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size"));
+    }
+
+    private static ApiLog newLog(int i) {
+        Instant now = Instant.now();
+        return ApiLog.builder()
+                .methodName("add")
+                .endpoint("/api/math/add")
+                .request("{num1=" + i + ", num2=1}")
+                .response("{result=" + (i + 1) + "}")
+                .requestTime(now)
+                .responseTime(now)
+                .executionTimeMs(0L)
+                .successful(true)
+                .build();
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                            Object result = invoke(target, method, args);
+                            return result instanceof Connection connection ? countingConnection(connection) : result;
+                        });
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        private static Connection countingConnection(Connection connection) {
+            return proxy(Connection.class, connection, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                if (result instanceof PreparedStatement statement
+                        && method.getName().equals("prepareStatement")
+                        && ((String) args[0]).toLowerCase().startsWith("insert into api_logs")) {
+                    return countingStatement(statement);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement countingStatement(PreparedStatement statement) {
+            return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+                switch (method.getName()) {
+                    case "addBatch" -> addBatchCalls.incrementAndGet();
+                    case "executeBatch" -> executeBatchCalls.incrementAndGet();
+                    case "executeUpdate", "execute" -> singleInsertCalls.incrementAndGet();
+                    default -> { }
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private interface TargetHandler<T> {
+            Object handle(T target, java.lang.reflect.Method method, Object[] args) throws Throwable;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, TargetHandler<T> handler) {
+            InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
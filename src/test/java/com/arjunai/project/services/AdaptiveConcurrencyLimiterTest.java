@@ -0,0 +1,107 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ConcurrencyLimitProperties;
+import com.arjunai.project.config.ConcurrencyLimitProperties.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private long now;
+
+    private AdaptiveConcurrencyLimiter limiter(ConcurrencyLimitProperties properties) {
+        return new AdaptiveConcurrencyLimiter(properties, () -> now);
+    }
+
+    @Test
+    public void shedsLowerPrioritiesFirst() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(10);
+        properties.getPriorities().put("/api/logs/**", Priority.LOW);
+        AdaptiveConcurrencyLimiter limiter = limiter(properties);
+        assertEquals(Priority.LOW, limiter.priorityOf("/api/logs/export"));
+        assertEquals(Priority.NORMAL, limiter.priorityOf("/api/split/equal"));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(Priority.LOW));
+        }
+        assertFalse(limiter.tryAcquire(Priority.LOW));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        }
+        assertFalse(limiter.tryAcquire(Priority.NORMAL));
+        assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+        assertFalse(limiter.tryAcquire(Priority.CRITICAL));
+        assertTrue(limiter.isDegraded());
+
+        assertEquals(1, limiter.getRejectedCount(Priority.LOW));
+        assertEquals(1, limiter.getRejectedCount(Priority.NORMAL));
+        limiter.release();
+        assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+        assertEquals(10, limiter.getInflight());
+    }
+
+    @Test
+    public void shrinksWhenWritesSlowDownAndRecovers() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(100);
+        AdaptiveConcurrencyLimiter limiter = limiter(properties);
+        for (int i = 0; i < 80; i++) {
+            limiter.tryAcquire(Priority.CRITICAL);
+        }
+
+        for (int window = 0; window < 20; window++) {
+            writes(limiter, 2);
+        }
+        int steady = limiter.getLimit();
+        assertTrue(steady > 100, "steady writes let a busy limit grow, was " + steady);
+
+        for (int window = 0; window < 20; window++) {
+            writes(limiter, 20);
+        }
+        int slow = limiter.getLimit();
+        assertTrue(slow < steady / 2, "ten times slower writes shrink the limit, was " + slow);
+        assertTrue(slow >= properties.getMinLimit());
+
+        for (int window = 0; window < 40; window++) {
+            writes(limiter, 2);
+        }
+        assertTrue(limiter.getLimit() > slow, "the limit grows again once writes recover");
+    }
+
+    @Test
+    public void staysPutWhileIdle() {
+        AdaptiveConcurrencyLimiter limiter = limiter(new ConcurrencyLimitProperties());
+        for (int window = 0; window < 20; window++) {
+            writes(limiter, 2);
+        }
+        assertEquals(100, limiter.getLimit());
+        assertFalse(limiter.isDegraded());
+    }
+
+    @Test
+    public void rejectsNothingWhenDisabled() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setEnabled(false);
+        properties.setMinLimit(1);
+        properties.setInitialLimit(1);
+        AdaptiveConcurrencyLimiter limiter = limiter(properties);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(Priority.LOW));
+        }
+        assertFalse(limiter.isDegraded());
+    }
+
+    // Ten writes of the given latency within one update interval
+    private void writes(AdaptiveConcurrencyLimiter limiter, long millis) {
+        for (int i = 0; i < 10; i++) {
+            limiter.recordWrite(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        now += INTERVAL_NANOS;
+    }
+}
@@ -0,0 +1,98 @@
+package com.arjunai.project.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiLogArchiveSegmentTest {
+
+    private static final String[] METHODS = {"add", "divide", "splitEqually", "splitBulk", "evaluate"};
+    private static final long START = 1_709_251_200_000L;
+
+    @TempDir
+    Path directory;
+
+    private record Row(long time, int method, long latency, boolean successful, double weight) {
+    }
+
+    @Test
+    public void scansWhatWasWritten() throws IOException {
+        // Enough rows for several index blocks, with runs of equal times across block boundaries
+        List<Row> rows = new ArrayList<>();
+        Random random = new Random(42);
+        long time = START;
+        for (int i = 0; i < 3 * ApiLogArchiveSegment.BLOCK_ROWS + 17; i++) {
+            time += random.nextInt(4) == 0 ? random.nextInt(50) : 0;
+            long latency = i == 5 ? 1L << 40 : random.nextInt(2000);
+            double weight = random.nextInt(10) == 0 ? 4.0 : 1.0;
+            rows.add(new Row(time, random.nextInt(METHODS.length), latency, random.nextInt(20) != 0, weight));
+        }
+        ApiLogArchiveSegment segment = write(rows);
+
+        assertEquals(rows.size(), segment.rowCount());
+        assertEquals(START, segment.minTimeMillis());
+        assertEquals(rows.get(rows.size() - 1).time(), segment.maxTimeMillis());
+        assertEquals(METHODS.length, segment.methods().length);
+        assertEquals(METHODS.length, segment.endpoints().length);
+
+        long blockBoundaryTime = rows.get(2 * ApiLogArchiveSegment.BLOCK_ROWS).time();
+        assertScan(rows, segment, Long.MIN_VALUE, Long.MAX_VALUE, null);
+        assertScan(rows, segment, blockBoundaryTime, blockBoundaryTime + 1, null);
+        assertScan(rows, segment, START + 1000, blockBoundaryTime + 500, "divide");
+        assertScan(rows, segment, time + 1, Long.MAX_VALUE, null);
+    }
+
+    @Test
+    public void packsConstantColumnsIntoNoBits() throws IOException {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(new Row(START, 0, 7, true, 1));
+        }
+        ApiLogArchiveSegment segment = write(rows);
+
+        // Header, one index entry, dictionaries and the success bits only
+        assertTrue(Files.size(directory.resolve("segment")) < 256);
+        assertScan(rows, segment, START, START + 1, "add");
+        assertEquals(-1, segment.methodId("divide"));
+    }
+
+    @Test
+    public void rejectsOutOfOrderRows() {
+        ApiLogArchiveSegment.Builder builder = new ApiLogArchiveSegment.Builder(10);
+        builder.add(START, "add", "/api/add", 1, true, 1);
+        assertThrows(IllegalArgumentException.class, () -> builder.add(START - 1, "add", "/api/add", 1, true, 1));
+    }
+
+    private ApiLogArchiveSegment write(List<Row> rows) throws IOException {
+        ApiLogArchiveSegment.Builder builder = new ApiLogArchiveSegment.Builder(rows.size());
+        for (Row row : rows) {
+            String method = METHODS[row.method()];
+            builder.add(row.time(), method, "/api/" + method, row.latency(), row.successful(), row.weight());
+        }
+        assertTrue(builder.isFull());
+        Path file = directory.resolve("segment");
+        builder.writeTo(file);
+        return ApiLogArchiveSegment.open(file);
+    }
+
+    private static void assertScan(List<Row> rows, ApiLogArchiveSegment segment, long from, long to, String method) {
+        List<Row> expected = rows.stream()
+                .filter(row -> row.time() >= from && row.time() < to)
+                .filter(row -> method == null || METHODS[row.method()].equals(method))
+                .toList();
+        List<Row> actual = new ArrayList<>();
+        String[] methods = segment.methods();
+        segment.scan(from, to, method == null ? -1 : segment.methodId(method),
+                (time, methodId, latency, successful, weight) -> actual.add(
+                        new Row(time, List.of(METHODS).indexOf(methods[methodId]), latency, successful, weight)));
+        assertEquals(expected, actual);
+    }
+}
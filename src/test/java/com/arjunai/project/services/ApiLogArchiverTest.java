@@ -0,0 +1,176 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogArchiveProperties;
+import com.arjunai.project.config.ApiLogPartitionProperties;
+import com.arjunai.project.models.ApiLogRollup;
+import com.arjunai.project.models.MethodRollupSummary;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiLogArchiverTest {
+
+    private static final LocalDate OLD_DAY = LocalDate.now(ZoneOffset.UTC).minusDays(10);
+    private static final Instant OLD_START = OLD_DAY.atStartOfDay(ZoneOffset.UTC).toInstant();
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbc;
+    private ApiLogArchiveProperties properties;
+    private ApiLogArchiver archiver;
+    private ApiLogArchiveScanner scanner;
+    private long nextId = 1;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:archive;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(h2);
+        jdbc.execute("CREATE TABLE api_logs (id BIGINT NOT NULL, method_name VARCHAR(255) NOT NULL, "
+                + "endpoint VARCHAR(255) NOT NULL, request_time TIMESTAMP NOT NULL, execution_time_ms BIGINT NOT NULL, "
+                + "successful BOOLEAN NOT NULL, sample_weight DOUBLE NOT NULL DEFAULT 1, PRIMARY KEY (id, request_time))");
+        properties = new ApiLogArchiveProperties();
+        properties.setDirectory(directory);
+        properties.setSegmentRows(1000);
+        ApiLogPartitionProperties partitionProperties = new ApiLogPartitionProperties();
+        partitionProperties.setEnabled(false);
+        archiver = new ApiLogArchiver(jdbc, new ApiLogPartitionManager(jdbc, partitionProperties), properties);
+        scanner = new ApiLogArchiveScanner(properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void movesAgedDaysIntoSegments() throws IOException {
+        for (int i = 0; i < 2500; i++) {
+            insert(i % 3 == 0 ? "divide" : "add", OLD_START.plusSeconds(i * 7L), i % 97, i % 50 != 0, i % 4 == 0 ? 2.5 : 1);
+        }
+        insert("add", OLD_START.plus(1, ChronoUnit.DAYS).plusSeconds(30), 12, true, 1);
+        insert("add", Instant.now(), 3, true, 1);
+        Instant to = Instant.now().minus(1, ChronoUnit.DAYS);
+        Map<String, Object> expected = jdbc.queryForMap("SELECT ROUND(SUM(sample_weight)) AS calls, "
+                + "ROUND(SUM(CASE WHEN successful THEN 0 ELSE sample_weight END)) AS errors, "
+                + "SUM(execution_time_ms * sample_weight) / SUM(sample_weight) AS avg_ms, "
+                + "MIN(execution_time_ms) AS min_ms, MAX(execution_time_ms) AS max_ms "
+                + "FROM api_logs WHERE method_name = 'add' AND request_time < ?", Timestamp.from(to));
+
+        archiver.archive();
+
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM api_logs", Integer.class));
+        List<Path> segments = ApiLogArchiver.segmentFiles(directory);
+        assertEquals(4, segments.size());
+        assertEquals(OLD_DAY.plusDays(1), ApiLogArchiver.dayOf(segments.get(3)));
+
+        List<MethodRollupSummary> summaries = scanner.summarizeByMethod(OLD_START, to);
+        assertEquals(2, summaries.size());
+        MethodRollupSummary add = summaries.stream().filter(s -> s.methodName().equals("add")).findFirst().orElseThrow();
+        assertEquals(((Number) expected.get("CALLS")).longValue(), add.totalCalls());
+        assertEquals(((Number) expected.get("ERRORS")).longValue(), add.failedCalls());
+        assertEquals(((Number) expected.get("AVG_MS")).doubleValue(), add.avgExecutionTimeMs(), 1e-9);
+        assertEquals(((Number) expected.get("MIN_MS")).longValue(), add.minExecutionTimeMs());
+        assertEquals(((Number) expected.get("MAX_MS")).longValue(), add.maxExecutionTimeMs());
+    }
+
+    @Test
+    public void aggregatesPerMinuteLikeRollups() {
+        insert("add", OLD_START.plusSeconds(5), 1, true, 1);
+        insert("add", OLD_START.plusSeconds(10), 40, false, 3);
+        insert("divide", OLD_START.plusSeconds(20), 9, true, 1);
+        insert("add", OLD_START.plusSeconds(65), 2000, true, 1);
+
+        archiver.archive();
+
+        List<ApiLogRollup> minutes = scanner.perMinute("add", OLD_START, OLD_START.plus(1, ChronoUnit.DAYS));
+        assertEquals(2, minutes.size());
+        ApiLogRollup first = minutes.get(0);
+        assertEquals(OLD_START, first.getMinuteStart());
+        assertEquals(4, first.getCallCount());
+        assertEquals(3, first.getErrorCount());
+        assertEquals(121, first.getSumExecutionTimeMs());
+        assertEquals(1, first.getSuccessSumExecutionTimeMs());
+        assertEquals(1, first.getLe1ms());
+        assertEquals(3, first.getLe50ms());
+        assertEquals(1, minutes.get(1).getGt1000ms());
+        assertTrue(scanner.perMinute("evaluate", OLD_START, OLD_START.plus(1, ChronoUnit.DAYS)).isEmpty());
+    }
+
+    @Test
+    public void appendsLateRowsAndDropsIncompleteSegments() throws IOException {
+        insert("add", OLD_START.plusSeconds(5), 1, true, 1);
+        archiver.archive();
+        Files.writeString(directory.resolve("api-logs-19700101-000000.seg.tmp"), "partial");
+        insert("add", OLD_START.plusSeconds(6), 2, true, 1);
+
+        archiver.archive();
+
+        List<Path> segments = ApiLogArchiver.segmentFiles(directory);
+        assertEquals(List.of("api-logs-" + OLD_DAY.toString().replace("-", "") + "-000000.seg",
+                        "api-logs-" + OLD_DAY.toString().replace("-", "") + "-000001.seg"),
+                segments.stream().map(path -> path.getFileName().toString()).toList());
+        assertFalse(Files.exists(directory.resolve("api-logs-19700101-000000.seg.tmp")));
+        assertEquals(2, scanner.summarizeByMethod(OLD_START, OLD_START.plusSeconds(60)).get(0).totalCalls());
+    }
+
+    @Test
+    public void keepsRowsWrittenWhileTheDayIsArchived() throws IOException {
+        ApiLogPartitionProperties partitionProperties = new ApiLogPartitionProperties();
+        partitionProperties.setEnabled(false);
+        // A replayed record for the day lands after the day was read and before its rows are removed
+        ApiLogPartitionManager replayInGap = new ApiLogPartitionManager(jdbc, partitionProperties) {
+            @Override
+            public boolean truncateDay(LocalDate day) {
+                insert("divide", OLD_START.plusSeconds(3), 4, true, 1);
+                return false;
+            }
+        };
+        archiver = new ApiLogArchiver(jdbc, replayInGap, properties);
+        insert("add", OLD_START.plusSeconds(5), 1, true, 1);
+        insert("add", OLD_START.plusSeconds(6), 2, true, 1);
+
+        archiver.archive();
+
+        assertEquals(List.of("divide"), jdbc.queryForList("SELECT method_name FROM api_logs", String.class));
+        assertEquals(1, ApiLogArchiver.segmentFiles(directory).size());
+        assertEquals(2, scanner.summarizeByMethod(OLD_START, OLD_START.plusSeconds(60)).get(0).totalCalls());
+    }
+
+    @Test
+    public void deletesSegmentsPastRetention() throws IOException {
+        insert("add", OLD_START.plusSeconds(5), 1, true, 1);
+        archiver.archive();
+        properties.setRetention(Duration.ofDays(5));
+
+        archiver.archive();
+
+        assertTrue(ApiLogArchiver.segmentFiles(directory).isEmpty());
+    }
+
+    private void insert(String methodName, Instant requestTime, long executionTimeMs, boolean successful,
+                        double sampleWeight) {
+        jdbc.update("INSERT INTO api_logs (id, method_name, endpoint, request_time, execution_time_ms, successful, "
+                        + "sample_weight) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                nextId++, methodName, "/api/math/" + methodName, Timestamp.from(requestTime), executionTimeMs,
+                successful, sampleWeight);
+    }
+}
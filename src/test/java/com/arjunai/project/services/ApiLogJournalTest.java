@@ -0,0 +1,125 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogJournalProperties;
+import com.arjunai.project.models.ApiLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiLogJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private ApiLogJournal newJournal(DataSize segmentSize) {
+        ApiLogJournalProperties properties = new ApiLogJournalProperties();
+        properties.setDirectory(directory);
+        properties.setSegmentSize(segmentSize);
+        return new ApiLogJournal(properties);
+    }
+
+    private static ApiLog newLog(int i, boolean successful) {
+        return ApiLog.builder()
+                .id(i % 2 == 0 ? (long) i : null)
+                .methodName("splitCustom")
+                .endpoint("/api/split/custom")
+                .request("{amount=100.0, ratios=[1, 2, 3]} #" + i)
+                .response(successful ? "[16.66, 33.33, 50.0]" : null)
+                .errorMessage(successful ? null : "At least one ratio is required")
+                .requestTime(Instant.ofEpochSecond(1_700_000_000L, 123_456_789))
+                .responseTime(Instant.ofEpochSecond(1_700_000_000L, 223_456_789))
+                .executionTimeMs(100L)
+                .successful(successful)
+                .build();
+    }
+
+    @Test
+    public void recordsSurviveSealAndRead() throws Exception {
+        ApiLogJournal journal = newJournal(DataSize.ofKilobytes(64));
+        journal.append(newLog(0, true));
+        journal.append(newLog(1, false));
+        assertTrue(journal.sealedSegments().isEmpty(), "Active segment should not be replayable yet");
+
+        journal.sealActive();
+        List<Path> segments = journal.sealedSegments();
+        assertEquals(1, segments.size());
+
+        List<ApiLog> records = journal.readSegment(segments.get(0));
+        assertEquals(List.of(newLog(0, true), newLog(1, false)), records);
+    }
+
+    @Test
+    public void rotatesWhenSegmentIsFull() throws Exception {
+        ApiLogJournal journal = newJournal(DataSize.ofBytes(512));
+        for (int i = 0; i < 20; i++) {
+            journal.append(newLog(i, true));
+        }
+        journal.sealActive();
+
+        List<Path> segments = journal.sealedSegments();
+        assertTrue(segments.size() > 1, "Small segments should rotate");
+        int total = 0;
+        for (Path segment : segments) {
+            total += journal.readSegment(segment).size();
+        }
+        assertEquals(20, total);
+    }
+
+    @Test
+    public void stopsAtCorruptRecord() throws Exception {
+        ApiLogJournal journal = newJournal(DataSize.ofKilobytes(64));
+        journal.append(newLog(0, true));
+        journal.append(newLog(1, true));
+        journal.sealActive();
+        Path segment = journal.sealedSegments().get(0);
+
+        int firstRecordBytes = Integer.BYTES * 2 + ApiLogJournal.encode(newLog(0, true)).length;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long offset = firstRecordBytes + Integer.BYTES * 2 + 10;
+            file.seek(offset);
+            int value = file.read();
+            file.seek(offset);
+            file.write(value ^ 0xFF);
+        }
+
+        assertEquals(List.of(newLog(0, true)), journal.readSegment(segment));
+    }
+
+    @Test
+    public void continuesSegmentNumberingAfterRestart() throws Exception {
+        ApiLogJournal first = newJournal(DataSize.ofKilobytes(64));
+        first.append(newLog(0, true));
+        first.close();
+
+        ApiLogJournal second = newJournal(DataSize.ofKilobytes(64));
+        second.append(newLog(1, true));
+        second.sealActive();
+
+        List<Path> segments = second.sealedSegments();
+        assertEquals(2, segments.size());
+        assertEquals(List.of(newLog(0, true)), second.readSegment(segments.get(0)));
+        assertEquals(List.of(newLog(1, true)), second.readSegment(segments.get(1)));
+    }
+
+    @Test
+    public void keepsPayloadIdsOfExternalizedRecords() throws Exception {
+        ApiLog apiLog = newLog(2, true);
+        apiLog.setRequest(null);
+        apiLog.setRequestPayload(PayloadHash.murmur3x64_128("{amount=100.0, ratios=[1, 2, 3]}".getBytes()));
+
+        ApiLogJournal journal = newJournal(DataSize.ofKilobytes(64));
+        journal.append(apiLog);
+        journal.sealActive();
+
+        List<ApiLog> records = journal.readSegment(journal.sealedSegments().get(0));
+        assertEquals(List.of(apiLog), records);
+        assertNull(records.get(0).getResponsePayload());
+    }
+}
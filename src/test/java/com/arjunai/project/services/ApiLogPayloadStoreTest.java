@@ -0,0 +1,135 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogPayloadProperties;
+import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.models.ApiLogPayload;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiLogPayloadStoreTest {
+
+    private static final String LONG_RESPONSE = "{shares=[" + "33.33, ".repeat(40) + "33.34]}";
+
+    private JdbcTemplate jdbc;
+    private ApiLogPayloadStore store;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:payloads;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(h2);
+        jdbc.execute("CREATE TABLE api_log_payloads (id BINARY(16) PRIMARY KEY, codec INT NOT NULL, "
+                + "original_length INT NOT NULL, body BLOB NOT NULL, last_referenced DATE NOT NULL)");
+        store = new ApiLogPayloadStore(jdbc, new ApiLogPayloadProperties());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void hashMatchesReferenceMurmur3() {
+        HexFormat hex = HexFormat.of();
+        assertEquals("00000000000000000000000000000000", hex.formatHex(PayloadHash.murmur3x64_128(new byte[0])));
+        assertEquals("029bbd41b3a7d8cb191dae486a901e5b", hex.formatHex(hash("hello")));
+        assertEquals("6c1b07bc7bbc4be347939ac4a93c437a",
+                hex.formatHex(hash("The quick brown fox jumps over the lazy dog")));
+    }
+
+    @Test
+    public void storesEachDistinctPayloadOnce() {
+        List<ApiLog> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(newLog("{amount=100.0, people=" + (i % 2 + 2) + "}", LONG_RESPONSE));
+        }
+        store.externalize(batch);
+
+        assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM api_log_payloads", Integer.class));
+        for (ApiLog apiLog : batch) {
+            assertNull(apiLog.getRequest());
+            assertNull(apiLog.getResponse());
+            assertEquals(LONG_RESPONSE, store.load(apiLog.getResponsePayload()));
+        }
+        assertArrayEquals(hash(LONG_RESPONSE), batch.get(0).getResponsePayload());
+        assertEquals("{amount=100.0, people=3}", store.load(batch.get(1).getRequestPayload()));
+        assertEquals(LocalDate.now(ZoneOffset.UTC), jdbc.queryForObject(
+                "SELECT MIN(last_referenced) FROM api_log_payloads", LocalDate.class));
+    }
+
+    @Test
+    public void compressesOnlyLargePayloads() {
+        ApiLog apiLog = newLog("{a=1, b=2}", LONG_RESPONSE);
+        store.externalize(apiLog);
+
+        assertEquals(ApiLogPayload.CODEC_UTF8, codec(apiLog.getRequestPayload()));
+        assertEquals(ApiLogPayload.CODEC_DEFLATE, codec(apiLog.getResponsePayload()));
+        assertTrue(jdbc.queryForObject("SELECT LENGTH(body) FROM api_log_payloads WHERE codec = 1", Integer.class)
+                < LONG_RESPONSE.length() / 4);
+    }
+
+    @Test
+    public void cachedPayloadsSkipTheDatabase() {
+        store.externalize(newLog("{a=1, b=2}", LONG_RESPONSE));
+        assertEquals(2, store.getUpsertCount());
+
+        for (int i = 0; i < 100; i++) {
+            store.externalize(newLog("{a=1, b=2}", LONG_RESPONSE));
+        }
+        assertEquals(2, store.getUpsertCount());
+        assertEquals(200, store.getCacheHitCount());
+    }
+
+    @Test
+    public void leavesRecordsUnchangedWhenStoringFails() {
+        jdbc.execute("DROP TABLE api_log_payloads");
+        ApiLog apiLog = newLog("{a=1, b=2}", "3.0");
+
+        assertThrows(DataAccessException.class, () -> store.externalize(apiLog));
+        assertEquals("{a=1, b=2}", apiLog.getRequest());
+        assertEquals("3.0", apiLog.getResponse());
+        assertNull(apiLog.getRequestPayload());
+    }
+
+    @Test
+    public void purgesPayloadsPastRetention() {
+        ApiLog apiLog = newLog("{a=1, b=2}", "3.0");
+        store.externalize(apiLog);
+        jdbc.update("UPDATE api_log_payloads SET last_referenced = ? WHERE id = ?",
+                LocalDate.now(ZoneOffset.UTC).minusDays(32), apiLog.getResponsePayload());
+
+        store.purge();
+
+        assertEquals("{a=1, b=2}", store.load(apiLog.getRequestPayload()));
+        assertNull(store.load(apiLog.getResponsePayload()));
+    }
+
+    private int codec(byte[] id) {
+        return jdbc.queryForObject("SELECT codec FROM api_log_payloads WHERE id = ?", Integer.class, (Object) id);
+    }
+
+    private static byte[] hash(String text) {
+        return PayloadHash.murmur3x64_128(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ApiLog newLog(String request, String response) {
+        ApiLog apiLog = new ApiLog();
+        apiLog.setMethodName("splitEqual");
+        apiLog.setRequest(request);
+        apiLog.setResponse(response);
+        return apiLog;
+    }
+}
@@ -0,0 +1,181 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogPayloadProperties;
+import com.arjunai.project.config.ApiLogQueryProperties;
+import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.models.ApiLogEntry;
+import com.arjunai.project.models.ApiLogFilter;
+import com.arjunai.project.models.ApiLogPage;
+import com.arjunai.project.services.ApiLogQueryService.ExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiLogQueryServiceTest {
+
+    private static final Instant BASE = Instant.parse("2024-03-01T10:00:00Z");
+    private static final ApiLogFilter ALL = new ApiLogFilter(null, null, null, null, null);
+    private static final String LONG_RESPONSE = "{shares=[" + "33.33, ".repeat(40) + "33.34]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JdbcTemplate jdbc;
+    private ApiLogQueryProperties properties;
+    private ApiLogQueryService service;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:logquery;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(h2);
+        jdbc.execute("CREATE TABLE api_logs (id BIGINT NOT NULL, method_name VARCHAR(255) NOT NULL, "
+                + "endpoint VARCHAR(255) NOT NULL, request LONGTEXT, response LONGTEXT, request_payload BINARY(16), "
+                + "response_payload BINARY(16), request_time TIMESTAMP NOT NULL, response_time TIMESTAMP NOT NULL, "
+                + "execution_time_ms BIGINT NOT NULL, error_message LONGTEXT, successful BOOLEAN NOT NULL, "
+                + "sample_weight DOUBLE NOT NULL DEFAULT 1, PRIMARY KEY (id, request_time))");
+        jdbc.execute("CREATE TABLE api_log_payloads (id BINARY(16) PRIMARY KEY, codec INT NOT NULL, "
+                + "original_length INT NOT NULL, body BLOB NOT NULL, last_referenced DATE NOT NULL)");
+        properties = new ApiLogQueryProperties();
+        service = new ApiLogQueryService(jdbc, properties, objectMapper);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void pagesThroughTiesOnRequestTime() {
+        // Pairs of rows share a request time, so the id decides the order within each pair
+        for (long id = 1; id <= 7; id++) {
+            insert(id, "add", true, BASE.plusSeconds(id / 2), "{a=1}", "2.0");
+        }
+
+        List<Long> descending = collectIds(false, 3);
+        assertEquals(List.of(7L, 6L, 5L, 4L, 3L, 2L, 1L), descending);
+        List<Long> ascending = collectIds(true, 2);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), ascending);
+    }
+
+    @Test
+    public void filtersByMethodSuccessAndTimeRange() {
+        insert(1, "add", true, BASE, "{a=1}", "2.0");
+        insert(2, "add", false, BASE.plusSeconds(1), "{a=1}", null);
+        insert(3, "divide", false, BASE.plusSeconds(2), "{a=1}", null);
+        insert(4, "add", false, BASE.plusSeconds(3), "{a=1}", null);
+
+        ApiLogPage page = service.findPage(new ApiLogFilter("add", "/api/add", false, BASE, BASE.plusSeconds(3)),
+                null, 0, false);
+
+        assertEquals(1, page.entries().size());
+        ApiLogEntry entry = page.entries().get(0);
+        assertEquals(2, entry.id());
+        assertEquals(BASE.plusSeconds(1), entry.requestTime());
+        assertFalse(entry.successful());
+        assertEquals("boom", entry.errorMessage());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void resolvesExternalizedPayloads() {
+        ApiLogPayloadStore store = new ApiLogPayloadStore(jdbc, new ApiLogPayloadProperties());
+        ApiLog apiLog = ApiLog.builder().request("{amount=100.0, people=3}").response(LONG_RESPONSE).build();
+        store.externalize(apiLog);
+        insert(1, "splitEqually", true, BASE, null, null);
+        jdbc.update("UPDATE api_logs SET request_payload = ?, response_payload = ? WHERE id = 1",
+                apiLog.getRequestPayload(), apiLog.getResponsePayload());
+
+        ApiLogEntry entry = service.findPage(ALL, null, 10, false).entries().get(0);
+
+        assertEquals("{amount=100.0, people=3}", entry.request());
+        assertEquals(LONG_RESPONSE, entry.response());
+    }
+
+    @Test
+    public void rejectsBadCursorAndLimit() {
+        assertThrows(IllegalArgumentException.class, () -> service.findPage(ALL, "not a cursor!", 10, false));
+        assertThrows(IllegalArgumentException.class, () -> service.findPage(ALL, "AAAA", 10, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findPage(ALL, null, properties.getMaxPageSize() + 1, false));
+    }
+
+    @Test
+    public void rejectsCursorOfAnotherOrderOrFilter() {
+        for (int i = 1; i <= 3; i++) {
+            insert(i, "add", true, BASE.plusSeconds(i), null, null);
+        }
+        ApiLogFilter adds = new ApiLogFilter("add", null, null, null, null);
+        String cursor = service.findPage(adds, null, 1, false).nextCursor();
+
+        assertEquals(2, service.findPage(adds, cursor, 1, false).entries().get(0).id());
+        IllegalArgumentException reversed = assertThrows(IllegalArgumentException.class,
+                () -> service.findPage(adds, cursor, 1, true));
+        assertEquals("Cursor was issued for order=desc", reversed.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> service.findPage(ALL, cursor, 1, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findPage(new ApiLogFilter("add", null, true, null, null), cursor, 1, false));
+    }
+
+    @Test
+    public void exportsNdjson() throws Exception {
+        insert(1, "add", true, BASE, "{a=1}", "2.0");
+        insert(2, "divide", false, BASE.plusSeconds(1), "{a=1, b=0}", null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, service.export(ALL, ExportFormat.NDJSON, true, out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("add", first.get("methodName").asText());
+        assertEquals(BASE.toString(), first.get("requestTime").asText());
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals("boom", second.get("errorMessage").asText());
+        assertTrue(second.get("response").isNull());
+    }
+
+    @Test
+    public void exportsCsvWithQuoting() {
+        insert(1, "add", true, BASE, "{a=1, b=\"x\"}", "2.0");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(1, service.export(new ApiLogFilter("add", null, null, null, null), ExportFormat.CSV, false, out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,method_name,endpoint,request,response,request_time,response_time,execution_time_ms,"
+                + "error_message,successful,sample_weight", lines[0]);
+        assertEquals("1,add,/api/add,\"{a=1, b=\"\"x\"\"}\",2.0," + BASE + "," + BASE.plusMillis(5) + ",5,,true,1.0",
+                lines[1]);
+    }
+
+    private List<Long> collectIds(boolean ascending, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            ApiLogPage page = service.findPage(ALL, cursor, pageSize, ascending);
+            page.entries().forEach(entry -> ids.add(entry.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private void insert(long id, String methodName, boolean successful, Instant requestTime, String request,
+                        String response) {
+        jdbc.update("INSERT INTO api_logs (id, method_name, endpoint, request, response, request_time, response_time, "
+                        + "execution_time_ms, error_message, successful) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, methodName, "/api/" + methodName, request, response, Timestamp.from(requestTime),
+                Timestamp.from(requestTime.plusMillis(5)), 5, successful ? null : "boom", successful);
+    }
+}
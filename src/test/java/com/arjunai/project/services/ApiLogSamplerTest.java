@@ -0,0 +1,135 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogSamplingProperties;
+import com.arjunai.project.config.ApiLogWriteBehindProperties;
+import com.arjunai.project.config.LatencyStatsProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiLogSamplerTest {
+
+    private final LatencyStatsService latencyStatsService = new LatencyStatsService(new LatencyStatsProperties());
+    private final ApiLogWriter writer = new ApiLogWriter(null, null, null, new ApiLogWriteBehindProperties());
+
+    private ApiLogSampler sampler(ApiLogSamplingProperties properties) {
+        properties.setEnabled(true);
+        return new ApiLogSampler(properties, latencyStatsService, writer);
+    }
+
+    @Test
+    public void keepsEverythingWhenDisabled() {
+        ApiLogSampler sampler = new ApiLogSampler(new ApiLogSamplingProperties(), latencyStatsService, writer);
+        assertEquals(1, sampler.weigh("add", 10, true));
+        assertEquals(0, sampler.getSampledOutCount());
+    }
+
+    @Test
+    public void weightedSampleEstimatesTheCallCount() {
+        ApiLogSamplingProperties properties = new ApiLogSamplingProperties();
+        properties.setSlowThreshold(Duration.ofMillis(100));
+        properties.setMaxRate(0.1);
+        ApiLogSampler sampler = sampler(properties);
+
+        int calls = 100_000;
+        double weightSum = 0;
+        int kept = 0;
+        for (int i = 0; i < calls; i++) {
+            double weight = sampler.weigh("add", 50, true);
+            if (weight > 0) {
+                assertEquals(10, weight, 1e-9);
+                kept++;
+                weightSum += weight;
+            }
+        }
+
+        assertEquals(calls * 0.1, kept, calls * 0.01);
+        assertEquals(calls, weightSum, calls * 0.05);
+        assertEquals(calls, sampler.getSampledInCount() + sampler.getSampledOutCount());
+    }
+
+    @Test
+    public void alwaysKeepsErrorsAndSlowCalls() {
+        ApiLogSamplingProperties properties = new ApiLogSamplingProperties();
+        properties.setSlowThreshold(Duration.ofMillis(100));
+        properties.setMinRate(0.01);
+        properties.setMaxRate(0.01);
+        ApiLogSampler sampler = sampler(properties);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(1, sampler.weigh("divide", 50, false));
+            assertEquals(1, sampler.weigh("divide", 100_000, true));
+        }
+        assertEquals(0, sampler.getSampledInCount() + sampler.getSampledOutCount());
+    }
+
+    @Test
+    public void slowThresholdFollowsTheEndpointPercentile() {
+        ApiLogSamplingProperties properties = new ApiLogSamplingProperties();
+        properties.setSlowPercentile(0.9);
+        properties.setMinRate(0.01);
+        properties.setMaxRate(0.01);
+        ApiLogSampler sampler = sampler(properties);
+
+        // Below min-samples every call counts as slow
+        assertEquals(1, sampler.weigh("add", 10, true));
+
+        for (int micros = 1; micros <= 1000; micros++) {
+            latencyStatsService.record("add", micros, true);
+        }
+        sampler.adjust();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, sampler.weigh("add", 950, true));
+        }
+        int sampledOut = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (sampler.weigh("add", 100, true) == 0) {
+                sampledOut++;
+            }
+        }
+        assertTrue(sampledOut > 900, "fast calls should mostly be sampled out, were " + sampledOut);
+    }
+
+    @Test
+    public void rateBacksOffUnderWriteLatencyAndRecovers() {
+        ApiLogSamplingProperties properties = new ApiLogSamplingProperties();
+        properties.setTargetWriteLatency(Duration.ofMillis(50));
+        properties.setMinRate(0.05);
+        ApiLogSampler sampler = sampler(properties);
+        assertEquals(1.0, sampler.getRate());
+
+        // Writes 4x over target: each step halves at most
+        sampler.recordWrite(Duration.ofMillis(200).toNanos());
+        sampler.adjust();
+        assertEquals(0.5, sampler.getRate(), 1e-9);
+
+        // 1.25x over target divides by the overshoot
+        sampler.recordWrite(Duration.ofMillis(62_500).toNanos() / 1000);
+        sampler.adjust();
+        assertEquals(0.4, sampler.getRate(), 1e-9);
+
+        for (int i = 0; i < 10; i++) {
+            sampler.recordWrite(Duration.ofSeconds(1).toNanos());
+            sampler.adjust();
+        }
+        assertEquals(0.05, sampler.getRate(), 1e-9);
+
+        // No writes, no pressure: a tenth of max-rate per step back up to max-rate
+        sampler.adjust();
+        assertEquals(0.15, sampler.getRate(), 1e-9);
+        for (int i = 0; i < 20; i++) {
+            sampler.adjust();
+        }
+        assertEquals(1.0, sampler.getRate(), 1e-9);
+    }
+
+    @Test
+    public void rejectsInvalidRates() {
+        ApiLogSamplingProperties properties = new ApiLogSamplingProperties();
+        properties.setMinRate(0);
+        assertThrows(IllegalArgumentException.class, () -> sampler(properties));
+    }
+}
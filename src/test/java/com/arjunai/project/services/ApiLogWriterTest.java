@@ -0,0 +1,270 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ApiLogJournalProperties;
+import com.arjunai.project.config.ApiLogPayloadProperties;
+import com.arjunai.project.config.ApiLogWriteBehindProperties;
+import com.arjunai.project.config.ApiLogWriteBehindProperties.OverflowPolicy;
+import com.arjunai.project.models.ApiLog;
+import com.arjunai.project.repositories.ApiLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiLogWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<String> saved = new CopyOnWriteArrayList<>();
+    private final List<String> savedOnThread = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstSaveEntered = new CountDownLatch(1);
+    private final CountDownLatch releaseSaves = new CountDownLatch(1);
+    private volatile boolean failSaves;
+    private volatile RuntimeException failNextSave;
+
+    private ApiLogWriteBehindProperties properties;
+    private ApiLogJournal journal;
+    private ApiLogWriter writer;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new ApiLogWriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setBatchSize(1);
+        properties.setQueueCapacity(2);
+        properties.setFlushInterval(Duration.ofMillis(20));
+        properties.setShutdownTimeout(Duration.ofSeconds(5));
+        ApiLogJournalProperties journalProperties = new ApiLogJournalProperties();
+        journalProperties.setDirectory(directory);
+        journal = new ApiLogJournal(journalProperties);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        releaseSaves.countDown();
+        if (writer != null) {
+            writer.stop();
+        }
+        journal.close();
+    }
+
+    /**
+     * Records the method names it saves; while {@link #releaseSaves} is closed, the writer's own
+     * thread blocks in saveAll, so the test controls when the queue fills up.
+     */
+    private ApiLogRepository stubRepository() {
+        return (ApiLogRepository) Proxy.newProxyInstance(ApiLogRepository.class.getClassLoader(),
+                new Class<?>[]{ApiLogRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "saveAll" -> {
+                        Iterable<?> logs = (Iterable<?>) args[0];
+                        if (Thread.currentThread().getName().equals("api-log-writer")) {
+                            firstSaveEntered.countDown();
+                            releaseSaves.await();
+                        }
+                        if (failSaves) {
+                            throw new DataAccessResourceFailureException("Connection refused");
+                        }
+                        RuntimeException failure = failNextSave;
+                        if (failure != null) {
+                            failNextSave = null;
+                            throw failure;
+                        }
+                        for (Object apiLog : logs) {
+                            saved.add(((ApiLog) apiLog).getMethodName());
+                            savedOnThread.add(Thread.currentThread().getName());
+                        }
+                        yield logs;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubApiLogRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private ApiLogWriter startWriter(OverflowPolicy policy) {
+        properties.setOverflowPolicy(policy);
+        ApiLogPayloadProperties payloadProperties = new ApiLogPayloadProperties();
+        payloadProperties.setEnabled(false);
+        writer = new ApiLogWriter(stubRepository(), journal, new ApiLogPayloadStore(null, payloadProperties), properties);
+        writer.start();
+        return writer;
+    }
+
+    private static ApiLog newLog(String methodName) {
+        Instant now = Instant.now();
+        return ApiLog.builder()
+                .methodName(methodName)
+                .endpoint("/api/math/" + methodName)
+                .request("{num1=1.0, num2=2.0}")
+                .response("{result=3.0}")
+                .requestTime(now)
+                .responseTime(now)
+                .executionTimeMs(1L)
+                .successful(true)
+                .build();
+    }
+
+    /**
+     * Submits r1, which the writer thread takes and blocks on, then r2 and r3, which fill the queue.
+     */
+    private void fillQueue() throws InterruptedException {
+        writer.submit(newLog("r1"));
+        assertTrue(firstSaveEntered.await(5, TimeUnit.SECONDS));
+        writer.submit(newLog("r2"));
+        writer.submit(newLog("r3"));
+        assertEquals(2, writer.getQueueSize());
+    }
+
+    @Test
+    public void dropNewestDiscardsTheOverflowingRecord() throws Exception {
+        startWriter(OverflowPolicy.DROP_NEWEST);
+        fillQueue();
+
+        writer.submit(newLog("r4"));
+        assertEquals(1, writer.getDroppedCount());
+
+        releaseSaves.countDown();
+        writer.stop();
+        assertEquals(List.of("r1", "r2", "r3"), saved);
+    }
+
+    @Test
+    public void dropOldestEvictsTheHeadOfTheQueue() throws Exception {
+        startWriter(OverflowPolicy.DROP_OLDEST);
+        fillQueue();
+
+        writer.submit(newLog("r4"));
+        assertEquals(1, writer.getDroppedCount());
+
+        releaseSaves.countDown();
+        writer.stop();
+        assertEquals(List.of("r1", "r3", "r4"), saved);
+    }
+
+    @Test
+    public void blockWaitsForSpaceUpToTheOfferTimeout() throws Exception {
+        properties.setOfferTimeout(Duration.ofMillis(100));
+        startWriter(OverflowPolicy.BLOCK);
+        fillQueue();
+
+        long start = System.nanoTime();
+        writer.submit(newLog("timedOut"));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1, writer.getDroppedCount());
+
+        properties.setOfferTimeout(Duration.ofSeconds(10));
+        Thread blocked = new Thread(() -> writer.submit(newLog("r4")));
+        blocked.start();
+        blocked.join(200);
+        assertTrue(blocked.isAlive(), "submit should wait while the queue is full");
+        releaseSaves.countDown();
+        blocked.join(5000);
+        assertFalse(blocked.isAlive());
+
+        writer.stop();
+        assertEquals(List.of("r1", "r2", "r3", "r4"), saved);
+        assertEquals(1, writer.getDroppedCount());
+    }
+
+    @Test
+    public void callerRunsWritesOnTheRequestThread() throws Exception {
+        startWriter(OverflowPolicy.CALLER_RUNS);
+        fillQueue();
+
+        writer.submit(newLog("r4"));
+        assertEquals(List.of("r4"), saved);
+        assertEquals(Thread.currentThread().getName(), savedOnThread.get(0));
+
+        releaseSaves.countDown();
+        writer.stop();
+        assertEquals(List.of("r4", "r1", "r2", "r3"), saved);
+        assertEquals(0, writer.getDroppedCount());
+    }
+
+    @Test
+    public void stopFlushesQueuedRecordsWithinTheShutdownTimeout() {
+        properties.setBatchSize(10);
+        properties.setQueueCapacity(100);
+        properties.setFlushInterval(Duration.ofSeconds(1));
+        releaseSaves.countDown();
+        startWriter(OverflowPolicy.DROP_NEWEST);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            expected.add("call" + i);
+            writer.submit(newLog("call" + i));
+        }
+
+        long start = System.nanoTime();
+        writer.stop();
+
+        assertTrue(System.nanoTime() - start < properties.getShutdownTimeout().toNanos());
+        assertFalse(writer.isRunning());
+        assertEquals(expected, saved);
+        assertEquals(25, writer.getWrittenCount());
+        assertEquals(0, writer.getQueueSize());
+    }
+
+    @Test
+    public void failedBatchSpillsToTheJournal() throws Exception {
+        properties.setBatchSize(10);
+        properties.setQueueCapacity(100);
+        failSaves = true;
+        releaseSaves.countDown();
+        startWriter(OverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 3; i++) {
+            writer.submit(newLog("call" + i));
+        }
+        writer.stop();
+
+        assertTrue(saved.isEmpty());
+        assertEquals(0, writer.getWrittenCount());
+        assertEquals(0, writer.getDroppedCount());
+        journal.sealActive();
+        List<String> spilled = new ArrayList<>();
+        for (Path segment : journal.sealedSegments()) {
+            journal.readSegment(segment).forEach(apiLog -> spilled.add(apiLog.getMethodName()));
+        }
+        assertEquals(List.of("call0", "call1", "call2"), spilled);
+    }
+
+    @Test
+    public void keepsDrainingAfterAFailureOutsideDataAccess() throws Exception {
+        failNextSave = new CannotCreateTransactionException("Could not open JPA EntityManager for transaction");
+        releaseSaves.countDown();
+        startWriter(OverflowPolicy.DROP_NEWEST);
+        writer.submit(newLog("call0"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.getWriteCount() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        writer.submit(newLog("call1"));
+        writer.submit(newLog("call2"));
+        writer.stop();
+
+        assertEquals(List.of("call1", "call2"), saved);
+        assertEquals(2, writer.getWrittenCount());
+        assertEquals(0, writer.getDroppedCount());
+        journal.sealActive();
+        List<String> spilled = new ArrayList<>();
+        for (Path segment : journal.sealedSegments()) {
+            journal.readSegment(segment).forEach(apiLog -> spilled.add(apiLog.getMethodName()));
+        }
+        assertEquals(List.of("call0"), spilled);
+    }
+}
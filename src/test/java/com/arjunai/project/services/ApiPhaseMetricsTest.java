@@ -0,0 +1,51 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.services.ApiPhaseMetrics.Phase;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiPhaseMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ApiPhaseMetrics metrics = new ApiPhaseMetrics(registry);
+
+    @AfterEach
+    public void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void recordsPerMethodAndPhase() {
+        metrics.record("add", Phase.COMPUTE, 2_000);
+        metrics.record("add", Phase.COMPUTE, 4_000);
+        metrics.record("splitEqually", Phase.START_LOG, 1_000);
+
+        Timer compute = registry.get("api.phase").tags("method", "add", "phase", "compute").timer();
+        assertEquals(2, compute.count());
+        assertEquals(6, compute.totalTime(TimeUnit.MICROSECONDS), 1e-9);
+        assertEquals(1, registry.get("api.phase").tags("method", "splitEqually", "phase", "startLog").timer().count());
+        // All phases of a method are registered together, so dashboards see zeros rather than gaps
+        assertEquals(8, registry.get("api.phase").timers().size());
+    }
+
+    @Test
+    public void handlerStartIsTakenOnce() {
+        assertEquals(0, ApiPhaseMetrics.takeHandlerStartNanos());
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(ApiPhaseMetrics.HANDLER_START_ATTRIBUTE, 42L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertEquals(42, ApiPhaseMetrics.takeHandlerStartNanos());
+        assertEquals(0, ApiPhaseMetrics.takeHandlerStartNanos());
+    }
+}
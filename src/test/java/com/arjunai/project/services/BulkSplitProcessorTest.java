@@ -0,0 +1,78 @@
+package com.arjunai.project.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkSplitProcessorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final BulkSplitProcessor processor = new BulkSplitProcessor(objectMapper, executor);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private String[] run(String body, BulkSplitProcessor.Summary[] summary) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        summary[0] = processor.process(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8).split("\n");
+    }
+
+    @Test
+    public void reportsResultsAndErrorsPerLine() throws Exception {
+        String body = """
+                {"mode":"equal","amount":100,"people":4}
+                {"mode":"with-tip","amount":100,"people":4,"tipPercentage":15}
+
+                {"mode":"custom","amount":100,"ratios":[1,3]}
+                {"mode":"equal","amount":100,"people":0}
+                {not json}
+                {"mode":"unknown","amount":1}""";
+        BulkSplitProcessor.Summary[] summary = new BulkSplitProcessor.Summary[1];
+        String[] lines = run(body, summary);
+
+        assertEquals(6, lines.length);
+        assertEquals(25.0, objectMapper.readTree(lines[0]).get("result").asDouble());
+        assertEquals(28.75, objectMapper.readTree(lines[1]).get("result").asDouble(), 1e-9);
+        JsonNode custom = objectMapper.readTree(lines[2]);
+        assertEquals(4, custom.get("line").asInt());
+        assertEquals(25.0, custom.get("shares").get(0).asDouble());
+        assertEquals(75.0, custom.get("shares").get(1).asDouble());
+        assertEquals("Number of people must be greater than zero", objectMapper.readTree(lines[3]).get("error").asText());
+        assertTrue(objectMapper.readTree(lines[4]).get("error").asText().startsWith("Invalid JSON"));
+        assertTrue(objectMapper.readTree(lines[5]).has("error"));
+        assertEquals(6, summary[0].jobs());
+        assertEquals(3, summary[0].errors());
+    }
+
+    @Test
+    public void keepsInputOrderAcrossChunks() throws Exception {
+        int jobs = BulkSplitProcessor.CHUNK_SIZE * 10 + 7;
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= jobs; i++) {
+            body.append("{\"mode\":\"custom\",\"amount\":").append(i).append(",\"ratios\":[1,1]}\n");
+        }
+        BulkSplitProcessor.Summary[] summary = new BulkSplitProcessor.Summary[1];
+        String[] lines = run(body.toString(), summary);
+
+        assertEquals(jobs, lines.length);
+        for (int i = 0; i < jobs; i++) {
+            JsonNode node = objectMapper.readTree(lines[i]);
+            assertEquals(i + 1, node.get("line").asInt());
+            assertEquals((i + 1) / 2.0, node.get("shares").get(0).asDouble());
+        }
+        assertEquals(0, summary[0].errors());
+    }
+}
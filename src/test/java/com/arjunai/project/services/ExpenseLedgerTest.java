@@ -0,0 +1,161 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.config.ExpenseLedgerProperties;
+import com.arjunai.project.models.LedgerBalances;
+import com.arjunai.project.models.LedgerEntry;
+import com.arjunai.project.models.LedgerExpenseRequest;
+import com.arjunai.project.models.SettlementResponse;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpenseLedgerTest {
+
+    private static final String[] MEMBERS = {"Alice", "Bob", "Carol"};
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transactions;
+    private ExpenseLedger ledger;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:ledger;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(h2);
+        jdbc.execute("CREATE TABLE ledger_groups (group_id VARCHAR(64) PRIMARY KEY, member_count INT NOT NULL, "
+                + "expense_count BIGINT NOT NULL, snapshot_at TIMESTAMP NOT NULL)");
+        jdbc.execute("CREATE TABLE ledger_balances (group_id VARCHAR(64) NOT NULL, position INT NOT NULL, "
+                + "member VARCHAR(255) NOT NULL, balance_minor BIGINT NOT NULL, PRIMARY KEY (group_id, position))");
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(h2));
+        ledger = newLedger();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    private ExpenseLedger newLedger() {
+        return new ExpenseLedger(new ExpenseLedgerProperties(), jdbc, transactions);
+    }
+
+    private static LedgerExpenseRequest expense(String payer, String mode, double amount, String... participants) {
+        return new LedgerExpenseRequest(payer, mode, amount, participants, 0, null, null);
+    }
+
+    @Test
+    public void booksExpensesWithEverySplitMode() {
+        ledger.join("trip", MEMBERS);
+        LedgerEntry dinner = ledger.addExpense("trip", expense("Alice", "equal", 100));
+        assertArrayEquals(new double[]{33.34, 33.33, 33.33}, dinner.shares());
+        ledger.addExpense("trip", new LedgerExpenseRequest("Bob", "with-tip", 40, new String[]{"Bob", "Carol"}, 15, null, null));
+        ledger.addExpense("trip", new LedgerExpenseRequest("Carol", "custom", 30, new String[]{"Alice", "Carol"}, 0,
+                new double[]{2, 1}, null));
+        ledger.addExpense("trip", new LedgerExpenseRequest("Alice", "by-items", 0, null, 0, null,
+                Map.of("bread", 3.0, "wine", 12.0)));
+
+        // Alice: +100 - 33.34 - 20 + 15 - 5 = 56.66
+        assertEquals(5666, ledger.balance("trip", "Alice"));
+        LedgerBalances balances = ledger.balances("trip");
+        assertArrayEquals(new double[]{56.66, -15.33, -41.33}, balances.balances());
+        assertEquals(4, balances.expenses());
+
+        SettlementResponse settlement = ledger.settlement("trip");
+        assertEquals(56.66, settlement.total());
+        assertArrayEquals(new int[]{0, 0}, settlement.to());
+    }
+
+    @Test
+    public void concurrentWritersKeepBalancesExact() throws Exception {
+        ledger.join("office", MEMBERS);
+        int writers = 4;
+        int expensesPerWriter = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            Future<Integer> reader = executor.submit(() -> {
+                int cuts = 0;
+                while (writing.get()) {
+                    LedgerBalances balances = ledger.balances("office");
+                    assertEquals(0, Math.round(Arrays.stream(balances.balances()).sum() * 100), "a cut never sees half an expense");
+                    cuts++;
+                }
+                return cuts;
+            });
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                String payer = MEMBERS[w % MEMBERS.length];
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < expensesPerWriter; i++) {
+                        ledger.addExpense("office", expense(payer, "equal", 3));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            writing.set(false);
+            assertTrue(reader.get() > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Alice paid for two writers, Bob and Carol for one each, and everyone owes 1.00 per expense
+        long expenses = (long) writers * expensesPerWriter;
+        assertEquals(2 * expensesPerWriter * 300 - expenses * 100, ledger.balance("office", "Alice"));
+        assertEquals(expensesPerWriter * 300 - expenses * 100, ledger.balance("office", "Carol"));
+        assertEquals(expenses, ledger.balances("office").expenses());
+    }
+
+    @Test
+    public void snapshotsChangedGroupsAndReloadsThem() {
+        ledger.join("flat", MEMBERS);
+        ledger.addExpense("flat", expense("Alice", "equal", 90));
+        ledger.snapshot();
+        assertEquals(1, ledger.getSnapshotCount());
+        ledger.snapshot();
+        assertEquals(1, ledger.getSnapshotCount(), "an unchanged group is not written again");
+
+        ledger.join("flat", new String[]{"Dave"});
+        ledger.addExpense("flat", expense("Dave", "equal", 20, "Dave", "Bob"));
+        ledger.stop();
+        assertEquals(2, ledger.getSnapshotCount());
+        assertEquals(4, jdbc.queryForObject("SELECT COUNT(*) FROM ledger_balances", Integer.class));
+
+        ExpenseLedger restarted = newLedger();
+        LedgerBalances balances = restarted.balances("flat");
+        assertArrayEquals(new String[]{"Alice", "Bob", "Carol", "Dave"}, balances.members());
+        assertArrayEquals(new double[]{60, -40, -30, 10}, balances.balances());
+        assertEquals(2, balances.expenses());
+        restarted.addExpense("flat", expense("Bob", "equal", 40, "Alice", "Bob"));
+        assertEquals(-2000, restarted.balance("flat", "Bob"));
+    }
+
+    @Test
+    public void rejectsUnknownGroupsMembersAndModes() {
+        ledger.join("trip", MEMBERS);
+        assertThrows(IllegalArgumentException.class, () -> ledger.balances("missing"));
+        assertThrows(IllegalArgumentException.class, () -> ledger.addExpense("trip", expense("Eve", "equal", 10)));
+        assertThrows(IllegalArgumentException.class, () -> ledger.addExpense("trip", expense("Alice", "equal", 10, "Eve")));
+        assertThrows(IllegalArgumentException.class, () -> ledger.addExpense("trip", expense("Alice", "halves", 10)));
+        assertThrows(IllegalArgumentException.class, () -> ledger.addExpense("trip",
+                new LedgerExpenseRequest("Alice", "custom", 10, null, 0, new double[]{1}, null)));
+        assertThrows(IllegalArgumentException.class, () -> ledger.join("trip", new String[]{" "}));
+        assertEquals(0, ledger.balances("trip").expenses());
+    }
+}
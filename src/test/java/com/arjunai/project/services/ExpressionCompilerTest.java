@@ -0,0 +1,44 @@
+package com.arjunai.project.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpressionCompilerTest {
+
+    private final ExpressionCompiler compiler = new ExpressionCompiler(new CaffeineCacheManager());
+
+    @Test
+    public void evaluatesWithPrecedenceAndVariables() {
+        CompiledExpression plan = compiler.compile("a + b * 2 ^ 2 - max(a, 3) / 3");
+        assertEquals(List.of("a", "b"), plan.getVariables());
+        assertEquals(1 + 5 * 4 - 1, plan.evaluate(new double[]{1, 5}, plan.newStack()), 1e-12);
+        assertEquals(-2, compiler.compile("-x ^ 2 + 7").evaluate(new double[]{3}, new double[4]), 1e-12);
+    }
+
+    @Test
+    public void foldsConstantSubExpressions() {
+        CompiledExpression plan = compiler.compile("(2 + 3) * 4 - sqrt(x)");
+        // 20 is folded into one PUSH_CONST, leaving PUSH_CONST, PUSH_VAR, SQRT, SUB
+        assertEquals(6, plan.getProgramLength());
+        assertEquals(17, plan.evaluate(new double[]{9}, plan.newStack()), 1e-12);
+    }
+
+    @Test
+    public void reportsDivisionByZero() {
+        CompiledExpression plan = compiler.compile("a / b");
+        assertThrows(ArithmeticException.class, () -> plan.evaluate(new double[]{1, 0}, plan.newStack()));
+        assertThrows(IllegalArgumentException.class, () -> compiler.compile("1 / 0"));
+    }
+
+    @Test
+    public void rejectsInvalidSyntax() {
+        assertThrows(IllegalArgumentException.class, () -> compiler.compile("1 +"));
+        assertThrows(IllegalArgumentException.class, () -> compiler.compile("(1 + 2"));
+        assertThrows(IllegalArgumentException.class, () -> compiler.compile("foo(1)"));
+        assertThrows(IllegalArgumentException.class, () -> compiler.compile(" "));
+    }
+}
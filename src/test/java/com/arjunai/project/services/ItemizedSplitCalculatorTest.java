@@ -0,0 +1,85 @@
+package com.arjunai.project.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemizedSplitCalculatorTest {
+
+    @Test
+    public void splitsItemsAmongTheirParticipants() {
+        ItemAssignments assignments = new ItemAssignments(3, 4);
+        assignments.addItem(3000, new int[]{0}, null);                 // 30.00 steak, Alice only
+        assignments.addItem(1000, new int[]{1, 2}, null);              // 10.00 salad, Bob and Carol
+        assignments.addItem(900, new int[]{0, 1}, new double[]{2, 1}); // 9.00 wine, Alice drank twice as much
+        assignments.addSharedByAll(100);                               // 1.00 bread for everyone
+
+        ItemizedSplitCalculator.Result result = ItemizedSplitCalculator.split(assignments, 10, 15);
+
+        assertArrayEquals(new long[]{3634, 833, 533}, result.subtotals());
+        assertEquals(5000, Arrays.stream(result.subtotals()).sum());
+        assertEquals(500, Arrays.stream(result.tax()).sum());
+        assertEquals(750, Arrays.stream(result.tip()).sum());
+        assertEquals(6250, Arrays.stream(result.totals()).sum());
+    }
+
+    @Test
+    public void rotatesLeftoverCentsAcrossItems() {
+        ItemAssignments assignments = new ItemAssignments(3, 3);
+        for (int i = 0; i < 3; i++) {
+            assignments.addSharedByAll(100);
+        }
+        assertArrayEquals(new long[]{100, 100, 100}, ItemizedSplitCalculator.split(assignments, 0, 0).totals());
+    }
+
+    @Test
+    public void takesLeftoverCentsOffForDiscounts() {
+        ItemAssignments assignments = new ItemAssignments(2, 2);
+        assignments.addSharedByAll(1001);
+        assignments.addSharedByAll(-5);
+        long[] totals = ItemizedSplitCalculator.split(assignments, 0, 0).totals();
+        assertArrayEquals(new long[]{499, 497}, totals);
+        assertEquals(996, Arrays.stream(totals).sum());
+
+        Map<String, Double> evenly = ItemizedSplitCalculator.splitEvenly(Map.of("pizza", 10.0, "coupon", -0.05), new String[]{"Alice", "Bob"});
+        assertEquals(9.95, evenly.get("Alice") + evenly.get("Bob"), 1e-9);
+    }
+
+    @Test
+    public void resolvesConferenceScaleBill() {
+        int participants = 10_000;
+        int items = 100_000;
+        SplittableRandom random = new SplittableRandom(11);
+        ItemAssignments assignments = new ItemAssignments(participants, items);
+        long expected = 0;
+        for (int i = 0; i < items; i++) {
+            int[] sharedBy = new int[1 + random.nextInt(5)];
+            for (int k = 0; k < sharedBy.length; k++) {
+                sharedBy[k] = random.nextInt(participants);
+            }
+            long price = random.nextInt(10_000);
+            expected += price;
+            assignments.addItem(price, sharedBy, i % 2 == 0 ? null : random.doubles(sharedBy.length, 1, 3).toArray());
+        }
+
+        ItemizedSplitCalculator.Result result = ItemizedSplitCalculator.split(assignments, 8.25, 18);
+
+        assertEquals(expected, Arrays.stream(result.subtotals()).sum());
+        assertEquals(Math.round(expected * 8.25 / 100), Arrays.stream(result.tax()).sum());
+        assertEquals(Math.round(expected * 18.0 / 100), Arrays.stream(result.tip()).sum());
+    }
+
+    @Test
+    public void rejectsInvalidAssignments() {
+        ItemAssignments assignments = new ItemAssignments(2, 1);
+        assertThrows(IllegalArgumentException.class, () -> assignments.addItem(100, new int[]{2}, null));
+        assertThrows(IllegalArgumentException.class, () -> assignments.addItem(100, new int[]{0, 1}, new double[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> assignments.addItem(-1, null, null));
+        assertThrows(IllegalArgumentException.class, () -> ItemizedSplitCalculator.split(assignments, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ItemAssignments(0, 1));
+    }
+}
@@ -0,0 +1,89 @@
+package com.arjunai.project.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyRecorderTest {
+
+    @Test
+    public void bucketsCoverTheRangeContiguously() {
+        long expectedLower = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            assertEquals(expectedLower, LatencyHistogram.lowerBound(i), "bucket " + i);
+            assertEquals(i, LatencyHistogram.bucketIndex(expectedLower));
+            expectedLower += LatencyHistogram.width(i);
+        }
+        assertEquals(LatencyHistogram.MAX_VALUE + 1, expectedLower);
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentilesStayWithinBucketPrecision() {
+        LatencyRecorder recorder = new LatencyRecorder(4);
+        for (int micros = 1; micros <= 100_000; micros++) {
+            recorder.record(micros, true);
+        }
+        LatencyHistogram histogram = recorder.snapshot(1);
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMaxMicros());
+        double tolerance = 1.0 / LatencyHistogram.SUB_BUCKETS;
+        assertEquals(50_000, histogram.valueAt(0.50), 50_000 * tolerance);
+        assertEquals(99_000, histogram.valueAt(0.99), 99_000 * tolerance);
+        assertEquals(50_000.5, histogram.getSuccessMeanMicros(), 0.001);
+    }
+
+    @Test
+    public void windowsOnlyIncludeRecentSlots() {
+        LatencyRecorder recorder = new LatencyRecorder(3);
+        recorder.record(100, true);
+        recorder.rotate();
+        recorder.record(200, false);
+        recorder.rotate();
+        recorder.record(300, true);
+
+        assertEquals(1, recorder.snapshot(1).getCount());
+        assertEquals(2, recorder.snapshot(2).getCount());
+        assertEquals(3, recorder.snapshot(3).getCount());
+        assertEquals(1, recorder.snapshot(3).getErrors());
+
+        recorder.rotate();
+        recorder.rotate();
+        assertEquals(1, recorder.snapshot(3).getCount(), "Oldest slots should have been overwritten");
+    }
+
+    @Test
+    public void concurrentRecordingLosesNothingAcrossRotations() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    recorder.record(i % 5000, i % 10 != 0);
+                }
+            }));
+        }
+        int rotations = 0;
+        while (futures.stream().anyMatch(f -> !f.isDone())) {
+            recorder.rotate();
+            rotations++;
+            Thread.sleep(2);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(rotations < 1000, "Test needs every rotated slot to still be in the ring");
+        LatencyHistogram total = recorder.snapshot(rotations + 1);
+        assertEquals(400_000, total.getCount());
+        assertEquals(40_000, total.getErrors());
+    }
+}
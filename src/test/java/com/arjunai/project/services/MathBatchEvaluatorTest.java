@@ -0,0 +1,37 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.models.MathBatchRequest;
+import com.arjunai.project.models.MathBatchResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MathBatchEvaluatorTest {
+
+    @Test
+    public void evaluatesMixedRuns() {
+        MathBatchRequest request = new MathBatchRequest(
+                new int[]{0, 0, 1, 2, 2, 3, 3, 7},
+                new double[]{5, 1, 10, 6, 2, 15, 1, 1},
+                new double[]{3, 2, 4, 7, 0.5, 3, 0, 1});
+
+        MathBatchResponse response = MathBatchEvaluator.evaluate(request);
+
+        assertArrayEquals(new double[]{8, 3, 6, 42, 1, 5, Double.NaN, Double.NaN}, response.results());
+        assertArrayEquals(new boolean[]{false, false, false, false, false, false, true, true}, response.errors());
+        assertEquals(2, response.errorCount());
+    }
+
+    @Test
+    public void rejectsMismatchedLengths() {
+        MathBatchRequest request = new MathBatchRequest(new int[]{0, 0}, new double[]{1, 2}, new double[]{1});
+        assertThrows(IllegalArgumentException.class, () -> MathBatchEvaluator.evaluate(request));
+    }
+
+    @Test
+    public void handlesEmptyBatch() {
+        MathBatchResponse response = MathBatchEvaluator.evaluate(new MathBatchRequest(new int[0], new double[0], new double[0]));
+        assertEquals(0, response.results().length);
+        assertEquals(0, response.errorCount());
+    }
+}
@@ -0,0 +1,69 @@
+package com.arjunai.project.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyAllocatorTest {
+
+    @Test
+    public void splitsByLargestRemainder() {
+        long[] shares = new long[3];
+        MoneyAllocator.allocate(10000, new double[]{1, 1, 1}, 0, 3, shares);
+        assertArrayEquals(new long[]{3334, 3333, 3333}, shares);
+
+        MoneyAllocator.allocate(100, new double[]{1, 2, 3}, 0, 3, shares);
+        // Quotas 16.67, 33.33, 50: the extra cent goes to the largest remainder
+        assertArrayEquals(new long[]{17, 33, 50}, shares);
+
+        MoneyAllocator.allocate(-100, new double[]{1, 2, 3}, 0, 3, shares);
+        assertArrayEquals(new long[]{-17, -33, -50}, shares);
+    }
+
+    @Test
+    public void sumIsExactForLargeRatioArrays() {
+        SplittableRandom random = new SplittableRandom(7);
+        int size = 100_000;
+        double[] ratios = new double[size];
+        for (int i = 0; i < size; i++) {
+            ratios[i] = random.nextDouble() * 1000;
+        }
+        long total = MoneyAllocator.toMinorUnits(1_234_567.89);
+        long[] shares = new long[size];
+        MoneyAllocator.allocate(total, ratios, 0, size, shares);
+
+        assertEquals(total, Arrays.stream(shares).sum());
+        double totalRatio = Arrays.stream(ratios).sum();
+        for (int i = 0; i < size; i++) {
+            assertTrue(Math.abs(shares[i] - total * ratios[i] / totalRatio) < 1.0, "share " + i);
+        }
+    }
+
+    @Test
+    public void splitsEquallyWithLeftoverCentsFirst() {
+        assertArrayEquals(new long[]{3334, 3333, 3333}, MoneyAllocator.allocateEqually(10000, 3));
+        assertArrayEquals(new long[]{-3334, -3333, -3333}, MoneyAllocator.allocateEqually(-10000, 3));
+        assertEquals(11500, MoneyAllocator.addTip(10000, 15));
+        assertThrows(IllegalArgumentException.class, () -> MoneyAllocator.allocateEqually(100, 0));
+    }
+
+    @Test
+    public void convertsAmounts() {
+        assertEquals(29, MoneyAllocator.toMinorUnits(0.29));
+        assertEquals(-1999, MoneyAllocator.toMinorUnits(-19.99));
+        assertEquals(29.99, MoneyAllocator.toMajorUnits(2999));
+        assertThrows(IllegalArgumentException.class, () -> MoneyAllocator.toMinorUnits(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> MoneyAllocator.toMinorUnits(1e20));
+    }
+
+    @Test
+    public void rejectsInvalidRatios() {
+        long[] shares = new long[2];
+        assertThrows(IllegalArgumentException.class, () -> MoneyAllocator.allocate(100, new double[]{1, -1}, 0, 2, shares));
+        assertThrows(IllegalArgumentException.class, () -> MoneyAllocator.allocate(100, new double[]{0, 0}, 0, 2, shares));
+        assertThrows(IllegalArgumentException.class, () -> MoneyAllocator.allocate(100, new double[0], 0, 0, shares));
+    }
+}
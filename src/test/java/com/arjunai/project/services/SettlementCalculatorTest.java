@@ -0,0 +1,91 @@
+package com.arjunai.project.services;
+
+import com.arjunai.project.models.SettlementRequest;
+import com.arjunai.project.models.SettlementRequest.Expense;
+import com.arjunai.project.models.SettlementResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SettlementCalculatorTest {
+
+    @Test
+    public void settlesGroupExpenses() {
+        SettlementResponse response = SettlementCalculator.settle(new SettlementRequest(
+                new String[]{"Alice", "Bob", "Carol"},
+                List.of(new Expense(0, 90, null, null),                          // dinner for everyone
+                        new Expense(1, 30, new int[]{1, 2}, null),               // taxi, Bob and Carol
+                        new Expense(2, 12, new int[]{0, 2}, new double[]{2, 1})))); // wine, Alice twice as much
+
+        assertArrayEquals(new double[]{52, -15, -37}, response.balances());
+        assertArrayEquals(new int[]{2, 1}, response.from());
+        assertArrayEquals(new int[]{0, 0}, response.to());
+        assertArrayEquals(new double[]{37, 15}, response.amounts());
+        assertEquals(52, response.total());
+    }
+
+    @Test
+    public void needsAtMostOneTransferFewerThanOpenBalances() {
+        long[] balances = {500, -200, -300, 0, 1000, -1000};
+        SettlementCalculator.Transfers transfers = SettlementCalculator.transfers(balances);
+
+        // 1000 closes both sides at once, so five open balances need three transfers
+        assertEquals(3, transfers.count());
+        assertSettles(balances, transfers);
+        assertEquals(0, SettlementCalculator.transfers(new long[]{0, 0}).count());
+    }
+
+    @Test
+    public void settlesHundredThousandMembers() {
+        int members = 100_000;
+        int expenses = 200_000;
+        SplittableRandom random = new SplittableRandom(7);
+        long[] paid = new long[members];
+        ItemAssignments consumption = new ItemAssignments(members, expenses);
+        for (int e = 0; e < expenses; e++) {
+            int[] beneficiaries = new int[1 + random.nextInt(8)];
+            for (int k = 0; k < beneficiaries.length; k++) {
+                beneficiaries[k] = random.nextInt(members);
+            }
+            long amount = random.nextInt(50_000);
+            paid[random.nextInt(members)] += amount;
+            consumption.addItem(amount, beneficiaries, e % 2 == 0 ? null : random.doubles(beneficiaries.length, 1, 3).toArray());
+        }
+
+        long[] balances = SettlementCalculator.netBalances(paid, consumption);
+        assertEquals(0, Arrays.stream(balances).sum());
+        SettlementCalculator.Transfers transfers = SettlementCalculator.transfers(balances);
+
+        assertTrue(transfers.count() < Arrays.stream(balances).filter(b -> b != 0).count());
+        assertSettles(balances, transfers);
+    }
+
+    @Test
+    public void rejectsInvalidExpenses() {
+        String[] members = {"Alice", "Bob"};
+        assertThrows(IllegalArgumentException.class, () -> SettlementCalculator.settle(new SettlementRequest(members, List.of())));
+        assertThrows(IllegalArgumentException.class, () -> SettlementCalculator.settle(
+                new SettlementRequest(members, List.of(new Expense(2, 10, null, null)))));
+        assertThrows(IllegalArgumentException.class, () -> SettlementCalculator.settle(
+                new SettlementRequest(members, List.of(new Expense(0, -10, null, null)))));
+        assertThrows(IllegalArgumentException.class, () -> SettlementCalculator.settle(
+                new SettlementRequest(members, List.of(new Expense(0, 10, new int[]{5}, null)))));
+        assertThrows(IllegalArgumentException.class, () -> SettlementCalculator.transfers(new long[]{100, -99}));
+    }
+
+    private static void assertSettles(long[] balances, SettlementCalculator.Transfers transfers) {
+        long[] open = balances.clone();
+        for (int i = 0; i < transfers.count(); i++) {
+            assertTrue(transfers.amounts()[i] > 0);
+            assertTrue(balances[transfers.from()[i]] < 0 && balances[transfers.to()[i]] > 0, "debtors pay creditors");
+            open[transfers.from()[i]] += transfers.amounts()[i];
+            open[transfers.to()[i]] -= transfers.amounts()[i];
+        }
+        assertArrayEquals(new long[balances.length], open);
+    }
+}